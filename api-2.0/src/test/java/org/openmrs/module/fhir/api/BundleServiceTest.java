@@ -0,0 +1,74 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api;
+
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BundleServiceTest extends BaseModuleContextSensitiveTest {
+
+	protected static final String PAT_INITIAL_DATA_XML = "org/openmrs/api/include/PatientServiceTest-createPatient.xml";
+
+	protected static final String PAT_SEARCH_DATA_XML = "org/openmrs/api/include/PatientServiceTest-findPatients.xml";
+
+	private static final String PATIENT_UUID = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
+
+	public BundleService getService() {
+		return Context.getService(BundleService.class);
+	}
+
+	@Before
+	public void runBeforeEachTest() throws Exception {
+		executeDataSet(PAT_INITIAL_DATA_XML);
+		executeDataSet(PAT_SEARCH_DATA_XML);
+	}
+
+	@Test
+	public void processBatch_shouldReturnResponseForEachEntry() {
+		Bundle batch = new Bundle();
+		batch.setType(Bundle.BundleType.BATCH);
+		batch.addEntry().getRequest().setMethod(Bundle.HTTPVerb.GET).setUrl("Patient/" + PATIENT_UUID);
+		batch.addEntry().getRequest().setMethod(Bundle.HTTPVerb.GET).setUrl("Patient/missing-patient-uuid");
+
+		Bundle response = getService().processBatch(batch);
+
+		assertEquals(Bundle.BundleType.BATCHRESPONSE, response.getType());
+		assertEquals(2, response.getEntry().size());
+		assertEquals("200 OK", response.getEntry().get(0).getResponse().getStatus());
+		assertEquals(PATIENT_UUID, ((Patient) response.getEntry().get(0).getResource()).getId());
+		assertEquals("404", response.getEntry().get(1).getResponse().getStatus());
+		assertNotNull(response.getEntry().get(1).getResponse().getOutcome());
+	}
+
+	@Test
+	public void processTransaction_shouldProcessDeleteEntries() {
+		Bundle transaction = new Bundle();
+		transaction.setType(Bundle.BundleType.TRANSACTION);
+		transaction.addEntry().getRequest().setMethod(Bundle.HTTPVerb.DELETE).setUrl("Patient/" + PATIENT_UUID);
+
+		Bundle response = getService().processTransaction(transaction);
+
+		assertEquals(Bundle.BundleType.TRANSACTIONRESPONSE, response.getType());
+		assertEquals("204 No Content", response.getEntry().get(0).getResponse().getStatus());
+		assertTrue(Context.getPatientService().getPatientByUuid(PATIENT_UUID).isVoided());
+	}
+}
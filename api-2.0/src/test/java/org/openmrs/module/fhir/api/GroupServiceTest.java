@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
+import org.hl7.fhir.dstu3.model.Group;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Reference;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.Cohort;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.constants.ExtensionURL;
+import org.openmrs.module.fhir.api.util.FHIRGlobalPropertyCache;
+import org.openmrs.module.fhir.api.util.FHIRGroupUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class GroupServiceTest extends BaseModuleContextSensitiveTest {
+
+	private static final Integer[] MEMBER_IDS = { 7, 2, 6 };
+
+	private static final String MAX_INLINE_GP = "fhir.group.members.maxInline";
+
+	@After
+	public void clearGlobalPropertyCache() {
+		FHIRGlobalPropertyCache.clear();
+	}
+
+	public GroupService getService() {
+		return Context.getService(GroupService.class);
+	}
+
+	private Cohort saveCohort() {
+		return Context.getCohortService().saveCohort(new Cohort("members", "group members", MEMBER_IDS));
+	}
+
+	@Test
+	public void getGroup_shouldListTheMembersInIdOrder() {
+		Group group = getService().getGroup(saveCohort().getUuid());
+
+		assertEquals(3, group.getQuantity());
+		assertEquals(3, group.getMember().size());
+		Integer[] sortedIds = { 2, 6, 7 };
+		for (int i = 0; i < sortedIds.length; i++) {
+			Reference expected = FHIRPatientUtil.buildPatientReference(Context.getPatientService().getPatient(sortedIds[i]));
+			Reference member = group.getMember().get(i).getEntity();
+			assertEquals(expected.getReference(), member.getReference());
+			assertEquals(expected.getDisplay(), member.getDisplay());
+		}
+	}
+
+	@Test
+	public void getGroup_shouldMarkGroupsListingOnlyTheFirstMembers() {
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(MAX_INLINE_GP, "2"));
+		FHIRGlobalPropertyCache.clear();
+
+		Group group = getService().getGroup(saveCohort().getUuid());
+
+		assertEquals(3, group.getQuantity());
+		assertEquals(2, group.getMember().size());
+		assertEquals(1, group.getExtensionsByUrl(ExtensionURL.MEMBERS_TRUNCATED_URL).size());
+	}
+
+	@Test(expected = UnprocessableEntityException.class)
+	public void generateCohort_shouldRefuseGroupsListingOnlyTheFirstMembers() {
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(MAX_INLINE_GP, "2"));
+		FHIRGlobalPropertyCache.clear();
+
+		FHIRGroupUtil.generateCohort(getService().getGroup(saveCohort().getUuid()));
+	}
+
+	@Test
+	public void generateCohort_shouldResolveAllMembers() {
+		Cohort cohort = FHIRGroupUtil.generateCohort(getService().getGroup(saveCohort().getUuid()));
+
+		assertEquals(new HashSet<Integer>(Arrays.asList(MEMBER_IDS)), new HashSet<Integer>(cohort.getMemberIds()));
+	}
+
+	@Test
+	public void getGroupMembers_shouldPageThroughAllMembers() {
+		Cohort cohort = saveCohort();
+
+		IBundleProvider members = getService().getGroupMembers(cohort.getUuid());
+
+		assertEquals(Integer.valueOf(3), members.size());
+		List<IBaseResource> firstPage = members.getResources(0, 2);
+		List<IBaseResource> secondPage = members.getResources(2, 4);
+		assertEquals(2, firstPage.size());
+		assertEquals(1, secondPage.size());
+		assertEquals(Context.getPatientService().getPatient(2).getUuid(),
+				((Patient) firstPage.get(0)).getIdElement().getIdPart());
+		assertEquals(Context.getPatientService().getPatient(7).getUuid(),
+				((Patient) secondPage.get(0)).getIdElement().getIdPart());
+	}
+}
@@ -11,8 +11,10 @@
  */
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Address;
 import org.hl7.fhir.dstu3.model.Location;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.api.context.Context;
@@ -57,7 +59,7 @@ public class LocationServiceTest extends BaseModuleContextSensitiveTest {
 	@Test
 	public void searchLocationsById_shouldReturnBundle() {
 		String locationUuid = "f08ba64b-ea57-4a41-b33c-9dfc59b0c60a";
-		List<Location> locations = getService().searchLocationsByUuid(locationUuid);
+		List<Location> locations = getLocations(getService().searchLocationsByUuid(locationUuid));
 		assertNotNull(locations);
 		assertEquals(1, locations.size());
 		assertEquals(locations.get(0).getId(), locationUuid);
@@ -67,7 +69,7 @@ public class LocationServiceTest extends BaseModuleContextSensitiveTest {
 	public void searchLocationsByName_shouldReturnBundle() {
 		String name = "Test Parent Location";
 		String locationUuid = "f08ba64b-ea57-4a41-b33c-9dfc59b0c60a";
-		List<Location> locations = getService().searchLocationsByName(name);
+		List<Location> locations = getLocations(getService().searchLocationsByName(name));
 		assertNotNull(locations);
 		assertEquals(1, locations.size());
 		assertEquals(locations.get(0).getId(), locationUuid);
@@ -77,15 +79,21 @@ public class LocationServiceTest extends BaseModuleContextSensitiveTest {
 	public void searchLocationsByPartOfName_shouldReturnBundle() {
 		String name = "Test Par";
 		String locationUuid = "f08ba64b-ea57-4a41-b33c-9dfc59b0c60a";
-		List<Location> locations = getService().searchLocationsByName(name);
+		List<Location> locations = getLocations(getService().searchLocationsByName(name));
 		assertNotNull(locations);
 		assertEquals(1, locations.size());
 		assertEquals(locations.get(0).getId(), locationUuid);
 	}
 
+	@Test
+	public void searchLocationsByName_shouldMatchWildcardsLiterally() {
+		assertEquals(0, getLocations(getService().searchLocationsByName("%")).size());
+		assertEquals(0, getLocations(getService().searchLocationsByName("Test_Parent")).size());
+	}
+
 	@Test
 	public void searchActiveLocations_shouldReturnBundle() {
-		List<Location> locations = getService().searchLocationsByStatus(true);
+		List<Location> locations = getLocations(getService().searchLocationsByStatus(true));
 		assertNotNull(locations);
 		assertEquals(5, locations.size());
 	}
@@ -165,4 +173,12 @@ public class LocationServiceTest extends BaseModuleContextSensitiveTest {
 		fhirLocation = Context.getService(LocationService.class).createLocation(fhirLocation);
 		assertNotNull(fhirLocation);
 	}
+
+	private List<Location> getLocations(IBundleProvider results) {
+		List<Location> resources = new ArrayList<Location>();
+		for (IBaseResource resource : results.getResources(0, results.size())) {
+			resources.add((Location) resource);
+		}
+		return resources;
+	}
 }
@@ -13,6 +13,7 @@
  */
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.hl7.fhir.dstu3.model.CodeableConcept;
 import org.hl7.fhir.dstu3.model.Coding;
@@ -20,6 +21,7 @@ import org.hl7.fhir.dstu3.model.DateTimeType;
 import org.hl7.fhir.dstu3.model.InstantType;
 import org.hl7.fhir.dstu3.model.Observation;
 import org.hl7.fhir.dstu3.model.Reference;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.Concept;
@@ -30,6 +32,7 @@ import org.openmrs.Obs;
 import org.openmrs.Person;
 import org.openmrs.api.ConceptService;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
 import org.openmrs.module.fhir.api.util.FHIRObsUtil;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 
@@ -39,8 +42,10 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -100,7 +105,7 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		tokenParams.add(new TokenParam().setValue("3143-9").setSystem("LOINC"));
 		assertEquals(tokenParams.size(), 1);
 
-		List<Observation> obs = getService().searchObsByPatientAndCode(PERSON_UUID, tokenParams);
+		List<Observation> obs = getObservations(getService().searchObsByPatientAndCode(PERSON_UUID, tokenParams));
 		assertNotNull(obs);
 		assertEquals(3, obs.size());
 		assertNotNull(obs.get(0));
@@ -124,7 +129,7 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		tokenParamList.add(new TokenParam().setValue(CONCEPT_UUID));
 		assertEquals(tokenParamList.size(), 1);
 
-		List<Observation> observationList = getService().searchObsByPatientAndCode(PERSON_UUID, tokenParamList);
+		List<Observation> observationList = getObservations(getService().searchObsByPatientAndCode(PERSON_UUID, tokenParamList));
 		assertNotNull(observationList);
 		assertEquals(3, observationList.size());
 		assertNotNull(observationList.get(0));
@@ -132,6 +137,34 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		assertNotNull(observationList.get(2));
 	}
 
+	@Test
+	public void searchObsByPatientAndCode_shouldMergeTheObservationsOfAllCodes() {
+		ConceptService conceptService = Context.getConceptService();
+		Concept concept = conceptService.getConcept(1);
+		ConceptMap conceptMap = new ConceptMap();
+		conceptMap.setConcept(concept);
+		conceptMap.setConceptReferenceTerm(conceptService.getConceptReferenceTerm(558));
+		concept.addConceptMapping(conceptMap);
+		conceptService.saveConcept(concept);
+
+		List<TokenParam> tokenParams = new ArrayList<>();
+		tokenParams.add(new TokenParam().setValue("3143-9").setSystem("LOINC"));
+		tokenParams.add(new TokenParam().setValue(CONCEPT_UUID));
+		tokenParams.add(new TokenParam().setValue("unknown").setSystem("LOINC"));
+
+		Person person = Context.getPersonService().getPersonByUuid(PERSON_UUID);
+		Set<Obs> expected = new HashSet<>(Context.getObsService().getObservationsByPersonAndConcept(person, concept));
+		expected.addAll(Context.getObsService().getObservationsByPersonAndConcept(person,
+				conceptService.getConceptByUuid(CONCEPT_UUID)));
+
+		List<Observation> obs = getObservations(getService().searchObsByPatientAndCode(PERSON_UUID, tokenParams));
+		assertEquals(expected.size(), obs.size());
+		for (int i = 1; i < obs.size(); i++) {
+			assertFalse(obs.get(i).getEffectiveDateTimeType().getValue()
+					.after(obs.get(i - 1).getEffectiveDateTimeType().getValue()));
+		}
+	}
+
 	@Test
 	public void searchObsByPatientAndConcept_shouldReturnMatchingObservationList() {
 		String personUuid = "da7f524f-27ce-4bb2-86d6-6d1d05312bd5";
@@ -146,7 +179,7 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		concept.addConceptMapping(conceptMap);
 		conceptService.saveConcept(concept);
 		concepts.put(conceptCode, "http://loinc.org");
-		List<Observation> obs = getService().searchObsByPatientAndConcept(personUuid, concepts);
+		List<Observation> obs = getObservations(getService().searchObsByPatientAndConcept(personUuid, concepts));
 		assertNotNull(obs);
 		assertEquals(3, obs.size());
 	}
@@ -154,7 +187,7 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 	@Test
 	public void searchObsById_shouldReturnMatchingObservationList() {
 		String obsUuid = "be3a4d7a-f9ab-47bb-aaad-bc0b452fcda4";
-		List<Observation> fhirObservations = getService().searchObsById(obsUuid);
+		List<Observation> fhirObservations = getObservations(getService().searchObsById(obsUuid));
 		assertNotNull(fhirObservations);
 		assertEquals(fhirObservations.get(0).getId(), obsUuid);
 	}
@@ -166,7 +199,7 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		Map<String, String> codes = new HashMap<String, String>();
 		codes.put(code1, null);
 		codes.put(code2, null);
-		List<Observation> obs = getService().searchObsByCode(codes);
+		List<Observation> obs = getObservations(getService().searchObsByCode(codes));
 		assertNotNull(obs);
 		assertEquals(14, obs.size());
 	}
@@ -176,14 +209,57 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		String obsDate = "2009-01-01 00:00:00.0";
 		DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
 		Date date = df.parse(obsDate);
-		List<Observation> obs = getService().searchObsByDate(date);
+		List<Observation> obs = getObservations(getService().searchObsByDate(date));
 		assertEquals(2, obs.size());
 	}
 
+	@Test
+	public void searchObs_shouldSortTheSubjectObservationsByDate() {
+		IBundleProvider results = getService().searchObs(PERSON_UUID, null, null, null,
+				ObsSearchCriteria.DateOrder.DESCENDING);
+		List<Observation> obs = getObservations(results);
+		assertEquals(5, obs.size());
+		for (int i = 1; i < obs.size(); i++) {
+			assertFalse(obs.get(i).getEffectiveDateTimeType().getValue()
+					.after(obs.get(i - 1).getEffectiveDateTimeType().getValue()));
+		}
+	}
+
+	@Test
+	public void searchObs_shouldOnlyLoadTheRequestedPage() {
+		IBundleProvider results = getService().searchObs(PERSON_UUID, null, null, null,
+				ObsSearchCriteria.DateOrder.ASCENDING);
+		List<IBaseResource> page = results.getResources(1, 3);
+		assertEquals(Integer.valueOf(5), results.size());
+		assertEquals(2, page.size());
+		assertEquals(getObservations(results).get(1).getId(), page.get(0).getIdElement().getValue());
+	}
+
+	@Test
+	public void searchObs_shouldRestrictTheObservationsToTheDateRange() throws ParseException {
+		Person person = Context.getPersonService().getPersonByUuid(PERSON_UUID);
+		Date from = new SimpleDateFormat("yyyy-MM-dd").parse("2008-01-01");
+		int expected = 0;
+		for (Obs obs : Context.getObsService().getObservationsByPerson(person)) {
+			if (!obs.getObsDatetime().before(from)) {
+				expected++;
+			}
+		}
+		List<Observation> obs = getObservations(getService().searchObs(PERSON_UUID, null, from, null, null));
+		assertEquals(expected, obs.size());
+	}
+
+	@Test
+	public void searchObs_shouldMatchNothingForUnknownCodes() {
+		List<TokenParam> codings = new ArrayList<TokenParam>();
+		codings.add(new TokenParam(null, "unknown-concept-uuid"));
+		assertEquals(0, getObservations(getService().searchObs(PERSON_UUID, codings, null, null, null)).size());
+	}
+
 	@Test
 	public void searchObsByPerson_shouldReturnMatchingObservationList() {
 		String personUuid = "da7f524f-27ce-4bb2-86d6-6d1d05312bd5";
-		List<Observation> obs = getService().searchObsByPerson(personUuid);
+		List<Observation> obs = getObservations(getService().searchObsByPerson(personUuid));
 		assertNotNull(obs);
 		assertEquals(5, obs.size());
 	}
@@ -305,4 +381,11 @@ public class ObsServiceTest extends BaseModuleContextSensitiveTest {
 		assertEquals(Obs.Interpretation.HIGH.name(), newObs.getInterpretation().getText());
 	}
 
+	private List<Observation> getObservations(IBundleProvider results) {
+		List<Observation> resources = new ArrayList<Observation>();
+		for (IBaseResource resource : results.getResources(0, results.size())) {
+			resources.add((Observation) resource);
+		}
+		return resources;
+	}
 }
@@ -13,19 +13,28 @@
  */
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.Identifier;
 import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.Before;
 import org.junit.Test;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.util.BaseOpenMRSDataUtil;
 import org.openmrs.test.BaseModuleContextSensitiveTest;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class PatientServiceTest extends BaseModuleContextSensitiveTest {
@@ -59,10 +68,25 @@ public class PatientServiceTest extends BaseModuleContextSensitiveTest {
 
 	}
 
+	@Test
+	public void getPatient_shouldSetMetaFromAuditFields() {
+		String patientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
+		Patient fhirPatient = getService().getPatient(patientUuid);
+		Date lastUpdated = getService().getPatientLastUpdated(patientUuid);
+		assertNotNull(lastUpdated);
+		assertEquals(lastUpdated, fhirPatient.getMeta().getLastUpdated());
+		assertEquals(BaseOpenMRSDataUtil.getVersionId(lastUpdated), fhirPatient.getMeta().getVersionId());
+	}
+
+	@Test
+	public void getPatientLastUpdated_shouldReturnNullIfPatientNotFound() {
+		assertNull(getService().getPatientLastUpdated("missing-patient-uuid"));
+	}
+
 	@Test
 	public void searchPatientsById_shouldReturnBundleIfExists() {
 		String patientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
-		List<Patient> patients = getService().searchPatientsById(patientUuid);
+		List<Patient> patients = getPatients(getService().searchPatientsById(patientUuid));
 		assertNotNull(patients);
 		assertEquals(1, patients.size());
 		Patient fhirPatient = patients.get(0);
@@ -73,7 +97,7 @@ public class PatientServiceTest extends BaseModuleContextSensitiveTest {
 	public void searchPatientsByIdentifier_shouldReturnBundle() {
 		String returned_patientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
 		String identifierValue = "1234";
-		List<Patient> patients = getService().searchPatientsByIdentifier(identifierValue);
+		List<Patient> patients = getPatients(getService().searchPatientsByIdentifier(identifierValue));
 		assertNotNull(patients);
 		assertEquals(1, patients.size());
 		Patient fhirPatient = patients.get(0);
@@ -94,7 +118,7 @@ public class PatientServiceTest extends BaseModuleContextSensitiveTest {
 		String returned_patientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
 		String identifierValue = "1234";
 		String identifierTypeName = "Test Identifier Type";
-		List<Patient> patients = getService().searchPatientsByIdentifier(identifierValue, identifierTypeName);
+		List<Patient> patients = getPatients(getService().searchPatientsByIdentifier(identifierValue, identifierTypeName));
 		assertNotNull(patients);
 		assertEquals(1, patients.size());
 		Patient fhirPatient = patients.get(0);
@@ -113,37 +137,67 @@ public class PatientServiceTest extends BaseModuleContextSensitiveTest {
 	@Test
 	public void searchPatientsByName_shouldReturnBundle() {
 		String name = "Jean";
-		Bundle patients = getService().searchPatientsByName(name);
+		List<Patient> patients = getPatients(getService().searchPatientsByName(name));
 		assertNotNull(patients);
-		assertEquals(3, patients.getEntry().size());
+		assertEquals(3, patients.size());
 	}
 
 	@Test
 	public void searchPatientsByGivenName_shouldReturnBundle() {
 		String name = "Jean";
-		Bundle patients = getService().searchPatientsByGivenName(name);
+		List<Patient> patients = getPatients(getService().searchPatientsByGivenName(name));
 		assertNotNull(patients);
-		assertEquals(1, patients.getEntry().size());
+		assertEquals(1, patients.size());
 	}
 
 	@Test
 	public void searchPatientsByFamilyName_shouldReturnBundle() {
 		String name = "Doe";
-		Bundle patients = getService().searchPatientsByFamilyName(name);
+		List<Patient> patients = getPatients(getService().searchPatientsByFamilyName(name));
 		assertNotNull(patients);
-		assertEquals(3, patients.getEntry().size());
+		assertEquals(3, patients.size());
+	}
+
+	@Test
+	public void searchPatientsByName_shouldMatchWildcardsLiterally() {
+		assertEquals(0, getPatients(getService().searchPatientsByName("%")).size());
+		assertEquals(0, getPatients(getService().searchPatientsByName("_ean")).size());
+		assertEquals(0, getPatients(getService().searchPatientsByFamilyName("!")).size());
 	}
 
 	@Test
 	public void searchActivePatients_shouldReturnBundle() {
-		List<Patient> patients = getService().searchPatients(true);
+		List<Patient> patients = getPatients(getService().searchPatients(true));
 		assertNotNull(patients);
 		assertEquals(6, patients.size());
 	}
 
+	@Test
+	public void searchActivePatients_shouldReturnRequestedPage() {
+		IBundleProvider results = getService().searchPatients(true);
+		assertEquals(6, results.size().intValue());
+		assertEquals(2, results.getResources(4, 8).size());
+	}
+
+	@Test
+	public void searchActivePatients_shouldPageWithoutGapsOrDuplicates() {
+		IBundleProvider results = getService().searchPatients(true);
+		List<String> paged = new ArrayList<>();
+		for (int from = 0; from < results.size(); from += 4) {
+			for (IBaseResource resource : results.getResources(from, from + 4)) {
+				paged.add(resource.getIdElement().getIdPart());
+			}
+		}
+		List<String> all = new ArrayList<>();
+		for (Patient patient : getPatients(getService().searchPatients(true))) {
+			all.add(patient.getIdElement().getIdPart());
+		}
+		assertEquals(all, paged);
+	}
+
 	@Test
 	public void searchInActivePatients_shouldReturnBundle() {
-		List<Patient> patients = getService().searchPatients(false);
+		List<Patient> patients = getPatients(getService().searchPatients(false));
 		assertNotNull(patients);
 		assertEquals(3, patients.size());
 	}
@@ -162,6 +216,26 @@ public class PatientServiceTest extends BaseModuleContextSensitiveTest {
 		assertNotNull(patientContent);
 	}
 
+	@Test
+	public void getPatientEverything_shouldReturnOnlyRequestedTypes() {
+		String returnedPatientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
+		IBundleProvider everything = getService().getPatientEverything(returnedPatientUuid, null,
+				Collections.singleton("Patient"));
+		assertEquals(1, everything.size().intValue());
+		Patient patient = (Patient) everything.getResources(0, 1).get(0);
+		assertEquals(returnedPatientUuid, patient.getId());
+	}
+
+	@Test
+	public void getPatientEverything_shouldNotReturnDuplicateResources() {
+		String returnedPatientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
+		IBundleProvider everything = getService().getPatientEverything(returnedPatientUuid, null, null);
+		Set<String> ids = new HashSet<String>();
+		for (IBaseResource resource : everything.getResources(0, everything.size())) {
+			assertTrue(ids.add(resource.getClass().getSimpleName() + "/" + resource.getIdElement().getIdPart()));
+		}
+	}
+
 	@Test
 	public void deletePatient_ShouldRetirePatientIfExists() {
 		String patientUuid = "61b38324-e2fd-4feb-95b7-9e9a2a4400df";
@@ -172,4 +246,12 @@ public class PatientServiceTest extends BaseModuleContextSensitiveTest {
 		assertTrue(patient.isVoided());
 
 	}
+
+	private List<Patient> getPatients(IBundleProvider results) {
+		List<Patient> resources = new ArrayList<Patient>();
+		for (IBaseResource resource : results.getResources(0, results.size())) {
+			resources.add((Patient) resource);
+		}
+		return resources;
+	}
 }
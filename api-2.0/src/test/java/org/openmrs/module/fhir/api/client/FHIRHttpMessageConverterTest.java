@@ -0,0 +1,83 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.client;
+
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FHIRHttpMessageConverterTest {
+
+	private static final String FAMILY_NAME = "Ångström-Żółć 山田";
+
+	private static final MediaType FHIR_JSON = MediaType.parseMediaType("application/fhir+json");
+
+	private final FHIRHttpMessageConverter converter = new FHIRHttpMessageConverter();
+
+	@Test
+	public void write_shouldRoundTripNonAsciiCharacters() throws Exception {
+		Patient patient = new Patient();
+		patient.addName().setFamily(FAMILY_NAME);
+		MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+
+		converter.write(patient, null, outputMessage);
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(outputMessage.getBodyAsBytes());
+		inputMessage.getHeaders().setContentType(outputMessage.getHeaders().getContentType());
+		IBaseResource read = converter.read(Patient.class, inputMessage);
+
+		assertEquals(StandardCharsets.UTF_8, outputMessage.getHeaders().getContentType().getCharSet());
+		assertEquals(FAMILY_NAME, ((Patient) read).getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void read_shouldDecodeTheCharsetOfTheContentType() throws Exception {
+		Charset latin1 = StandardCharsets.ISO_8859_1;
+		String json = "{\"resourceType\":\"Patient\",\"name\":[{\"family\":\"Müller-Lüdenscheidt\"}]}";
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(json.getBytes(latin1));
+		inputMessage.getHeaders().setContentType(new MediaType("application", "fhir+json", latin1));
+
+		Patient patient = (Patient) converter.read(Patient.class, inputMessage);
+
+		assertEquals("Müller-Lüdenscheidt", patient.getNameFirstRep().getFamily());
+	}
+
+	@Test
+	public void read_shouldReadBundlesWithTheirEntries() throws Exception {
+		String json = "{\"resourceType\":\"Bundle\",\"type\":\"searchset\",\"total\":2,\"entry\":["
+				+ "{\"resource\":{\"resourceType\":\"Patient\",\"id\":\"p1\",\"name\":[{\"family\":\"" + FAMILY_NAME
+				+ "\"}]}},"
+				+ "{\"resource\":{\"resourceType\":\"Observation\",\"id\":\"o1\",\"status\":\"final\"}}]}";
+		MockHttpInputMessage inputMessage = new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+		inputMessage.getHeaders().setContentType(FHIR_JSON);
+
+		Bundle bundle = (Bundle) converter.read(Bundle.class, inputMessage);
+
+		assertEquals(2, bundle.getTotal());
+		assertEquals(2, bundle.getEntry().size());
+		assertTrue(bundle.getEntry().get(0).getResource() instanceof Patient);
+		assertEquals(FAMILY_NAME, ((Patient) bundle.getEntry().get(0).getResource()).getNameFirstRep().getFamily());
+		assertTrue(bundle.getEntry().get(1).getResource() instanceof Observation);
+	}
+}
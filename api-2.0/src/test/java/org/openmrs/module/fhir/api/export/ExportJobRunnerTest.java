@@ -0,0 +1,171 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.export;
+
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import org.apache.commons.io.FileUtils;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Obs;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.BulkExportService;
+import org.openmrs.module.fhir.api.db.ResultHandler;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExportJobRunnerTest extends BaseModuleContextSensitiveTest {
+
+	private File baseDirectory;
+
+	@Before
+	public void setUp() throws Exception {
+		baseDirectory = File.createTempFile("fhir-export", "");
+		baseDirectory.delete();
+	}
+
+	@After
+	public void tearDown() {
+		FileUtils.deleteQuietly(baseDirectory);
+	}
+
+	@Test
+	public void export_shouldWriteOneResourcePerLine() throws Exception {
+		ExportJob job = new ExportJob("$export", types(FHIRConstants.PATIENT, FHIRConstants.OBSERVATION), null, null,
+				baseDirectory);
+		ExportJobRunner.export(job);
+
+		assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+		List<String> patients = FileUtils.readLines(job.getOutputFile(FHIRConstants.PATIENT), StandardCharsets.UTF_8);
+		assertEquals(job.getOutputCounts().get(FHIRConstants.PATIENT).intValue(), patients.size());
+		assertTrue(patients.size() > 0);
+		for (String line : patients) {
+			FHIRContextFactory.getFHIRContext().newJsonParser().parseResource(Patient.class, line);
+		}
+		List<String> observations = FileUtils.readLines(job.getOutputFile(FHIRConstants.OBSERVATION),
+				StandardCharsets.UTF_8);
+		assertEquals(job.getOutputCounts().get(FHIRConstants.OBSERVATION).intValue(), observations.size());
+		assertTrue(observations.size() > 0);
+		FHIRContextFactory.getFHIRContext().newJsonParser().parseResource(Observation.class, observations.get(0));
+	}
+
+	@Test
+	public void export_shouldOnlyExportTheGivenPatients() throws Exception {
+		String patientUuid = Context.getPatientService().getPatient(2).getUuid();
+		ExportJob job = new ExportJob("$export", types(FHIRConstants.PATIENT), null, Arrays.asList(2), baseDirectory);
+		ExportJobRunner.export(job);
+
+		List<String> patients = FileUtils.readLines(job.getOutputFile(FHIRConstants.PATIENT), StandardCharsets.UTF_8);
+		assertEquals(1, patients.size());
+		Patient patient = FHIRContextFactory.getFHIRContext().newJsonParser().parseResource(Patient.class,
+				patients.get(0));
+		assertEquals(patientUuid, patient.getIdElement().getIdPart());
+	}
+
+	@Test
+	public void export_shouldLeaveOutResourcesChangedBeforeSince() throws Exception {
+		ExportJob job = new ExportJob("$export", types(FHIRConstants.PATIENT, FHIRConstants.ENCOUNTER),
+				new Date(System.currentTimeMillis() + 60000), null, baseDirectory);
+		ExportJobRunner.export(job);
+
+		assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+		assertEquals(0, job.getOutputCounts().get(FHIRConstants.PATIENT).intValue());
+		assertEquals(0, job.getOutputCounts().get(FHIRConstants.ENCOUNTER).intValue());
+	}
+
+	@Test
+	public void export_shouldIncludePatientsWhoseNameChangedSince() throws Exception {
+		long day = 24 * 60 * 60 * 1000L;
+		String changed = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date(System.currentTimeMillis()
+				+ 2 * day));
+		Context.getAdministrationService().executeSQL(
+				"update person_name set date_changed = '" + changed + "' where person_id = 2", false);
+		Date since = new Date(System.currentTimeMillis() + day);
+		ExportJob job = new ExportJob("$export", types(FHIRConstants.PATIENT), since, null, baseDirectory);
+		ExportJobRunner.export(job);
+
+		List<String> patients = FileUtils.readLines(job.getOutputFile(FHIRConstants.PATIENT), StandardCharsets.UTF_8);
+		assertEquals(1, patients.size());
+		Patient patient = FHIRContextFactory.getFHIRContext().newJsonParser().parseResource(Patient.class,
+				patients.get(0));
+		assertEquals(Context.getPatientService().getPatient(2).getUuid(), patient.getIdElement().getIdPart());
+	}
+
+	@Test
+	public void export_shouldExportObsVoidedSinceAsEnteredInError() throws Exception {
+		Date since = new Date(System.currentTimeMillis() - 1000);
+		Obs obs = Context.getObsService().voidObs(Context.getObsService().getObs(7), "test");
+		Context.flushSession();
+		ExportJob job = new ExportJob("$export", types(FHIRConstants.OBSERVATION), since, null, baseDirectory);
+		ExportJobRunner.export(job);
+
+		List<String> observations = FileUtils.readLines(job.getOutputFile(FHIRConstants.OBSERVATION),
+				StandardCharsets.UTF_8);
+		assertEquals(1, observations.size());
+		Observation observation = FHIRContextFactory.getFHIRContext().newJsonParser().parseResource(Observation.class,
+				observations.get(0));
+		assertEquals(obs.getUuid(), observation.getIdElement().getIdPart());
+		assertEquals(Observation.ObservationStatus.ENTEREDINERROR, observation.getStatus());
+	}
+
+	@Test
+	public void scrollForExport_shouldReadEveryObjectOnceAcrossBatches() {
+		final List<Integer> ids = new ArrayList<>();
+		int count = ContextUtil.getFHIRDAO().scrollForExport(Obs.class, null, null, null, 2, new ResultHandler<Obs>() {
+
+			@Override
+			public boolean handle(Obs obs) {
+				ids.add(obs.getObsId());
+				return true;
+			}
+		});
+
+		List<Integer> expected = new ArrayList<>();
+		for (Obs obs : Context.getObsService().getObservations(null, null, null, null, null, null, null, null, null,
+				null, null, false)) {
+			expected.add(obs.getObsId());
+		}
+		Collections.sort(expected);
+		assertTrue(expected.size() > 2);
+		assertEquals(expected.size(), count);
+		assertEquals(expected, ids);
+	}
+
+	@Test(expected = InvalidRequestException.class)
+	public void startExport_shouldRejectUnsupportedTypes() {
+		Context.getService(BulkExportService.class).startExport("$export", types("Medication"), null);
+	}
+
+	private Set<String> types(String... types) {
+		return new LinkedHashSet<String>(Arrays.asList(types));
+	}
+}
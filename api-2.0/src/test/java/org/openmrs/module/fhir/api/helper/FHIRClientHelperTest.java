@@ -7,6 +7,7 @@ import org.hl7.fhir.dstu3.model.Observation;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.hl7.fhir.dstu3.model.Person;
 import org.hl7.fhir.dstu3.model.Practitioner;
+import org.hl7.fhir.dstu3.model.Reference;
 import org.junit.Test;
 import org.openmrs.module.fhir.api.client.ClientHttpEntity;
 import org.springframework.http.HttpMethod;
@@ -14,6 +15,8 @@ import org.springframework.http.HttpMethod;
 import java.net.URI;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class FHIRClientHelperTest {
 
@@ -77,4 +80,35 @@ public class FHIRClientHelperTest {
 		assertEquals(Practitioner.class, fhirClientHelper.resolveClassByCategory("provider"));
 		assertEquals(Person.class, fhirClientHelper.resolveClassByCategory("person"));
 	}
+
+	@Test
+	public void compareResourceObjects_shouldCompareEncounterListsByContent() {
+		FHIRClientHelper fhirClientHelper = new FHIRClientHelper();
+		assertTrue(fhirClientHelper.compareResourceObjects("encounter", encounter("Location/a"), encounter("Location/a")));
+		assertFalse(fhirClientHelper.compareResourceObjects("encounter", encounter("Location/a"), encounter("Location/b")));
+	}
+
+	@Test
+	public void compareResourceObjects_shouldCompareObservationListsByContent() {
+		FHIRClientHelper fhirClientHelper = new FHIRClientHelper();
+		assertTrue(fhirClientHelper.compareResourceObjects("observation", observation("Practitioner/a"),
+				observation("Practitioner/a")));
+		assertFalse(fhirClientHelper.compareResourceObjects("observation", observation("Practitioner/a"),
+				observation("Practitioner/b")));
+	}
+
+	private Encounter encounter(String location) {
+		Encounter encounter = new Encounter();
+		encounter.setSubject(new Reference("Patient/" + TEST_PATIENT_UUID));
+		encounter.addParticipant().setIndividual(new Reference("Practitioner/a"));
+		encounter.addLocation().setLocation(new Reference(location));
+		return encounter;
+	}
+
+	private Observation observation(String performer) {
+		Observation observation = new Observation();
+		observation.setSubject(new Reference("Patient/" + TEST_PATIENT_UUID));
+		observation.addPerformer(new Reference(performer));
+		return observation;
+	}
 }
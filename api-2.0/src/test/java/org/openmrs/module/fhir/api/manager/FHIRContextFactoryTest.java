@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.manager;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.narrative.DefaultThymeleafNarrativeGenerator;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FHIRContextFactoryTest {
+
+	@Test
+	public void getFHIRContext_shouldReturnOneDstu3Context() {
+		assertSame(FHIRContextFactory.getFHIRContext(), FHIRContextFactory.getFHIRContext());
+		assertEquals(FhirVersionEnum.DSTU3, FHIRContextFactory.getFHIRContext().getVersion().getVersion());
+	}
+
+	@Test
+	public void createFHIRContext_shouldNotShareSettingsWithTheSharedContext() {
+		FhirContext fhirContext = FHIRContextFactory.createFHIRContext();
+		fhirContext.setNarrativeGenerator(new DefaultThymeleafNarrativeGenerator());
+
+		assertNotSame(FHIRContextFactory.getFHIRContext(), fhirContext);
+		assertEquals(FhirVersionEnum.DSTU3, fhirContext.getVersion().getVersion());
+		assertNull(FHIRContextFactory.getFHIRContext().getNarrativeGenerator());
+	}
+
+	@Test
+	public void borrowJsonParser_shouldReuseReleasedParsers() {
+		FHIRContextFactory.warmUp();
+		IParser first = FHIRContextFactory.borrowJsonParser();
+		IParser second = FHIRContextFactory.borrowJsonParser();
+		assertNotSame(first, second);
+		FHIRContextFactory.releaseParser(first);
+		assertSame(first, FHIRContextFactory.borrowJsonParser());
+		FHIRContextFactory.releaseParser(first);
+		FHIRContextFactory.releaseParser(second);
+	}
+
+	@Test
+	public void releaseParser_shouldReturnParsersToThePoolOfTheirEncoding() {
+		IParser xmlParser = FHIRContextFactory.borrowXmlParser();
+		assertEquals(EncodingEnum.XML, xmlParser.getEncoding());
+		FHIRContextFactory.releaseParser(xmlParser);
+		assertEquals(EncodingEnum.JSON, FHIRContextFactory.borrowJsonParser().getEncoding());
+
+		Patient patient = new Patient();
+		patient.setId("test");
+		IParser parser = FHIRContextFactory.borrowXmlParser();
+		try {
+			assertEquals("test", parser.parseResource(Patient.class, parser.encodeResourceToString(patient))
+					.getIdElement().getIdPart());
+		}
+		finally {
+			FHIRContextFactory.releaseParser(parser);
+		}
+	}
+}
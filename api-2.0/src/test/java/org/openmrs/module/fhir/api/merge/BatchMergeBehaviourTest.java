@@ -0,0 +1,67 @@
+package org.openmrs.module.fhir.api.merge;
+
+import org.junit.Test;
+import org.openmrs.Location;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.Patient;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BatchMergeBehaviourTest extends BaseModuleContextSensitiveTest {
+
+	private static final String PATIENT_UUID = "da7f524f-27ce-4bb2-86d6-6d1d05312bd5";
+
+	private static final String LOCATION_UUID = "8d6c993e-c2cc-11de-8d13-0010c6dffd0f";
+
+	private static final String NEW_PATIENT_UUID = "2a1e1ea4-c4b3-4a7b-b3b5-a6bd3f5e1a77";
+
+	/**
+	 * Saves entities missing locally and reports the others as conflicts
+	 */
+	private static class LocalOnlyMergeBehaviour extends BaseBatchMergeBehaviour<OpenmrsObject> {
+
+		@Override
+		public MergeResult<OpenmrsObject> resolveDiff(Class<? extends OpenmrsObject> clazz, OpenmrsObject local,
+				OpenmrsObject foreign) {
+			if (local == null) {
+				return new MergeSuccess<>(clazz, null, foreign, foreign, true, false);
+			}
+			return new MergeConflict<>(clazz, local, foreign);
+		}
+	}
+
+	private <T extends OpenmrsObject> T withUuid(T object, String uuid) {
+		object.setUuid(uuid);
+		return object;
+	}
+
+	@Test
+	public void resolveDiffs_shouldPairForeignEntitiesWithTheirLocalVersions() {
+		Patient existing = withUuid(new Patient(), PATIENT_UUID);
+		Location location = withUuid(new Location(), LOCATION_UUID);
+		Patient added = withUuid(new Patient(), NEW_PATIENT_UUID);
+
+		BatchMergeResult<OpenmrsObject> result = new LocalOnlyMergeBehaviour()
+				.resolveDiffs(Arrays.<OpenmrsObject>asList(existing, location, added));
+
+		assertEquals(3, result.getResults().size());
+		assertTrue(result.hasConflicts());
+		assertEquals(2, result.getConflicts().size());
+		assertEquals(1, result.getSuccesses().size());
+
+		MergeConflict<OpenmrsObject> patientConflict = result.getConflicts().get(0);
+		assertEquals(Patient.class, patientConflict.getClazz());
+		assertEquals(Integer.valueOf(2), ((Patient) patientConflict.getOrgLocal()).getPatientId());
+		assertEquals(Location.class, result.getConflicts().get(1).getClazz());
+
+		MergeSuccess<OpenmrsObject> addition = result.getSuccesses().get(0);
+		assertNull(addition.getOrgLocal());
+		assertTrue(addition.shouldUpdateLocal());
+		assertEquals(NEW_PATIENT_UUID, addition.getOrgForeign().getUuid());
+	}
+}
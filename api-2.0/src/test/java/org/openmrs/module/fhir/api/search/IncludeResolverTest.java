@@ -0,0 +1,108 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.Test;
+import org.openmrs.Obs;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IncludeResolverTest extends BaseModuleContextSensitiveTest {
+
+	@Test
+	public void resolve_shouldIncludeEachReferencedPatientOnce() {
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(7);
+		List<IBaseResource> matches = new ArrayList<IBaseResource>();
+		for (Obs obs : Context.getObsService().getObservationsByPerson(patient)) {
+			matches.add(FHIRObsUtil.generateObs(obs));
+		}
+		assertTrue(matches.size() > 1);
+
+		List<IBaseResource> included = new IncludeResolver(Collections.singletonList(IncludeResolver.OBSERVATION_SUBJECT),
+				null).resolve(matches);
+
+		assertEquals(1, included.size());
+		assertTrue(included.get(0) instanceof Patient);
+		assertEquals(patient.getUuid(), included.get(0).getIdElement().getIdPart());
+	}
+
+	@Test
+	public void resolve_shouldRevIncludeTheObservationsOfThePatients() {
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(7);
+		List<IBaseResource> matches = new ArrayList<IBaseResource>();
+		matches.add(FHIRPatientUtil.generatePatient(patient));
+
+		List<IBaseResource> included = new IncludeResolver(null,
+				Collections.singletonList(IncludeResolver.OBSERVATION_SUBJECT)).resolve(matches);
+
+		assertEquals(Context.getObsService().getObservationsByPerson(patient).size(), included.size());
+		for (IBaseResource resource : included) {
+			assertTrue(resource instanceof Observation);
+		}
+	}
+
+	@Test
+	public void resolve_shouldLeaveOutVoidedPatients() {
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(7);
+		List<IBaseResource> matches = new ArrayList<IBaseResource>();
+		for (Obs obs : Context.getObsService().getObservationsByPerson(patient)) {
+			matches.add(FHIRObsUtil.generateObs(obs));
+		}
+		Context.getPatientService().voidPatient(patient, "test");
+		Context.flushSession();
+
+		List<IBaseResource> included = new IncludeResolver(Collections.singletonList(IncludeResolver.OBSERVATION_SUBJECT),
+				null).resolve(matches);
+
+		assertTrue(included.isEmpty());
+	}
+
+	@Test
+	public void resolve_shouldLimitTheResourcesOfEachRevInclude() {
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(7);
+		List<IBaseResource> matches = new ArrayList<IBaseResource>();
+		matches.add(FHIRPatientUtil.generatePatient(patient));
+		IncludeResolver resolver = new IncludeResolver(null, Collections.singletonList(IncludeResolver.OBSERVATION_SUBJECT),
+				1);
+
+		List<IBaseResource> included = resolver.resolve(matches);
+
+		assertEquals(1, included.size());
+		assertTrue(resolver.isRevIncludeTruncated());
+	}
+
+	@Test
+	public void resolve_shouldIgnoreUnsupportedIncludes() {
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(7);
+		List<IBaseResource> matches = new ArrayList<IBaseResource>();
+		matches.add(FHIRPatientUtil.generatePatient(patient));
+
+		List<IBaseResource> included = new IncludeResolver(Collections.singletonList("Patient:organization"),
+				Collections.singletonList("Condition:subject")).resolve(matches);
+
+		assertTrue(included.isEmpty());
+	}
+}
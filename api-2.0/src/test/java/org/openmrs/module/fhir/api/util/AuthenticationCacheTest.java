@@ -0,0 +1,129 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.UserService;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.ContextAuthenticationException;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AuthenticationCacheTest extends BaseModuleContextSensitiveTest {
+
+	private static final String TTL_GP = "fhir.authentication.cache.ttlSeconds";
+
+	private static final String USERNAME = "admin";
+
+	private static final String PASSWORD = "test";
+
+	private UserContext testUserContext;
+
+	@Before
+	public void enableCache() {
+		testUserContext = Context.getUserContext();
+		setTtl("60");
+		AuthenticationCache.clear();
+	}
+
+	@After
+	public void restoreUserContext() {
+		Context.setUserContext(testUserContext);
+		AuthenticationCache.clear();
+		FHIRGlobalPropertyCache.clear();
+	}
+
+	@Test
+	public void authenticate_shouldReuseReleasedUserContextForSameCredentials() {
+		UserContext userContext = AuthenticationCache.authenticate(USERNAME, PASSWORD);
+		AuthenticationCache.release(USERNAME, userContext);
+
+		assertTrue(userContext.isAuthenticated());
+		assertNotSame(testUserContext, userContext);
+		assertSame(userContext, AuthenticationCache.authenticate(USERNAME, PASSWORD));
+		assertSame(userContext, Context.getUserContext());
+	}
+
+	@Test
+	public void authenticate_shouldNotLendUserContextToConcurrentRequests() {
+		UserContext userContext = AuthenticationCache.authenticate(USERNAME, PASSWORD);
+
+		UserContext otherUserContext = AuthenticationCache.authenticate(USERNAME, PASSWORD);
+
+		assertNotSame(userContext, otherUserContext);
+		assertTrue(otherUserContext.isAuthenticated());
+	}
+
+	@Test
+	public void authenticate_shouldRejectWrongPasswordForCachedUser() {
+		UserContext userContext = AuthenticationCache.authenticate(USERNAME, PASSWORD);
+		AuthenticationCache.release(USERNAME, userContext);
+		Context.setUserContext(testUserContext);
+
+		try {
+			AuthenticationCache.authenticate(USERNAME, "wrong password");
+			fail("the wrong password was accepted");
+		}
+		catch (ContextAuthenticationException e) {
+			// expected
+		}
+
+		assertSame(testUserContext, Context.getUserContext());
+		assertSame(userContext, AuthenticationCache.authenticate(USERNAME, PASSWORD));
+	}
+
+	@Test
+	public void authenticate_shouldAuthenticateAgainAfterEntryExpired() throws Exception {
+		setTtl("1");
+		UserContext userContext = AuthenticationCache.authenticate(USERNAME, PASSWORD);
+		AuthenticationCache.release(USERNAME, userContext);
+
+		Thread.sleep(1100);
+
+		assertNotSame(userContext, AuthenticationCache.authenticate(USERNAME, PASSWORD));
+	}
+
+	@Test
+	public void authenticate_shouldAuthenticateCurrentUserContextWhenDisabled() {
+		setTtl("0");
+
+		assertNull(AuthenticationCache.authenticate(USERNAME, PASSWORD));
+		assertSame(testUserContext, Context.getUserContext());
+	}
+
+	@Test
+	public void afterReturning_shouldEvictCachedUsersWhenUserServiceChangesPasswords() throws Exception {
+		UserContext userContext = AuthenticationCache.authenticate(USERNAME, PASSWORD);
+		AuthenticationCache.release(USERNAME, userContext);
+
+		new UserChangeAdvice().afterReturning(null, UserService.class.getMethod("changePassword", String.class,
+				String.class), new Object[] { PASSWORD, "new password" }, null);
+
+		assertNotSame(userContext, AuthenticationCache.authenticate(USERNAME, PASSWORD));
+	}
+
+	private void setTtl(String seconds) {
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(TTL_GP, seconds));
+		FHIRGlobalPropertyCache.clear();
+	}
+}
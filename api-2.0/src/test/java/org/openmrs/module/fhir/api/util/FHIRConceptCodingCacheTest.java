@@ -0,0 +1,83 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.hl7.fhir.dstu3.model.CodeableConcept;
+import org.hl7.fhir.dstu3.model.Coding;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class FHIRConceptCodingCacheTest extends BaseModuleContextSensitiveTest {
+
+	@Before
+	public void setUp() {
+		FHIRConceptCodingCache.clear();
+	}
+
+	@After
+	public void tearDown() {
+		FHIRConceptCodingCache.clear();
+	}
+
+	@Test
+	public void getCodings_shouldEndWithTheOpenmrsCoding() {
+		Concept concept = Context.getConceptService().getConcept(5089);
+		List<Coding> codings = FHIRConceptCodingCache.getCodings(concept);
+
+		Coding openmrsCoding = codings.get(codings.size() - 1);
+		assertEquals(FHIRConstants.OPENMRS_URI, openmrsCoding.getSystem());
+		assertEquals(concept.getUuid(), openmrsCoding.getCode());
+		assertEquals(1, FHIRConceptCodingCache.getSize());
+	}
+
+	@Test
+	public void getCodings_shouldReturnCopiesOfTheCachedCodings() {
+		Concept concept = Context.getConceptService().getConcept(5089);
+		List<Coding> first = FHIRConceptCodingCache.getCodings(concept);
+		first.get(0).setCode("changed");
+
+		List<Coding> second = FHIRConceptCodingCache.getCodings(concept);
+		assertNotSame(first.get(0), second.get(0));
+		assertEquals(first.size(), second.size());
+		assertEquals(concept.getUuid(), second.get(second.size() - 1).getCode());
+	}
+
+	@Test
+	public void getCodeableConcept_shouldSetTheDisplayString() {
+		Concept concept = Context.getConceptService().getConcept(5089);
+		CodeableConcept codeableConcept = FHIRConceptCodingCache.getCodeableConcept(concept);
+
+		assertEquals(concept.getDisplayString(), codeableConcept.getText());
+		assertEquals(FHIRConceptCodingCache.getCodings(concept).size(), codeableConcept.getCoding().size());
+	}
+
+	@Test
+	public void evict_shouldRemoveTheCodingsOfTheConcept() {
+		FHIRConceptCodingCache.getCodings(Context.getConceptService().getConcept(5089));
+		FHIRConceptCodingCache.getCodings(Context.getConceptService().getConcept(5497));
+
+		FHIRConceptCodingCache.evict(5089);
+
+		assertEquals(1, FHIRConceptCodingCache.getSize());
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.Concept;
+import org.openmrs.ConceptNumeric;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class FHIRConceptNumericCacheTest extends BaseModuleContextSensitiveTest {
+
+	@After
+	public void tearDown() {
+		FHIRConceptNumericCache.clear();
+	}
+
+	@Test
+	public void get_shouldLookUpEachConceptOnce() {
+		ConceptNumeric weight = Context.getConceptService().getConceptNumeric(5089);
+		FHIRConceptNumericCache.NumericMetadata first = FHIRConceptNumericCache.get(new Concept(5089));
+
+		assertEquals(weight.getUnits(), first.getUnits());
+		assertEquals(weight.getHiAbsolute(), first.getHiAbsolute());
+		assertEquals(weight.getLowAbsolute(), first.getLowAbsolute());
+		assertSame(first, FHIRConceptNumericCache.get(new Concept(5089)));
+		assertEquals(1, FHIRConceptNumericCache.getSize());
+	}
+
+	@Test
+	public void get_shouldReturnNullForConceptsWhichAreNotNumeric() {
+		assertNull(FHIRConceptNumericCache.get(new Concept(19)));
+	}
+}
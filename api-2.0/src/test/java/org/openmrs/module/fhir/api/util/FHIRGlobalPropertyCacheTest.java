@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
+import org.openmrs.module.fhir.api.strategies.patient.GenericPatientStrategy;
+import org.openmrs.module.fhir.api.strategies.patient.PatientStrategyUtil;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FHIRGlobalPropertyCacheTest extends BaseModuleContextSensitiveTest {
+
+	private static final String CODING_SYSTEM_GP = "fhir.concept.codingSystem";
+
+	private static final String PATIENT_STRATEGY_GP = "fhir.patient.strategy";
+
+	@After
+	public void clearCaches() {
+		FHIRGlobalPropertyCache.clear();
+		StrategyRegistry.clear();
+	}
+
+	@Test
+	public void getGlobalProperty_shouldReturnUpdatedValueAfterGlobalPropertyChange() {
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(CODING_SYSTEM_GP, "LOINC"));
+		assertEquals("LOINC", FHIRUtils.getConceptCodingSystem());
+
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(CODING_SYSTEM_GP, "CIEL"));
+		assertEquals("CIEL", FHIRUtils.getConceptCodingSystem());
+	}
+
+	@Test
+	public void getPatientStrategy_shouldResolveStrategyAgainAfterGlobalPropertyChange() {
+		GenericPatientStrategy strategy = PatientStrategyUtil.getPatientStrategy();
+		assertSame(strategy, PatientStrategyUtil.getPatientStrategy());
+
+		Context.getAdministrationService().saveGlobalProperty(
+				new GlobalProperty(PATIENT_STRATEGY_GP, "DefaultPatientStrategy"));
+		GenericPatientStrategy resolvedStrategy = PatientStrategyUtil.getPatientStrategy();
+		assertNotSame(strategy, resolvedStrategy);
+		assertSame(resolvedStrategy, PatientStrategyUtil.getPatientStrategy());
+	}
+}
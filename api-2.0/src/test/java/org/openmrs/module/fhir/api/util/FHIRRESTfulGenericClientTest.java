@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import ca.uhn.fhir.rest.client.api.IGenericClient;
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class FHIRRESTfulGenericClientTest extends BaseModuleContextSensitiveTest {
+
+	private static final String SERVER_BASE = "http://localhost:8080/openmrs/ws/fhir";
+
+	private static final String OTHER_SERVER_BASE = "http://example.org/fhir";
+
+	@After
+	public void clearClients() {
+		FHIRRESTfulGenericClient.clear();
+		FHIRGlobalPropertyCache.clear();
+	}
+
+	@Test
+	public void getClient_shouldReuseOneClientPerServerBase() {
+		IGenericClient client = FHIRRESTfulGenericClient.getClient(SERVER_BASE);
+
+		assertSame(client, FHIRRESTfulGenericClient.getClient(SERVER_BASE));
+		assertNotSame(client, FHIRRESTfulGenericClient.getClient(OTHER_SERVER_BASE));
+	}
+
+	@Test
+	public void getClient_shouldNotConfigureTheSharedContext() {
+		IGenericClient client = FHIRRESTfulGenericClient.getClient(SERVER_BASE);
+
+		assertNotSame(FHIRContextFactory.getFHIRContext(), client.getFhirContext());
+		assertSame(client.getFhirContext(), FHIRRESTfulGenericClient.getClient(OTHER_SERVER_BASE).getFhirContext());
+	}
+
+	@Test
+	public void globalPropertyChanged_shouldDropTheClientsWhenAClientPropertyChanges() {
+		IGenericClient client = FHIRRESTfulGenericClient.getClient(SERVER_BASE);
+		GlobalProperty socketTimeout = new GlobalProperty("fhir.client.socketTimeout", "1234");
+		Context.getAdministrationService().saveGlobalProperty(socketTimeout);
+
+		new FHIRGlobalPropertyListener().globalPropertyChanged(socketTimeout);
+		IGenericClient newClient = FHIRRESTfulGenericClient.getClient(SERVER_BASE);
+
+		assertNotSame(client, newClient);
+		assertEquals(1234, newClient.getFhirContext().getRestfulClientFactory().getSocketTimeout());
+	}
+
+	@Test
+	public void globalPropertyChanged_shouldKeepTheClientsWhenAnotherPropertyChanges() {
+		IGenericClient client = FHIRRESTfulGenericClient.getClient(SERVER_BASE);
+
+		new FHIRGlobalPropertyListener().globalPropertyChanged(new GlobalProperty("fhir.paging.defaultPageSize", "5"));
+
+		assertSame(client, FHIRRESTfulGenericClient.getClient(SERVER_BASE));
+	}
+}
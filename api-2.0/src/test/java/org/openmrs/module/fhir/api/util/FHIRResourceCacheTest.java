@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.hl7.fhir.dstu3.model.Location;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.LocationService;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class FHIRResourceCacheTest extends BaseModuleContextSensitiveTest {
+
+	private static final String CACHE_SIZE_GP = "fhir.cache.resources.maxSize";
+
+	private static final String LOCATION_UUID = "8d6c993e-c2cc-11de-8d13-0010c6dffd0f";
+
+	private static final String OTHER_LOCATION_UUID = "dc5c1fcc-0459-4201-bf70-0b90535ba362";
+
+	@Before
+	public void enableCache() {
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(CACHE_SIZE_GP, "1"));
+		FHIRResourceCache.clear();
+		FHIRResourceCache.resetStatistics();
+	}
+
+	@After
+	public void clearCaches() {
+		FHIRResourceCache.clear();
+		FHIRResourceCache.resetStatistics();
+		FHIRGlobalPropertyCache.clear();
+	}
+
+	@Test
+	public void getLocation_shouldReturnCopyOfCachedResource() {
+		Location location = getService().getLocation(LOCATION_UUID);
+		location.setName("modified by the caller");
+		Location cachedLocation = getService().getLocation(LOCATION_UUID);
+
+		assertEquals(1, FHIRResourceCache.getMissCount());
+		assertEquals(1, FHIRResourceCache.getHitCount());
+		assertNotSame(location, cachedLocation);
+		assertEquals(Context.getLocationService().getLocationByUuid(LOCATION_UUID).getName(), cachedLocation.getName());
+	}
+
+	@Test
+	public void getLocation_shouldEvictLeastRecentlyUsedResourceWhenFull() {
+		getService().getLocation(LOCATION_UUID);
+		getService().getLocation(OTHER_LOCATION_UUID);
+		getService().getLocation(LOCATION_UUID);
+
+		assertEquals(3, FHIRResourceCache.getMissCount());
+		assertEquals(2, FHIRResourceCache.getEvictionCount());
+		assertEquals(1, FHIRResourceCache.getSize());
+	}
+
+	@Test
+	public void get_shouldMissForAnotherVersionOfTheObject() {
+		Location location = getService().getLocation(LOCATION_UUID);
+		Date lastUpdated = location.getMeta().getLastUpdated();
+
+		assertNull(FHIRResourceCache.get(Location.class, LOCATION_UUID, new Date(lastUpdated.getTime() + 1000)));
+	}
+
+	@Test
+	public void generateUncached_shouldNotReadOrFillTheCache() {
+		getService().getLocation(LOCATION_UUID);
+
+		Location location = FHIRResourceCache.generateUncached(Location.class, LOCATION_UUID,
+				new FHIRResourceCache.Generator<Location>() {
+
+					@Override
+					public Location generate() {
+						return getService().getLocation(LOCATION_UUID);
+					}
+				});
+
+		assertEquals(LOCATION_UUID, location.getIdElement().getIdPart());
+		assertEquals(0, FHIRResourceCache.getHitCount());
+		assertEquals(0, FHIRResourceCache.getSize());
+	}
+
+	@Test
+	public void getLastUpdated_shouldTakeTheParentLocationIntoAccount() {
+		org.openmrs.Location parent = new org.openmrs.Location();
+		parent.setDateCreated(new Date(2000L));
+		org.openmrs.Location child = new org.openmrs.Location();
+		child.setDateCreated(new Date(1000L));
+		child.setParentLocation(parent);
+
+		assertEquals(new Date(2000L), BaseOpenMRSDataUtil.getLastUpdated(child));
+	}
+
+	private LocationService getService() {
+		return Context.getService(LocationService.class);
+	}
+}
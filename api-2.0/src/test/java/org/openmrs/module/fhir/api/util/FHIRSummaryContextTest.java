@@ -0,0 +1,71 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.After;
+import org.junit.Test;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class FHIRSummaryContextTest extends BaseModuleContextSensitiveTest {
+
+	@After
+	public void tearDown() {
+		FHIRSummaryContext.clear();
+	}
+
+	@Test
+	public void isIncluded_shouldIncludeEverythingWithoutSummaryParameters() {
+		FHIRSummaryContext.set(null, null);
+		assertTrue(FHIRSummaryContext.isComplete());
+		assertTrue(FHIRSummaryContext.isIncluded(FHIRSummaryContext.EXTENSION));
+
+		FHIRSummaryContext.set("data", null);
+		assertTrue(FHIRSummaryContext.isComplete());
+		assertTrue(FHIRSummaryContext.isIncluded(FHIRSummaryContext.REFERENCE_RANGE));
+	}
+
+	@Test
+	public void isIncluded_shouldLeaveOutNonSummaryElementsInSummaryMode() {
+		FHIRSummaryContext.set("true", null);
+		assertFalse(FHIRSummaryContext.isComplete());
+		assertFalse(FHIRSummaryContext.isIncluded(FHIRSummaryContext.EXTENSION));
+		assertFalse(FHIRSummaryContext.isIncluded(FHIRSummaryContext.REFERENCE_RANGE));
+	}
+
+	@Test
+	public void isIncluded_shouldOnlyIncludeTheRequestedElements() {
+		FHIRSummaryContext.set(null, new String[] { "status,Observation.referenceRange" });
+		assertTrue(FHIRSummaryContext.isIncluded(FHIRSummaryContext.REFERENCE_RANGE));
+		assertFalse(FHIRSummaryContext.isIncluded(FHIRSummaryContext.EXTENSION));
+	}
+
+	@Test
+	public void generatePatient_shouldNotBuildAuditExtensionsInSummaryMode() {
+		org.openmrs.Patient omrsPatient = Context.getPatientService().getPatient(2);
+		assertFalse(FHIRPatientUtil.generatePatient(omrsPatient).getExtension().isEmpty());
+
+		FHIRSummaryContext.set("true", null);
+		Patient patient = FHIRPatientUtil.generatePatient(omrsPatient);
+		assertTrue(patient.getExtension().isEmpty());
+		assertNotNull(patient.getMeta().getLastUpdated());
+		assertEquals(omrsPatient.getUuid(), patient.getIdElement().getIdPart());
+	}
+}
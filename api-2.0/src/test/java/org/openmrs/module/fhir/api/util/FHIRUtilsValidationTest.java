@@ -0,0 +1,75 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.context.Context;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+
+import static org.junit.Assert.assertEquals;
+
+public class FHIRUtilsValidationTest extends BaseModuleContextSensitiveTest {
+
+	private static final String VALIDATION_MODE_GP = "fhir.validation.mode";
+
+	@Before
+	public void resetStatistics() {
+		ValidationStatistics.reset();
+	}
+
+	@After
+	public void clearCache() {
+		FHIRGlobalPropertyCache.clear();
+	}
+
+	@Test
+	public void validate_shouldSkipAllResourcesByDefault() {
+		assertEquals(ValidationModeEnum.OFF, FHIRUtils.getValidationMode());
+		FHIRUtils.validate(new Patient());
+		FHIRUtils.validateInbound(new Patient());
+		assertEquals(0, ValidationStatistics.getValidationCount());
+	}
+
+	@Test
+	public void validate_shouldOnlyValidateReceivedResourcesInInboundOnlyMode() {
+		setValidationMode(ValidationModeEnum.INBOUND_ONLY);
+		FHIRUtils.validate(new Patient());
+		assertEquals(0, ValidationStatistics.getValidationCount());
+
+		FHIRUtils.validateInbound(new Patient());
+		assertEquals(1, ValidationStatistics.getValidationCount());
+	}
+
+	@Test
+	public void validate_shouldValidateGeneratedResourcesInStrictMode() {
+		setValidationMode(ValidationModeEnum.STRICT);
+		FHIRUtils.validate(new Patient());
+		assertEquals(1, ValidationStatistics.getValidationCount());
+	}
+
+	@Test
+	public void validateInbound_shouldSkipResourcesWhenValidationIsOff() {
+		setValidationMode(ValidationModeEnum.OFF);
+		FHIRUtils.validateInbound(new Patient());
+		assertEquals(0, ValidationStatistics.getValidationCount());
+	}
+
+	private void setValidationMode(ValidationModeEnum mode) {
+		Context.getAdministrationService().saveGlobalProperty(new GlobalProperty(VALIDATION_MODE_GP, mode.getValue()));
+	}
+}
@@ -15,12 +15,19 @@ package org.openmrs.module.fhir;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.openmrs.module.DaemonToken;
+import org.openmrs.module.DaemonTokenAware;
 import org.openmrs.module.ModuleActivator;
+import org.openmrs.module.fhir.api.export.ExportJobRunner;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
+import org.openmrs.module.fhir.api.util.FHIRGlobalPropertyCache;
+import org.openmrs.module.fhir.api.util.FHIRResourceCache;
 
 /**
  * This class contains the logic that is run every time this module is either started or stopped.
  */
-public class FHIRActivator implements ModuleActivator {
+public class FHIRActivator implements ModuleActivator, DaemonTokenAware {
 
 	protected Log log = LogFactory.getLog(getClass());
 
@@ -35,6 +42,7 @@ public class FHIRActivator implements ModuleActivator {
 	 * @see ModuleActivator#contextRefreshed()
 	 */
 	public void contextRefreshed() {
+		clearCaches();
 		log.info("FHIR Module refreshed");
 	}
 
@@ -50,6 +58,8 @@ public class FHIRActivator implements ModuleActivator {
 	 * @see ModuleActivator#started()
 	 */
 	public void started() {
+		FHIRContextFactory.warmUp();
+		ExportJobRunner.startCleanup();
 		log.info("FHIR Module started");
 	}
 
@@ -64,7 +74,27 @@ public class FHIRActivator implements ModuleActivator {
 	 * @see ModuleActivator#stopped()
 	 */
 	public void stopped() {
+		ExportJobRunner.stopCleanup();
+		clearCaches();
 		log.info("FHIR Module stopped");
 	}
 
+	/**
+	 * @see DaemonTokenAware#setDaemonToken(DaemonToken)
+	 */
+	@Override
+	public void setDaemonToken(DaemonToken token) {
+		ExportJobRunner.setDaemonToken(token);
+	}
+
+	/**
+	 * Drops the cached global properties, generated resources and the strategy beans resolved from the
+	 * previous context
+	 */
+	private void clearCaches() {
+		StrategyRegistry.clear();
+		FHIRGlobalPropertyCache.clear();
+		FHIRResourceCache.clear();
+	}
+
 }
@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api;
+
+import org.openmrs.api.OpenmrsService;
+import org.openmrs.module.fhir.api.export.ExportJob;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Bulk data export of Patient, Encounter and Observation resources to NDJSON files. Exports run in
+ * the background, the returned job is polled for its status and output files.
+ */
+@Transactional(readOnly = true)
+public interface BulkExportService extends OpenmrsService {
+
+	/**
+	 * Start an export of the resources of all patients
+	 *
+	 * @param request url of the kick-off request
+	 * @param types   resource types to export, all supported types when empty
+	 * @param since   if not null, only resources created, changed or voided at or after this date
+	 * @return the accepted job
+	 */
+	ExportJob startExport(String request, Set<String> types, Date since);
+
+	/**
+	 * Start an export of the resources of the members of a group
+	 *
+	 * @param request url of the kick-off request
+	 * @param groupId uuid of the cohort backing the group
+	 * @param types   resource types to export, all supported types when empty
+	 * @param since   if not null, only resources created, changed or voided at or after this date
+	 * @return the accepted job
+	 */
+	ExportJob startGroupExport(String request, String groupId, Set<String> types, Date since);
+
+	/**
+	 * @param jobId id of the job
+	 * @return the job, or null if it is unknown or has expired
+	 */
+	ExportJob getExportJob(String jobId);
+
+	/**
+	 * Forget the jobs which finished more than the retention time ago and delete their files. Called
+	 * periodically while the module is running.
+	 */
+	void removeExpiredJobs();
+}
@@ -0,0 +1,43 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api;
+
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.openmrs.api.OpenmrsService;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+public interface BundleService extends OpenmrsService {
+
+	/**
+	 * Process a transaction bundle. All the entries are processed in a single database transaction,
+	 * in the order required by the specification (DELETE, POST, PUT, GET), and urn:uuid references
+	 * between the entries are resolved. If any entry fails the whole bundle is rolled back.
+	 *
+	 * @param bundle bundle of type transaction
+	 * @return transaction-response bundle with one response entry per request entry
+	 */
+	Bundle processTransaction(Bundle bundle);
+
+	/**
+	 * Process a batch bundle. Each entry is processed on its own, a failing entry does not affect
+	 * the others and its response carries the error.
+	 *
+	 * @param bundle bundle of type batch
+	 * @return batch-response bundle with one response entry per request entry
+	 */
+	@Transactional(propagation = Propagation.SUPPORTS)
+	Bundle processBatch(Bundle bundle);
+}
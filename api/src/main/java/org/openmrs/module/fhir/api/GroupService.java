@@ -1,5 +1,6 @@
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Group;
 
 import java.util.List;
@@ -12,6 +13,14 @@ public interface GroupService {
 
 	List<Group> searchGroupByName(String name);
 
+	/**
+	 * Page through the members of a group
+	 *
+	 * @param id uuid of the group
+	 * @return the member Patients, in the order they are listed in the Group
+	 */
+	IBundleProvider getGroupMembers(String id);
+
 	Group createGroup(Group group);
 
 	Group updateGroup(Group group, String uuid);
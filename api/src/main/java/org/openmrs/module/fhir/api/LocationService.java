@@ -13,11 +13,12 @@
  */
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Location;
 import org.openmrs.api.OpenmrsService;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Date;
 
 @Transactional
 public interface LocationService extends OpenmrsService {
@@ -30,29 +31,37 @@ public interface LocationService extends OpenmrsService {
 	 */
 	Location getLocation(String uuid);
 
+	/**
+	 * Get the last update time of a location without generating the fhir resource
+	 *
+	 * @param uuid The uuid of location
+	 * @return date changed, or date created if never changed, null if location not found
+	 */
+	Date getLocationLastUpdated(String uuid);
+
 	/**
 	 * Search locations by id
 	 *
 	 * @param uuid The uuid of location
-	 * @return fhir locations list
+	 * @return paged fhir location search results
 	 */
-	List<Location> searchLocationsByUuid(String uuid);
+	IBundleProvider searchLocationsByUuid(String uuid);
 
 	/**
 	 * Search all active or inactive locations
 	 *
 	 * @param status boolean status
-	 * @return fhir location resource list
+	 * @return paged fhir location search results
 	 */
-	List<Location> searchLocationsByStatus(boolean status);
+	IBundleProvider searchLocationsByStatus(boolean status);
 
 	/**
 	 * Search locations by name
 	 *
 	 * @param name location name to be search
-	 * @return fhir location resource list
+	 * @return paged fhir location search results
 	 */
-	List<Location> searchLocationsByName(String name);
+	IBundleProvider searchLocationsByName(String name);
 
 	/**
 	 * Delete location by id
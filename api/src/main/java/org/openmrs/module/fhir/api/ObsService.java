@@ -13,9 +13,11 @@
  */
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.hl7.fhir.dstu3.model.Observation;
 import org.openmrs.api.OpenmrsService;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
@@ -38,57 +40,57 @@ public interface ObsService extends OpenmrsService {
 	 *
 	 * @param patientUUid         patient uuid
 	 * @param conceptNamesAndURIs names of the concepts with system uris in a map
-	 * @return fhir obs resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByPatientAndConcept(String patientUUid, Map<String, String> conceptNamesAndURIs);
+	IBundleProvider searchObsByPatientAndConcept(String patientUUid, Map<String, String> conceptNamesAndURIs);
 
 	/**
 	 * Search observations by patient and concepts
 	 *
 	 * @param id obs uuid
-	 * @return fhir obs resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsById(String id);
+	IBundleProvider searchObsById(String id);
 
 	/**
 	 * Search observations by observation name
 	 *
 	 * @param conceptNamesAndURIs obs codes and system uris
-	 * @return fhir obs resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByCode(Map<String, String> conceptNamesAndURIs);
+	IBundleProvider searchObsByCode(Map<String, String> conceptNamesAndURIs);
 
 	/**
 	 * Search observations by observation date
 	 *
 	 * @param date obs date
-	 * @return fhir obs resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByDate(Date date);
+	IBundleProvider searchObsByDate(Date date);
 
 	/**
 	 * Search observations by person
 	 *
 	 * @param personUuid person uuid of the person which observations needs to search for
-	 * @return fhir obs resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByPerson(String personUuid);
+	IBundleProvider searchObsByPerson(String personUuid);
 
 	/**
 	 * Search observations by value concept
 	 *
 	 * @param conceptName value concept name
-	 * @return fhir obs resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByValueConcept(String conceptName);
+	IBundleProvider searchObsByValueConcept(String conceptName);
 
 	/**
 	 * Search observations by patient identifier
 	 *
 	 * @param identifier to be search
-	 * @return fhir observation resource list
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByPatientIdentifier(String identifier);
+	IBundleProvider searchObsByPatientIdentifier(String identifier);
 
 	/**
 	 * Delete observation by id
@@ -119,7 +121,21 @@ public interface ObsService extends OpenmrsService {
 	 *
 	 * @param patientUuid patient uuid
 	 * @param codings list of TokenParam (has code and system uri for example PIH|5086,CIEL|5089)
-	 * @return List of fhir observations
+	 * @return paged fhir obs search results
 	 */
-	List<Observation> searchObsByPatientAndCode(String patientUuid, List<TokenParam> codings);
+	IBundleProvider searchObsByPatientAndCode(String patientUuid, List<TokenParam> codings);
+
+	/**
+	 * Search observations by subject, codes and a range of observation dates, every restriction is
+	 * optional
+	 *
+	 * @param personUuid uuid of the person or patient, or null
+	 * @param codings    list of TokenParam (uuid or system|code), or null
+	 * @param fromDate   earliest observation date time, inclusive, or null
+	 * @param toDate     latest observation date time, inclusive, or null
+	 * @param dateOrder  order of the observation dates, or null to keep the default order
+	 * @return paged fhir obs search results
+	 */
+	IBundleProvider searchObs(String personUuid, List<TokenParam> codings, Date fromDate, Date toDate,
+			ObsSearchCriteria.DateOrder dateOrder);
 }
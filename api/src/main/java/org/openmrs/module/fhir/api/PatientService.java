@@ -13,12 +13,14 @@
  */
 package org.openmrs.module.fhir.api;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.openmrs.api.OpenmrsService;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.Date;
+import java.util.Set;
 
 @Transactional
 public interface PatientService extends OpenmrsService {
@@ -31,58 +33,66 @@ public interface PatientService extends OpenmrsService {
 	 */
 	Patient getPatient(String id);
 
+	/**
+	 * Get the last update time of a patient without generating the fhir resource
+	 *
+	 * @param id uuid of the patient
+	 * @return date changed, or date created if never changed, null if patient not found for the given id
+	 */
+	Date getPatientLastUpdated(String id);
+
 	/**
 	 * Search patients by uuid
 	 *
 	 * @param uuid the uuid to be search
-	 * @return fhir patient resource list
+	 * @return paged fhir patient search results
 	 */
-	List<Patient> searchPatientsById(String id);
+	IBundleProvider searchPatientsById(String id);
 
 	/**
 	 * Search patient by identifier and identifier type id
 	 *
 	 * @param identifierValue    identifier to be search
 	 * @param identifierTypeName name of the patient identifier type
-	 * @return fhir patient resource list
+	 * @return paged fhir patient search results
 	 */
-	List<Patient> searchPatientsByIdentifier(String identifierValue, String identifierTypeName);
+	IBundleProvider searchPatientsByIdentifier(String identifierValue, String identifierTypeName);
 
 	/**
 	 * Search patient by identifier
 	 *
 	 * @param identifierValue identifier to be search
-	 * @return fhir patient resource list
+	 * @return paged fhir patient search results
 	 */
-	List<Patient> searchPatientsByIdentifier(String identifierValue);
+	IBundleProvider searchPatientsByIdentifier(String identifierValue);
 
 	/**
 	 * Search all patients either active or inactive
 	 *
-	 * @return active patients list
+	 * @return paged fhir patient search results
 	 */
-	List<Patient> searchPatients(boolean active);
+	IBundleProvider searchPatients(boolean active);
 
 	/**
 	 * Search all patients by given name
 	 *
-	 * @return active patients Bundle
+	 * @return paged fhir patient search results
 	 */
-	Bundle searchPatientsByGivenName(String givenName);
+	IBundleProvider searchPatientsByGivenName(String givenName);
 
 	/**
 	 * Search all patients by given name
 	 *
-	 * @return active patients Bundle
+	 * @return paged fhir patient search results
 	 */
-	Bundle searchPatientsByFamilyName(String familyName);
+	IBundleProvider searchPatientsByFamilyName(String familyName);
 
 	/**
 	 * Search all patients by name
 	 *
-	 * @return active patients Bundle
+	 * @return paged fhir patient search results
 	 */
-	Bundle searchPatientsByName(String name);
+	IBundleProvider searchPatientsByName(String name);
 
 	/**
 	 * Get patient operations bundle resource
@@ -92,6 +102,16 @@ public interface PatientService extends OpenmrsService {
 	 */
 	Bundle getPatientOperationsById(String patientId);
 
+	/**
+	 * Get the content of the patient compartment for the $everything operation
+	 *
+	 * @param patientId uuid of the patient
+	 * @param since     if not null, only content created or changed at or after this date
+	 * @param types     if not empty, only resources of these types
+	 * @return paged resources of the patient compartment, empty if there is no such patient
+	 */
+	IBundleProvider getPatientEverything(String patientId, Date since, Set<String> types);
+
 	/**
 	 * Delete patient by id
 	 *
@@ -17,6 +17,7 @@ import org.hl7.fhir.dstu3.model.Practitioner;
 import org.openmrs.api.OpenmrsService;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -40,6 +41,14 @@ public interface PractitionerService extends OpenmrsService {
 	 */
 	Practitioner getPractitioner(String id);
 
+	/**
+	 * Get the last update time of a practitioner without generating the fhir resource
+	 *
+	 * @param id the practitioner identifier
+	 * @return date changed, or date created if never changed, null if practitioner not found
+	 */
+	Date getPractitionerLastUpdated(String id);
+
 	/**
 	 * Search practitioners by uuid
 	 *
@@ -1,8 +1,9 @@
 package org.openmrs.module.fhir.api.client;
 
-import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.IParser;
 import org.hl7.fhir.dstu3.model.AllergyIntolerance;
+import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.Encounter;
 import org.hl7.fhir.dstu3.model.Group;
 import org.hl7.fhir.dstu3.model.Location;
@@ -13,6 +14,7 @@ import org.hl7.fhir.dstu3.model.Practitioner;
 import org.hl7.fhir.dstu3.model.Person;
 import org.hl7.fhir.dstu3.model.ProcedureRequest;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
@@ -21,11 +23,11 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
-import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -34,7 +36,7 @@ import java.util.Set;
 
 public class FHIRHttpMessageConverter extends AbstractHttpMessageConverter<IBaseResource> {
 
-	private static final Set<Class<?>> SUPPORTED_CLASSES = new HashSet<>(2);
+	private static final Set<Class<?>> SUPPORTED_CLASSES = new HashSet<>();
 
 	private static final String CHARSET = "UTF-8";
 
@@ -55,10 +57,9 @@ public class FHIRHttpMessageConverter extends AbstractHttpMessageConverter<IBase
 		SUPPORTED_CLASSES.add(Group.class);
 		SUPPORTED_CLASSES.add(MedicationRequest.class);
 		SUPPORTED_CLASSES.add(ProcedureRequest.class);
+		SUPPORTED_CLASSES.add(Bundle.class);
 	}
 
-	private IParser parser = FhirContext.forDstu3().newJsonParser();
-
 	public FHIRHttpMessageConverter() {
 		super(new MediaType(TYPE, SUBTYPE_1, Charset.forName(CHARSET)),
 				new MediaType(TYPE, SUBTYPE_2, Charset.forName(CHARSET)));
@@ -73,10 +74,19 @@ public class FHIRHttpMessageConverter extends AbstractHttpMessageConverter<IBase
 	protected IBaseResource readInternal(Class<? extends IBaseResource> clazz, HttpInputMessage inputMessage) throws
 			HttpMessageNotReadableException {
 		try {
-			String json = convertStreamToString(inputMessage.getBody());
-			return parser.parseResource(json);
+			Reader reader = new BufferedReader(new InputStreamReader(inputMessage.getBody(),
+					getCharset(inputMessage.getHeaders().getContentType())));
+			IParser parser = FHIRContextFactory.borrowJsonParser();
+			try {
+				// parse straight from the response stream instead of buffering the whole body first
+				return parser.parseResource(clazz, reader);
+			}
+			finally {
+				FHIRContextFactory.releaseParser(parser);
+				reader.close();
+			}
 		}
-		catch (IOException e) {
+		catch (IOException | DataFormatException e) {
 			throw new HttpMessageNotReadableException("Could not read JSON: " + e.getMessage(), e);
 		}
 	}
@@ -84,35 +94,27 @@ public class FHIRHttpMessageConverter extends AbstractHttpMessageConverter<IBase
 	@Override
 	protected void writeInternal(IBaseResource o, HttpOutputMessage outputMessage) throws HttpMessageNotWritableException {
 		try {
-			String json = parser.encodeResourceToString(o);
-			outputMessage.getBody().write(json.getBytes());
+			Writer writer = new BufferedWriter(new OutputStreamWriter(outputMessage.getBody(),
+					getCharset(outputMessage.getHeaders().getContentType())));
+			IParser parser = FHIRContextFactory.borrowJsonParser();
+			try {
+				parser.encodeResourceToWriter(o, writer);
+			}
+			finally {
+				FHIRContextFactory.releaseParser(parser);
+			}
+			writer.flush();
 		}
-		catch (IOException e) {
+		catch (IOException | DataFormatException e) {
 			throw new HttpMessageNotWritableException("Could not serialize object. Msg: " + e.getMessage(), e);
 		}
 	}
 
-	private String convertStreamToString(InputStream is) throws IOException {
-		if (is != null) {
-			Writer writer = new StringWriter();
-
-			char[] buffer = new char[1024];
-			try {
-				Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
-				int n;
-				while ((n = reader.read(buffer)) != -1) {
-					writer.write(buffer, 0, n);
-				}
-
-				reader.close();
-			}
-			finally {
-				is.close();
-			}
-			return writer.toString();
-		} else {
-			return "";
+	private Charset getCharset(MediaType contentType) {
+		if (contentType != null && contentType.getCharSet() != null) {
+			return contentType.getCharSet();
 		}
+		return StandardCharsets.UTF_8;
 	}
 
 }
@@ -54,13 +54,4 @@ public abstract class AbstractPropertyComparator<B extends Base> {
 	protected boolean areBothNull(Object o1, Object o2) {
 		return o1 == null && o2 == null;
 	}
-
-	protected boolean areValuesOnlyTrue(List<Boolean> list) {
-		for (boolean value : list) {
-			if (!value) {
-				return false;
-			}
-		}
-		return true;
-	}
 }
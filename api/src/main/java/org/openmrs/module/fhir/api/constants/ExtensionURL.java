@@ -23,6 +23,7 @@ public final class ExtensionURL {
     public static final String RETIRED_BY_URL = "retiredBy";
     public static final String RETIRE_REASON_URL = "retireReason";
     public static final String DESCRIPTION_URL = "description";
+    public static final String MEMBERS_TRUNCATED_URL = "membersTruncated";
 
     public static final String AS_NEEDED_CONDITION = "asNeededCondition";
 
@@ -13,12 +13,263 @@
  */
 package org.openmrs.module.fhir.api.db;
 
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.Patient;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.Visit;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Database methods for FHIR Module
  */
 public interface FHIRDAO {
 
-	/*
-	 * Add DAO methods here
+	/**
+	 * Load objects of the given type by their primary keys
+	 *
+	 * @param type class of the objects to load
+	 * @param ids  primary keys of the objects
+	 * @return the matching objects in the same order as the given ids
+	 */
+	<T extends OpenmrsObject> List<T> getObjectsByIds(Class<T> type, List<Integer> ids);
+
+	/**
+	 * Load objects of the given type by their uuids with a single query
+	 *
+	 * @param type  class of the objects to load
+	 * @param uuids uuids of the objects
+	 * @return the matching objects, in no particular order
+	 */
+	<T extends OpenmrsObject> List<T> getObjectsByUuids(Class<T> type, Collection<String> uuids);
+
+	/**
+	 * Load the non voided or non retired objects of the given type by their uuids with a single
+	 * query, leaving out the objects a read of the resource would not find
+	 *
+	 * @param type  class of the objects to load
+	 * @param uuids uuids of the objects
+	 * @return the matching objects, in no particular order
+	 */
+	<T extends OpenmrsObject> List<T> getActiveObjectsByUuids(Class<T> type, Collection<String> uuids);
+
+	/**
+	 * Get the non voided obs of the given patients
+	 *
+	 * @param patientUuids uuids of the patients
+	 * @param maxResults   maximum number of obs to return
+	 * @return matching obs ordered by obs id
+	 */
+	List<Obs> getObsByPatientUuids(Collection<String> patientUuids, int maxResults);
+
+	/**
+	 * Get the non voided encounters of the given patients
+	 *
+	 * @param patientUuids uuids of the patients
+	 * @param maxResults   maximum number of encounters to return
+	 * @return matching encounters ordered by encounter id
+	 */
+	List<Encounter> getEncountersByPatientUuids(Collection<String> patientUuids, int maxResults);
+
+	/**
+	 * Count the patients with the given voided status
+	 *
+	 * @param voided whether to count voided or non voided patients
+	 * @return number of matching patients
+	 */
+	int getPatientCount(boolean voided);
+
+	/**
+	 * Get one page of the patients with the given voided status, ordered by patient id
+	 *
+	 * @param voided      whether to return voided or non voided patients
+	 * @param firstResult index of the first patient to return
+	 * @param maxResults  maximum number of patients to return
+	 * @return matching patients
+	 */
+	List<Patient> getPatients(boolean voided, int firstResult, int maxResults);
+
+	/**
+	 * Get the patients with the given voided status following a patient id, for keyset pagination
+	 *
+	 * @param voided     whether to return voided or non voided patients
+	 * @param afterId    id of the last patient of the previous page, or null for the first page
+	 * @param maxResults maximum number of patients to return
+	 * @return matching patients ordered by patient id
+	 */
+	List<Patient> getPatientsAfter(boolean voided, Integer afterId, int maxResults);
+
+	/**
+	 * Count the non voided patients with a non voided name starting with the given value
+	 *
+	 * @param name  start of the name, case insensitive
+	 * @param field the part of the names to match
+	 * @return number of matching patients
+	 */
+	int getPatientCountByName(String name, PatientNameField field);
+
+	/**
+	 * Get one page of the non voided patients with a non voided name starting with the given value,
+	 * ordered by patient id
+	 *
+	 * @param name        start of the name, case insensitive
+	 * @param field       the part of the names to match
+	 * @param firstResult index of the first patient to return
+	 * @param maxResults  maximum number of patients to return
+	 * @return matching patients
+	 */
+	List<Patient> getPatientsByName(String name, PatientNameField field, int firstResult, int maxResults);
+
+	/**
+	 * Get the ids of the non voided patients with a non voided identifier exactly matching the given
+	 * value, without loading the patients
+	 *
+	 * @param identifier      identifier value
+	 * @param identifierTypes if not null or empty, only identifiers of these types
+	 * @return matching patient ids in ascending order
+	 */
+	List<Integer> getPatientIdsByIdentifier(String identifier, Collection<PatientIdentifierType> identifierTypes);
+
+	/**
+	 * Get the preferred non voided identifier value of a person, without loading the patient
+	 *
+	 * @param personId id of the person
+	 * @return the identifier, or null if the person is not a patient or has no identifier
+	 */
+	String getPreferredPatientIdentifier(Integer personId);
+
+	/**
+	 * Get the uuid, preferred name and preferred identifier of patients, with one query for each
+	 * instead of loading the patients
+	 *
+	 * @param patientIds ids of the patients
+	 * @return references of the existing patients, in the order of the given ids
+	 */
+	List<PatientReference> getPatientReferences(List<Integer> patientIds);
+
+	/**
+	 * Count the locations with the given retired status
+	 *
+	 * @param retired whether to count retired or non retired locations
+	 * @return number of matching locations
+	 */
+	int getLocationCount(boolean retired);
+
+	/**
+	 * Get one page of the locations with the given retired status, ordered by location id
+	 *
+	 * @param retired     whether to return retired or non retired locations
+	 * @param firstResult index of the first location to return
+	 * @param maxResults  maximum number of locations to return
+	 * @return matching locations
+	 */
+	List<Location> getLocations(boolean retired, int firstResult, int maxResults);
+
+	/**
+	 * Count the locations with a name starting with the given value
+	 *
+	 * @param name start of the name, case insensitive
+	 * @return number of matching locations
+	 */
+	int getLocationCountByName(String name);
+
+	/**
+	 * Get one page of the locations with a name starting with the given value, ordered by name
+	 *
+	 * @param name        start of the name, case insensitive
+	 * @param firstResult index of the first location to return
+	 * @param maxResults  maximum number of locations to return
+	 * @return matching locations
+	 */
+	List<Location> getLocationsByName(String name, int firstResult, int maxResults);
+
+	/**
+	 * Get the concepts mapped to any of the given reference term codes with a single query
+	 *
+	 * @param codesBySource reference term codes keyed by the name or hl7 code of their concept source
+	 * @return the mapped concepts, without duplicates
+	 */
+	List<Concept> getConceptsByMappings(Map<String, ? extends Collection<String>> codesBySource);
+
+	/**
+	 * Count the non voided obs matching the given criteria
+	 *
+	 * @param criteria search restrictions
+	 * @return number of matching obs
+	 */
+	int getObsCount(ObsSearchCriteria criteria);
+
+	/**
+	 * Get one page of the non voided obs matching the given criteria
+	 *
+	 * @param criteria    search restrictions and order
+	 * @param firstResult index of the first obs to return
+	 * @param maxResults  maximum number of obs to return
+	 * @return matching obs
+	 */
+	List<Obs> getObs(ObsSearchCriteria criteria, int firstResult, int maxResults);
+
+	/**
+	 * Get the locations with the given retired status following a location id, for keyset pagination
+	 *
+	 * @param retired    whether to return retired or non retired locations
+	 * @param afterId    id of the last location of the previous page, or null for the first page
+	 * @param maxResults maximum number of locations to return
+	 * @return matching locations ordered by location id
+	 */
+	List<Location> getLocationsAfter(boolean retired, Integer afterId, int maxResults);
+
+	/**
+	 * Get the non voided encounters of a patient with their location and providers already loaded
+	 *
+	 * @param patient      the patient
+	 * @param changedSince if not null, only encounters created or changed at or after this date
+	 * @return matching encounters ordered by encounter date
+	 */
+	List<Encounter> getEncountersByPatient(Patient patient, Date changedSince);
+
+	/**
+	 * Get the ids of the non voided obs recorded in the non voided encounters of a patient
+	 *
+	 * @param patient         the patient
+	 * @param createdSince    if not null, only obs created at or after this date
+	 * @param excludedConcept if not null, obs of this concept are left out
+	 * @return matching obs ids ordered by encounter and obs id
+	 */
+	List<Integer> getEncounterObsIdsByPatient(Patient patient, Date createdSince, Concept excludedConcept);
+
+	/**
+	 * Get the non voided visits of a patient with their location already loaded
+	 *
+	 * @param patient      the patient
+	 * @param changedSince if not null, only visits created or changed at or after this date
+	 * @return matching visits ordered by start date
+	 */
+	List<Visit> getVisitsByPatient(Patient patient, Date changedSince);
+
+	/**
+	 * Read the patients, encounters or obs for a bulk export, ordered by id. Results are read in
+	 * batches of batchSize objects, each starting after the last id of the previous one, and the
+	 * session is cleared after each batch, so the memory used does not grow with the number of
+	 * exported objects.
+	 *
+	 * @param type            Patient, Encounter or Obs
+	 * @param since           if not null, only objects created, changed or voided at or after this date.
+	 *                        A patient also counts as changed when one of its names, addresses,
+	 *                        attributes or identifiers is
+	 * @param patientIds      if not null, only objects of these patients
+	 * @param excludedConcept if not null and type is Obs, obs of this concept are left out
+	 * @param batchSize       number of objects read per query and handled between two session clears
+	 * @param handler         receives each object, may stop the export by returning false
+	 * @return number of objects handled
 	 */
+	<T extends OpenmrsObject> int scrollForExport(Class<T> type, Date since, Collection<Integer> patientIds,
+			Concept excludedConcept, int batchSize, ResultHandler<? super T> handler);
 }
@@ -0,0 +1,121 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.db;
+
+import org.openmrs.Concept;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Restrictions of an observation search run by {@link FHIRDAO#getObs(ObsSearchCriteria, int, int)}.
+ * Restrictions which are not set are not applied, voided obs are never matched.
+ */
+public class ObsSearchCriteria {
+
+	public enum DateOrder {
+		ASCENDING, DESCENDING
+	}
+
+	private String personUuid;
+
+	private Collection<Concept> concepts;
+
+	private Concept valueConcept;
+
+	private String patientIdentifier;
+
+	private Date fromDate;
+
+	private Date toDate;
+
+	private DateOrder dateOrder;
+
+	/**
+	 * @return uuid of the person or patient the obs are recorded for
+	 */
+	public String getPersonUuid() {
+		return personUuid;
+	}
+
+	public void setPersonUuid(String personUuid) {
+		this.personUuid = personUuid;
+	}
+
+	/**
+	 * @return concepts of the obs, any of them matches
+	 */
+	public Collection<Concept> getConcepts() {
+		return concepts;
+	}
+
+	public void setConcepts(Collection<Concept> concepts) {
+		this.concepts = concepts;
+	}
+
+	/**
+	 * @return coded value of the obs
+	 */
+	public Concept getValueConcept() {
+		return valueConcept;
+	}
+
+	public void setValueConcept(Concept valueConcept) {
+		this.valueConcept = valueConcept;
+	}
+
+	/**
+	 * @return exact value of a non voided identifier of the patient the obs are recorded for
+	 */
+	public String getPatientIdentifier() {
+		return patientIdentifier;
+	}
+
+	public void setPatientIdentifier(String patientIdentifier) {
+		this.patientIdentifier = patientIdentifier;
+	}
+
+	/**
+	 * @return earliest obs date time, inclusive
+	 */
+	public Date getFromDate() {
+		return fromDate;
+	}
+
+	public void setFromDate(Date fromDate) {
+		this.fromDate = fromDate;
+	}
+
+	/**
+	 * @return latest obs date time, inclusive
+	 */
+	public Date getToDate() {
+		return toDate;
+	}
+
+	public void setToDate(Date toDate) {
+		this.toDate = toDate;
+	}
+
+	/**
+	 * @return order of the obs date times, obs are ordered by id when it is not set
+	 */
+	public DateOrder getDateOrder() {
+		return dateOrder;
+	}
+
+	public void setDateOrder(DateOrder dateOrder) {
+		this.dateOrder = dateOrder;
+	}
+}
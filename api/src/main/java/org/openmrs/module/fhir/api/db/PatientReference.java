@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.db;
+
+/**
+ * Projection of the few patient fields needed to build a reference to a patient, loaded by
+ * {@link FHIRDAO#getPatientReferences(java.util.List)} without hydrating the patient.
+ */
+public class PatientReference {
+
+	private final Integer patientId;
+
+	private final String uuid;
+
+	private String givenName;
+
+	private String familyName;
+
+	private String identifier;
+
+	public PatientReference(Integer patientId, String uuid) {
+		this.patientId = patientId;
+		this.uuid = uuid;
+	}
+
+	public Integer getPatientId() {
+		return patientId;
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * @return given name of the preferred name
+	 */
+	public String getGivenName() {
+		return givenName;
+	}
+
+	public void setGivenName(String givenName) {
+		this.givenName = givenName;
+	}
+
+	/**
+	 * @return family name of the preferred name
+	 */
+	public String getFamilyName() {
+		return familyName;
+	}
+
+	public void setFamilyName(String familyName) {
+		this.familyName = familyName;
+	}
+
+	/**
+	 * @return value of the preferred identifier
+	 */
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	public void setIdentifier(String identifier) {
+		this.identifier = identifier;
+	}
+}
@@ -0,0 +1,31 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.db;
+
+/**
+ * Callback receiving the objects read by {@link FHIRDAO#scrollForExport}
+ *
+ * @param <T> type of the objects
+ */
+public interface ResultHandler<T> {
+
+	/**
+	 * Handle one object. The object is detached from the session soon after, so anything needed from
+	 * it must be read here.
+	 *
+	 * @param object object read
+	 * @return true to continue, false to stop the export
+	 */
+	boolean handle(T object);
+}
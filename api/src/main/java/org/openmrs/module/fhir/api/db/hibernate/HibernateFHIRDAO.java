@@ -15,18 +15,53 @@ package org.openmrs.module.fhir.api.db.hibernate;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hibernate.Criteria;
+import org.hibernate.Query;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Restrictions;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.Patient;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.Person;
+import org.openmrs.Retireable;
+import org.openmrs.Visit;
+import org.openmrs.Voidable;
 import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
+import org.openmrs.module.fhir.api.db.PatientNameField;
+import org.openmrs.module.fhir.api.db.PatientReference;
+import org.openmrs.module.fhir.api.db.ResultHandler;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * It is a default implementation of  {@link FHIRDAO}.
  */
 public class HibernateFHIRDAO implements FHIRDAO {
 
+	private static final String LIKE_ESCAPE_CHAR = "!";
+
+	private static final String LIKE_ESCAPE = " escape '" + LIKE_ESCAPE_CHAR + "'";
+
 	protected final Log log = LogFactory.getLog(this.getClass());
 
 	private SessionFactory sessionFactory;
 
+	private Method getCurrentSessionMethod;
+
 	/**
 	 * @return the sessionFactory
 	 */
@@ -40,4 +75,666 @@ public class HibernateFHIRDAO implements FHIRDAO {
 	public void setSessionFactory(SessionFactory sessionFactory) {
 		this.sessionFactory = sessionFactory;
 	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getObjectsByIds(Class, List)
+	 */
+	@Override
+	public <T extends OpenmrsObject> List<T> getObjectsByIds(Class<T> type, List<Integer> ids) {
+		List<T> results = new ArrayList<T>();
+		if (ids == null || ids.isEmpty()) {
+			return results;
+		}
+		List<?> objects = getSession().createCriteria(type).add(Restrictions.in("id", ids)).list();
+		Map<Integer, T> objectsById = new HashMap<Integer, T>();
+		for (Object object : objects) {
+			T openmrsObject = type.cast(object);
+			objectsById.put(openmrsObject.getId(), openmrsObject);
+		}
+		for (Integer id : ids) {
+			T openmrsObject = objectsById.get(id);
+			if (openmrsObject != null) {
+				results.add(openmrsObject);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getObjectsByUuids(Class, Collection)
+	 */
+	@Override
+	public <T extends OpenmrsObject> List<T> getObjectsByUuids(Class<T> type, Collection<String> uuids) {
+		List<T> results = new ArrayList<T>();
+		if (uuids == null || uuids.isEmpty()) {
+			return results;
+		}
+		for (Object object : getSession().createCriteria(type).add(Restrictions.in("uuid", uuids)).list()) {
+			results.add(type.cast(object));
+		}
+		return results;
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getActiveObjectsByUuids(Class, Collection)
+	 */
+	@Override
+	public <T extends OpenmrsObject> List<T> getActiveObjectsByUuids(Class<T> type, Collection<String> uuids) {
+		List<T> results = new ArrayList<T>();
+		if (uuids == null || uuids.isEmpty()) {
+			return results;
+		}
+		Criteria criteria = getSession().createCriteria(type).add(Restrictions.in("uuid", uuids));
+		if (Person.class.equals(type)) {
+			// the voided column of person is mapped as personVoided, so that patient can map its own
+			criteria.add(Restrictions.eq("personVoided", false));
+		} else if (Voidable.class.isAssignableFrom(type)) {
+			criteria.add(Restrictions.eq("voided", false));
+		} else if (Retireable.class.isAssignableFrom(type)) {
+			criteria.add(Restrictions.eq("retired", false));
+		}
+		for (Object object : criteria.list()) {
+			results.add(type.cast(object));
+		}
+		return results;
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getObsByPatientUuids(Collection, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Obs> getObsByPatientUuids(Collection<String> patientUuids, int maxResults) {
+		if (patientUuids == null || patientUuids.isEmpty()) {
+			return new ArrayList<Obs>();
+		}
+		Query query = getSession().createQuery(
+				"from Obs o where o.person.uuid in (:uuids) and o.voided = false order by o.obsId");
+		query.setParameterList("uuids", patientUuids);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getEncountersByPatientUuids(Collection, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Encounter> getEncountersByPatientUuids(Collection<String> patientUuids, int maxResults) {
+		if (patientUuids == null || patientUuids.isEmpty()) {
+			return new ArrayList<Encounter>();
+		}
+		Query query = getSession().createQuery(
+				"from Encounter e where e.patient.uuid in (:uuids) and e.voided = false order by e.encounterId");
+		query.setParameterList("uuids", patientUuids);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatientCount(boolean)
+	 */
+	@Override
+	public int getPatientCount(boolean voided) {
+		Query query = getSession().createQuery("select count(*) from Patient p where p.voided = :voided");
+		query.setBoolean("voided", voided);
+		return ((Number) query.uniqueResult()).intValue();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatients(boolean, int, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Patient> getPatients(boolean voided, int firstResult, int maxResults) {
+		Query query = getSession().createQuery("from Patient p where p.voided = :voided order by p.patientId");
+		query.setBoolean("voided", voided);
+		query.setFirstResult(firstResult);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatientsAfter(boolean, Integer, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Patient> getPatientsAfter(boolean voided, Integer afterId, int maxResults) {
+		StringBuilder hql = new StringBuilder("from Patient p where p.voided = :voided");
+		if (afterId != null) {
+			hql.append(" and p.patientId > :afterId");
+		}
+		hql.append(" order by p.patientId");
+		Query query = getSession().createQuery(hql.toString());
+		query.setBoolean("voided", voided);
+		if (afterId != null) {
+			query.setInteger("afterId", afterId);
+		}
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatientIdsByIdentifier(String, Collection)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Integer> getPatientIdsByIdentifier(String identifier, Collection<PatientIdentifierType> identifierTypes) {
+		StringBuilder hql = new StringBuilder("select distinct pi.patient.patientId from PatientIdentifier pi")
+				.append(" where pi.identifier = :identifier and pi.voided = false and pi.patient.voided = false");
+		boolean restrictTypes = identifierTypes != null && !identifierTypes.isEmpty();
+		if (restrictTypes) {
+			hql.append(" and pi.identifierType in (:identifierTypes)");
+		}
+		hql.append(" order by pi.patient.patientId");
+		Query query = getSession().createQuery(hql.toString());
+		query.setString("identifier", identifier);
+		if (restrictTypes) {
+			query.setParameterList("identifierTypes", identifierTypes);
+		}
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPreferredPatientIdentifier(Integer)
+	 */
+	@Override
+	public String getPreferredPatientIdentifier(Integer personId) {
+		if (personId == null) {
+			return null;
+		}
+		Query query = getSession().createQuery("select pi.identifier from PatientIdentifier pi"
+				+ " where pi.patient.patientId = :personId and pi.voided = false"
+				+ " order by pi.preferred desc, pi.patientIdentifierId");
+		query.setInteger("personId", personId);
+		query.setMaxResults(1);
+		return (String) query.uniqueResult();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatientReferences(List)
+	 */
+	@Override
+	public List<PatientReference> getPatientReferences(List<Integer> patientIds) {
+		List<PatientReference> results = new ArrayList<PatientReference>();
+		if (patientIds == null || patientIds.isEmpty()) {
+			return results;
+		}
+		Map<Integer, PatientReference> referencesById = new HashMap<Integer, PatientReference>();
+		Query query = getSession().createQuery("select p.patientId, p.uuid from Patient p where p.patientId in (:ids)");
+		query.setParameterList("ids", patientIds);
+		for (Object row : query.list()) {
+			Object[] columns = (Object[]) row;
+			referencesById.put((Integer) columns[0], new PatientReference((Integer) columns[0], (String) columns[1]));
+		}
+
+		// preferred first, so the first row of each patient wins
+		query = getSession().createQuery("select n.person.personId, n.givenName, n.familyName from PersonName n"
+				+ " where n.person.personId in (:ids) and n.voided = false order by n.preferred desc, n.personNameId");
+		query.setParameterList("ids", patientIds);
+		Set<Integer> named = new HashSet<Integer>();
+		for (Object row : query.list()) {
+			Object[] columns = (Object[]) row;
+			PatientReference reference = referencesById.get(columns[0]);
+			if (reference != null && named.add(reference.getPatientId())) {
+				reference.setGivenName((String) columns[1]);
+				reference.setFamilyName((String) columns[2]);
+			}
+		}
+
+		query = getSession().createQuery("select pi.patient.patientId, pi.identifier from PatientIdentifier pi"
+				+ " where pi.patient.patientId in (:ids) and pi.voided = false"
+				+ " order by pi.preferred desc, pi.patientIdentifierId");
+		query.setParameterList("ids", patientIds);
+		for (Object row : query.list()) {
+			Object[] columns = (Object[]) row;
+			PatientReference reference = referencesById.get(columns[0]);
+			if (reference != null && reference.getIdentifier() == null) {
+				reference.setIdentifier((String) columns[1]);
+			}
+		}
+
+		for (Integer patientId : patientIds) {
+			PatientReference reference = referencesById.get(patientId);
+			if (reference != null) {
+				results.add(reference);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatientCountByName(String, PatientNameField)
+	 */
+	@Override
+	public int getPatientCountByName(String name, PatientNameField field) {
+		StringBuilder hql = new StringBuilder("select count(distinct p.patientId) from Patient p join p.names n");
+		appendNameRestrictions(hql, field);
+		Query query = getSession().createQuery(hql.toString());
+		query.setString("name", startsWith(name));
+		return ((Number) query.uniqueResult()).intValue();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getPatientsByName(String, PatientNameField, int, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Patient> getPatientsByName(String name, PatientNameField field, int firstResult, int maxResults) {
+		StringBuilder hql = new StringBuilder("select distinct p from Patient p join p.names n");
+		appendNameRestrictions(hql, field);
+		hql.append(" order by p.patientId");
+		Query query = getSession().createQuery(hql.toString());
+		query.setString("name", startsWith(name));
+		query.setFirstResult(firstResult);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getLocationCountByName(String)
+	 */
+	@Override
+	public int getLocationCountByName(String name) {
+		Query query = getSession().createQuery("select count(*) from Location l where lower(l.name) like :name" + LIKE_ESCAPE);
+		query.setString("name", startsWith(name));
+		return ((Number) query.uniqueResult()).intValue();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getLocationsByName(String, int, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Location> getLocationsByName(String name, int firstResult, int maxResults) {
+		Query query = getSession().createQuery(
+				"from Location l where lower(l.name) like :name" + LIKE_ESCAPE + " order by l.name, l.locationId");
+		query.setString("name", startsWith(name));
+		query.setFirstResult(firstResult);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getLocationCount(boolean)
+	 */
+	@Override
+	public int getLocationCount(boolean retired) {
+		Query query = getSession().createQuery("select count(*) from Location l where l.retired = :retired");
+		query.setBoolean("retired", retired);
+		return ((Number) query.uniqueResult()).intValue();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getLocations(boolean, int, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Location> getLocations(boolean retired, int firstResult, int maxResults) {
+		Query query = getSession().createQuery("from Location l where l.retired = :retired order by l.locationId");
+		query.setBoolean("retired", retired);
+		query.setFirstResult(firstResult);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getLocationsAfter(boolean, Integer, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Location> getLocationsAfter(boolean retired, Integer afterId, int maxResults) {
+		StringBuilder hql = new StringBuilder("from Location l where l.retired = :retired");
+		if (afterId != null) {
+			hql.append(" and l.locationId > :afterId");
+		}
+		hql.append(" order by l.locationId");
+		Query query = getSession().createQuery(hql.toString());
+		query.setBoolean("retired", retired);
+		if (afterId != null) {
+			query.setInteger("afterId", afterId);
+		}
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getConceptsByMappings(Map)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Concept> getConceptsByMappings(Map<String, ? extends Collection<String>> codesBySource) {
+		if (codesBySource == null || codesBySource.isEmpty()) {
+			return new ArrayList<Concept>();
+		}
+		StringBuilder hql = new StringBuilder("select distinct m.concept from ConceptMap m")
+				.append(" join m.conceptReferenceTerm t join t.conceptSource s where");
+		int index = 0;
+		for (int i = 0; i < codesBySource.size(); i++) {
+			if (i > 0) {
+				hql.append(" or");
+			}
+			hql.append(" ((s.name = :source").append(i).append(" or s.hl7Code = :source").append(i)
+					.append(") and t.code in (:codes").append(i).append("))");
+		}
+		Query query = getSession().createQuery(hql.toString());
+		for (Map.Entry<String, ? extends Collection<String>> entry : codesBySource.entrySet()) {
+			query.setString("source" + index, entry.getKey());
+			query.setParameterList("codes" + index, entry.getValue());
+			index++;
+		}
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getObsCount(ObsSearchCriteria)
+	 */
+	@Override
+	public int getObsCount(ObsSearchCriteria criteria) {
+		if (matchesNoConcept(criteria)) {
+			return 0;
+		}
+		StringBuilder hql = new StringBuilder("select count(*) from Obs o");
+		appendObsRestrictions(hql, criteria);
+		Query query = getSession().createQuery(hql.toString());
+		setObsParameters(query, criteria);
+		return ((Number) query.uniqueResult()).intValue();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getObs(ObsSearchCriteria, int, int)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Obs> getObs(ObsSearchCriteria criteria, int firstResult, int maxResults) {
+		if (matchesNoConcept(criteria)) {
+			return new ArrayList<Obs>();
+		}
+		StringBuilder hql = new StringBuilder("from Obs o");
+		appendObsRestrictions(hql, criteria);
+		if (criteria.getDateOrder() == ObsSearchCriteria.DateOrder.DESCENDING) {
+			hql.append(" order by o.obsDatetime desc, o.obsId desc");
+		} else if (criteria.getDateOrder() == ObsSearchCriteria.DateOrder.ASCENDING) {
+			hql.append(" order by o.obsDatetime, o.obsId");
+		} else {
+			hql.append(" order by o.obsId");
+		}
+		Query query = getSession().createQuery(hql.toString());
+		setObsParameters(query, criteria);
+		query.setFirstResult(firstResult);
+		query.setMaxResults(maxResults);
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getEncountersByPatient(Patient, Date)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Encounter> getEncountersByPatient(Patient patient, Date changedSince) {
+		StringBuilder hql = new StringBuilder("select distinct e from Encounter e left join fetch e.location")
+				.append(" left join fetch e.encounterProviders ep left join fetch ep.provider")
+				.append(" where e.patient = :patient and e.voided = false");
+		if (changedSince != null) {
+			hql.append(" and (e.dateChanged >= :since or (e.dateChanged is null and e.dateCreated >= :since))");
+		}
+		hql.append(" order by e.encounterDatetime");
+		Query query = getSession().createQuery(hql.toString());
+		query.setParameter("patient", patient);
+		if (changedSince != null) {
+			query.setTimestamp("since", changedSince);
+		}
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getEncounterObsIdsByPatient(Patient, Date, Concept)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Integer> getEncounterObsIdsByPatient(Patient patient, Date createdSince, Concept excludedConcept) {
+		StringBuilder hql = new StringBuilder("select o.obsId from Obs o")
+				.append(" where o.encounter.patient = :patient and o.encounter.voided = false and o.voided = false");
+		if (createdSince != null) {
+			hql.append(" and o.dateCreated >= :since");
+		}
+		if (excludedConcept != null) {
+			hql.append(" and o.concept <> :excludedConcept");
+		}
+		hql.append(" order by o.encounter.encounterId, o.obsId");
+		Query query = getSession().createQuery(hql.toString());
+		query.setParameter("patient", patient);
+		if (createdSince != null) {
+			query.setTimestamp("since", createdSince);
+		}
+		if (excludedConcept != null) {
+			query.setParameter("excludedConcept", excludedConcept);
+		}
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#getVisitsByPatient(Patient, Date)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<Visit> getVisitsByPatient(Patient patient, Date changedSince) {
+		StringBuilder hql = new StringBuilder("from Visit v left join fetch v.location")
+				.append(" where v.patient = :patient and v.voided = false");
+		if (changedSince != null) {
+			hql.append(" and (v.dateChanged >= :since or (v.dateChanged is null and v.dateCreated >= :since))");
+		}
+		hql.append(" order by v.startDatetime");
+		Query query = getSession().createQuery(hql.toString());
+		query.setParameter("patient", patient);
+		if (changedSince != null) {
+			query.setTimestamp("since", changedSince);
+		}
+		return query.list();
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.db.FHIRDAO#scrollForExport(Class, Date, Collection, Concept, int,
+	 * ResultHandler)
+	 */
+	@Override
+	public <T extends OpenmrsObject> int scrollForExport(Class<T> type, Date since, Collection<Integer> patientIds,
+			Concept excludedConcept, int batchSize, ResultHandler<? super T> handler) {
+		StringBuilder hql = new StringBuilder();
+		String idProperty;
+		if (Patient.class.equals(type)) {
+			hql.append("from Patient o where ");
+			idProperty = "o.patientId";
+			appendNotVoidedOrVoidedSince(hql, since);
+			if (since != null) {
+				hql.append(" and (").append(getChangedSince("o"));
+				appendChildChangedSince(hql, "PersonName", "person.personId");
+				appendChildChangedSince(hql, "PersonAddress", "person.personId");
+				appendChildChangedSince(hql, "PersonAttribute", "person.personId");
+				appendChildChangedSince(hql, "PatientIdentifier", "patient.patientId");
+				hql.append(" or o.dateVoided >= :since)");
+			}
+			appendPatientIds(hql, patientIds, "o.patientId");
+		} else if (Encounter.class.equals(type)) {
+			hql.append("from Encounter o where ");
+			idProperty = "o.encounterId";
+			appendNotVoidedOrVoidedSince(hql, since);
+			if (since != null) {
+				hql.append(" and (").append(getChangedSince("o")).append(" or o.dateVoided >= :since)");
+			}
+			appendPatientIds(hql, patientIds, "o.patient.patientId");
+		} else if (Obs.class.equals(type)) {
+			// obs are not changed in place, an edit voids the obs and creates a new one
+			hql.append("from Obs o where ");
+			idProperty = "o.obsId";
+			appendNotVoidedOrVoidedSince(hql, since);
+			if (since != null) {
+				hql.append(" and (o.dateCreated >= :since or o.dateVoided >= :since)");
+			}
+			appendPatientIds(hql, patientIds, "o.person.personId");
+			if (excludedConcept != null) {
+				hql.append(" and o.concept <> :excludedConcept");
+			}
+		} else {
+			throw new IllegalArgumentException("Export of " + type.getSimpleName() + " is not supported");
+		}
+		// keyset batches instead of a cursor: MySQL Connector/J reads a whole result set into memory unless it
+		// streams it, and a streaming result set blocks the connection the converters lazy load on
+		hql.append(" and ").append(idProperty).append(" > :lastId order by ").append(idProperty);
+
+		Session session = getSession();
+		Query query = session.createQuery(hql.toString());
+		if (since != null) {
+			query.setTimestamp("since", since);
+		}
+		if (patientIds != null) {
+			query.setParameterList("patientIds", patientIds);
+		}
+		if (excludedConcept != null && Obs.class.equals(type)) {
+			query.setParameter("excludedConcept", excludedConcept);
+		}
+		query.setReadOnly(true);
+		query.setMaxResults(batchSize);
+
+		int count = 0;
+		int lastId = 0;
+		while (true) {
+			query.setInteger("lastId", lastId);
+			List<?> batch = query.list();
+			for (Object result : batch) {
+				T object = type.cast(result);
+				count++;
+				lastId = object.getId();
+				if (!handler.handle(object)) {
+					session.clear();
+					return count;
+				}
+			}
+			session.clear();
+			if (batch.size() < batchSize) {
+				return count;
+			}
+		}
+	}
+
+	private void appendNameRestrictions(StringBuilder hql, PatientNameField field) {
+		hql.append(" where p.voided = false and n.voided = false and ");
+		if (field == PatientNameField.GIVEN) {
+			hql.append("lower(n.givenName) like :name").append(LIKE_ESCAPE);
+		} else if (field == PatientNameField.FAMILY) {
+			hql.append("lower(n.familyName) like :name").append(LIKE_ESCAPE);
+		} else {
+			hql.append("(lower(n.givenName) like :name").append(LIKE_ESCAPE)
+					.append(" or lower(n.middleName) like :name").append(LIKE_ESCAPE)
+					.append(" or lower(n.familyName) like :name").append(LIKE_ESCAPE).append(")");
+		}
+	}
+
+	/**
+	 * @return a lower case pattern matching values starting with the given text, with the like wildcards in the
+	 * text escaped so they match only themselves
+	 */
+	private String startsWith(String text) {
+		String escaped = text.toLowerCase().replace(LIKE_ESCAPE_CHAR, LIKE_ESCAPE_CHAR + LIKE_ESCAPE_CHAR)
+				.replace("%", LIKE_ESCAPE_CHAR + "%").replace("_", LIKE_ESCAPE_CHAR + "_");
+		return escaped + "%";
+	}
+
+	private boolean matchesNoConcept(ObsSearchCriteria criteria) {
+		return criteria.getConcepts() != null && criteria.getConcepts().isEmpty();
+	}
+
+	private void appendObsRestrictions(StringBuilder hql, ObsSearchCriteria criteria) {
+		hql.append(" where o.voided = false");
+		if (criteria.getPersonUuid() != null) {
+			hql.append(" and o.person.uuid = :personUuid");
+		}
+		if (criteria.getConcepts() != null) {
+			hql.append(" and o.concept in (:concepts)");
+		}
+		if (criteria.getValueConcept() != null) {
+			hql.append(" and o.valueCoded = :valueConcept");
+		}
+		if (criteria.getPatientIdentifier() != null) {
+			hql.append(" and o.person.personId in (select pi.patient.patientId from PatientIdentifier pi")
+					.append(" where pi.identifier = :identifier and pi.voided = false)");
+		}
+		if (criteria.getFromDate() != null) {
+			hql.append(" and o.obsDatetime >= :fromDate");
+		}
+		if (criteria.getToDate() != null) {
+			hql.append(" and o.obsDatetime <= :toDate");
+		}
+	}
+
+	private void setObsParameters(Query query, ObsSearchCriteria criteria) {
+		if (criteria.getPersonUuid() != null) {
+			query.setString("personUuid", criteria.getPersonUuid());
+		}
+		if (criteria.getConcepts() != null) {
+			query.setParameterList("concepts", criteria.getConcepts());
+		}
+		if (criteria.getValueConcept() != null) {
+			query.setParameter("valueConcept", criteria.getValueConcept());
+		}
+		if (criteria.getPatientIdentifier() != null) {
+			query.setString("identifier", criteria.getPatientIdentifier());
+		}
+		if (criteria.getFromDate() != null) {
+			query.setTimestamp("fromDate", criteria.getFromDate());
+		}
+		if (criteria.getToDate() != null) {
+			query.setTimestamp("toDate", criteria.getToDate());
+		}
+	}
+
+	/**
+	 * With a since date the objects voided since then are exported as well, so that the recipient
+	 * learns about the removal
+	 */
+	private void appendNotVoidedOrVoidedSince(StringBuilder hql, Date since) {
+		if (since == null) {
+			hql.append("o.voided = false");
+		} else {
+			hql.append("(o.voided = false or o.dateVoided >= :since)");
+		}
+	}
+
+	private String getChangedSince(String alias) {
+		return "(" + alias + ".dateChanged >= :since or (" + alias + ".dateChanged is null and " + alias
+				+ ".dateCreated >= :since))";
+	}
+
+	/**
+	 * Matches the export candidate o when one of its child objects was created, changed or voided
+	 * since the given date, see {@link org.openmrs.module.fhir.api.util.BaseOpenMRSDataUtil#getLastUpdated}
+	 */
+	private void appendChildChangedSince(StringBuilder hql, String childEntity, String parentIdProperty) {
+		hql.append(" or exists (select c.id from ").append(childEntity).append(" c where c.").append(parentIdProperty)
+				.append(" = o.patientId and (").append(getChangedSince("c")).append(" or c.dateVoided >= :since))");
+	}
+
+	private void appendPatientIds(StringBuilder hql, Collection<Integer> patientIds, String patientIdProperty) {
+		if (patientIds != null) {
+			hql.append(" and ").append(patientIdProperty).append(" in (:patientIds)");
+		}
+	}
+
+	/**
+	 * Gets the current hibernate session. Hibernate 3 returns org.hibernate.classic.Session from
+	 * getCurrentSession, so the method is resolved reflectively to support both Hibernate 3 and 4
+	 *
+	 * @return the current session
+	 */
+	protected Session getSession() {
+		try {
+			if (getCurrentSessionMethod == null) {
+				getCurrentSessionMethod = sessionFactory.getClass().getMethod("getCurrentSession");
+			}
+			return (Session) getCurrentSessionMethod.invoke(sessionFactory);
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to get the current hibernate session", e);
+		}
+	}
 }
@@ -0,0 +1,161 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.export;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A bulk data export requested through one of the $export operations. The job is run in the
+ * background by the {@link ExportJobRunner}, which writes one NDJSON file per resource type to the
+ * job directory; the job only keeps track of its status and of the number of resources in each file.
+ */
+public class ExportJob {
+
+	public enum Status {
+		ACCEPTED, IN_PROGRESS, COMPLETED, FAILED
+	}
+
+	private final String id = UUID.randomUUID().toString();
+
+	private final String request;
+
+	private final Date transactionTime = new Date();
+
+	private final Set<String> types;
+
+	private final Date since;
+
+	private final List<Integer> patientIds;
+
+	private final File directory;
+
+	private final Map<String, Integer> outputCounts = Collections.synchronizedMap(new LinkedHashMap<String, Integer>());
+
+	private volatile Status status = Status.ACCEPTED;
+
+	private volatile String currentType;
+
+	private volatile String error;
+
+	private volatile Date completedTime;
+
+	/**
+	 * @param request       url of the kick-off request, reported back in the manifest
+	 * @param types         resource types to export, in export order
+	 * @param since         if not null, only resources created or changed at or after this date
+	 * @param patientIds    if not null, only resources of these patients
+	 * @param baseDirectory directory under which the job directory is created
+	 */
+	public ExportJob(String request, Set<String> types, Date since, List<Integer> patientIds, File baseDirectory) {
+		this.request = request;
+		this.types = types;
+		this.since = since;
+		this.patientIds = patientIds;
+		this.directory = new File(baseDirectory, id);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getRequest() {
+		return request;
+	}
+
+	public Date getTransactionTime() {
+		return transactionTime;
+	}
+
+	public Set<String> getTypes() {
+		return types;
+	}
+
+	public Date getSince() {
+		return since;
+	}
+
+	public List<Integer> getPatientIds() {
+		return patientIds;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * @param type resource type
+	 * @return NDJSON file holding the exported resources of the given type
+	 */
+	public File getOutputFile(String type) {
+		return new File(directory, type + ".ndjson");
+	}
+
+	/**
+	 * @return number of exported resources of each type written so far, in export order
+	 */
+	public Map<String, Integer> getOutputCounts() {
+		synchronized (outputCounts) {
+			return new LinkedHashMap<String, Integer>(outputCounts);
+		}
+	}
+
+	public void setOutputCount(String type, int count) {
+		outputCounts.put(type, count);
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public void setStatus(Status status) {
+		this.status = status;
+		if (status == Status.COMPLETED || status == Status.FAILED) {
+			completedTime = new Date();
+		}
+	}
+
+	public boolean isFinished() {
+		return completedTime != null;
+	}
+
+	public Date getCompletedTime() {
+		return completedTime;
+	}
+
+	/**
+	 * @return resource type being exported, while the job is in progress
+	 */
+	public String getCurrentType() {
+		return currentType;
+	}
+
+	public void setCurrentType(String currentType) {
+		this.currentType = currentType;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
+}
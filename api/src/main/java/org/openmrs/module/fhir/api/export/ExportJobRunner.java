@@ -0,0 +1,306 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.export;
+
+import ca.uhn.fhir.parser.IParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.Obs;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.Patient;
+import org.openmrs.api.APIException;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.Daemon;
+import org.openmrs.module.DaemonToken;
+import org.openmrs.module.fhir.api.BulkExportService;
+import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.db.ResultHandler;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.api.util.FHIREncounterUtil;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+import org.openmrs.module.fhir.api.util.FHIRResourceCache;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs bulk data export jobs in daemon threads. Jobs are run one at a time, later jobs wait in the
+ * ACCEPTED status. Each resource type is read from the database in batches ordered by id, see
+ * {@link FHIRDAO#scrollForExport}, converted and appended to its NDJSON file, so neither the
+ * OpenMRS objects nor the resources are kept in memory. The resources are generated without going
+ * through the {@link FHIRResourceCache}, as they are only read once.
+ * <p>
+ * While the module is running the expired jobs are removed every
+ * {@link FHIRConstants#EXPORT_CLEANUP_INTERVAL_MINUTES} minutes, see
+ * {@link BulkExportService#removeExpiredJobs()}.
+ */
+public class ExportJobRunner {
+
+	private static final Log log = LogFactory.getLog(ExportJobRunner.class);
+
+	private static final Semaphore runningJobs = new Semaphore(1, true);
+
+	private static volatile DaemonToken daemonToken;
+
+	private static ScheduledExecutorService cleanup;
+
+	private ExportJobRunner() {
+	}
+
+	/**
+	 * @param token token given to the module activator, used to run the jobs as the daemon user
+	 */
+	public static void setDaemonToken(DaemonToken token) {
+		daemonToken = token;
+	}
+
+	/**
+	 * Start removing the expired jobs periodically
+	 */
+	public static synchronized void startCleanup() {
+		if (cleanup != null) {
+			return;
+		}
+		cleanup = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "FHIR bulk export cleanup");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		cleanup.scheduleWithFixedDelay(new Runnable() {
+
+			@Override
+			public void run() {
+				removeExpiredJobs();
+			}
+		}, FHIRConstants.EXPORT_CLEANUP_INTERVAL_MINUTES, FHIRConstants.EXPORT_CLEANUP_INTERVAL_MINUTES,
+				TimeUnit.MINUTES);
+	}
+
+	/**
+	 * Stop removing the expired jobs
+	 */
+	public static synchronized void stopCleanup() {
+		if (cleanup != null) {
+			cleanup.shutdownNow();
+			cleanup = null;
+		}
+	}
+
+	/**
+	 * Start the given job in a daemon thread
+	 *
+	 * @param job export job
+	 */
+	public static void submit(final ExportJob job) {
+		if (daemonToken == null) {
+			throw new APIException("Bulk export is not available before the FHIR module is started");
+		}
+		Daemon.runInDaemonThread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					runningJobs.acquire();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					fail(job, e);
+					return;
+				}
+				try {
+					export(job);
+				}
+				finally {
+					runningJobs.release();
+				}
+			}
+		}, daemonToken);
+	}
+
+	/**
+	 * Write the NDJSON files of the given job in the current thread
+	 *
+	 * @param job export job
+	 */
+	public static void export(ExportJob job) {
+		job.setStatus(ExportJob.Status.IN_PROGRESS);
+		try {
+			File directory = job.getDirectory();
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("Unable to create the export directory " + directory.getAbsolutePath());
+			}
+			for (String type : job.getTypes()) {
+				job.setCurrentType(type);
+				job.setOutputCount(type, exportType(job, type));
+			}
+			job.setCurrentType(null);
+			job.setStatus(ExportJob.Status.COMPLETED);
+		}
+		catch (Exception e) {
+			fail(job, e);
+		}
+	}
+
+	private static int exportType(ExportJob job, String type) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(job.getOutputFile(type)),
+				"UTF-8"));
+		try {
+			NdjsonHandler handler = new NdjsonHandler(writer);
+			if (job.getPatientIds() == null) {
+				return exportObjects(type, job.getSince(), null, handler);
+			}
+			int count = 0;
+			List<Integer> patientIds = job.getPatientIds();
+			for (int i = 0; i < patientIds.size(); i += FHIRConstants.EXPORT_PATIENT_CHUNK_SIZE) {
+				List<Integer> chunk = patientIds.subList(i, Math.min(patientIds.size(),
+						i + FHIRConstants.EXPORT_PATIENT_CHUNK_SIZE));
+				count += exportObjects(type, job.getSince(), chunk, handler);
+			}
+			return count;
+		}
+		catch (APIException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+	private static int exportObjects(String type, Date since, List<Integer> patientIds,
+			NdjsonHandler handler) {
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+		if (patientIds != null && patientIds.isEmpty()) {
+			return 0;
+		}
+		if (FHIRConstants.PATIENT.equals(type)) {
+			return dao.scrollForExport(Patient.class, since, patientIds, null, FHIRConstants.EXPORT_BATCH_SIZE, handler);
+		} else if (FHIRConstants.ENCOUNTER.equals(type)) {
+			return dao.scrollForExport(Encounter.class, since, patientIds, null, FHIRConstants.EXPORT_BATCH_SIZE,
+					handler);
+		} else if (FHIRConstants.OBSERVATION.equals(type)) {
+			return dao.scrollForExport(Obs.class, since, patientIds, getExcludedObsConcept(),
+					FHIRConstants.EXPORT_BATCH_SIZE, handler);
+		}
+		throw new APIException("Export of " + type + " resources is not supported");
+	}
+
+	private static Concept getExcludedObsConcept() {
+		if (FHIRConstants.OBS_ALLERGY_STRATEGY.equals(FHIRUtils.getAllergyStrategy())) {
+			return Context.getConceptService().getConceptByUuid(FHIRUtils.getObsAllergyStrategyConceptUuid());
+		}
+		return null;
+	}
+
+	private static void removeExpiredJobs() {
+		if (daemonToken == null) {
+			return;
+		}
+		try {
+			Daemon.runInDaemonThread(new Runnable() {
+
+				@Override
+				public void run() {
+					Context.getService(BulkExportService.class).removeExpiredJobs();
+				}
+			}, daemonToken);
+		}
+		catch (RuntimeException e) {
+			// an exception would cancel the periodic cleanup
+			log.error("Unable to remove the expired bulk export jobs", e);
+		}
+	}
+
+	private static void fail(ExportJob job, Exception e) {
+		log.error("Bulk export " + job.getId() + " failed", e);
+		job.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+		job.setStatus(ExportJob.Status.FAILED);
+	}
+
+	/**
+	 * Converts each exported object and writes it as one line of the NDJSON file
+	 */
+	private static class NdjsonHandler implements ResultHandler<OpenmrsObject> {
+
+		private final Writer writer;
+
+		private final IParser parser = FHIRContextFactory.getFHIRContext().newJsonParser();
+
+		NdjsonHandler(Writer writer) {
+			this.writer = writer;
+		}
+
+		@Override
+		public boolean handle(final OpenmrsObject object) {
+			Resource resource = FHIRResourceCache.generateUncached(Resource.class, null,
+					new FHIRResourceCache.Generator<Resource>() {
+
+						@Override
+						public Resource generate() {
+							return generateResource(object);
+						}
+					});
+			try {
+				parser.encodeResourceToWriter(resource, writer);
+				writer.write('\n');
+			}
+			catch (IOException e) {
+				throw new APIException("Unable to write the export file", e);
+			}
+			return true;
+		}
+
+		private Resource generateResource(OpenmrsObject object) {
+			if (object instanceof Patient) {
+				return FHIRPatientUtil.generatePatient((Patient) object);
+			} else if (object instanceof Encounter) {
+				org.hl7.fhir.dstu3.model.Encounter encounter = FHIREncounterUtil.generateEncounter((Encounter) object);
+				if (((Encounter) object).isVoided()) {
+					encounter.setStatus(org.hl7.fhir.dstu3.model.Encounter.EncounterStatus.ENTEREDINERROR);
+				}
+				return encounter;
+			}
+			Observation observation = FHIRObsUtil.generateObs((Obs) object);
+			if (((Obs) object).isVoided()) {
+				observation.setStatus(Observation.ObservationStatus.ENTEREDINERROR);
+			}
+			return observation;
+		}
+	}
+}
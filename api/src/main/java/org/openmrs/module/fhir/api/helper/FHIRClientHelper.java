@@ -1,6 +1,5 @@
 package org.openmrs.module.fhir.api.helper;
 
-import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.parser.IParser;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -22,6 +21,7 @@ import org.openmrs.module.fhir.api.client.ClientHttpEntity;
 import org.openmrs.module.fhir.api.client.ClientHttpRequestInterceptor;
 import org.openmrs.module.fhir.api.client.FHIRHttpMessageConverter;
 import org.openmrs.module.fhir.api.exceptions.FHIRException;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
 import org.openmrs.module.fhir.api.util.ContextUtil;
 import org.openmrs.module.fhir.api.util.ErrorUtil;
 import org.openmrs.module.fhir.api.util.FHIRAllergyIntoleranceUtil;
@@ -82,14 +82,8 @@ public class FHIRClientHelper implements ClientHelper {
 		CATEGORY_MAP.put(CATEGORY_CONDITION, Condition.class);
 	}
 
-	private final IParser parser;
-
 	protected final Log log = LogFactory.getLog(this.getClass());
 
-	public FHIRClientHelper() {
-		parser = FhirContext.forDstu3().newJsonParser();
-	}
-
 	@Override
 	public ClientHttpEntity retrieveRequest(String url) throws URISyntaxException {
 		return new ClientHttpEntity(HttpMethod.GET, new URI(url));
@@ -98,7 +92,7 @@ public class FHIRClientHelper implements ClientHelper {
 	@Override
 	public ClientHttpEntity createRequest(String url, Object object) throws URISyntaxException {
 		url = createUrl(url, (IBaseResource) object);
-		return new ClientHttpEntity<String>(parser.encodeResourceToString((IBaseResource) object), HttpMethod.PUT, new URI(url));
+		return new ClientHttpEntity<String>(encode((IBaseResource) object), HttpMethod.PUT, new URI(url));
 	}
 
 	@Override
@@ -110,7 +104,7 @@ public class FHIRClientHelper implements ClientHelper {
 	@Override
 	public ClientHttpEntity updateRequest(String url, Object object) throws URISyntaxException {
 		url = createUrl(url, (IBaseResource) object);
-		return new ClientHttpEntity<String>(parser.encodeResourceToString((IBaseResource) object), HttpMethod.PUT, new URI(url));
+		return new ClientHttpEntity<String>(encode((IBaseResource) object), HttpMethod.PUT, new URI(url));
 	}
 
 	@Override
@@ -227,6 +221,16 @@ public class FHIRClientHelper implements ClientHelper {
 		return result;
 	}
 
+	private String encode(IBaseResource resource) {
+		IParser parser = FHIRContextFactory.borrowJsonParser();
+		try {
+			return parser.encodeResourceToString(resource);
+		}
+		finally {
+			FHIRContextFactory.releaseParser(parser);
+		}
+	}
+
 	private String createUrl(String url, IBaseResource object) {
 		return url + "/" + object.getIdElement().getIdPart();
 	}
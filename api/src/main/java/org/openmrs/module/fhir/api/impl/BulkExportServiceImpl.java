@@ -0,0 +1,124 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.impl;
+
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import org.apache.commons.io.FileUtils;
+import org.hl7.fhir.dstu3.model.Group;
+import org.hl7.fhir.dstu3.model.IdType;
+import org.openmrs.Cohort;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.impl.BaseOpenmrsService;
+import org.openmrs.module.fhir.api.BulkExportService;
+import org.openmrs.module.fhir.api.export.ExportJob;
+import org.openmrs.module.fhir.api.export.ExportJobRunner;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the export jobs in memory until they expire, finished jobs and their files are removed
+ * {@link FHIRConstants#EXPORT_RETENTION_HOURS} hours after completion.
+ */
+public class BulkExportServiceImpl extends BaseOpenmrsService implements BulkExportService {
+
+	private static final List<String> SUPPORTED_TYPES = Arrays.asList(FHIRConstants.PATIENT, FHIRConstants.ENCOUNTER,
+			FHIRConstants.OBSERVATION);
+
+	private static final Map<String, ExportJob> jobs = new ConcurrentHashMap<String, ExportJob>();
+
+	/**
+	 * @see org.openmrs.module.fhir.api.BulkExportService#startExport(String, Set, Date)
+	 */
+	@Override
+	public ExportJob startExport(String request, Set<String> types, Date since) {
+		return submit(new ExportJob(request, getExportTypes(types), since, null, FHIRUtils.getExportDirectory()));
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.BulkExportService#startGroupExport(String, String, Set, Date)
+	 */
+	@Override
+	public ExportJob startGroupExport(String request, String groupId, Set<String> types, Date since) {
+		Cohort cohort = Context.getCohortService().getCohortByUuid(groupId);
+		if (cohort == null || cohort.isVoided()) {
+			throw new ResourceNotFoundException(new IdType(Group.class.getSimpleName(), groupId));
+		}
+		List<Integer> patientIds = new ArrayList<Integer>(cohort.getMemberIds());
+		Collections.sort(patientIds);
+		return submit(new ExportJob(request, getExportTypes(types), since, patientIds, FHIRUtils.getExportDirectory()));
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.BulkExportService#getExportJob(String)
+	 */
+	@Override
+	public ExportJob getExportJob(String jobId) {
+		return jobId == null ? null : jobs.get(jobId);
+	}
+
+	private ExportJob submit(ExportJob job) {
+		removeExpiredJobs();
+		jobs.put(job.getId(), job);
+		ExportJobRunner.submit(job);
+		return job;
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.BulkExportService#removeExpiredJobs()
+	 */
+	@Override
+	public void removeExpiredJobs() {
+		long expiry = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(FHIRConstants.EXPORT_RETENTION_HOURS);
+		Iterator<ExportJob> iterator = jobs.values().iterator();
+		while (iterator.hasNext()) {
+			ExportJob job = iterator.next();
+			if (job.isFinished() && job.getCompletedTime().getTime() < expiry) {
+				iterator.remove();
+				FileUtils.deleteQuietly(job.getDirectory());
+			}
+		}
+	}
+
+	private Set<String> getExportTypes(Set<String> types) {
+		if (types == null || types.isEmpty()) {
+			return new LinkedHashSet<String>(SUPPORTED_TYPES);
+		}
+		Set<String> exportTypes = new LinkedHashSet<String>();
+		for (String type : SUPPORTED_TYPES) {
+			if (types.contains(type)) {
+				exportTypes.add(type);
+			}
+		}
+		for (String type : types) {
+			if (!SUPPORTED_TYPES.contains(type)) {
+				throw new InvalidRequestException("Export of " + type + " resources is not supported, supported types are "
+						+ SUPPORTED_TYPES);
+			}
+		}
+		return exportTypes;
+	}
+}
@@ -0,0 +1,447 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.impl;
+
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.exceptions.MethodNotAllowedException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.util.FhirTerser;
+import org.apache.commons.lang.StringUtils;
+import org.hl7.fhir.dstu3.model.AllergyIntolerance;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Condition;
+import org.hl7.fhir.dstu3.model.DiagnosticReport;
+import org.hl7.fhir.dstu3.model.Encounter;
+import org.hl7.fhir.dstu3.model.Group;
+import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.Location;
+import org.hl7.fhir.dstu3.model.Medication;
+import org.hl7.fhir.dstu3.model.MedicationRequest;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.OperationOutcome;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Person;
+import org.hl7.fhir.dstu3.model.Practitioner;
+import org.hl7.fhir.dstu3.model.ProcedureRequest;
+import org.hl7.fhir.dstu3.model.Reference;
+import org.hl7.fhir.dstu3.model.RelatedPerson;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.hl7.fhir.dstu3.model.ResourceType;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.impl.BaseOpenmrsService;
+import org.openmrs.module.fhir.api.AllergyIntoleranceService;
+import org.openmrs.module.fhir.api.BundleService;
+import org.openmrs.module.fhir.api.ConditionService;
+import org.openmrs.module.fhir.api.DiagnosticReportService;
+import org.openmrs.module.fhir.api.EncounterService;
+import org.openmrs.module.fhir.api.GroupService;
+import org.openmrs.module.fhir.api.LocationService;
+import org.openmrs.module.fhir.api.MedicationRequestService;
+import org.openmrs.module.fhir.api.MedicationService;
+import org.openmrs.module.fhir.api.ObsService;
+import org.openmrs.module.fhir.api.PatientService;
+import org.openmrs.module.fhir.api.PersonService;
+import org.openmrs.module.fhir.api.PractitionerService;
+import org.openmrs.module.fhir.api.ProcedureRequestService;
+import org.openmrs.module.fhir.api.RelatedPersonService;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * It is a default implementation of {@link BundleService}.
+ */
+public class BundleServiceImpl extends BaseOpenmrsService implements BundleService {
+
+	private static final String URN_UUID_PREFIX = "urn:uuid:";
+
+	private static final List<Bundle.HTTPVerb> PROCESSING_ORDER = new ArrayList<Bundle.HTTPVerb>();
+
+	static {
+		PROCESSING_ORDER.add(Bundle.HTTPVerb.DELETE);
+		PROCESSING_ORDER.add(Bundle.HTTPVerb.POST);
+		PROCESSING_ORDER.add(Bundle.HTTPVerb.PUT);
+		PROCESSING_ORDER.add(Bundle.HTTPVerb.GET);
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.BundleService#processTransaction(Bundle)
+	 */
+	@Override
+	public Bundle processTransaction(Bundle bundle) {
+		return process(bundle, Bundle.BundleType.TRANSACTIONRESPONSE);
+	}
+
+	/**
+	 * @see org.openmrs.module.fhir.api.BundleService#processBatch(Bundle)
+	 */
+	@Override
+	public Bundle processBatch(Bundle bundle) {
+		return process(bundle, Bundle.BundleType.BATCHRESPONSE);
+	}
+
+	private Bundle process(Bundle bundle, Bundle.BundleType responseType) {
+		boolean transaction = responseType == Bundle.BundleType.TRANSACTIONRESPONSE;
+		List<Bundle.BundleEntryComponent> entries = bundle.getEntry();
+		Bundle.BundleEntryComponent[] responseEntries = new Bundle.BundleEntryComponent[entries.size()];
+		Map<String, String> references = assignIds(entries);
+
+		int processed = 0;
+		for (Integer index : getProcessingOrder(entries)) {
+			try {
+				responseEntries[index] = processEntry(entries.get(index), references);
+			}
+			catch (RuntimeException e) {
+				if (transaction) {
+					throw toTransactionException(index, e);
+				}
+				responseEntries[index] = createErrorResponse(e);
+			}
+			// keep the session small for large transactions, the entries are independent once written
+			if (transaction && ++processed % FHIRConstants.TRANSACTION_FLUSH_INTERVAL == 0) {
+				Context.flushSession();
+				Context.clearSession();
+			}
+		}
+
+		Bundle response = new Bundle();
+		response.setType(responseType);
+		for (Bundle.BundleEntryComponent responseEntry : responseEntries) {
+			response.addEntry(responseEntry);
+		}
+		return response;
+	}
+
+	/**
+	 * Give the resources created from urn:uuid entries the uuid of their full url, so the references
+	 * to entries which are processed later can already be resolved
+	 *
+	 * @return references to replace, from entry full url to resource type and id
+	 */
+	private Map<String, String> assignIds(List<Bundle.BundleEntryComponent> entries) {
+		Map<String, String> references = new HashMap<String, String>();
+		for (Bundle.BundleEntryComponent entry : entries) {
+			Resource resource = entry.getResource();
+			String fullUrl = entry.getFullUrl();
+			if (resource == null || fullUrl == null || !fullUrl.startsWith(URN_UUID_PREFIX)) {
+				continue;
+			}
+			if (entry.getRequest().getMethod() == Bundle.HTTPVerb.POST && !resource.hasIdElement()) {
+				resource.setId(fullUrl.substring(URN_UUID_PREFIX.length()));
+			}
+			if (resource.hasIdElement()) {
+				references.put(fullUrl, resource.fhirType() + "/" + resource.getIdElement().getIdPart());
+			}
+		}
+		return references;
+	}
+
+	private List<Integer> getProcessingOrder(final List<Bundle.BundleEntryComponent> entries) {
+		List<Integer> order = new ArrayList<Integer>(entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			order.add(i);
+		}
+		Collections.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer first, Integer second) {
+				return getRank(entries.get(first)) - getRank(entries.get(second));
+			}
+		});
+		return order;
+	}
+
+	private int getRank(Bundle.BundleEntryComponent entry) {
+		int rank = PROCESSING_ORDER.indexOf(entry.getRequest().getMethod());
+		return rank < 0 ? PROCESSING_ORDER.size() : rank;
+	}
+
+	private Bundle.BundleEntryComponent processEntry(Bundle.BundleEntryComponent entry, Map<String, String> references) {
+		Bundle.HTTPVerb method = entry.getRequest().getMethod();
+		if (method == null) {
+			throw new InvalidRequestException("Bundle entry has no request method");
+		}
+		Resource resource = entry.getResource();
+		if (resource != null) {
+			resolveReferences(resource, references);
+		}
+
+		Bundle.BundleEntryComponent response = new Bundle.BundleEntryComponent();
+		switch (method) {
+			case POST: {
+				Resource created = create(getRequiredResource(entry));
+				String location = created.fhirType() + "/" + created.getIdElement().getIdPart();
+				if (entry.getFullUrl() != null) {
+					references.put(entry.getFullUrl(), location);
+				}
+				response.getResponse().setStatus("201 Created").setLocation(location);
+				break;
+			}
+			case PUT: {
+				IdType id = getRequestId(entry);
+				update(getRequiredResource(entry), id.getIdPart());
+				response.getResponse().setStatus("200 OK").setLocation(id.getValue());
+				break;
+			}
+			case DELETE: {
+				IdType id = getRequestId(entry);
+				delete(id.getResourceType(), id.getIdPart());
+				response.getResponse().setStatus("204 No Content");
+				break;
+			}
+			case GET: {
+				IdType id = getRequestId(entry);
+				Resource found = read(id.getResourceType(), id.getIdPart());
+				if (found == null) {
+					throw new ResourceNotFoundException(id);
+				}
+				response.setResource(found);
+				response.getResponse().setStatus("200 OK");
+				break;
+			}
+			default:
+				throw new MethodNotAllowedException("Bundle entry method " + method.toCode() + " is not supported");
+		}
+		return response;
+	}
+
+	private void resolveReferences(Resource resource, Map<String, String> references) {
+		FhirTerser terser = FHIRContextFactory.getFHIRContext().newTerser();
+		for (Reference reference : terser.getAllPopulatedChildElementsOfType(resource, Reference.class)) {
+			String target = references.get(reference.getReference());
+			if (target != null) {
+				reference.setReference(target);
+			}
+		}
+	}
+
+	private Resource getRequiredResource(Bundle.BundleEntryComponent entry) {
+		Resource resource = entry.getResource();
+		if (resource == null) {
+			throw new InvalidRequestException(entry.getRequest().getMethod().toCode() + " bundle entry has no resource");
+		}
+		FHIRUtils.validateInbound(resource);
+		return resource;
+	}
+
+	/**
+	 * Only request urls of the form [type]/[id] are supported, conditional operations and searches
+	 * are not
+	 */
+	private IdType getRequestId(Bundle.BundleEntryComponent entry) {
+		String url = StringUtils.substringBefore(StringUtils.stripStart(entry.getRequest().getUrl(), "/"), "?");
+		IdType id = new IdType(url);
+		if (!id.hasResourceType() || !id.hasIdPart()) {
+			throw new InvalidRequestException("Bundle entry request url must be of the form [type]/[id]: "
+					+ entry.getRequest().getUrl());
+		}
+		return id;
+	}
+
+	private Resource create(Resource resource) {
+		switch (resource.getResourceType()) {
+			case Patient:
+				return Context.getService(PatientService.class).createFHIRPatient((Patient) resource);
+			case Person:
+				return Context.getService(PersonService.class).createFHIRPerson((Person) resource);
+			case Practitioner:
+				return Context.getService(PractitionerService.class).createFHIRPractitioner((Practitioner) resource);
+			case RelatedPerson:
+				return Context.getService(RelatedPersonService.class).createRelatedPerson((RelatedPerson) resource);
+			case Location:
+				return Context.getService(LocationService.class).createLocation((Location) resource);
+			case Encounter:
+				return Context.getService(EncounterService.class).createFHIREncounter((Encounter) resource);
+			case Observation:
+				return Context.getService(ObsService.class).createFHIRObservation((Observation) resource);
+			case AllergyIntolerance:
+				return Context.getService(AllergyIntoleranceService.class).createAllergy((AllergyIntolerance) resource);
+			case Condition:
+				return Context.getService(ConditionService.class).createFHIRCondition((Condition) resource);
+			case DiagnosticReport:
+				return Context.getService(DiagnosticReportService.class)
+						.createFHIRDiagnosticReport((DiagnosticReport) resource);
+			case Group:
+				return Context.getService(GroupService.class).createGroup((Group) resource);
+			case Medication:
+				return Context.getService(MedicationService.class).createMedication((Medication) resource);
+			case MedicationRequest:
+				return Context.getService(MedicationRequestService.class)
+						.createFHIRMedicationRequest((MedicationRequest) resource);
+			case ProcedureRequest:
+				return Context.getService(ProcedureRequestService.class)
+						.createProcedureRequest((ProcedureRequest) resource);
+			default:
+				throw new MethodNotAllowedException("Creating " + resource.fhirType() + " resources is not supported");
+		}
+	}
+
+	private Resource update(Resource resource, String uuid) {
+		switch (resource.getResourceType()) {
+			case Patient:
+				return Context.getService(PatientService.class).updatePatient((Patient) resource, uuid);
+			case Person:
+				return Context.getService(PersonService.class).updateFHIRPerson((Person) resource, uuid);
+			case Practitioner:
+				return Context.getService(PractitionerService.class).updatePractitioner((Practitioner) resource, uuid);
+			case RelatedPerson:
+				return Context.getService(RelatedPersonService.class).updateRelatedPerson(uuid, (RelatedPerson) resource);
+			case Location:
+				return Context.getService(LocationService.class).updateLocation(uuid, (Location) resource);
+			case Encounter:
+				return Context.getService(EncounterService.class).updateEncounter((Encounter) resource, uuid);
+			case Observation:
+				return Context.getService(ObsService.class).updateFHIRObservation((Observation) resource, uuid);
+			case AllergyIntolerance:
+				return Context.getService(AllergyIntoleranceService.class)
+						.updateAllergy((AllergyIntolerance) resource, uuid);
+			case Condition:
+				resource.setId(uuid);
+				return Context.getService(ConditionService.class).updateFHIRCondition((Condition) resource);
+			case DiagnosticReport:
+				return Context.getService(DiagnosticReportService.class)
+						.updateFHIRDiagnosticReport((DiagnosticReport) resource, uuid);
+			case Group:
+				return Context.getService(GroupService.class).updateGroup((Group) resource, uuid);
+			case Medication:
+				return Context.getService(MedicationService.class).updateMedication((Medication) resource, uuid);
+			case MedicationRequest:
+				return Context.getService(MedicationRequestService.class)
+						.updateFHIRMedicationRequest((MedicationRequest) resource, uuid);
+			case ProcedureRequest:
+				return Context.getService(ProcedureRequestService.class)
+						.updateProcedureRequest((ProcedureRequest) resource, uuid);
+			default:
+				throw new MethodNotAllowedException("Updating " + resource.fhirType() + " resources is not supported");
+		}
+	}
+
+	private void delete(String resourceType, String uuid) {
+		switch (getResourceType(resourceType)) {
+			case Patient:
+				Context.getService(PatientService.class).deletePatient(uuid);
+				break;
+			case Person:
+				Context.getService(PersonService.class).retirePerson(uuid);
+				break;
+			case RelatedPerson:
+				Context.getService(RelatedPersonService.class).deleteRelatedPerson(uuid);
+				break;
+			case Location:
+				Context.getService(LocationService.class).deleteLocation(uuid);
+				break;
+			case Encounter:
+				Context.getService(EncounterService.class).deleteEncounter(uuid);
+				break;
+			case Observation:
+				Context.getService(ObsService.class).deleteObs(uuid);
+				break;
+			case AllergyIntolerance:
+				Context.getService(AllergyIntoleranceService.class).deleteAllergy(uuid);
+				break;
+			case Condition:
+				Context.getService(ConditionService.class).retireCondition(uuid);
+				break;
+			case DiagnosticReport:
+				Context.getService(DiagnosticReportService.class).retireDiagnosticReport(uuid);
+				break;
+			case Group:
+				Context.getService(GroupService.class).deleteGroup(uuid);
+				break;
+			case Medication:
+				Context.getService(MedicationService.class).deleteMedication(uuid);
+				break;
+			case MedicationRequest:
+				Context.getService(MedicationRequestService.class).deleteMedicationRequest(uuid);
+				break;
+			case ProcedureRequest:
+				Context.getService(ProcedureRequestService.class).deleteProcedureRequest(uuid);
+				break;
+			default:
+				throw new MethodNotAllowedException("Deleting " + resourceType + " resources is not supported");
+		}
+	}
+
+	private Resource read(String resourceType, String uuid) {
+		switch (getResourceType(resourceType)) {
+			case Patient:
+				return Context.getService(PatientService.class).getPatient(uuid);
+			case Person:
+				return Context.getService(PersonService.class).getPerson(uuid);
+			case Practitioner:
+				return Context.getService(PractitionerService.class).getPractitioner(uuid);
+			case RelatedPerson:
+				return Context.getService(RelatedPersonService.class).getRelatedPerson(uuid);
+			case Location:
+				return Context.getService(LocationService.class).getLocation(uuid);
+			case Encounter:
+				return Context.getService(EncounterService.class).getEncounter(uuid);
+			case Observation:
+				return Context.getService(ObsService.class).getObs(uuid);
+			case AllergyIntolerance:
+				return Context.getService(AllergyIntoleranceService.class).getAllergyById(uuid);
+			case Condition:
+				return Context.getService(ConditionService.class).getConditionByUuid(uuid);
+			case DiagnosticReport:
+				return Context.getService(DiagnosticReportService.class).getDiagnosticReport(uuid);
+			case Group:
+				return Context.getService(GroupService.class).getGroup(uuid);
+			case Medication:
+				return Context.getService(MedicationService.class).getMedicationById(uuid);
+			case MedicationRequest:
+				return Context.getService(MedicationRequestService.class).getMedicationRequestById(uuid);
+			case ProcedureRequest:
+				return Context.getService(ProcedureRequestService.class).getProcedureRequestByUuid(uuid);
+			default:
+				throw new MethodNotAllowedException("Reading " + resourceType + " resources is not supported");
+		}
+	}
+
+	private ResourceType getResourceType(String resourceType) {
+		try {
+			return ResourceType.fromCode(resourceType);
+		}
+		catch (Exception e) {
+			throw new InvalidRequestException("Unknown resource type " + resourceType);
+		}
+	}
+
+	private BaseServerResponseException toTransactionException(int index, RuntimeException e) {
+		if (e instanceof BaseServerResponseException) {
+			return (BaseServerResponseException) e;
+		}
+		return new InternalErrorException("Failed to process transaction entry " + index + ": " + e.getMessage(), e);
+	}
+
+	private Bundle.BundleEntryComponent createErrorResponse(RuntimeException e) {
+		int statusCode = e instanceof BaseServerResponseException ?
+				((BaseServerResponseException) e).getStatusCode() :
+				InternalErrorException.STATUS_CODE;
+		OperationOutcome outcome = new OperationOutcome();
+		outcome.addIssue().setSeverity(OperationOutcome.IssueSeverity.ERROR)
+				.setCode(OperationOutcome.IssueType.PROCESSING).setDiagnostics(e.getMessage());
+		Bundle.BundleEntryComponent response = new Bundle.BundleEntryComponent();
+		response.getResponse().setStatus(String.valueOf(statusCode)).setOutcome(outcome);
+		return response;
+	}
+}
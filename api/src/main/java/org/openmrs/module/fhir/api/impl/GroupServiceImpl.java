@@ -1,5 +1,6 @@
 package org.openmrs.module.fhir.api.impl;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Group;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.fhir.api.GroupService;
@@ -24,6 +25,11 @@ public class GroupServiceImpl extends BaseOpenmrsService implements GroupService
 		return GroupStrategyUtil.getGroupStrategy().searchGroupByName(name);
 	}
 
+	@Override
+	public IBundleProvider getGroupMembers(String id) {
+		return GroupStrategyUtil.getGroupStrategy().getGroupMembers(id);
+	}
+
 	@Override
 	public Group createGroup(Group group) {
 		return GroupStrategyUtil.getGroupStrategy().createGroup(group);
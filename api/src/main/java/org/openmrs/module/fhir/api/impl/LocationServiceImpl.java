@@ -15,13 +15,14 @@ package org.openmrs.module.fhir.api.impl;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Location;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.fhir.api.LocationService;
 import org.openmrs.module.fhir.api.db.FHIRDAO;
 import org.openmrs.module.fhir.api.strategies.location.LocationStrategyUtil;
 
-import java.util.List;
+import java.util.Date;
 
 /**
  * It is a default implementation of {@link org.openmrs.module.fhir.api.PatientService}.
@@ -54,11 +55,19 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 		return LocationStrategyUtil.getLocationStrategy().getLocation(uuid);
 	}
 
+	/**
+	 * @see org.openmrs.module.fhir.api.LocationService#getLocationLastUpdated(String)
+	 */
+	@Override
+	public Date getLocationLastUpdated(String uuid) {
+		return LocationStrategyUtil.getLocationStrategy().getLocationLastUpdated(uuid);
+	}
+
 	/**
 	 * @see org.openmrs.module.fhir.api.LocationService#searchLocationsByUuid(String)
 	 */
 	@Override
-	public List<Location> searchLocationsByUuid(String uuid) {
+	public IBundleProvider searchLocationsByUuid(String uuid) {
 		return LocationStrategyUtil.getLocationStrategy().searchLocationsByUuid(uuid);
 	}
 
@@ -66,7 +75,7 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 	 * @see org.openmrs.module.fhir.api.LocationService#searchLocationsByName(String)
 	 */
 	@Override
-	public List<Location> searchLocationsByName(String name) {
+	public IBundleProvider searchLocationsByName(String name) {
 		return LocationStrategyUtil.getLocationStrategy().searchLocationsByName(name);
 	}
 
@@ -74,7 +83,7 @@ public class LocationServiceImpl extends BaseOpenmrsService implements LocationS
 	 * @see org.openmrs.module.fhir.api.LocationService#searchLocationsByStatus(boolean)
 	 */
 	@Override
-	public List<Location> searchLocationsByStatus(boolean status) {
+	public IBundleProvider searchLocationsByStatus(boolean status) {
 		return LocationStrategyUtil.getLocationStrategy().searchLocationsByStatus(status);
 	}
 
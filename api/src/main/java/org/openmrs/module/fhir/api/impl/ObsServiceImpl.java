@@ -13,6 +13,7 @@
  */
 package org.openmrs.module.fhir.api.impl;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -20,6 +21,7 @@ import org.hl7.fhir.dstu3.model.Observation;
 import org.openmrs.api.impl.BaseOpenmrsService;
 import org.openmrs.module.fhir.api.ObsService;
 import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
 import org.openmrs.module.fhir.api.strategies.observation.ObservationStrategyUtil;
 
 import java.util.Date;
@@ -59,7 +61,7 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsByPatientAndConcept(String, java.util.Map)
 	 */
-	public List<Observation> searchObsByPatientAndConcept(String patientUUid, Map<String, String> conceptNamesAndURIs) {
+	public IBundleProvider searchObsByPatientAndConcept(String patientUUid, Map<String, String> conceptNamesAndURIs) {
 		return ObservationStrategyUtil.getObservationStrategy()
 				.searchObservationByPatientAndConcept(patientUUid, conceptNamesAndURIs);
 	}
@@ -67,42 +69,42 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsById(String)
 	 */
-	public List<Observation> searchObsById(String id) {
+	public IBundleProvider searchObsById(String id) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationByUuid(id);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsByCode(java.util.Map)
 	 */
-	public List<Observation> searchObsByCode(Map<String, String> conceptNamesAndURIs) {
+	public IBundleProvider searchObsByCode(Map<String, String> conceptNamesAndURIs) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationsByCode(conceptNamesAndURIs);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsByDate(java.util.Date)
 	 */
-	public List<Observation> searchObsByDate(Date date) {
+	public IBundleProvider searchObsByDate(Date date) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationByDate(date);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsByPerson(String)
 	 */
-	public List<Observation> searchObsByPerson(String personUuid) {
+	public IBundleProvider searchObsByPerson(String personUuid) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationByPerson(personUuid);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsByValueConcept(String)
 	 */
-	public List<Observation> searchObsByValueConcept(String conceptName) {
+	public IBundleProvider searchObsByValueConcept(String conceptName) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationByValueConcept(conceptName);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.ObsService#searchObsByPatientIdentifier(String)
 	 */
-	public List<Observation> searchObsByPatientIdentifier(String identifier) {
+	public IBundleProvider searchObsByPatientIdentifier(String identifier) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationByPatientIdentifier(identifier);
 	}
 
@@ -134,8 +136,18 @@ public class ObsServiceImpl extends BaseOpenmrsService implements ObsService {
 	 * @see ObsService#searchObsByPatientAndCode(java.lang.String, java.util.List)
 	 */
 	@Override
-	public List<Observation> searchObsByPatientAndCode(String patientUuid, List<TokenParam> codings) {
+	public IBundleProvider searchObsByPatientAndCode(String patientUuid, List<TokenParam> codings) {
 		return ObservationStrategyUtil.getObservationStrategy().searchObservationByPatientAndCode(patientUuid,
 				codings);
 	}
+
+	/**
+	 * @see ObsService#searchObs(String, List, Date, Date, ObsSearchCriteria.DateOrder)
+	 */
+	@Override
+	public IBundleProvider searchObs(String personUuid, List<TokenParam> codings, Date fromDate, Date toDate,
+			ObsSearchCriteria.DateOrder dateOrder) {
+		return ObservationStrategyUtil.getObservationStrategy().searchObservations(personUuid, codings, fromDate, toDate,
+				dateOrder);
+	}
 }
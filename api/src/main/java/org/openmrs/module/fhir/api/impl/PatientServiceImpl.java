@@ -13,6 +13,7 @@
  */
 package org.openmrs.module.fhir.api.impl;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.hl7.fhir.dstu3.model.Bundle;
@@ -22,7 +23,8 @@ import org.openmrs.module.fhir.api.PatientService;
 import org.openmrs.module.fhir.api.db.FHIRDAO;
 import org.openmrs.module.fhir.api.strategies.patient.PatientStrategyUtil;
 
-import java.util.List;
+import java.util.Date;
+import java.util.Set;
 
 /**
  * It is a default implementation of {@link org.openmrs.module.fhir.api.PatientService}.
@@ -54,52 +56,60 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		return PatientStrategyUtil.getPatientStrategy().getPatient(uuid);
 	}
 
+	/**
+	 * @see org.openmrs.module.fhir.api.PatientService#getPatientLastUpdated(String)
+	 */
+	@Override
+	public Date getPatientLastUpdated(String uuid) {
+		return PatientStrategyUtil.getPatientStrategy().getPatientLastUpdated(uuid);
+	}
+
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatientsById(String)
 	 */
-	public List<Patient> searchPatientsById(String uuid) {
+	public IBundleProvider searchPatientsById(String uuid) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatientsById(uuid);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatientsByIdentifier(String, String)
 	 */
-	public List<Patient> searchPatientsByIdentifier(String identifierValue, String identifierTypeName) {
+	public IBundleProvider searchPatientsByIdentifier(String identifierValue, String identifierTypeName) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatientsByIdentifier(identifierValue, identifierTypeName);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatientsByIdentifier(String)
 	 */
-	public List<Patient> searchPatientsByIdentifier(String identifier) {
+	public IBundleProvider searchPatientsByIdentifier(String identifier) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatientsByIdentifier(identifier);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatients(boolean)
 	 */
-	public List<Patient> searchPatients(boolean active) {
+	public IBundleProvider searchPatients(boolean active) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatients(active);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatientsByGivenName(String)
 	 */
-	public Bundle searchPatientsByGivenName(String givenName) {
+	public IBundleProvider searchPatientsByGivenName(String givenName) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatientsByGivenName(givenName);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatientsByFamilyName(String)
 	 */
-	public Bundle searchPatientsByFamilyName(String familyName) {
+	public IBundleProvider searchPatientsByFamilyName(String familyName) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatientsByFamilyName(familyName);
 	}
 
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#searchPatientsByName(String) (String)
 	 */
-	public Bundle searchPatientsByName(String name) {
+	public IBundleProvider searchPatientsByName(String name) {
 		return PatientStrategyUtil.getPatientStrategy().searchPatientsByName(name);
 	}
 
@@ -110,6 +120,14 @@ public class PatientServiceImpl extends BaseOpenmrsService implements PatientSer
 		return PatientStrategyUtil.getPatientStrategy().getPatientOperationsById(patientId);
 	}
 
+	/**
+	 * @see org.openmrs.module.fhir.api.PatientService#getPatientEverything(String, Date, Set)
+	 */
+	@Override
+	public IBundleProvider getPatientEverything(String patientId, Date since, Set<String> types) {
+		return PatientStrategyUtil.getPatientStrategy().getPatientEverything(patientId, since, types);
+	}
+
 	/**
 	 * @see org.openmrs.module.fhir.api.PatientService#deletePatient(String)
 	 */
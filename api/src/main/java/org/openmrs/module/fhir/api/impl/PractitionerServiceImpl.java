@@ -21,6 +21,7 @@ import org.openmrs.module.fhir.api.PractitionerService;
 import org.openmrs.module.fhir.api.db.FHIRDAO;
 import org.openmrs.module.fhir.api.strategies.practitioner.PractitionerStrategyUtil;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -53,6 +54,14 @@ public class PractitionerServiceImpl extends BaseOpenmrsService implements Pract
 		return PractitionerStrategyUtil.getPractitionerStrategy().getPractitioner(id);
 	}
 
+	/**
+	 * @see org.openmrs.module.fhir.api.PractitionerService#getPractitionerLastUpdated(String)
+	 */
+	@Override
+	public Date getPractitionerLastUpdated(String id) {
+		return PractitionerStrategyUtil.getPractitionerStrategy().getPractitionerLastUpdated(id);
+	}
+
 	/**
 	 * @see org.openmrs.module.fhir.api.PractitionerService#searchPractitionersById(String)
 	 */
@@ -14,12 +14,146 @@
 package org.openmrs.module.fhir.api.manager;
 
 import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import org.hl7.fhir.dstu3.model.AllergyIntolerance;
+import org.hl7.fhir.dstu3.model.Appointment;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Composition;
+import org.hl7.fhir.dstu3.model.Condition;
+import org.hl7.fhir.dstu3.model.DiagnosticReport;
+import org.hl7.fhir.dstu3.model.Encounter;
+import org.hl7.fhir.dstu3.model.FamilyMemberHistory;
+import org.hl7.fhir.dstu3.model.Group;
+import org.hl7.fhir.dstu3.model.Location;
+import org.hl7.fhir.dstu3.model.Medication;
+import org.hl7.fhir.dstu3.model.MedicationRequest;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.OperationOutcome;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Person;
+import org.hl7.fhir.dstu3.model.Practitioner;
+import org.hl7.fhir.dstu3.model.ProcedureRequest;
+import org.hl7.fhir.dstu3.model.RelatedPerson;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the single DSTU3 {@link FhirContext} of the module. Creating a context and scanning the model
+ * classes is expensive, so the REST server, the clients and the utilities all share this one, and the
+ * resource types served by the module are scanned when the module starts rather than on the first
+ * request. Settings of the shared context apply to every user of it, a user which needs settings of
+ * its own, such as a narrative generator, creates a separate context with {@link #createFHIRContext()}.
+ * <p>
+ * Parsers are not thread safe. {@link #borrowJsonParser()} and {@link #borrowXmlParser()} hand out a
+ * pooled parser to be given back with {@link #releaseParser(IParser)} once done; the pooled parsers
+ * use the default settings, which must not be changed.
+ */
 public class FHIRContextFactory {
 
-	private static final FhirContext context = new FhirContext();
+	private static final int MAX_IDLE_PARSERS = 16;
+
+	private static final List<Class<? extends IBaseResource>> SERVED_TYPES = Arrays
+			.<Class<? extends IBaseResource>>asList(Patient.class, Person.class, RelatedPerson.class,
+					Practitioner.class, Location.class, Encounter.class, Observation.class, AllergyIntolerance.class,
+					Condition.class, DiagnosticReport.class, FamilyMemberHistory.class, Medication.class,
+					MedicationRequest.class, ProcedureRequest.class, Group.class, Appointment.class, Composition.class,
+					Bundle.class, OperationOutcome.class);
+
+	private static final FhirContext context = FhirContext.forDstu3();
+
+	private static final ParserPool jsonParsers = new ParserPool(false);
+
+	private static final ParserPool xmlParsers = new ParserPool(true);
 
 	public static FhirContext getFHIRContext() {
 		return context;
 	}
+
+	/**
+	 * Create a new DSTU3 context, with the resource types served by the module already scanned, for a
+	 * user which must not change the settings of the shared context
+	 *
+	 * @return the new context
+	 */
+	public static FhirContext createFHIRContext() {
+		FhirContext newContext = FhirContext.forDstu3();
+		scanServedTypes(newContext);
+		return newContext;
+	}
+
+	/**
+	 * Scan the definitions of the resource types served by the module and create the first parsers
+	 */
+	public static void warmUp() {
+		scanServedTypes(context);
+		releaseParser(borrowJsonParser());
+		releaseParser(borrowXmlParser());
+	}
+
+	/**
+	 * @return a JSON parser for the calling thread, to be given back with {@link #releaseParser(IParser)}
+	 */
+	public static IParser borrowJsonParser() {
+		return jsonParsers.borrow();
+	}
+
+	/**
+	 * @return an XML parser for the calling thread, to be given back with {@link #releaseParser(IParser)}
+	 */
+	public static IParser borrowXmlParser() {
+		return xmlParsers.borrow();
+	}
+
+	/**
+	 * Give back a parser obtained from {@link #borrowJsonParser()} or {@link #borrowXmlParser()}
+	 *
+	 * @param parser borrowed parser
+	 */
+	public static void releaseParser(IParser parser) {
+		if (parser != null) {
+			(parser.getEncoding() == EncodingEnum.XML ? xmlParsers : jsonParsers).release(parser);
+		}
+	}
+
+	private static void scanServedTypes(FhirContext fhirContext) {
+		for (Class<? extends IBaseResource> type : SERVED_TYPES) {
+			fhirContext.getResourceDefinition(type);
+		}
+	}
+
+	private static class ParserPool {
+
+		private final Queue<IParser> idle = new ConcurrentLinkedQueue<IParser>();
+
+		private final AtomicInteger idleCount = new AtomicInteger();
+
+		private final boolean xml;
+
+		ParserPool(boolean xml) {
+			this.xml = xml;
+		}
+
+		IParser borrow() {
+			IParser parser = idle.poll();
+			if (parser == null) {
+				return xml ? context.newXmlParser() : context.newJsonParser();
+			}
+			idleCount.decrementAndGet();
+			return parser;
+		}
+
+		void release(IParser parser) {
+			if (idleCount.incrementAndGet() <= MAX_IDLE_PARSERS) {
+				idle.offer(parser);
+			} else {
+				idleCount.decrementAndGet();
+			}
+		}
+	}
 }
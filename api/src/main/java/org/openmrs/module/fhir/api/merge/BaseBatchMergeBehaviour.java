@@ -0,0 +1,98 @@
+package org.openmrs.module.fhir.api.merge;
+
+import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h1>BaseBatchMergeBehaviour</h1>
+ * Merges many foreign entities at once. The foreign entities are grouped by class and the local
+ * counterparts of each group are loaded by uuid with one query per {@link FHIRConstants#MERGE_BATCH_SIZE}
+ * entities, instead of one lookup per entity. Each pair is then resolved with
+ * {@link #resolveDiff(Class, Object, Object)}, which receives a null local when the entity does not
+ * exist locally.
+ *
+ * @see MergeBehaviour
+ * @since 1.21.0
+ */
+public abstract class BaseBatchMergeBehaviour<T extends OpenmrsObject> implements MergeBehaviour<T> {
+
+	/**
+	 * <p>Resolves merge conflicts for foreign entities of any classes.</p>
+	 *
+	 * @param foreigns foreign versions of the entities
+	 * @return results of all entities, grouped by class
+	 */
+	public BatchMergeResult<T> resolveDiffs(Collection<? extends T> foreigns) {
+		Map<Class<? extends T>, List<T>> foreignsByClass = new LinkedHashMap<>();
+		for (T foreign : foreigns) {
+			@SuppressWarnings("unchecked")
+			Class<? extends T> clazz = (Class<? extends T>) foreign.getClass();
+			List<T> group = foreignsByClass.get(clazz);
+			if (group == null) {
+				group = new ArrayList<>();
+				foreignsByClass.put(clazz, group);
+			}
+			group.add(foreign);
+		}
+
+		BatchMergeResult<T> result = new BatchMergeResult<>();
+		for (Map.Entry<Class<? extends T>, List<T>> entry : foreignsByClass.entrySet()) {
+			resolveDiffs(entry.getKey(), entry.getValue(), result);
+		}
+		return result;
+	}
+
+	/**
+	 * <p>Resolves merge conflicts for foreign entities of a single class.</p>
+	 *
+	 * @param clazz represents specific class which extends T
+	 * @param foreigns foreign versions of the entities
+	 * @return results of all entities, in the order of the given entities
+	 */
+	public BatchMergeResult<T> resolveDiffs(Class<? extends T> clazz, Collection<? extends T> foreigns) {
+		BatchMergeResult<T> result = new BatchMergeResult<>();
+		resolveDiffs(clazz, foreigns, result);
+		return result;
+	}
+
+	private <S extends T> void resolveDiffs(Class<S> clazz, Collection<? extends T> foreigns,
+			BatchMergeResult<T> result) {
+		Map<String, T> locals = getLocals(clazz, foreigns);
+		for (T foreign : foreigns) {
+			result.add(resolveDiff(clazz, locals.get(foreign.getUuid()), foreign));
+		}
+	}
+
+	/**
+	 * Load the local versions of the given entities
+	 *
+	 * @param clazz class of the entities
+	 * @param foreigns foreign versions of the entities
+	 * @return local versions of the entities by uuid
+	 */
+	protected <S extends T> Map<String, T> getLocals(Class<S> clazz, Collection<? extends T> foreigns) {
+		List<String> uuids = new ArrayList<>();
+		for (T foreign : foreigns) {
+			if (foreign.getUuid() != null) {
+				uuids.add(foreign.getUuid());
+			}
+		}
+
+		Map<String, T> locals = new HashMap<>();
+		for (int i = 0; i < uuids.size(); i += FHIRConstants.MERGE_BATCH_SIZE) {
+			List<String> batch = uuids.subList(i, Math.min(i + FHIRConstants.MERGE_BATCH_SIZE, uuids.size()));
+			for (S local : ContextUtil.getFHIRDAO().getObjectsByUuids(clazz, batch)) {
+				locals.put(local.getUuid(), local);
+			}
+		}
+		return locals;
+	}
+}
@@ -0,0 +1,49 @@
+package org.openmrs.module.fhir.api.merge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <h1>BatchMergeResult</h1>
+ * Collects the results of merging many entities at once.
+ *
+ * @see BaseBatchMergeBehaviour
+ * @since 1.21.0
+ */
+public class BatchMergeResult<T> {
+
+	private final List<MergeResult<T>> results = new ArrayList<>();
+
+	private final List<MergeSuccess<T>> successes = new ArrayList<>();
+
+	private final List<MergeConflict<T>> conflicts = new ArrayList<>();
+
+	public void add(MergeResult<T> result) {
+		results.add(result);
+		if (result instanceof MergeSuccess) {
+			successes.add((MergeSuccess<T>) result);
+		} else if (result instanceof MergeConflict) {
+			conflicts.add((MergeConflict<T>) result);
+		}
+	}
+
+	/**
+	 * @return all results, grouped by class in the order the classes were first met
+	 */
+	public List<MergeResult<T>> getResults() {
+		return Collections.unmodifiableList(results);
+	}
+
+	public List<MergeSuccess<T>> getSuccesses() {
+		return Collections.unmodifiableList(successes);
+	}
+
+	public List<MergeConflict<T>> getConflicts() {
+		return Collections.unmodifiableList(conflicts);
+	}
+
+	public boolean hasConflicts() {
+		return !conflicts.isEmpty();
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base {@link SearchQuery} which loads a page of OpenMRS objects and converts each of them to a fhir
+ * resource.
+ *
+ * @param <T> type of the OpenMRS objects matched by the search
+ */
+public abstract class BaseSearchQuery<T> implements SearchQuery {
+
+	/**
+	 * @see SearchQuery#getResources(int, int)
+	 */
+	@Override
+	public List<IBaseResource> getResources(int firstResult, int maxResults) {
+		List<IBaseResource> resources = new ArrayList<IBaseResource>();
+		if (maxResults <= 0) {
+			return resources;
+		}
+		for (T result : getResults(firstResult, maxResults)) {
+			resources.add(generateResource(result));
+		}
+		return resources;
+	}
+
+	/**
+	 * Load one page of the matching OpenMRS objects
+	 *
+	 * @param firstResult index of the first match to return
+	 * @param maxResults  maximum number of matches to return
+	 * @return OpenMRS objects of the page
+	 */
+	protected abstract List<T> getResults(int firstResult, int maxResults);
+
+	/**
+	 * Convert a matching OpenMRS object to its fhir representation
+	 *
+	 * @param result OpenMRS object
+	 * @return fhir resource
+	 */
+	protected abstract IBaseResource generateResource(T result);
+}
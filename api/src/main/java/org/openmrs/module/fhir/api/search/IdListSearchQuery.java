@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.openmrs.OpenmrsObject;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link SearchQuery} over the ids of the matches, typically found with an id projection query of
+ * {@link org.openmrs.module.fhir.api.db.FHIRDAO}. Each page is loaded by id with a single query, so
+ * only the objects of the requested page are ever hydrated.
+ *
+ * @param <T> type of the OpenMRS objects matched by the search
+ */
+public abstract class IdListSearchQuery<T extends OpenmrsObject> extends BaseSearchQuery<T> {
+
+	private final Class<T> type;
+
+	private final List<Integer> ids;
+
+	public IdListSearchQuery(Class<T> type, List<Integer> ids) {
+		this.type = type;
+		this.ids = ids;
+	}
+
+	/**
+	 * @see SearchQuery#getTotalCount()
+	 */
+	@Override
+	public int getTotalCount() {
+		return ids.size();
+	}
+
+	/**
+	 * @see BaseSearchQuery#getResults(int, int)
+	 */
+	@Override
+	protected List<T> getResults(int firstResult, int maxResults) {
+		if (firstResult >= ids.size()) {
+			return new ArrayList<T>();
+		}
+		int lastResult = Math.min(ids.size(), firstResult + maxResults);
+		return ContextUtil.getFHIRDAO().getObjectsByIds(type, ids.subList(firstResult, lastResult));
+	}
+}
@@ -0,0 +1,302 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.apache.commons.lang.StringUtils;
+import org.hl7.fhir.dstu3.model.Encounter;
+import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.MedicationRequest;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Reference;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.Drug;
+import org.openmrs.Obs;
+import org.openmrs.Person;
+import org.openmrs.Provider;
+import org.openmrs.Visit;
+import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.api.util.FHIREncounterUtil;
+import org.openmrs.module.fhir.api.util.FHIRLocationUtil;
+import org.openmrs.module.fhir.api.util.FHIRMedicationUtil;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+import org.openmrs.module.fhir.api.util.FHIRPersonUtil;
+import org.openmrs.module.fhir.api.util.FHIRPractitionerUtil;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+import org.openmrs.module.fhir.api.util.FHIRVisitUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the _include and _revinclude parameters of a search for one page of matches. The
+ * references of the whole page are collected first and every referenced type is then loaded with a
+ * single query, instead of one lookup per reference. Include values which are not supported are
+ * ignored, as the specification allows. Voided and retired objects are not included, as a read of
+ * them would not find them either.
+ * <p>
+ * A patient may have many more observations and encounters than a page holds, so each _revinclude
+ * is limited to the maximum page size, see {@link #isRevIncludeTruncated()}.
+ */
+public class IncludeResolver {
+
+	public static final String OBSERVATION_SUBJECT = "Observation:subject";
+
+	public static final String OBSERVATION_PATIENT = "Observation:patient";
+
+	public static final String OBSERVATION_CONTEXT = "Observation:context";
+
+	public static final String ENCOUNTER_LOCATION = "Encounter:location";
+
+	public static final String ENCOUNTER_PARTICIPANT = "Encounter:participant";
+
+	public static final String ENCOUNTER_PATIENT = "Encounter:patient";
+
+	public static final String ENCOUNTER_SUBJECT = "Encounter:subject";
+
+	public static final String MEDICATION_REQUEST_MEDICATION = "MedicationRequest:medication";
+
+	private static final String PERSON = "Person";
+
+	private final Set<String> includes;
+
+	private final Set<String> revIncludes;
+
+	private final int maxRevIncludes;
+
+	private final Map<String, Set<String>> references = new LinkedHashMap<String, Set<String>>();
+
+	private boolean revIncludeTruncated;
+
+	public IncludeResolver(Collection<String> includes, Collection<String> revIncludes) {
+		this(includes, revIncludes, FHIRUtils.getMaximumPageSize());
+	}
+
+	/**
+	 * @param includes       values of the _include parameter
+	 * @param revIncludes    values of the _revinclude parameter
+	 * @param maxRevIncludes maximum number of resources added for each _revinclude
+	 */
+	public IncludeResolver(Collection<String> includes, Collection<String> revIncludes, int maxRevIncludes) {
+		this.maxRevIncludes = maxRevIncludes;
+		this.includes = new HashSet<String>();
+		this.revIncludes = new HashSet<String>();
+		if (includes != null) {
+			this.includes.addAll(includes);
+		}
+		if (revIncludes != null) {
+			this.revIncludes.addAll(revIncludes);
+		}
+	}
+
+	/**
+	 * Load the resources included by the given page of matches
+	 *
+	 * @param matches resources matched by the search
+	 * @return the included resources, without duplicates and without the matches themselves
+	 */
+	public List<IBaseResource> resolve(List<IBaseResource> matches) {
+		references.clear();
+		revIncludeTruncated = false;
+		Set<String> patientUuids = new LinkedHashSet<String>();
+		Set<String> seen = new HashSet<String>();
+		for (IBaseResource match : matches) {
+			seen.add(getKey(match));
+			if (match instanceof Observation) {
+				collectObservationReferences((Observation) match);
+			} else if (match instanceof Encounter) {
+				collectEncounterReferences((Encounter) match);
+			} else if (match instanceof MedicationRequest) {
+				collectMedicationRequestReferences((MedicationRequest) match);
+			} else if (match instanceof Patient) {
+				patientUuids.add(match.getIdElement().getIdPart());
+			}
+		}
+
+		List<IBaseResource> included = new ArrayList<IBaseResource>();
+		addIncludes(included, seen);
+		addRevIncludes(included, seen, patientUuids);
+		return included;
+	}
+
+	/**
+	 * @return true if the last {@link #resolve(List)} left out resources of a _revinclude because
+	 * there were more than the maximum
+	 */
+	public boolean isRevIncludeTruncated() {
+		return revIncludeTruncated;
+	}
+
+	private void collectObservationReferences(Observation observation) {
+		if (isIncluded(OBSERVATION_SUBJECT) || isIncluded(OBSERVATION_PATIENT)) {
+			addReference(observation.getSubject(), OBSERVATION_SUBJECT, OBSERVATION_PATIENT);
+		}
+		if (isIncluded(OBSERVATION_CONTEXT)) {
+			addReference(observation.getContext(), OBSERVATION_CONTEXT);
+		}
+	}
+
+	private void collectEncounterReferences(Encounter encounter) {
+		if (isIncluded(ENCOUNTER_LOCATION)) {
+			for (Encounter.EncounterLocationComponent location : encounter.getLocation()) {
+				addReference(location.getLocation(), ENCOUNTER_LOCATION);
+			}
+		}
+		if (isIncluded(ENCOUNTER_PARTICIPANT)) {
+			for (Encounter.EncounterParticipantComponent participant : encounter.getParticipant()) {
+				addReference(participant.getIndividual(), ENCOUNTER_PARTICIPANT);
+			}
+		}
+		if (isIncluded(ENCOUNTER_PATIENT) || isIncluded(ENCOUNTER_SUBJECT)) {
+			addReference(encounter.getSubject(), ENCOUNTER_PATIENT, ENCOUNTER_SUBJECT);
+		}
+	}
+
+	private void collectMedicationRequestReferences(MedicationRequest medicationRequest) {
+		if (isIncluded(MEDICATION_REQUEST_MEDICATION) && medicationRequest.hasMedicationReference()) {
+			addReference(medicationRequest.getMedicationReference(), MEDICATION_REQUEST_MEDICATION);
+		}
+	}
+
+	/**
+	 * An include may be restricted to a target type, e.g. Observation:subject:Patient
+	 */
+	private boolean isIncluded(String include) {
+		if (includes.contains(include)) {
+			return true;
+		}
+		for (String value : includes) {
+			if (value.startsWith(include + ":")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addReference(Reference reference, String... includeNames) {
+		if (reference == null || StringUtils.isBlank(reference.getReference())) {
+			return;
+		}
+		IdType id = new IdType(reference.getReference());
+		String type = id.getResourceType();
+		if (StringUtils.isBlank(type) || StringUtils.isBlank(id.getIdPart())) {
+			return;
+		}
+		if (!isTargetIncluded(type, includeNames)) {
+			return;
+		}
+		Set<String> uuids = references.get(type);
+		if (uuids == null) {
+			uuids = new LinkedHashSet<String>();
+			references.put(type, uuids);
+		}
+		uuids.add(id.getIdPart());
+	}
+
+	private boolean isTargetIncluded(String type, String... includeNames) {
+		for (String includeName : includeNames) {
+			if (includes.contains(includeName) || includes.contains(includeName + ":" + type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addIncludes(List<IBaseResource> included, Set<String> seen) {
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+		for (Map.Entry<String, Set<String>> entry : references.entrySet()) {
+			String type = entry.getKey();
+			Set<String> uuids = entry.getValue();
+			if (FHIRConstants.PATIENT.equals(type)) {
+				for (org.openmrs.Patient patient : dao.getActiveObjectsByUuids(org.openmrs.Patient.class, uuids)) {
+					add(included, seen, FHIRPatientUtil.generatePatient(patient));
+				}
+			} else if (PERSON.equals(type)) {
+				for (Person person : dao.getActiveObjectsByUuids(Person.class, uuids)) {
+					add(included, seen, FHIRPersonUtil.generatePerson(person));
+				}
+			} else if (FHIRConstants.ENCOUNTER.equals(type)) {
+				// encounter references may point to visits as well
+				Set<String> visitUuids = new HashSet<String>(uuids);
+				for (org.openmrs.Encounter encounter : dao.getActiveObjectsByUuids(org.openmrs.Encounter.class, uuids)) {
+					visitUuids.remove(encounter.getUuid());
+					add(included, seen, FHIREncounterUtil.generateEncounter(encounter));
+				}
+				for (Visit visit : dao.getActiveObjectsByUuids(Visit.class, visitUuids)) {
+					add(included, seen, FHIRVisitUtil.generateEncounter(visit));
+				}
+			} else if (FHIRConstants.LOCATION.equals(type)) {
+				for (org.openmrs.Location location : dao.getActiveObjectsByUuids(org.openmrs.Location.class, uuids)) {
+					add(included, seen, FHIRLocationUtil.generateLocation(location));
+				}
+			} else if (FHIRConstants.PRACTITIONER.equals(type)) {
+				for (Provider provider : dao.getActiveObjectsByUuids(Provider.class, uuids)) {
+					add(included, seen, FHIRPractitionerUtil.generatePractitioner(provider));
+				}
+			} else if (FHIRConstants.MEDICATION.equals(type)) {
+				for (Drug drug : dao.getActiveObjectsByUuids(Drug.class, uuids)) {
+					add(included, seen, FHIRMedicationUtil.generateMedication(drug));
+				}
+			}
+		}
+	}
+
+	private void addRevIncludes(List<IBaseResource> included, Set<String> seen, Set<String> patientUuids) {
+		if (patientUuids.isEmpty()) {
+			return;
+		}
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+		if (revIncludes.contains(OBSERVATION_SUBJECT) || revIncludes.contains(OBSERVATION_PATIENT)) {
+			for (Obs obs : limit(dao.getObsByPatientUuids(patientUuids, maxRevIncludes + 1))) {
+				add(included, seen, FHIRObsUtil.generateObs(obs));
+			}
+		}
+		if (revIncludes.contains(ENCOUNTER_PATIENT) || revIncludes.contains(ENCOUNTER_SUBJECT)) {
+			for (org.openmrs.Encounter encounter : limit(dao.getEncountersByPatientUuids(patientUuids,
+					maxRevIncludes + 1))) {
+				add(included, seen, FHIREncounterUtil.generateEncounter(encounter));
+			}
+		}
+	}
+
+	/**
+	 * The queries ask for one more result than the maximum, to tell whether anything was left out
+	 */
+	private <T> List<T> limit(List<T> results) {
+		if (results.size() <= maxRevIncludes) {
+			return results;
+		}
+		revIncludeTruncated = true;
+		return results.subList(0, maxRevIncludes);
+	}
+
+	private void add(List<IBaseResource> included, Set<String> seen, IBaseResource resource) {
+		if (resource != null && seen.add(getKey(resource))) {
+			included.add(resource);
+		}
+	}
+
+	private String getKey(IBaseResource resource) {
+		return resource.getClass().getSimpleName() + "/" + resource.getIdElement().getIdPart();
+	}
+}
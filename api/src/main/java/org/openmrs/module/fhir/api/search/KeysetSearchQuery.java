@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.openmrs.OpenmrsObject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link SearchQuery} over objects ordered by id, which pages with the id of the last object of the
+ * previous page instead of an offset. The database then seeks to the next page using the primary
+ * key rather than reading and skipping all the earlier rows. The last id of every page loaded is
+ * remembered, so following the next links of a search only uses keyset queries; a page which does
+ * not start where another one ended falls back to an offset query.
+ *
+ * @param <T> type of the OpenMRS objects matched by the search
+ */
+public abstract class KeysetSearchQuery<T extends OpenmrsObject> extends BaseSearchQuery<T> {
+
+	private final Map<Integer, Integer> lastIds = new ConcurrentHashMap<Integer, Integer>();
+
+	/**
+	 * @see BaseSearchQuery#getResults(int, int)
+	 */
+	@Override
+	protected List<T> getResults(int firstResult, int maxResults) {
+		List<T> results;
+		Integer afterId = lastIds.get(firstResult);
+		if (firstResult == 0 || afterId != null) {
+			results = getResultsAfter(afterId, maxResults);
+		} else {
+			results = getResultsAt(firstResult, maxResults);
+		}
+		if (!results.isEmpty()) {
+			lastIds.put(firstResult + results.size(), results.get(results.size() - 1).getId());
+		}
+		return results;
+	}
+
+	/**
+	 * Load the matches following the given id
+	 *
+	 * @param afterId    id of the last match of the previous page, null for the first page
+	 * @param maxResults maximum number of matches to return
+	 * @return OpenMRS objects ordered by id
+	 */
+	protected abstract List<T> getResultsAfter(Integer afterId, int maxResults);
+
+	/**
+	 * Load the matches starting at the given offset
+	 *
+	 * @param firstResult index of the first match to return
+	 * @param maxResults  maximum number of matches to return
+	 * @return OpenMRS objects ordered by id
+	 */
+	protected abstract List<T> getResultsAt(int firstResult, int maxResults);
+}
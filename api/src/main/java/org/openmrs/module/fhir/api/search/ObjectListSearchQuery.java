@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.openmrs.OpenmrsObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link SearchQuery} over matches which have already been found by the OpenMRS core services. Only
+ * the ids of the matches are kept, each page is reloaded by id with a single query, so the search
+ * results can be paged across requests without holding detached objects.
+ *
+ * @param <T> type of the OpenMRS objects matched by the search
+ */
+public abstract class ObjectListSearchQuery<T extends OpenmrsObject> extends IdListSearchQuery<T> {
+
+	public ObjectListSearchQuery(Class<T> type, List<? extends T> results) {
+		super(type, getIds(results));
+	}
+
+	private static List<Integer> getIds(List<? extends OpenmrsObject> results) {
+		List<Integer> ids = new ArrayList<Integer>(results.size());
+		for (OpenmrsObject result : results) {
+			ids.add(result.getId());
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.Obs;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+
+import java.util.List;
+
+/**
+ * {@link SearchQuery} over the obs matching {@link ObsSearchCriteria}. The restrictions, the order
+ * and the paging are all applied by the database, so only the requested page is loaded.
+ */
+public class ObsSearchQuery extends BaseSearchQuery<Obs> {
+
+	private final ObsSearchCriteria criteria;
+
+	public ObsSearchQuery(ObsSearchCriteria criteria) {
+		this.criteria = criteria;
+	}
+
+	/**
+	 * @see SearchQuery#getTotalCount()
+	 */
+	@Override
+	public int getTotalCount() {
+		return ContextUtil.getFHIRDAO().getObsCount(criteria);
+	}
+
+	/**
+	 * @see BaseSearchQuery#getResults(int, int)
+	 */
+	@Override
+	protected List<Obs> getResults(int firstResult, int maxResults) {
+		return ContextUtil.getFHIRDAO().getObs(criteria, firstResult, maxResults);
+	}
+
+	/**
+	 * @see BaseSearchQuery#generateResource(Object)
+	 */
+	@Override
+	protected IBaseResource generateResource(Obs result) {
+		return FHIRObsUtil.generateObs(result);
+	}
+}
@@ -0,0 +1,284 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.hl7.fhir.dstu3.model.FamilyMemberHistory;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.Concept;
+import org.openmrs.Encounter;
+import org.openmrs.EncounterProvider;
+import org.openmrs.Location;
+import org.openmrs.Obs;
+import org.openmrs.OpenmrsObject;
+import org.openmrs.Patient;
+import org.openmrs.Provider;
+import org.openmrs.Visit;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.FamilyMemberHistoryService;
+import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.util.ContextUtil;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.api.util.FHIREncounterUtil;
+import org.openmrs.module.fhir.api.util.FHIRLocationUtil;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+import org.openmrs.module.fhir.api.util.FHIRPractitionerUtil;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+import org.openmrs.module.fhir.api.util.FHIRVisitUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link SearchQuery} for the Patient $everything operation. The content of the patient compartment
+ * is collected with a handful of queries: the encounters together with their locations and providers,
+ * the ids of their obs, and the visits together with their locations. Every entry is recorded once,
+ * using a set keyed by type and id, and only the ids are kept; each requested page is loaded with
+ * one query per type and converted to fhir resources.
+ * <p>
+ * When a since date is given, encounters, visits and obs created or changed before it are left out,
+ * as is the patient itself, while the locations and practitioners referenced by the returned
+ * encounters and visits are always included. Family member histories have no change date and are
+ * only returned without a since date.
+ */
+public class PatientEverythingQuery implements SearchQuery {
+
+	private final Set<String> types;
+
+	private final List<Entry> entries = new ArrayList<Entry>();
+
+	private final Set<String> entryKeys = new HashSet<String>();
+
+	/**
+	 * Collect the content of the patient compartment
+	 *
+	 * @param patient the patient
+	 * @param since   if not null, only content created or changed at or after this date
+	 * @param types   if not empty, only resources of these types
+	 */
+	public PatientEverythingQuery(Patient patient, Date since, Set<String> types) {
+		this.types = types;
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+
+		if (isIncluded(FHIRConstants.PATIENT) && isChangedSince(patient.getDateCreated(), patient.getDateChanged(),
+				since)) {
+			addEntry(FHIRConstants.PATIENT, patient);
+		}
+
+		List<Location> locations = new ArrayList<Location>();
+		List<Provider> providers = new ArrayList<Provider>();
+		if (isIncluded(FHIRConstants.ENCOUNTER) || isIncluded(FHIRConstants.LOCATION)
+				|| isIncluded(FHIRConstants.PRACTITIONER)) {
+			for (Encounter encounter : dao.getEncountersByPatient(patient, since)) {
+				if (isIncluded(FHIRConstants.ENCOUNTER)) {
+					addEntry(FHIRConstants.ENCOUNTER, encounter);
+				}
+				if (encounter.getLocation() != null) {
+					locations.add(encounter.getLocation());
+				}
+				for (EncounterProvider encounterProvider : encounter.getEncounterProviders()) {
+					providers.add(encounterProvider.getProvider());
+				}
+			}
+		}
+
+		if (isIncluded(FHIRConstants.OBSERVATION)) {
+			for (Integer obsId : dao.getEncounterObsIdsByPatient(patient, since, getExcludedObsConcept())) {
+				addEntry(FHIRConstants.OBSERVATION, Obs.class, obsId);
+			}
+		}
+
+		if (isIncluded(FHIRConstants.ENCOUNTER) || isIncluded(FHIRConstants.LOCATION)) {
+			for (Visit visit : dao.getVisitsByPatient(patient, since)) {
+				if (isIncluded(FHIRConstants.ENCOUNTER)) {
+					addEntry(FHIRConstants.ENCOUNTER, visit);
+				}
+				if (visit.getLocation() != null) {
+					locations.add(visit.getLocation());
+				}
+			}
+		}
+
+		if (isIncluded(FHIRConstants.LOCATION)) {
+			for (Location location : locations) {
+				addEntry(FHIRConstants.LOCATION, location);
+			}
+		}
+
+		if (isIncluded(FHIRConstants.PRACTITIONER)) {
+			for (Provider provider : providers) {
+				addEntry(FHIRConstants.PRACTITIONER, provider);
+			}
+		}
+
+		if (isIncluded(FHIRConstants.FAMILY_MEMBER_HISTORY) && since == null) {
+			for (FamilyMemberHistory familyMemberHistory : Context.getService(FamilyMemberHistoryService.class)
+					.searchFamilyMemberHistoryByPersonId(patient.getUuid())) {
+				String key = FHIRConstants.FAMILY_MEMBER_HISTORY + "/" + familyMemberHistory.getId();
+				if (entryKeys.add(key)) {
+					entries.add(new Entry(familyMemberHistory));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see SearchQuery#getTotalCount()
+	 */
+	@Override
+	public int getTotalCount() {
+		return entries.size();
+	}
+
+	/**
+	 * @see SearchQuery#getResources(int, int)
+	 */
+	@Override
+	public List<IBaseResource> getResources(int firstResult, int maxResults) {
+		List<IBaseResource> resources = new ArrayList<IBaseResource>();
+		if (maxResults <= 0 || firstResult >= entries.size()) {
+			return resources;
+		}
+		List<Entry> page = entries.subList(firstResult, Math.min(entries.size(), firstResult + maxResults));
+
+		Map<Class<? extends OpenmrsObject>, List<Integer>> idsByType =
+				new LinkedHashMap<Class<? extends OpenmrsObject>, List<Integer>>();
+		for (Entry entry : page) {
+			if (entry.objectType != null) {
+				List<Integer> ids = idsByType.get(entry.objectType);
+				if (ids == null) {
+					ids = new ArrayList<Integer>();
+					idsByType.put(entry.objectType, ids);
+				}
+				ids.add(entry.objectId);
+			}
+		}
+
+		Map<String, OpenmrsObject> objects = new HashMap<String, OpenmrsObject>();
+		for (Map.Entry<Class<? extends OpenmrsObject>, List<Integer>> ids : idsByType.entrySet()) {
+			for (OpenmrsObject object : ContextUtil.getFHIRDAO().getObjectsByIds(ids.getKey(), ids.getValue())) {
+				objects.put(getKey(ids.getKey(), object.getId()), object);
+			}
+		}
+
+		for (Entry entry : page) {
+			if (entry.resource != null) {
+				resources.add(entry.resource);
+			} else {
+				OpenmrsObject object = objects.get(getKey(entry.objectType, entry.objectId));
+				if (object != null) {
+					resources.add(generateResource(object));
+				}
+			}
+		}
+		return resources;
+	}
+
+	private boolean isIncluded(String resourceType) {
+		return types == null || types.isEmpty() || types.contains(resourceType);
+	}
+
+	private void addEntry(String resourceType, OpenmrsObject object) {
+		addEntry(resourceType, getObjectType(object), object.getId());
+	}
+
+	private void addEntry(String resourceType, Class<? extends OpenmrsObject> objectType, Integer objectId) {
+		if (entryKeys.add(resourceType + "/" + getKey(objectType, objectId))) {
+			entries.add(new Entry(objectType, objectId));
+		}
+	}
+
+	private static String getKey(Class<? extends OpenmrsObject> objectType, Integer objectId) {
+		return objectType.getSimpleName() + "/" + objectId;
+	}
+
+	/**
+	 * Map hibernate proxies back to the mapped class, so the objects can be reloaded by id
+	 */
+	private static Class<? extends OpenmrsObject> getObjectType(OpenmrsObject object) {
+		if (object instanceof Patient) {
+			return Patient.class;
+		} else if (object instanceof Encounter) {
+			return Encounter.class;
+		} else if (object instanceof Visit) {
+			return Visit.class;
+		} else if (object instanceof Location) {
+			return Location.class;
+		} else if (object instanceof Provider) {
+			return Provider.class;
+		}
+		return Obs.class;
+	}
+
+	private static IBaseResource generateResource(OpenmrsObject object) {
+		if (object instanceof Patient) {
+			return FHIRPatientUtil.generatePatient((Patient) object);
+		} else if (object instanceof Encounter) {
+			return FHIREncounterUtil.generateEncounter((Encounter) object);
+		} else if (object instanceof Visit) {
+			return FHIRVisitUtil.generateEncounter((Visit) object);
+		} else if (object instanceof Location) {
+			return FHIRLocationUtil.generateLocation((Location) object);
+		} else if (object instanceof Provider) {
+			return FHIRPractitionerUtil.generatePractitioner((Provider) object);
+		}
+		return FHIRObsUtil.generateObs((Obs) object);
+	}
+
+	/**
+	 * With the obs allergy strategy, the allergy obs are returned as AllergyIntolerance resources
+	 * and are not part of the observations
+	 */
+	private static Concept getExcludedObsConcept() {
+		if (FHIRConstants.OBS_ALLERGY_STRATEGY.equals(FHIRUtils.getAllergyStrategy())) {
+			return Context.getConceptService().getConceptByUuid(FHIRUtils.getObsAllergyStrategyConceptUuid());
+		}
+		return null;
+	}
+
+	private static boolean isChangedSince(Date dateCreated, Date dateChanged, Date since) {
+		if (since == null) {
+			return true;
+		}
+		Date lastChanged = dateChanged != null ? dateChanged : dateCreated;
+		return lastChanged != null && !lastChanged.before(since);
+	}
+
+	private static class Entry {
+
+		private final Class<? extends OpenmrsObject> objectType;
+
+		private final Integer objectId;
+
+		private final IBaseResource resource;
+
+		Entry(Class<? extends OpenmrsObject> objectType, Integer objectId) {
+			this.objectType = objectType;
+			this.objectId = objectId;
+			this.resource = null;
+		}
+
+		Entry(IBaseResource resource) {
+			this.objectType = null;
+			this.objectId = null;
+			this.resource = resource;
+		}
+	}
+}
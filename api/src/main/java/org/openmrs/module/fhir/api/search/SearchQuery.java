@@ -0,0 +1,41 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.util.List;
+
+/**
+ * A search which is able to count its matches and to load them one page at a time, so that only the
+ * requested page is queried from the database and converted to FHIR.
+ */
+public interface SearchQuery {
+
+	/**
+	 * Count all the matches of the search
+	 *
+	 * @return total number of matches
+	 */
+	int getTotalCount();
+
+	/**
+	 * Load and convert one page of the matches
+	 *
+	 * @param firstResult index of the first match to return
+	 * @param maxResults  maximum number of matches to return
+	 * @return fhir resources of the page
+	 */
+	List<IBaseResource> getResources(int firstResult, int maxResults);
+}
@@ -0,0 +1,96 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.search;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import org.hl7.fhir.dstu3.model.InstantType;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lazy, count aware search result returned by the strategies. The server pages through it using the
+ * _count parameter and next links, and only the requested page is loaded and converted.
+ */
+public class SearchResults implements IBundleProvider {
+
+	private final SearchQuery query;
+
+	private final String uuid;
+
+	private final InstantType published;
+
+	private Integer size;
+
+	private Integer preferredPageSize;
+
+	public SearchResults(SearchQuery query) {
+		this.query = query;
+		this.uuid = UUID.randomUUID().toString();
+		this.published = new InstantType(new Date());
+	}
+
+	/**
+	 * @see IBundleProvider#getPublished()
+	 */
+	@Override
+	public IPrimitiveType<Date> getPublished() {
+		return published;
+	}
+
+	/**
+	 * @see IBundleProvider#getResources(int, int)
+	 */
+	@Override
+	public List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		return query.getResources(fromIndex, toIndex - fromIndex);
+	}
+
+	/**
+	 * @see IBundleProvider#getUuid()
+	 */
+	@Override
+	public String getUuid() {
+		return uuid;
+	}
+
+	/**
+	 * @see IBundleProvider#preferredPageSize()
+	 */
+	@Override
+	public Integer preferredPageSize() {
+		return preferredPageSize;
+	}
+
+	/**
+	 * @param preferredPageSize page size requested by the client, used when the request has no _count
+	 */
+	public void setPreferredPageSize(Integer preferredPageSize) {
+		this.preferredPageSize = preferredPageSize;
+	}
+
+	/**
+	 * @see IBundleProvider#size()
+	 */
+	@Override
+	public Integer size() {
+		if (size == null) {
+			size = query.getTotalCount();
+		}
+		return size;
+	}
+}
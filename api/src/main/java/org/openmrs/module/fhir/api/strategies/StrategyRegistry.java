@@ -0,0 +1,62 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.strategies;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds the strategy implementations resolved from the fhir.*.strategy global properties, so the
+ * strategy beans are looked up once instead of on every service call. The registry is cleared when
+ * one of those global properties changes.
+ */
+public final class StrategyRegistry {
+
+	private static final ConcurrentMap<Class<?>, Object> strategies = new ConcurrentHashMap<Class<?>, Object>();
+
+	private StrategyRegistry() {
+
+	}
+
+	/**
+	 * Get the resolved strategy for the given strategy type
+	 *
+	 * @param strategyType strategy interface
+	 * @return the strategy or null if it has not been resolved yet
+	 */
+	public static <T> T getStrategy(Class<T> strategyType) {
+		return strategyType.cast(strategies.get(strategyType));
+	}
+
+	/**
+	 * Remember the resolved strategy for the given strategy type
+	 *
+	 * @param strategyType strategy interface
+	 * @param strategy     resolved strategy, ignored when null
+	 * @return the given strategy
+	 */
+	public static <T> T registerStrategy(Class<T> strategyType, T strategy) {
+		if (strategy != null) {
+			strategies.put(strategyType, strategy);
+		}
+		return strategy;
+	}
+
+	/**
+	 * Forget all the resolved strategies
+	 */
+	public static void clear() {
+		strategies.clear();
+	}
+}
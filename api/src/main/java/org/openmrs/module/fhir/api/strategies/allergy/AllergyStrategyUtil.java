@@ -14,11 +14,20 @@
 package org.openmrs.module.fhir.api.strategies.allergy;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class AllergyStrategyUtil {
 
 	public static GenericAllergyStrategy getAllergyStrategy() {
+		GenericAllergyStrategy strategy = StrategyRegistry.getStrategy(GenericAllergyStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericAllergyStrategy.class, resolveAllergyStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericAllergyStrategy resolveAllergyStrategy() {
 		String strategy = FHIRUtils.getAllergyStrategy();
 
 		return Context.getRegisteredComponent(strategy, GenericAllergyStrategy.class);
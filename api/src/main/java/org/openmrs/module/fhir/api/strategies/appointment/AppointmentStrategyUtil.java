@@ -13,12 +13,21 @@
  */
 package org.openmrs.module.fhir.api.strategies.appointment;
 
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRConstants;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class AppointmentStrategyUtil {
 
 	public static GenericAppointmentStrategy getAppointmentStrategy() {
+		GenericAppointmentStrategy strategy = StrategyRegistry.getStrategy(GenericAppointmentStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericAppointmentStrategy.class, resolveAppointmentStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericAppointmentStrategy resolveAppointmentStrategy() {
 		String strategy = FHIRUtils.getAppointmentStrategy();
 		if (FHIRConstants.APPOINTMENT_MODULE_STRATEGY.equals(strategy)) {
 			return new AppointmentModuleStrategy();
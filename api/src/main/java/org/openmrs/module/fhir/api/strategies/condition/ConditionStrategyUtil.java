@@ -14,11 +14,20 @@
 package org.openmrs.module.fhir.api.strategies.condition;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class ConditionStrategyUtil {
 
 	public static GenericConditionStrategy getConditionStrategy() {
+		GenericConditionStrategy strategy = StrategyRegistry.getStrategy(GenericConditionStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericConditionStrategy.class, resolveConditionStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericConditionStrategy resolveConditionStrategy() {
 		String strategy = FHIRUtils.getConditionStrategy();
 
 		return strategy == null ? new ConditionStrategy() :
@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.encounter;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class EncounterStrategyUtil {
 
 	public static GenericEncounterStrategy getEncounterStrategy() {
+		GenericEncounterStrategy strategy = StrategyRegistry.getStrategy(GenericEncounterStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericEncounterStrategy.class, resolveEncounterStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericEncounterStrategy resolveEncounterStrategy() {
 		String strategy = FHIRUtils.getEncounterStrategy();
 
 		return strategy == null ? new EncounterStrategy() :
@@ -1,5 +1,6 @@
 package org.openmrs.module.fhir.api.strategies.group;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Group;
 
 import java.util.List;
@@ -12,6 +13,8 @@ public interface GenericGroupStrategy {
 
 	List<Group> searchGroupByName(String name);
 
+	IBundleProvider getGroupMembers(String uuid);
+
 	Group createGroup(Group group);
 
 	Group updateGroup(Group group, String uuid);
@@ -1,16 +1,22 @@
 package org.openmrs.module.fhir.api.strategies.group;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.server.exceptions.MethodNotAllowedException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import org.hl7.fhir.dstu3.model.Group;
 import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.openmrs.Cohort;
+import org.openmrs.Patient;
 import org.openmrs.api.APIException;
 import org.openmrs.api.CohortService;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.search.IdListSearchQuery;
+import org.openmrs.module.fhir.api.search.SearchResults;
 import org.openmrs.module.fhir.api.util.FHIRConstants;
 import org.openmrs.module.fhir.api.util.FHIRGroupUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 import org.openmrs.module.fhir.api.util.StrategyUtil;
 import org.springframework.stereotype.Component;
@@ -52,6 +58,23 @@ public class GroupStrategy implements GenericGroupStrategy {
 		return groups;
 	}
 
+	@Override
+	public IBundleProvider getGroupMembers(String uuid) {
+		Cohort cohort = getCohortService().getCohortByUuid(uuid);
+		if (cohort == null) {
+			throw new ResourceNotFoundException(new IdType(Group.class.getSimpleName(), uuid));
+		}
+
+		List<Integer> memberIds = FHIRGroupUtil.getSortedMemberIds(cohort);
+		return new SearchResults(new IdListSearchQuery<Patient>(Patient.class, memberIds) {
+
+			@Override
+			protected IBaseResource generateResource(Patient patient) {
+				return FHIRPatientUtil.generatePatient(patient);
+			}
+		});
+	}
+
 	@Override
 	public Group createGroup(Group group) {
 		Cohort cohort = FHIRGroupUtil.generateCohort(group);
@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.group;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class GroupStrategyUtil {
 
 	public static GenericGroupStrategy getGroupStrategy() {
+		GenericGroupStrategy strategy = StrategyRegistry.getStrategy(GenericGroupStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericGroupStrategy.class, resolveGroupStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericGroupStrategy resolveGroupStrategy() {
 		String strategy = FHIRUtils.getGroupStrategy();
 
 		return strategy == null ? new GroupStrategy()
@@ -1,18 +1,21 @@
 package org.openmrs.module.fhir.api.strategies.location;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Location;
 
-import java.util.List;
+import java.util.Date;
 
 public interface GenericLocationStrategy {
 
 	Location getLocation(String uuid);
 
-	List<Location> searchLocationsByUuid(String uuid);
+	Date getLocationLastUpdated(String uuid);
 
-	List<Location> searchLocationsByStatus(boolean status);
+	IBundleProvider searchLocationsByUuid(String uuid);
 
-	List<Location> searchLocationsByName(String name);
+	IBundleProvider searchLocationsByStatus(boolean status);
+
+	IBundleProvider searchLocationsByName(String name);
 
 	void deleteLocation(String uuid);
 
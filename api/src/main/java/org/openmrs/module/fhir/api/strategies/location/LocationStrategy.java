@@ -1,15 +1,24 @@
 package org.openmrs.module.fhir.api.strategies.location;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
-import org.apache.commons.lang.StringUtils;
 import org.hl7.fhir.dstu3.model.Location;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.search.BaseSearchQuery;
+import org.openmrs.module.fhir.api.search.KeysetSearchQuery;
+import org.openmrs.module.fhir.api.search.ObjectListSearchQuery;
+import org.openmrs.module.fhir.api.search.SearchResults;
+import org.openmrs.module.fhir.api.util.BaseOpenMRSDataUtil;
+import org.openmrs.module.fhir.api.util.ContextUtil;
 import org.openmrs.module.fhir.api.util.ErrorUtil;
 import org.openmrs.module.fhir.api.util.FHIRLocationUtil;
+import org.openmrs.module.fhir.api.util.FHIRResourceCache;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @Component("DefaultLocationStrategy")
@@ -25,50 +34,76 @@ public class LocationStrategy implements GenericLocationStrategy {
 	}
 
 	@Override
-	public List<Location> searchLocationsByUuid(String uuid) {
+	public Date getLocationLastUpdated(String uuid) {
 		org.openmrs.Location omrsLocation = Context.getLocationService().getLocationByUuid(uuid);
-		List<Location> locationList = new ArrayList<Location>();
+		if (omrsLocation == null || omrsLocation.isRetired()) {
+			return null;
+		}
+		return BaseOpenMRSDataUtil.getLastUpdated(omrsLocation);
+	}
+
+	@Override
+	public IBundleProvider searchLocationsByUuid(String uuid) {
+		org.openmrs.Location omrsLocation = Context.getLocationService().getLocationByUuid(uuid);
+		List<org.openmrs.Location> locationList = new ArrayList<org.openmrs.Location>();
 		if (omrsLocation != null && !omrsLocation.isRetired()) {
-			locationList.add(FHIRLocationUtil.generateLocation(omrsLocation));
+			locationList.add(omrsLocation);
 		}
-		return locationList;
+		return toSearchResults(locationList);
 	}
 
 	@Override
-	public List<Location> searchLocationsByName(String name) {
-		List<org.openmrs.Location> omrsLocations = Context.getLocationService().getLocations(name);
-		List<Location> locationList = new ArrayList<Location>();
-		for (org.openmrs.Location location : omrsLocations) {
-			if (StringUtils.startsWithIgnoreCase(location.getName(), name)) {
-				locationList.add(FHIRLocationUtil.generateLocation(location));
+	public IBundleProvider searchLocationsByName(final String name) {
+		return new SearchResults(new BaseSearchQuery<org.openmrs.Location>() {
+
+			@Override
+			public int getTotalCount() {
+				return ContextUtil.getFHIRDAO().getLocationCountByName(name);
 			}
-		}
-		return locationList;
+
+			@Override
+			protected List<org.openmrs.Location> getResults(int firstResult, int maxResults) {
+				return ContextUtil.getFHIRDAO().getLocationsByName(name, firstResult, maxResults);
+			}
+
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Location location) {
+				return FHIRLocationUtil.generateLocation(location);
+			}
+		});
 	}
 
 	@Override
-	public List<Location> searchLocationsByStatus(boolean status) {
-		//TODO this method looks for all the locations which is inefficient. Reimplement after API revamp
-		List<org.openmrs.Location> omrsLocations = Context.getLocationService().getAllLocations(true);
-		List<Location> locationList = new ArrayList<Location>();
-		for (org.openmrs.Location location : omrsLocations) {
-			if (status) {
-				if (!location.isRetired()) {
-					locationList.add(FHIRLocationUtil.generateLocation(location));
-				}
-			} else {
-				if (location.isRetired()) {
-					locationList.add(FHIRLocationUtil.generateLocation(location));
-				}
+	public IBundleProvider searchLocationsByStatus(final boolean status) {
+		return new SearchResults(new KeysetSearchQuery<org.openmrs.Location>() {
+
+			@Override
+			public int getTotalCount() {
+				return ContextUtil.getFHIRDAO().getLocationCount(!status);
 			}
-		}
-		return locationList;
+
+			@Override
+			protected List<org.openmrs.Location> getResultsAfter(Integer afterId, int maxResults) {
+				return ContextUtil.getFHIRDAO().getLocationsAfter(!status, afterId, maxResults);
+			}
+
+			@Override
+			protected List<org.openmrs.Location> getResultsAt(int firstResult, int maxResults) {
+				return ContextUtil.getFHIRDAO().getLocations(!status, firstResult, maxResults);
+			}
+
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Location location) {
+				return FHIRLocationUtil.generateLocation(location);
+			}
+		});
 	}
 
 	@Override
 	public void deleteLocation(String uuid) {
 		org.openmrs.Location location = Context.getLocationService().getLocationByUuid(uuid);
 		Context.getLocationService().purgeLocation(location);
+		FHIRResourceCache.evict(Location.class, uuid);
 	}
 
 	@Override
@@ -82,8 +117,15 @@ public class LocationStrategy implements GenericLocationStrategy {
 			throw new UnprocessableEntityException(errorMessage);
 
 		}
-		omrsLocation = Context.getLocationService().saveLocation(omrsLocation);
-		return FHIRLocationUtil.generateLocation(omrsLocation);
+		final org.openmrs.Location savedLocation = Context.getLocationService().saveLocation(omrsLocation);
+		return FHIRResourceCache.generateUncached(Location.class, savedLocation.getUuid(),
+				new FHIRResourceCache.Generator<Location>() {
+
+					@Override
+					public Location generate() {
+						return FHIRLocationUtil.generateLocation(savedLocation);
+					}
+				});
 	}
 
 	@Override
@@ -95,4 +137,20 @@ public class LocationStrategy implements GenericLocationStrategy {
 		omrsLocation = Context.getLocationService().saveLocation(omrsLocation);
 		return FHIRLocationUtil.generateLocation(omrsLocation);
 	}
+
+	/**
+	 * Wrap the matching locations into lazy search results, locations are converted page by page
+	 *
+	 * @param locations matching openmrs locations
+	 * @return search results
+	 */
+	private IBundleProvider toSearchResults(List<org.openmrs.Location> locations) {
+		return new SearchResults(new ObjectListSearchQuery<org.openmrs.Location>(org.openmrs.Location.class, locations) {
+
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Location location) {
+				return FHIRLocationUtil.generateLocation(location);
+			}
+		});
+	}
 }
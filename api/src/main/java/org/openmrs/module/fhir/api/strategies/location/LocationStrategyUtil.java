@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.location;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class LocationStrategyUtil {
 
 	public static GenericLocationStrategy getLocationStrategy() {
+		GenericLocationStrategy strategy = StrategyRegistry.getStrategy(GenericLocationStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericLocationStrategy.class, resolveLocationStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericLocationStrategy resolveLocationStrategy() {
 		String strategy = FHIRUtils.getLocationStrategy();
 
 		return (strategy == null) ? new LocationStrategy() :
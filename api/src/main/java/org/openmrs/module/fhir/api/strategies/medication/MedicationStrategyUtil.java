@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.medication;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class MedicationStrategyUtil {
 
 	public static GenericMedicationStrategy getMedicationStrategy() {
+		GenericMedicationStrategy strategy = StrategyRegistry.getStrategy(GenericMedicationStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericMedicationStrategy.class, resolveMedicationStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericMedicationStrategy resolveMedicationStrategy() {
 		String strategy = FHIRUtils.getMedicationStrategy();
 		return strategy == null ? new MedicationStrategy() :
 				Context.getRegisteredComponent(strategy, GenericMedicationStrategy.class);
@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.medicationrequest;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class MedicationRequestStrategyUtil {
 
 	public static GenericMedicationRequestStrategy getMedicationRequestStrategy() {
+		GenericMedicationRequestStrategy strategy = StrategyRegistry.getStrategy(GenericMedicationRequestStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericMedicationRequestStrategy.class, resolveMedicationRequestStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericMedicationRequestStrategy resolveMedicationRequestStrategy() {
 		String strategy = FHIRUtils.getMedicationRequestStrategy();
 		return strategy == null ? new MedicationRequestStrategy() :
 				Context.getRegisteredComponent(strategy, GenericMedicationRequestStrategy.class);
@@ -1,7 +1,9 @@
 package org.openmrs.module.fhir.api.strategies.observation;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.TokenParam;
 import org.hl7.fhir.dstu3.model.Observation;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
 
 import java.util.Date;
 import java.util.List;
@@ -11,19 +13,19 @@ public interface GenericObservationStrategy {
 
 	Observation getObservation(String uuid);
 
-	List<Observation> searchObservationByPatientAndConcept(String patientUuid, Map<String, String> conceptNamesAndURIs);
+	IBundleProvider searchObservationByPatientAndConcept(String patientUuid, Map<String, String> conceptNamesAndURIs);
 
-	List<Observation> searchObservationByUuid(String uuid);
+	IBundleProvider searchObservationByUuid(String uuid);
 
-	List<Observation> searchObservationsByCode(Map<String, String> conceptNamesAndURIs);
+	IBundleProvider searchObservationsByCode(Map<String, String> conceptNamesAndURIs);
 
-	List<Observation> searchObservationByDate(Date date);
+	IBundleProvider searchObservationByDate(Date date);
 
-	List<Observation> searchObservationByPerson(String personUuid);
+	IBundleProvider searchObservationByPerson(String personUuid);
 
-	List<Observation> searchObservationByValueConcept(String conceptName);
+	IBundleProvider searchObservationByValueConcept(String conceptName);
 
-	List<Observation> searchObservationByPatientIdentifier(String identifier);
+	IBundleProvider searchObservationByPatientIdentifier(String identifier);
 
 	void deleteObservation(String uuid);
 
@@ -36,7 +38,21 @@ public interface GenericObservationStrategy {
 	 *
 	 * @param patientUuid patient uuid
 	 * @param codings     List of TokenParam, for example PIH|5089,CIEL|5086
-	 * @return List of fhir observation resources
+	 * @return paged fhir observation search results
 	 */
-	List<Observation> searchObservationByPatientAndCode(String patientUuid, List<TokenParam> codings);
+	IBundleProvider searchObservationByPatientAndCode(String patientUuid, List<TokenParam> codings);
+
+	/**
+	 * Search observations by subject, codes and a range of observation dates. Every restriction is
+	 * optional and the matches are counted, ordered and paged by the database.
+	 *
+	 * @param personUuid uuid of the person or patient, or null
+	 * @param codings    codes of the observations (uuid or system|code), or null
+	 * @param fromDate   earliest observation date time, inclusive, or null
+	 * @param toDate     latest observation date time, inclusive, or null
+	 * @param dateOrder  order of the observation dates, or null to keep the default order
+	 * @return paged fhir observation search results
+	 */
+	IBundleProvider searchObservations(String personUuid, List<TokenParam> codings, Date fromDate, Date toDate,
+			ObsSearchCriteria.DateOrder dateOrder);
 }
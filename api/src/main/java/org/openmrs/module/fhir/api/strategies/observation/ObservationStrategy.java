@@ -1,16 +1,23 @@
 package org.openmrs.module.fhir.api.strategies.observation;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
+import org.apache.commons.lang.StringUtils;
 import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.openmrs.Concept;
 import org.openmrs.Encounter;
 import org.openmrs.Obs;
-import org.openmrs.Patient;
-import org.openmrs.Person;
 import org.openmrs.api.ObsService;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
+import org.openmrs.module.fhir.api.search.ObjectListSearchQuery;
+import org.openmrs.module.fhir.api.search.ObsSearchQuery;
+import org.openmrs.module.fhir.api.search.SearchResults;
 import org.openmrs.module.fhir.api.util.ConceptSourceNameURIPair;
+import org.openmrs.module.fhir.api.util.ContextUtil;
 import org.openmrs.module.fhir.api.util.FHIRConstants;
 import org.openmrs.module.fhir.api.util.FHIRObsUtil;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
@@ -19,8 +26,12 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Component("DefaultObservationStrategy")
 public class ObservationStrategy implements GenericObservationStrategy {
@@ -35,138 +46,64 @@ public class ObservationStrategy implements GenericObservationStrategy {
 	}
 
 	@Override
-	public List<Observation> searchObservationByPatientAndConcept(String patientUuid,
+	public IBundleProvider searchObservationByPatientAndConcept(String patientUuid,
 			Map<String, String> conceptNamesAndURIs) {
-		Patient patient = Context.getPatientService().getPatientByUuid(patientUuid);
-		Concept concept;
-		List<Observation> obsList = new ArrayList<Observation>();
-		String codingSystem = FHIRUtils.getConceptCodingSystem();
-		String systemName;
-		for (Map.Entry<String, String> entry : conceptNamesAndURIs.entrySet()) {
-			if (entry.getValue() == null || entry.getValue().isEmpty()) {
-				if (codingSystem == null || FHIRConstants.OPENMRS_CONCEPT_CODING_SYSTEM.equals(codingSystem)) {
-					concept = Context.getConceptService().getConceptByUuid(entry.getKey());
-				} else {
-					systemName = FHIRConstants.conceptSourceURINameMap.get(entry.getValue());
-					if (systemName == null || systemName.isEmpty()) {
-						return obsList;
-					}
-					concept = Context.getConceptService().getConceptByMapping(entry.getKey(), systemName);
-				}
-			} else {
-				systemName = FHIRConstants.conceptSourceURINameMap.get(entry.getValue());
-				if (systemName == null || systemName.isEmpty()) {
-					return obsList;
-				}
-				concept = Context.getConceptService().getConceptByMapping(entry.getKey(), systemName);
-			}
-			List<Obs> obs = Context.getObsService().getObservationsByPersonAndConcept(patient, concept);
-			for (Obs ob : obs) {
-				obsList.add(FHIRObsUtil.generateObs(ob));
-			}
-		}
-		return obsList;
+		ObsSearchCriteria criteria = new ObsSearchCriteria();
+		criteria.setPersonUuid(patientUuid);
+		criteria.setConcepts(getConcepts(conceptNamesAndURIs));
+		criteria.setDateOrder(ObsSearchCriteria.DateOrder.DESCENDING);
+		return new SearchResults(new ObsSearchQuery(criteria));
 	}
 
 	@Override
-	public List<Observation> searchObservationByUuid(String uuid) {
+	public IBundleProvider searchObservationByUuid(String uuid) {
 		Obs omrsObs = Context.getObsService().getObsByUuid(uuid);
-		List<Observation> obsList = new ArrayList<Observation>();
+		List<Obs> obsList = new ArrayList<Obs>();
 		if (omrsObs != null && !omrsObs.getVoided()) {
-			obsList.add(FHIRObsUtil.generateObs(omrsObs));
+			obsList.add(omrsObs);
 		}
-		return obsList;
+		return toSearchResults(obsList);
 	}
 
 	@Override
-	public List<Observation> searchObservationsByCode(Map<String, String> conceptNamesAndURIs) {
-		String codingSystem = FHIRUtils.getConceptCodingSystem();
-		List<Observation> obsList = new ArrayList<Observation>();
-		List<Obs> omrsObs = new ArrayList<Obs>();
-		Concept concept = null;
-		String systemName;
-		//Check system uri specified and if so find system name and query appropriate concept
-		for (Map.Entry<String, String> entry : conceptNamesAndURIs.entrySet()) {
-			if (entry.getValue() == null || entry.getValue().isEmpty()) {
-				if (codingSystem == null || FHIRConstants.OPENMRS_CONCEPT_CODING_SYSTEM.equals(codingSystem)) {
-					concept = Context.getConceptService().getConceptByUuid(entry.getKey());
-				} else {
-					systemName = FHIRConstants.conceptSourceURINameMap.get(entry.getValue());
-					if (systemName == null || systemName.isEmpty()) {
-						return obsList;
-					}
-					concept = Context.getConceptService().getConceptByMapping(entry.getKey(), systemName);
-				}
-			} else {
-				systemName = FHIRConstants.conceptSourceURINameMap.get(entry.getValue());
-				if (systemName == null || systemName.isEmpty()) {
-					return obsList;
-				}
-				concept = Context.getConceptService().getConceptByMapping(entry.getKey(), systemName);
-			}
-
-			if (concept == null) {
-				return obsList;
-			}
-
-			List<Concept> concepts = new ArrayList<Concept>();
-			concepts.add(concept);
-			omrsObs = Context.getObsService().getObservations(null, null, concepts, null, null, null, null, null,
-					null, null, null, false);
-
-			for (Obs obs : omrsObs) {
-				obsList.add(FHIRObsUtil.generateObs(obs));
-			}
-		}
-		return obsList;
+	public IBundleProvider searchObservationsByCode(Map<String, String> conceptNamesAndURIs) {
+		ObsSearchCriteria criteria = new ObsSearchCriteria();
+		criteria.setConcepts(getConcepts(conceptNamesAndURIs));
+		criteria.setDateOrder(ObsSearchCriteria.DateOrder.DESCENDING);
+		return new SearchResults(new ObsSearchQuery(criteria));
 	}
 
 	@Override
-	public List<Observation> searchObservationByDate(Date date) {
-		List<Obs> omrsObs = Context.getObsService().getObservations(null, null, null, null, null, null, null, null,
-				null, date, date, false);
-		List<Observation> obsList = new ArrayList<Observation>();
-		for (Obs obs : omrsObs) {
-			obsList.add(FHIRObsUtil.generateObs(obs));
-		}
-		return obsList;
+	public IBundleProvider searchObservationByDate(Date date) {
+		return searchObservations(null, null, date, date, null);
 	}
 
 	@Override
-	public List<Observation> searchObservationByPerson(String personUuid) {
-		Person person = Context.getPersonService().getPersonByUuid(personUuid);
-		List<Obs> omrsObs = Context.getObsService().getObservationsByPerson(person);
-		List<Observation> obsList = new ArrayList<Observation>();
-		for (Obs obs : omrsObs) {
-			obsList.add(FHIRObsUtil.generateObs(obs));
-		}
-		return obsList;
+	public IBundleProvider searchObservationByPerson(String personUuid) {
+		ObsSearchCriteria criteria = new ObsSearchCriteria();
+		criteria.setPersonUuid(personUuid);
+		criteria.setDateOrder(ObsSearchCriteria.DateOrder.DESCENDING);
+		return new SearchResults(new ObsSearchQuery(criteria));
 	}
 
 	@Override
-	public List<Observation> searchObservationByValueConcept(String conceptName) {
+	public IBundleProvider searchObservationByValueConcept(String conceptName) {
 		Concept concept = Context.getConceptService().getConcept(conceptName);
-		List<Concept> conceptsAnswers = new ArrayList<Concept>();
-		conceptsAnswers.add(concept);
-		List<Obs> omrsObs = Context.getObsService().getObservations(null, null, null, conceptsAnswers, null, null, null,
-				null,
-				null, null, null, false);
-		List<Observation> obsList = new ArrayList<Observation>();
-		for (Obs obs : omrsObs) {
-			obsList.add(FHIRObsUtil.generateObs(obs));
+		if (concept == null) {
+			return toSearchResults(new ArrayList<Obs>());
 		}
-		return obsList;
+		ObsSearchCriteria criteria = new ObsSearchCriteria();
+		criteria.setValueConcept(concept);
+		criteria.setDateOrder(ObsSearchCriteria.DateOrder.DESCENDING);
+		return new SearchResults(new ObsSearchQuery(criteria));
 	}
 
 	@Override
-	public List<Observation> searchObservationByPatientIdentifier(String identifier) {
-		List<Observation> fhirObsList = new ArrayList<Observation>();
-
-		List<Obs> ormsObs = Context.getObsService().getObservations(identifier);
-		for (Obs obs : ormsObs) {
-			fhirObsList.add(FHIRObsUtil.generateObs(obs));
-		}
-		return fhirObsList;
+	public IBundleProvider searchObservationByPatientIdentifier(String identifier) {
+		ObsSearchCriteria criteria = new ObsSearchCriteria();
+		criteria.setPatientIdentifier(identifier);
+		criteria.setDateOrder(ObsSearchCriteria.DateOrder.DESCENDING);
+		return new SearchResults(new ObsSearchQuery(criteria));
 	}
 
 	@Override
@@ -222,52 +159,109 @@ public class ObservationStrategy implements GenericObservationStrategy {
 	 * @see GenericObservationStrategy#searchObservationByPatientAndCode(java.lang.String, java.util.List)
 	 */
 	@Override
-	public List<Observation> searchObservationByPatientAndCode(String patientUuid, List<TokenParam> codings) {
-		Patient patient = Context.getPatientService().getPatientByUuid(patientUuid);
-		List<Observation> obsList = new ArrayList<>();
+	public IBundleProvider searchObservationByPatientAndCode(String patientUuid, List<TokenParam> codings) {
 		if (codings.isEmpty()) {
-			return obsList;
-		} else if (codings.size() == 1 && codings.get(0).getModifier() == null && codings.get(0).getSystem() == null) {
-			if (!codings.get(0).getValue().isEmpty()) {
-				Concept concept = Context.getConceptService().getConceptByUuid(codings.get(0).getValue());
-				obsList.addAll(getObservations(patient, concept));
-			}
-		} else {
-			for (TokenParam tokenParam : codings) {
-				obsList.addAll(getObservations(patient, getConcept(tokenParam)));
-			}
+			return toSearchResults(new ArrayList<Obs>());
+		}
+		return searchObservations(patientUuid, codings, null, null, ObsSearchCriteria.DateOrder.DESCENDING);
+	}
+
+	/**
+	 * @see GenericObservationStrategy#searchObservations(String, List, Date, Date, ObsSearchCriteria.DateOrder)
+	 */
+	@Override
+	public IBundleProvider searchObservations(String personUuid, List<TokenParam> codings, Date fromDate, Date toDate,
+			ObsSearchCriteria.DateOrder dateOrder) {
+		ObsSearchCriteria criteria = new ObsSearchCriteria();
+		criteria.setPersonUuid(personUuid);
+		if (codings != null && !codings.isEmpty()) {
+			// codes which do not resolve to a concept leave an empty list, which matches nothing
+			criteria.setConcepts(getConcepts(codings));
 		}
-		return obsList;
+		criteria.setFromDate(fromDate);
+		criteria.setToDate(toDate);
+		criteria.setDateOrder(dateOrder);
+		return new SearchResults(new ObsSearchQuery(criteria));
+	}
+
+	/**
+	 * Wrap the matching observations into lazy search results, observations are converted page by page
+	 *
+	 * @param obsList matching openmrs observations
+	 * @return search results
+	 */
+	private IBundleProvider toSearchResults(List<Obs> obsList) {
+		return new SearchResults(new ObjectListSearchQuery<Obs>(Obs.class, obsList) {
+
+			@Override
+			protected IBaseResource generateResource(Obs obs) {
+				return FHIRObsUtil.generateObs(obs);
+			}
+		});
 	}
 
 	/**
-	 * Get observations by patient and concept
+	 * Resolve concept codes to concepts. Codes without a system are concept uuids unless the concept
+	 * coding system is set, resolution stops at the first code of an unknown system or concept.
 	 *
-	 * @param patient openmrs patient
-	 * @param concept openmrs concept
-	 * @return List of fhir observations
+	 * @param conceptNamesAndURIs codes keyed to their system uri
+	 * @return the matching openmrs concepts
 	 */
-	private List<Observation> getObservations(Patient patient, Concept concept) {
-		List<Observation> obsList = new ArrayList<>();
-		List<Obs> obs = Context.getObsService()
-				.getObservationsByPersonAndConcept(patient, concept);
-		for (Obs ob : obs) {
-			obsList.add(FHIRObsUtil.generateObs(ob));
+	private List<Concept> getConcepts(Map<String, String> conceptNamesAndURIs) {
+		String codingSystem = FHIRUtils.getConceptCodingSystem();
+		List<Concept> concepts = new ArrayList<Concept>();
+		for (Map.Entry<String, String> entry : conceptNamesAndURIs.entrySet()) {
+			Concept concept;
+			if (StringUtils.isEmpty(entry.getValue()) && (codingSystem == null
+					|| FHIRConstants.OPENMRS_CONCEPT_CODING_SYSTEM.equals(codingSystem))) {
+				concept = Context.getConceptService().getConceptByUuid(entry.getKey());
+			} else {
+				String systemName = FHIRConstants.conceptSourceURINameMap.get(entry.getValue());
+				if (StringUtils.isEmpty(systemName)) {
+					break;
+				}
+				concept = Context.getConceptService().getConceptByMapping(entry.getKey(), systemName);
+			}
+			if (concept == null) {
+				break;
+			}
+			concepts.add(concept);
 		}
-		return obsList;
+		return concepts;
 	}
 
 	/**
-	 * Get concept by TokenParam
+	 * Resolve codes to concepts with one query for the uuids and one for the mappings, codes of
+	 * unknown systems are left out
 	 *
-	 * @param tokenParam FHIR TokenParam which has code, modifier,and system (for exampe PIH|5089)
-	 * @return Openmrs concept
+	 * @param codings FHIR TokenParams, either a concept uuid or a system and code (for exampe PIH|5089)
+	 * @return the matching openmrs concepts
 	 */
-	private Concept getConcept(TokenParam tokenParam) {
-		ConceptSourceNameURIPair conceptSourceNameURIPair = FHIRConstants.conceptSourceMap
-				.get(tokenParam.getSystem().toLowerCase());
-		return Context.getConceptService()
-				.getConceptByMapping(tokenParam.getValue(), conceptSourceNameURIPair.getConceptSourceName());
+	private List<Concept> getConcepts(List<TokenParam> codings) {
+		Set<String> uuids = new HashSet<>();
+		Map<String, Set<String>> codesBySource = new HashMap<>();
+		for (TokenParam tokenParam : codings) {
+			if (StringUtils.isBlank(tokenParam.getValue())) {
+				continue;
+			}
+			if (tokenParam.getSystem() == null) {
+				uuids.add(tokenParam.getValue());
+				continue;
+			}
+			ConceptSourceNameURIPair conceptSourceNameURIPair = FHIRConstants.conceptSourceMap
+					.get(tokenParam.getSystem().toLowerCase());
+			if (conceptSourceNameURIPair != null) {
+				String sourceName = conceptSourceNameURIPair.getConceptSourceName();
+				if (!codesBySource.containsKey(sourceName)) {
+					codesBySource.put(sourceName, new HashSet<String>());
+				}
+				codesBySource.get(sourceName).add(tokenParam.getValue());
+			}
+		}
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+		Set<Concept> concepts = new LinkedHashSet<>(dao.getObjectsByUuids(Concept.class, uuids));
+		concepts.addAll(dao.getConceptsByMappings(codesBySource));
+		return new ArrayList<>(concepts);
 	}
 
 	private Observation createObservation(Observation observation, String uuid) {
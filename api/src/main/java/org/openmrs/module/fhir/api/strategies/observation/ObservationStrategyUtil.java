@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.observation;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class ObservationStrategyUtil {
 
 	public static GenericObservationStrategy getObservationStrategy() {
+		GenericObservationStrategy strategy = StrategyRegistry.getStrategy(GenericObservationStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericObservationStrategy.class, resolveObservationStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericObservationStrategy resolveObservationStrategy() {
 		String strategy = FHIRUtils.getObservationStrategy();
 
 		return strategy == null ? new ObservationStrategy() :
@@ -1,30 +1,36 @@
 package org.openmrs.module.fhir.api.strategies.patient;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.Patient;
 
-import java.util.List;
+import java.util.Date;
+import java.util.Set;
 
 public interface GenericPatientStrategy {
 
 	Patient getPatient(String uuid);
 
-	List<Patient> searchPatientsById(String id);
+	Date getPatientLastUpdated(String uuid);
 
-	List<Patient> searchPatientsByIdentifier(String identifierValue, String identifierTypeName);
+	IBundleProvider searchPatientsById(String id);
 
-	List<Patient> searchPatientsByIdentifier(String identifierValue);
+	IBundleProvider searchPatientsByIdentifier(String identifierValue, String identifierTypeName);
 
-	List<Patient> searchPatients(boolean active);
+	IBundleProvider searchPatientsByIdentifier(String identifierValue);
 
-	Bundle searchPatientsByGivenName(String givenName);
+	IBundleProvider searchPatients(boolean active);
 
-	Bundle searchPatientsByFamilyName(String familyName);
+	IBundleProvider searchPatientsByGivenName(String givenName);
 
-	Bundle searchPatientsByName(String name);
+	IBundleProvider searchPatientsByFamilyName(String familyName);
+
+	IBundleProvider searchPatientsByName(String name);
 
 	Bundle getPatientOperationsById(String patientId);
 
+	IBundleProvider getPatientEverything(String patientId, Date since, Set<String> types);
+
 	void deletePatient(String uuid);
 
 	Patient createFHIRPatient(Patient patient);
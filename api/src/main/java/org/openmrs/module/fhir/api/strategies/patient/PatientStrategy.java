@@ -1,31 +1,39 @@
 package org.openmrs.module.fhir.api.strategies.patient;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
 import ca.uhn.fhir.rest.server.exceptions.MethodNotAllowedException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import org.hl7.fhir.dstu3.model.Bundle;
-import org.hl7.fhir.dstu3.model.FamilyMemberHistory;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Patient;
-import org.openmrs.Encounter;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.openmrs.PatientIdentifierType;
-import org.openmrs.PersonName;
-import org.openmrs.Visit;
 import org.openmrs.api.APIException;
 import org.openmrs.api.PatientService;
 import org.openmrs.api.context.Context;
-import org.openmrs.module.fhir.api.EncounterService;
-import org.openmrs.module.fhir.api.FamilyMemberHistoryService;
+import org.openmrs.module.fhir.api.db.PatientNameField;
+import org.openmrs.module.fhir.api.search.BaseSearchQuery;
+import org.openmrs.module.fhir.api.search.IdListSearchQuery;
+import org.openmrs.module.fhir.api.search.KeysetSearchQuery;
+import org.openmrs.module.fhir.api.search.ObjectListSearchQuery;
+import org.openmrs.module.fhir.api.search.PatientEverythingQuery;
+import org.openmrs.module.fhir.api.search.SearchResults;
+import org.openmrs.module.fhir.api.util.BaseOpenMRSDataUtil;
+import org.openmrs.module.fhir.api.util.ContextUtil;
 import org.openmrs.module.fhir.api.util.FHIRConstants;
-import org.openmrs.module.fhir.api.util.FHIRLocationUtil;
 import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+import org.openmrs.module.fhir.api.util.FHIRResourceCache;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
-import org.openmrs.module.fhir.api.util.FHIRVisitUtil;
 import org.openmrs.module.fhir.api.util.StrategyUtil;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
 
 import static org.openmrs.module.fhir.api.util.FHIRUtils.extractUuid;
 
@@ -43,182 +51,102 @@ public class PatientStrategy implements GenericPatientStrategy {
 	}
 
 	@Override
-	public List<Patient> searchPatientsById(String uuid) {
-		uuid = extractUuid(uuid);
+	public Date getPatientLastUpdated(String uuid) {
 		org.openmrs.Patient omrsPatient = Context.getPatientService().getPatientByUuid(uuid);
-
-		List<Patient> patientList = new ArrayList<>();
-		if (omrsPatient != null && !omrsPatient.isVoided()) {
-			patientList.add(FHIRPatientUtil.generatePatient(omrsPatient));
+		if (omrsPatient == null || omrsPatient.isVoided()) {
+			return null;
 		}
-		return patientList;
+		return BaseOpenMRSDataUtil.getLastUpdated(omrsPatient);
 	}
 
 	@Override
-	public List<Patient> searchPatientsByIdentifier(String identifierValue, String identifierTypeName) {
-		org.openmrs.api.PatientService patientService = Context.getPatientService();
-		List<PatientIdentifierType> patientIdentifierTypes = new ArrayList<>();
-		patientIdentifierTypes.add(patientService.getPatientIdentifierTypeByName(identifierTypeName));
-		List<org.openmrs.Patient> patientList = patientService.getPatients(identifierValue, null,
-				patientIdentifierTypes, true);
+	public IBundleProvider searchPatientsById(String uuid) {
+		uuid = extractUuid(uuid);
+		org.openmrs.Patient omrsPatient = Context.getPatientService().getPatientByUuid(uuid);
 
-		List<Patient> fhirPatientList = new ArrayList<>();
-		for (org.openmrs.Patient patient : patientList) {
-			fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
+		List<org.openmrs.Patient> patientList = new ArrayList<>();
+		if (omrsPatient != null && !omrsPatient.isVoided()) {
+			patientList.add(omrsPatient);
 		}
-		return fhirPatientList;
+		return toSearchResults(patientList);
 	}
 
 	@Override
-	public List<Patient> searchPatientsByIdentifier(String identifier) {
-		org.openmrs.api.PatientService patientService = Context.getPatientService();
-		List<PatientIdentifierType> allPatientIdentifierTypes = patientService.getAllPatientIdentifierTypes();
-		List<org.openmrs.Patient> patientList = patientService
-				.getPatients(identifier, null, allPatientIdentifierTypes, true);
-
-		List<Patient> fhirPatientList = new ArrayList<>();
-		for (org.openmrs.Patient patient : patientList) {
-			fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
+	public IBundleProvider searchPatientsByIdentifier(String identifierValue, String identifierTypeName) {
+		PatientIdentifierType identifierType = Context.getPatientService().getPatientIdentifierTypeByName(
+				identifierTypeName);
+		if (identifierType == null) {
+			return toSearchResults(new ArrayList<org.openmrs.Patient>());
 		}
-		return fhirPatientList;
+		List<PatientIdentifierType> patientIdentifierTypes = new ArrayList<>();
+		patientIdentifierTypes.add(identifierType);
+		return toIdSearchResults(ContextUtil.getFHIRDAO().getPatientIdsByIdentifier(identifierValue,
+				patientIdentifierTypes));
 	}
 
 	@Override
-	public List<Patient> searchPatients(boolean active) {
-		//TODO this method looks for all the patients which is inefficient. Reimplement after API revamp
-		List<org.openmrs.Patient> patients = Context.getPatientService().getAllPatients(true);
-
-		List<Patient> fhirPatientList = new ArrayList<>();
-		for (org.openmrs.Patient patient : patients) {
-			if (active) {
-				if (!patient.isVoided()) {
-					fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-				}
-			} else {
-				if (patient.isVoided()) {
-					fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-				}
-			}
-		}
-		return fhirPatientList;
+	public IBundleProvider searchPatientsByIdentifier(String identifier) {
+		return toIdSearchResults(ContextUtil.getFHIRDAO().getPatientIdsByIdentifier(identifier, null));
 	}
 
 	@Override
-	public Bundle searchPatientsByGivenName(String givenName) {
-		List<org.openmrs.Patient> patients = searchPatientByQuery(givenName);
-
-		List<Patient> fhirPatientList = new ArrayList<>();
-		//Go through the patients given by the openmrs core api and find them patient who has the givenName matching
-		for (org.openmrs.Patient patient : patients) {
-			if (givenName.toLowerCase().contains(patient.getGivenName().toLowerCase())) {
-				fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-			} else {
-				for (PersonName personName : patient.getNames()) {
-					if (givenName.toLowerCase().contains(personName.getGivenName().toLowerCase())) {
-						fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-					}
-				}
-			}
-		}
+	public IBundleProvider searchPatients(final boolean active) {
+		return new SearchResults(new KeysetSearchQuery<org.openmrs.Patient>() {
 
-		Bundle bundle = new Bundle();
-		List<Bundle.BundleEntryComponent> filteredList = new ArrayList<>();
-		for (Patient fhirPatient : fhirPatientList) {
-			Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
-			entry.setResource(fhirPatient);
-			filteredList.add(entry);
-		}
-		bundle.setEntry(filteredList);
+			@Override
+			public int getTotalCount() {
+				return ContextUtil.getFHIRDAO().getPatientCount(!active);
+			}
 
-		return bundle;
-	}
+			@Override
+			protected List<org.openmrs.Patient> getResultsAfter(Integer afterId, int maxResults) {
+				return ContextUtil.getFHIRDAO().getPatientsAfter(!active, afterId, maxResults);
+			}
 
-	@Override
-	public Bundle searchPatientsByFamilyName(String familyName) {
-		List<org.openmrs.Patient> patients = searchPatientByQuery(familyName);
-
-		List<Patient> fhirPatientList = new ArrayList<>();
-		//Go through the patients given by the openmrs core api and find them patient who has the familyName matching
-		for (org.openmrs.Patient patient : patients) {
-			if (familyName.toLowerCase().contains(patient.getFamilyName().toLowerCase())) {
-				fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-			} else {
-				for (PersonName personName : patient.getNames()) {
-					if (familyName.toLowerCase().contains(personName.getFamilyName().toLowerCase())) {
-						fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-					}
-				}
+			@Override
+			protected List<org.openmrs.Patient> getResultsAt(int firstResult, int maxResults) {
+				return ContextUtil.getFHIRDAO().getPatients(!active, firstResult, maxResults);
 			}
-		}
 
-		Bundle bundle = new Bundle();
-		List<Bundle.BundleEntryComponent> filteredList = new ArrayList<>();
-		for (Patient fhirPatient : fhirPatientList) {
-			Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
-			entry.setResource(fhirPatient);
-			filteredList.add(entry);
-		}
-		bundle.setEntry(filteredList);
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Patient patient) {
+				return FHIRPatientUtil.generatePatient(patient);
+			}
+		});
+	}
 
-		return bundle;
+	@Override
+	public IBundleProvider searchPatientsByGivenName(String givenName) {
+		return searchPatientsByName(givenName, PatientNameField.GIVEN);
 	}
 
 	@Override
-	public Bundle searchPatientsByName(String name) {
-		List<org.openmrs.Patient> patients = searchPatientByQuery(name);
+	public IBundleProvider searchPatientsByFamilyName(String familyName) {
+		return searchPatientsByName(familyName, PatientNameField.FAMILY);
+	}
 
-		List<Patient> fhirPatientList = new ArrayList<>();
-		for (org.openmrs.Patient patient : patients) {
-			fhirPatientList.add(FHIRPatientUtil.generatePatient(patient));
-		}
+	@Override
+	public IBundleProvider searchPatientsByName(String name) {
+		return searchPatientsByName(name, PatientNameField.ANY);
+	}
 
+	@Override
+	public Bundle getPatientOperationsById(String patientId) {
 		Bundle bundle = new Bundle();
-		List<Bundle.BundleEntryComponent> filteredList = new ArrayList<>();
-		for (Patient fhirPatient : fhirPatientList) {
-			Bundle.BundleEntryComponent entry = new Bundle.BundleEntryComponent();
-			entry.setResource(fhirPatient);
-			filteredList.add(entry);
+		IBundleProvider everything = getPatientEverything(patientId, null, null);
+		for (IBaseResource resource : everything.getResources(0, everything.size())) {
+			bundle.addEntry().setResource((Resource) resource);
 		}
-		bundle.setEntry(filteredList);
-
 		return bundle;
 	}
 
 	@Override
-	public Bundle getPatientOperationsById(String patientId) {
-		EncounterService encounterService = Context.getService(EncounterService.class);
-		FamilyMemberHistoryService familyMemberHistoryService = Context.getService(FamilyMemberHistoryService.class);
-		org.openmrs.Patient omsrPatient = Context.getPatientService().getPatientByUuid(patientId);
-
-		Bundle bundle = new Bundle();
-		if (omsrPatient != null) {
-			Bundle.BundleEntryComponent patient = bundle.addEntry();
-			patient.setResource(FHIRPatientUtil.generatePatient(omsrPatient));
-
-			//Set Enconter resources using encounter everything operation
-			for (Encounter enc : Context.getEncounterService().getEncountersByPatient(omsrPatient)) {
-				encounterService.getEncounterOperationsById(enc.getUuid(), bundle, false);
-			}
-
-			//Set patients' relationships
-			for (FamilyMemberHistory familyMemberHistory : familyMemberHistoryService.searchFamilyMemberHistoryByPersonId(omsrPatient
-					.getUuid())) {
-				bundle.addEntry().setResource(familyMemberHistory);
-			}
-
-			//Set visits
-			for (Visit visit : Context.getVisitService().getVisitsByPatient(omsrPatient)) {
-				bundle.addEntry().setResource(FHIRVisitUtil.generateEncounter(visit));
-				if (visit.getLocation() != null) {
-					bundle.addEntry().setResource(FHIRLocationUtil.generateLocation(visit.getLocation()));
-				}
-			}
-
-			List<Bundle.BundleEntryComponent> filteredList = rejectResourceDuplicates(bundle);
-
-			bundle.setEntry(filteredList);
+	public IBundleProvider getPatientEverything(String patientId, Date since, Set<String> types) {
+		org.openmrs.Patient omrsPatient = Context.getPatientService().getPatientByUuid(patientId);
+		if (omrsPatient == null) {
+			return new SimpleBundleProvider();
 		}
-		return bundle;
+		return new SearchResults(new PatientEverythingQuery(omrsPatient, since, types));
 	}
 
 	@Override
@@ -233,6 +161,7 @@ public class PatientStrategy implements GenericPatientStrategy {
 		}
 		try {
 			Context.getPatientService().voidPatient(patient, FHIRConstants.FHIR_VOIDED_MESSAGE);
+			FHIRResourceCache.evict(Patient.class, uuid);
 		}
 		catch (APIException ex) {
 			// refused to retire resource.  return with 405
@@ -280,7 +209,15 @@ public class PatientStrategy implements GenericPatientStrategy {
 			throw new UnprocessableEntityException(
 					"The request cannot be processed due to the following issues \n" + e.getMessage());
 		}
-		return FHIRPatientUtil.generatePatient(retrievedPatient);
+		final org.openmrs.Patient savedPatient = retrievedPatient;
+		return FHIRResourceCache.generateUncached(Patient.class, savedPatient.getUuid(),
+				new FHIRResourceCache.Generator<Patient>() {
+
+					@Override
+					public Patient generate() {
+						return FHIRPatientUtil.generatePatient(savedPatient);
+					}
+				});
 	}
 
 	private Patient createPatient(Patient patient, String uuid) {
@@ -289,25 +226,64 @@ public class PatientStrategy implements GenericPatientStrategy {
 		return createFHIRPatient(patient);
 	}
 
-	private List<org.openmrs.Patient> searchPatientByQuery(String query) {
-		return Context.getPatientService().getPatients(query);
+	/**
+	 * Wrap the matching patients into lazy search results, patients are converted page by page
+	 *
+	 * @param patients matching openmrs patients
+	 * @return search results
+	 */
+	private IBundleProvider toSearchResults(List<org.openmrs.Patient> patients) {
+		return new SearchResults(new ObjectListSearchQuery<org.openmrs.Patient>(org.openmrs.Patient.class, patients) {
+
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Patient patient) {
+				return FHIRPatientUtil.generatePatient(patient);
+			}
+		});
 	}
 
-	private List<Bundle.BundleEntryComponent> rejectResourceDuplicates(Bundle bundle) {
-		List<Bundle.BundleEntryComponent> result = new ArrayList<>();
+	/**
+	 * Wrap the ids of the matching patients into lazy search results, patients are only loaded and
+	 * converted page by page
+	 *
+	 * @param patientIds ids of the matching openmrs patients
+	 * @return search results
+	 */
+	private IBundleProvider toIdSearchResults(List<Integer> patientIds) {
+		return new SearchResults(new IdListSearchQuery<org.openmrs.Patient>(org.openmrs.Patient.class, patientIds) {
+
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Patient patient) {
+				return FHIRPatientUtil.generatePatient(patient);
+			}
+		});
+	}
 
-		for (Bundle.BundleEntryComponent temp : bundle.getEntry()) {
-			boolean contains = false;
-			for (Bundle.BundleEntryComponent filtered : result) {
-				if (filtered.getResource().getId().equals(temp.getResource().getId())) {
-					contains = true;
-				}
+	/**
+	 * Search the patients with a name starting with the given value, the patients are counted,
+	 * loaded and converted page by page in the database
+	 *
+	 * @param name  start of the name
+	 * @param field the part of the names to match
+	 * @return search results
+	 */
+	private IBundleProvider searchPatientsByName(final String name, final PatientNameField field) {
+		return new SearchResults(new BaseSearchQuery<org.openmrs.Patient>() {
+
+			@Override
+			public int getTotalCount() {
+				return ContextUtil.getFHIRDAO().getPatientCountByName(name, field);
 			}
-			if (!contains) {
-				result.add(temp);
+
+			@Override
+			protected List<org.openmrs.Patient> getResults(int firstResult, int maxResults) {
+				return ContextUtil.getFHIRDAO().getPatientsByName(name, field, firstResult, maxResults);
 			}
-		}
 
-		return result;
+			@Override
+			protected IBaseResource generateResource(org.openmrs.Patient patient) {
+				return FHIRPatientUtil.generatePatient(patient);
+			}
+		});
 	}
 }
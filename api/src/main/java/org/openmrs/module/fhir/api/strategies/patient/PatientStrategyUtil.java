@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.patient;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class PatientStrategyUtil {
 
 	public static GenericPatientStrategy getPatientStrategy() {
+		GenericPatientStrategy strategy = StrategyRegistry.getStrategy(GenericPatientStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericPatientStrategy.class, resolvePatientStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericPatientStrategy resolvePatientStrategy() {
 		String strategy = FHIRUtils.getPatientStrategy();
 
 		return strategy == null ?
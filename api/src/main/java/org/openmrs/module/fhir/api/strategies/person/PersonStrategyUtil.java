@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.person;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class PersonStrategyUtil {
 
 	public static GenericPersonStrategy getPersonStrategy() {
+		GenericPersonStrategy strategy = StrategyRegistry.getStrategy(GenericPersonStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericPersonStrategy.class, resolvePersonStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericPersonStrategy resolvePersonStrategy() {
 		String strategy = FHIRUtils.getPersonStrategy();
 
 		return strategy == null ?
@@ -2,12 +2,15 @@ package org.openmrs.module.fhir.api.strategies.practitioner;
 
 import org.hl7.fhir.dstu3.model.Practitioner;
 
+import java.util.Date;
 import java.util.List;
 
 public interface GenericPractitionerStrategy {
 
 	Practitioner getPractitioner(String id);
 
+	Date getPractitionerLastUpdated(String id);
+
 	List<Practitioner> searchPractitionersByUuid(String id);
 
 	List<Practitioner> searchPractitionersByName(String name);
@@ -10,13 +10,16 @@ import org.openmrs.PersonName;
 import org.openmrs.Provider;
 import org.openmrs.api.ProviderService;
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.util.BaseOpenMRSDataUtil;
 import org.openmrs.module.fhir.api.util.ErrorUtil;
 import org.openmrs.module.fhir.api.util.FHIRConstants;
 import org.openmrs.module.fhir.api.util.FHIRPractitionerUtil;
+import org.openmrs.module.fhir.api.util.FHIRResourceCache;
 import org.openmrs.module.fhir.api.util.StrategyUtil;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 import static java.lang.String.valueOf;
@@ -34,6 +37,15 @@ public class PractitionerStrategy implements GenericPractitionerStrategy {
 		return FHIRPractitionerUtil.generatePractitioner(omrsProvider);
 	}
 
+	@Override
+	public Date getPractitionerLastUpdated(String uuid) {
+		Provider omrsProvider = Context.getProviderService().getProviderByUuid(uuid);
+		if (omrsProvider == null || omrsProvider.isRetired()) {
+			return null;
+		}
+		return BaseOpenMRSDataUtil.getLastUpdated(omrsProvider);
+	}
+
 	@Override
 	public List<Practitioner> searchPractitionersByUuid(String uuid) {
 		Provider omrsProvider = Context.getProviderService().getProviderByUuid(uuid);
@@ -174,8 +186,15 @@ public class PractitionerStrategy implements GenericPractitionerStrategy {
 		org.openmrs.Provider retrievedProvider = service.getProviderByUuid(theId);
 		if (retrievedProvider != null) { // update existing practitioner
 			retrievedProvider = FHIRPractitionerUtil.updatePractitionerAttributes(practitioner, retrievedProvider);
-			Provider p = service.saveProvider(retrievedProvider);
-			return FHIRPractitionerUtil.generatePractitioner(p);
+			final Provider p = service.saveProvider(retrievedProvider);
+			return FHIRResourceCache.generateUncached(Practitioner.class, p.getUuid(),
+					new FHIRResourceCache.Generator<Practitioner>() {
+
+						@Override
+						public Practitioner generate() {
+							return FHIRPractitionerUtil.generatePractitioner(p);
+						}
+					});
 		} else { // no practitioner is associated with the given uuid. so create a new practitioner with the given uuid
 			StrategyUtil.setIdIfNeeded(practitioner, theId);
 			return createFHIRPractitioner(practitioner);
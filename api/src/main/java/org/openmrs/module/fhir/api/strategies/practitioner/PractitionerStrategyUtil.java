@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.practitioner;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class PractitionerStrategyUtil {
 
 	public static PractitionerStrategy getPractitionerStrategy() {
+		PractitionerStrategy strategy = StrategyRegistry.getStrategy(PractitionerStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(PractitionerStrategy.class, resolvePractitionerStrategy());
+		}
+		return strategy;
+	}
+
+	private static PractitionerStrategy resolvePractitionerStrategy() {
 		String strategy = FHIRUtils.getPractitionerStrategy();
 
 		return (strategy == null) ? new PractitionerStrategy() :
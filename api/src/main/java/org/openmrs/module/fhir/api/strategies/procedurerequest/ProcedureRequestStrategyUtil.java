@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.procedurerequest;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class ProcedureRequestStrategyUtil {
 
 	public static GenericProcedureRequestStrategy getProcedureRequestStrategy() {
+		GenericProcedureRequestStrategy strategy = StrategyRegistry.getStrategy(GenericProcedureRequestStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericProcedureRequestStrategy.class, resolveProcedureRequestStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericProcedureRequestStrategy resolveProcedureRequestStrategy() {
 		String strategy = FHIRUtils.getProcedureRequestStrategy();
 		return strategy == null ? new ProcedureRequestStrategy() :
 				Context.getRegisteredComponent(strategy, GenericProcedureRequestStrategy.class);
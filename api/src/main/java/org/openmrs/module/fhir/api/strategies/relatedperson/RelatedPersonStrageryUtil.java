@@ -1,11 +1,20 @@
 package org.openmrs.module.fhir.api.strategies.relatedperson;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
 
 public class RelatedPersonStrageryUtil {
 
 	public static GenericRelatedPersonStrategy getPersonStrategy() {
+		GenericRelatedPersonStrategy strategy = StrategyRegistry.getStrategy(GenericRelatedPersonStrategy.class);
+		if (strategy == null) {
+			strategy = StrategyRegistry.registerStrategy(GenericRelatedPersonStrategy.class, resolvePersonStrategy());
+		}
+		return strategy;
+	}
+
+	private static GenericRelatedPersonStrategy resolvePersonStrategy() {
 		String strategy = FHIRUtils.getRelatedPersonStrategy();
 
 		return strategy == null ? new RelatedPersonStrategy() :
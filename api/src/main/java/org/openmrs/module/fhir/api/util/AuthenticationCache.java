@@ -0,0 +1,163 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the user contexts of clients authenticated with Basic credentials for a short time, so that
+ * clients which do not keep the session cookie get the same treatment as clients which do: the
+ * user context is authenticated once with {@link Context#authenticate(String, String)}, which loads
+ * the locale, location and roles of the user, and is then reused like a session would be.
+ * <p>
+ * A cached user context is lent to one request at a time, concurrent requests with the same
+ * credentials authenticate a context of their own. Only a salted SHA-256 digest of the password is
+ * kept. Entries expire after the fhir.authentication.cache.ttlSeconds global property, the cache is
+ * disabled when it is 0 or not set, and the whole cache is cleared by {@link UserChangeAdvice} when
+ * a password, user or role is changed.
+ */
+public final class AuthenticationCache {
+
+	private static final SecureRandom random = new SecureRandom();
+
+	private static final Map<String, CachedLogin> logins = new LinkedHashMap<String, CachedLogin>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedLogin> eldest) {
+			return size() > FHIRUtils.getAuthenticationCacheSize();
+		}
+	};
+
+	private AuthenticationCache() {
+
+	}
+
+	/**
+	 * Authenticate the current request with the given credentials. When the cache is enabled the
+	 * request is given a user context of its own, which must be handed back with
+	 * {@link #release(String, UserContext)} after the request.
+	 *
+	 * @param username username or system id
+	 * @param password password of the user
+	 * @return the user context the request now runs with, or null if the current user context was
+	 * authenticated because the cache is disabled
+	 * @throws org.openmrs.api.context.ContextAuthenticationException if the credentials are not valid
+	 */
+	public static UserContext authenticate(String username, String password) {
+		long ttl = TimeUnit.SECONDS.toMillis(FHIRUtils.getAuthenticationCacheTtl());
+		if (ttl <= 0) {
+			Context.authenticate(username, password);
+			return null;
+		}
+
+		synchronized (logins) {
+			CachedLogin login = logins.get(username);
+			if (login != null && login.expires <= System.currentTimeMillis()) {
+				logins.remove(username);
+			} else if (login != null && !login.inUse && login.matches(password)) {
+				login.inUse = true;
+				Context.setUserContext(login.userContext);
+				return login.userContext;
+			}
+		}
+
+		UserContext userContext = authenticateNewUserContext(username, password);
+		synchronized (logins) {
+			CachedLogin login = logins.get(username);
+			if (login == null || !login.matches(password)) {
+				logins.put(username, new CachedLogin(userContext, password, System.currentTimeMillis() + ttl));
+			}
+		}
+		return userContext;
+	}
+
+	/**
+	 * Hand back a user context returned by {@link #authenticate(String, String)}, so it can be reused
+	 * by the next request with the same credentials
+	 *
+	 * @param username    username the context was authenticated with
+	 * @param userContext the user context
+	 */
+	public static void release(String username, UserContext userContext) {
+		if (userContext == null) {
+			return;
+		}
+		synchronized (logins) {
+			CachedLogin login = logins.get(username);
+			if (login != null && login.userContext == userContext) {
+				login.inUse = false;
+			}
+		}
+	}
+
+	/**
+	 * Forget all the cached user contexts
+	 */
+	public static void clear() {
+		synchronized (logins) {
+			logins.clear();
+		}
+	}
+
+	private static UserContext authenticateNewUserContext(String username, String password) {
+		UserContext previous = Context.getUserContext();
+		UserContext userContext = new UserContext();
+		Context.setUserContext(userContext);
+		try {
+			Context.authenticate(username, password);
+			return userContext;
+		}
+		catch (RuntimeException e) {
+			Context.setUserContext(previous);
+			throw e;
+		}
+	}
+
+	private static class CachedLogin {
+
+		private final UserContext userContext;
+
+		private final String salt;
+
+		private final byte[] digest;
+
+		private final long expires;
+
+		private boolean inUse = true;
+
+		CachedLogin(UserContext userContext, String password, long expires) {
+			byte[] saltBytes = new byte[16];
+			random.nextBytes(saltBytes);
+			this.userContext = userContext;
+			this.salt = Hex.encodeHexString(saltBytes);
+			this.digest = DigestUtils.sha256(salt + password);
+			this.expires = expires;
+		}
+
+		boolean matches(String password) {
+			return MessageDigest.isEqual(digest, DigestUtils.sha256(salt + password));
+		}
+	}
+}
@@ -3,14 +3,27 @@ package org.openmrs.module.fhir.api.util;
 import org.hl7.fhir.dstu3.model.DomainResource;
 import org.hl7.fhir.dstu3.model.Element;
 import org.hl7.fhir.dstu3.model.Extension;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.openmrs.Auditable;
 import org.openmrs.BaseOpenmrsData;
 import org.openmrs.BaseOpenmrsMetadata;
+import org.openmrs.Location;
+import org.openmrs.Patient;
+import org.openmrs.Person;
+import org.openmrs.Provider;
+
+import java.util.Collection;
+import java.util.Date;
 
 public final class BaseOpenMRSDataUtil {
 
     private BaseOpenMRSDataUtil() { }
 
     public static void setBaseExtensionFields(DomainResource fhirResource, BaseOpenmrsData openmrsData) {
+        setMetaFields(fhirResource, openmrsData);
+        if (!FHIRSummaryContext.isIncluded(FHIRSummaryContext.EXTENSION)) {
+            return;
+        }
         fhirResource.addExtension(ExtensionsUtil.createDateCreatedExtension(openmrsData.getDateCreated()));
         fhirResource.addExtension(ExtensionsUtil.createCreatorExtension(openmrsData.getCreator()));
 
@@ -43,6 +56,10 @@ public final class BaseOpenMRSDataUtil {
     }
     
     public static void setBaseExtensionFields(DomainResource fhirResource, BaseOpenmrsMetadata openmrsMetadata) {
+        setMetaFields(fhirResource, openmrsMetadata);
+        if (!FHIRSummaryContext.isIncluded(FHIRSummaryContext.EXTENSION)) {
+            return;
+        }
         fhirResource.addExtension(ExtensionsUtil.createDateCreatedExtension(openmrsMetadata.getDateCreated()));
         fhirResource.addExtension(ExtensionsUtil.createCreatorExtension(openmrsMetadata.getCreator()));
 
@@ -58,6 +75,73 @@ public final class BaseOpenMRSDataUtil {
         }
     }
 
+    /**
+     * Sets meta.versionId and meta.lastUpdated from the audit fields, so the server can emit
+     * ETag and Last-Modified headers for the resource
+     */
+    public static void setMetaFields(Resource fhirResource, Auditable auditable) {
+        Date lastUpdated = getLastUpdated(auditable);
+        if (lastUpdated != null) {
+            fhirResource.getMeta().setVersionId(getVersionId(lastUpdated));
+            fhirResource.getMeta().setLastUpdated(lastUpdated);
+        }
+    }
+
+    /**
+     * For persons and patients the names, addresses, attributes and identifiers are taken into
+     * account as well, since editing them does not change the audit fields of the person itself.
+     * Likewise the person of a provider and the parent of a location, which both end up in the
+     * generated resource.
+     *
+     * @return the date changed, or the date created if the object was never changed
+     */
+    public static Date getLastUpdated(Auditable auditable) {
+        if (auditable == null) {
+            return null;
+        }
+        Date lastUpdated = getOwnLastUpdated(auditable);
+        if (auditable instanceof Person) {
+            Person person = (Person) auditable;
+            lastUpdated = getLastUpdated(lastUpdated, person.getNames());
+            lastUpdated = getLastUpdated(lastUpdated, person.getAddresses());
+            lastUpdated = getLastUpdated(lastUpdated, person.getAttributes());
+            if (person instanceof Patient) {
+                lastUpdated = getLastUpdated(lastUpdated, ((Patient) person).getIdentifiers());
+            }
+        } else if (auditable instanceof Provider) {
+            lastUpdated = getLater(lastUpdated, getLastUpdated(((Provider) auditable).getPerson()));
+        } else if (auditable instanceof Location && ((Location) auditable).getParentLocation() != null) {
+            lastUpdated = getLater(lastUpdated, getOwnLastUpdated(((Location) auditable).getParentLocation()));
+        }
+        return lastUpdated;
+    }
+
+    private static Date getLastUpdated(Date lastUpdated, Collection<? extends Auditable> auditables) {
+        if (auditables == null) {
+            return lastUpdated;
+        }
+        for (Auditable auditable : auditables) {
+            lastUpdated = getLater(lastUpdated, getOwnLastUpdated(auditable));
+        }
+        return lastUpdated;
+    }
+
+    private static Date getLater(Date lastUpdated, Date date) {
+        return date != null && (lastUpdated == null || date.after(lastUpdated)) ? date : lastUpdated;
+    }
+
+    private static Date getOwnLastUpdated(Auditable auditable) {
+        return auditable.getDateChanged() != null ? auditable.getDateChanged() : auditable.getDateCreated();
+    }
+
+    /**
+     * Weak version derived from the last update time. It changes whenever the audit fields do,
+     * but is not a content hash.
+     */
+    public static String getVersionId(Date lastUpdated) {
+        return String.valueOf(lastUpdated.getTime());
+    }
+
     public static void readBaseExtensionFields(BaseOpenmrsData openmrsData, DomainResource fhirResource) {
         for (Extension extension : fhirResource.getExtension()) {
             ExtensionsUtil.setBaseOpenMRSData(openmrsData, extension);
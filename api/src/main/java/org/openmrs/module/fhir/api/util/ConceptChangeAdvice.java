@@ -0,0 +1,47 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.openmrs.Concept;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invalidates the {@link FHIRConceptCodingCache} and {@link FHIRConceptNumericCache} after any
+ * {@link org.openmrs.api.ConceptService} call which changes concepts, names, mappings, reference
+ * terms or sources. A changed concept is evicted, any other change clears the caches, as it may
+ * affect the codings of many concepts.
+ */
+public class ConceptChangeAdvice implements AfterReturningAdvice {
+
+	private static final String[] CHANGING_METHOD_PREFIXES = { "save", "update", "retire", "unretire", "void",
+			"unvoid", "purge", "delete", "remove" };
+
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		for (String prefix : CHANGING_METHOD_PREFIXES) {
+			if (method.getName().startsWith(prefix)) {
+				if (args != null && args.length > 0 && args[0] instanceof Concept) {
+					FHIRConceptCodingCache.evict(((Concept) args[0]).getId());
+					FHIRConceptNumericCache.evict(((Concept) args[0]).getId());
+				} else {
+					FHIRConceptCodingCache.clear();
+					FHIRConceptNumericCache.clear();
+				}
+				return;
+			}
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package org.openmrs.module.fhir.api.util;
 
 import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.db.FHIRDAO;
 import org.openmrs.module.fhir.api.helper.AllergyHelper;
 import org.openmrs.module.fhir.api.helper.ConditionHelper;
 import org.openmrs.module.fhir.api.helper.DrugHelper;
@@ -39,5 +40,9 @@ public class ContextUtil {
 		return Context.getRegisteredComponent("fhir.DrugOrderHelper", DrugOrderHelper.class);
 	}
 
+	public static FHIRDAO getFHIRDAO() {
+		return Context.getRegisteredComponent("fhir.FHIRDAO", FHIRDAO.class);
+	}
+
 	private ContextUtil() { }
 }
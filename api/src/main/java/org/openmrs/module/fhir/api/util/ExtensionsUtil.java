@@ -226,6 +226,10 @@ public final class ExtensionsUtil {
 		return createExtension(ExtensionURL.ENCOUNTER_ROLE_UUID_URL, new StringType(encounterRole.getUuid()));
 	}
 
+	public static Extension createMembersTruncatedExtension() {
+		return createExtension(ExtensionURL.MEMBERS_TRUNCATED_URL, new BooleanType(true));
+	}
+
 	//endregion
 
 	private static Extension createExtension(String url, PrimitiveType data) {
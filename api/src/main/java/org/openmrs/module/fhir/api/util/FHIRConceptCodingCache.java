@@ -0,0 +1,167 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.hl7.fhir.dstu3.model.CodeableConcept;
+import org.hl7.fhir.dstu3.model.Coding;
+import org.openmrs.Concept;
+import org.openmrs.ConceptMap;
+import org.openmrs.api.context.Context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the codings generated for OpenMRS concepts, shared by all the
+ * converters. Entries are keyed by concept id and locale and hold the codings of the concept
+ * mappings, the OpenMRS coding and the display text, so converting an obs no longer walks the
+ * mappings, reference terms, sources and names of its concept. The cache is invalidated by
+ * {@link ConceptChangeAdvice} when concepts are changed.
+ * <p>
+ * Codings are copied when they are taken out of the cache, so callers may modify them.
+ */
+public final class FHIRConceptCodingCache {
+
+	private static final Map<String, ConceptCodings> codings = new LinkedHashMap<String, ConceptCodings>(16, 0.75f,
+			true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ConceptCodings> eldest) {
+			return size() > FHIRConstants.CONCEPT_CACHE_SIZE;
+		}
+	};
+
+	private FHIRConceptCodingCache() {
+
+	}
+
+	/**
+	 * Get the codings of a concept: one for each concept mapping followed by the OpenMRS coding
+	 *
+	 * @param concept OpenMRS concept
+	 * @return new list of copies of the cached codings
+	 */
+	public static List<Coding> getCodings(Concept concept) {
+		List<Coding> copies = new ArrayList<Coding>();
+		for (Coding coding : getConceptCodings(concept).codings) {
+			copies.add(coding.copy());
+		}
+		return copies;
+	}
+
+	/**
+	 * Get a codeable concept with the codings and the display string of a concept
+	 *
+	 * @param concept OpenMRS concept
+	 * @return new codeable concept
+	 */
+	public static CodeableConcept getCodeableConcept(Concept concept) {
+		ConceptCodings conceptCodings = getConceptCodings(concept);
+		CodeableConcept codeableConcept = new CodeableConcept();
+		for (Coding coding : conceptCodings.codings) {
+			codeableConcept.addCoding(coding.copy());
+		}
+		codeableConcept.setText(conceptCodings.text);
+		return codeableConcept;
+	}
+
+	/**
+	 * Remove the cached codings of a concept in all locales
+	 *
+	 * @param conceptId id of the concept
+	 */
+	public static void evict(Integer conceptId) {
+		if (conceptId == null) {
+			return;
+		}
+		String prefix = conceptId + "|";
+		synchronized (codings) {
+			for (Iterator<String> keys = codings.keySet().iterator(); keys.hasNext(); ) {
+				if (keys.next().startsWith(prefix)) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all the cached codings
+	 */
+	public static void clear() {
+		synchronized (codings) {
+			codings.clear();
+		}
+	}
+
+	/**
+	 * @return number of cached concepts
+	 */
+	public static int getSize() {
+		synchronized (codings) {
+			return codings.size();
+		}
+	}
+
+	private static ConceptCodings getConceptCodings(Concept concept) {
+		if (concept.getId() == null) {
+			return generate(concept);
+		}
+		String key = getKey(concept.getId(), Context.getLocale());
+		ConceptCodings cached;
+		synchronized (codings) {
+			cached = codings.get(key);
+		}
+		if (cached == null) {
+			cached = generate(concept);
+			synchronized (codings) {
+				codings.put(key, cached);
+			}
+		}
+		return cached;
+	}
+
+	private static ConceptCodings generate(Concept concept) {
+		List<Coding> generated = new ArrayList<Coding>();
+		for (ConceptMap conceptMap : concept.getConceptMappings()) {
+			if (conceptMap.getConceptReferenceTerm() != null) {
+				generated.add(FHIRUtils.createCoding(conceptMap));
+			}
+		}
+		generated.add(FHIRUtils.getCodingDtByOpenMRSConcept(concept));
+		return new ConceptCodings(Collections.unmodifiableList(generated), concept.getDisplayString());
+	}
+
+	private static String getKey(Integer conceptId, Locale locale) {
+		return conceptId + "|" + locale;
+	}
+
+	private static class ConceptCodings {
+
+		private final List<Coding> codings;
+
+		private final String text;
+
+		ConceptCodings(List<Coding> codings, String text) {
+			this.codings = codings;
+			this.text = text;
+		}
+	}
+}
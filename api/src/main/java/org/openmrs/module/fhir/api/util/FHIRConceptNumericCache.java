@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.openmrs.Concept;
+import org.openmrs.ConceptNumeric;
+import org.openmrs.api.context.Context;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of the units and absolute ranges of numeric concepts, so converting the
+ * numeric obs of a search looks up each distinct concept once instead of once per obs. Like
+ * {@link FHIRConceptCodingCache} it is invalidated by {@link ConceptChangeAdvice}.
+ */
+public final class FHIRConceptNumericCache {
+
+	private static final Map<Integer, NumericMetadata> metadata = new LinkedHashMap<Integer, NumericMetadata>(16,
+			0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, NumericMetadata> eldest) {
+			return size() > FHIRConstants.CONCEPT_CACHE_SIZE;
+		}
+	};
+
+	private FHIRConceptNumericCache() {
+
+	}
+
+	/**
+	 * Get the units and absolute ranges of a numeric concept
+	 *
+	 * @param concept numeric OpenMRS concept
+	 * @return the numeric metadata or null if the concept is not numeric
+	 */
+	public static NumericMetadata get(Concept concept) {
+		if (concept instanceof ConceptNumeric) {
+			return new NumericMetadata((ConceptNumeric) concept);
+		}
+		Integer conceptId = concept.getId();
+		if (conceptId == null) {
+			return null;
+		}
+		NumericMetadata cached;
+		synchronized (metadata) {
+			cached = metadata.get(conceptId);
+		}
+		if (cached == null) {
+			ConceptNumeric conceptNumeric = Context.getConceptService().getConceptNumeric(conceptId);
+			if (conceptNumeric == null) {
+				return null;
+			}
+			cached = new NumericMetadata(conceptNumeric);
+			synchronized (metadata) {
+				metadata.put(conceptId, cached);
+			}
+		}
+		return cached;
+	}
+
+	/**
+	 * Remove the cached metadata of a concept
+	 *
+	 * @param conceptId id of the concept
+	 */
+	public static void evict(Integer conceptId) {
+		if (conceptId == null) {
+			return;
+		}
+		synchronized (metadata) {
+			metadata.remove(conceptId);
+		}
+	}
+
+	/**
+	 * Remove all the cached metadata
+	 */
+	public static void clear() {
+		synchronized (metadata) {
+			metadata.clear();
+		}
+	}
+
+	/**
+	 * @return number of cached concepts
+	 */
+	public static int getSize() {
+		synchronized (metadata) {
+			return metadata.size();
+		}
+	}
+
+	/**
+	 * Units and absolute ranges of a numeric concept
+	 */
+	public static class NumericMetadata {
+
+		private final String units;
+
+		private final Double hiAbsolute;
+
+		private final Double lowAbsolute;
+
+		NumericMetadata(ConceptNumeric conceptNumeric) {
+			this.units = conceptNumeric.getUnits();
+			this.hiAbsolute = conceptNumeric.getHiAbsolute();
+			this.lowAbsolute = conceptNumeric.getLowAbsolute();
+		}
+
+		public String getUnits() {
+			return units;
+		}
+
+		public Double getHiAbsolute() {
+			return hiAbsolute;
+		}
+
+		public Double getLowAbsolute() {
+			return lowAbsolute;
+		}
+	}
+}
@@ -16,11 +16,9 @@ package org.openmrs.module.fhir.api.util;
 import org.apache.commons.lang.StringUtils;
 import org.hl7.fhir.dstu3.model.Annotation;
 import org.hl7.fhir.dstu3.model.CodeableConcept;
-import org.hl7.fhir.dstu3.model.Coding;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Reference;
 import org.openmrs.Concept;
-import org.openmrs.ConceptMap;
 import org.openmrs.Condition;
 import org.openmrs.Obs;
 import org.openmrs.Patient;
@@ -30,7 +28,6 @@ import org.openmrs.api.ConditionService;
 import org.openmrs.api.context.Context;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -58,27 +55,8 @@ public class FHIRConditionUtil {
 		//Set condition concept
 		if (condition.getConcept() != null) {
 			CodeableConcept conceptDt = fhirCondition.getCode();
-			Collection<ConceptMap> mappings = condition.getConcept().getConceptMappings();
-			List<Coding> dts = conceptDt.getCoding();
-
-			//Set concept codings
-			if (mappings != null && !mappings.isEmpty()) {
-				for (ConceptMap map : mappings) {
-					if (map.getConceptReferenceTerm() != null) {
-						dts.add(FHIRUtils.createCoding(map));
-					}
-				}
-			}
-
-			//Setting default openmrs concept
-			if (condition.getConcept().getName() != null) {
-				dts.add(new Coding().setCode(condition.getConcept().getUuid()).setDisplay(
-						condition.getConcept().getName().getName()).setSystem(FHIRConstants.OPENMRS_URI));
-			} else {
-				dts.add(new Coding().setCode(condition.getConcept().getUuid()).setSystem(
-						FHIRConstants.OPENMRS_URI));
-			}
-			conceptDt.setCoding(dts);
+			//Set concept codings and the default openmrs concept
+			conceptDt.setCoding(FHIRConceptCodingCache.getCodings(condition.getConcept()));
 			fhirCondition.setCode(conceptDt);
 		}
 		fhirCondition.setClinicalStatus(
@@ -208,23 +186,8 @@ public class FHIRConditionUtil {
 
 		if (openMrsObs.getConcept() != null) {
 			CodeableConcept conceptDt = fhirCondition.getCode();
-			Collection<ConceptMap> mappings = openMrsObs.getConcept().getConceptMappings();
-			List<Coding> dts = conceptDt.getCoding();
-			if (mappings != null && !mappings.isEmpty()) {
-				for (ConceptMap map : mappings) {
-					if (map.getConceptReferenceTerm() != null) {
-						dts.add(FHIRUtils.createCoding(map));
-					}
-				}
-			}
-			if (openMrsObs.getConcept().getName() != null) {
-				dts.add(new Coding().setCode(openMrsObs.getConcept().getUuid()).setDisplay(
-						openMrsObs.getConcept().getName().getName()).setSystem(FHIRConstants.OPENMRS_URI));
-			} else {
-				dts.add(new Coding().setCode(openMrsObs.getConcept().getUuid()).setSystem(
-						FHIRConstants.OPENMRS_URI));
-			}
-			conceptDt.setCoding(dts);
+			//Set concept codings and the default openmrs concept
+			conceptDt.setCoding(FHIRConceptCodingCache.getCodings(openMrsObs.getConcept()));
 			fhirCondition.setCode(conceptDt);
 		}
 
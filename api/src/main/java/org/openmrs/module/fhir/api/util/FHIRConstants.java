@@ -13,6 +13,7 @@
  */
 package org.openmrs.module.fhir.api.util;
 
+import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -126,6 +127,8 @@ public final class FHIRConstants {
 
 	public static final String OBSERVATION = "Observation";
 
+	public static final String FAMILY_MEMBER_HISTORY = "FamilyMemberHistory";
+
 	public static final String MEDICATION = "Medication";
 
 	public static final String MEDICATION_REQUEST = "MedicationRequest";
@@ -270,6 +273,48 @@ public final class FHIRConstants {
 
 	public static final String DELETE = "DELETE";
 
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	public static final int MAXIMUM_PAGE_SIZE = 500;
+
+	public static final int DEFAULT_VALIDATION_SAMPLE_RATE = 100;
+
+	public static final int TRANSACTION_FLUSH_INTERVAL = 50;
+
+	public static final int DEFAULT_RESOURCE_CACHE_SIZE = 0;
+
+	public static final int DEFAULT_AUTHENTICATION_CACHE_TTL = 0;
+
+	public static final int DEFAULT_AUTHENTICATION_CACHE_SIZE = 100;
+
+	public static final int CONCEPT_CACHE_SIZE = 10000;
+
+	public static final int GROUP_MEMBER_BATCH_SIZE = 1000;
+
+	public static final int MERGE_BATCH_SIZE = 1000;
+
+	public static final int DEFAULT_CLIENT_CONNECT_TIMEOUT = 10000;
+
+	public static final int DEFAULT_CLIENT_SOCKET_TIMEOUT = 10000;
+
+	public static final int DEFAULT_CLIENT_POOL_MAX_TOTAL = 20;
+
+	public static final int DEFAULT_CLIENT_POOL_MAX_PER_ROUTE = 20;
+
+	public static final int DEFAULT_GROUP_MAX_INLINE_MEMBERS = 0;
+
+	public static final int EXPORT_BATCH_SIZE = 100;
+
+	public static final int EXPORT_PATIENT_CHUNK_SIZE = 1000;
+
+	public static final int EXPORT_RETENTION_HOURS = 24;
+
+	public static final int EXPORT_CLEANUP_INTERVAL_MINUTES = 60;
+
+	public static final String EXPORT_DIRECTORY = "fhir" + File.separator + "export";
+
+	public static final String NDJSON_CONTENT_TYPE = "application/fhir+ndjson";
+
 	public static Map<String, ConceptSourceNameURIPair> conceptSourceMap = new HashMap<String, ConceptSourceNameURIPair>();
 
 	public static Map<String, String> conceptSourceURINameMap = new HashMap<String, String>();
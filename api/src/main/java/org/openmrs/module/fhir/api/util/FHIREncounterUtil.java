@@ -14,6 +14,7 @@
 package org.openmrs.module.fhir.api.util;
 
 import org.apache.commons.lang3.StringUtils;
+import org.hl7.fhir.dstu3.model.Base;
 import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.Coding;
 import org.hl7.fhir.dstu3.model.Composition;
@@ -454,7 +455,7 @@ public class FHIREncounterUtil {
 			return false;
 		}
 
-		if (e1.getParticipant() != null ? !e1.getParticipant().equals(e2.getParticipant()) : e2.getParticipant() != null) {
+		if (!Base.compareDeep(e1.getParticipant(), e2.getParticipant(), true)) {
 			return false;
 		}
 
@@ -462,7 +463,7 @@ public class FHIREncounterUtil {
 			return false;
 		}
 
-		if (e1.getLocation() != null ? !e1.getLocation().equals(e2.getLocation()) : e2.getLocation() != null) {
+		if (!Base.compareDeep(e1.getLocation(), e2.getLocation(), true)) {
 			return false;
 		}
 
@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.openmrs.api.context.Context;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the values of the fhir global properties in memory, so that they are read from the database
+ * only once instead of on every request. Entries are evicted by {@link FHIRGlobalPropertyListener}
+ * whenever the global property is changed or deleted.
+ */
+public final class FHIRGlobalPropertyCache {
+
+	/**
+	 * Placeholder for global properties without a value, since the map does not accept nulls
+	 */
+	private static final String NO_VALUE = new String();
+
+	private static final ConcurrentMap<String, String> values = new ConcurrentHashMap<String, String>();
+
+	private FHIRGlobalPropertyCache() {
+
+	}
+
+	/**
+	 * Get the value of a global property, reading it from the database the first time only
+	 *
+	 * @param propertyName name of the global property
+	 * @return value of the global property or null if it is not set
+	 */
+	public static String getGlobalProperty(String propertyName) {
+		String value = values.get(propertyName);
+		if (value == null) {
+			value = Context.getAdministrationService().getGlobalProperty(propertyName);
+			values.put(propertyName, value == null ? NO_VALUE : value);
+			return value;
+		}
+		return value == NO_VALUE ? null : value;
+	}
+
+	/**
+	 * Remove the cached value of a global property
+	 *
+	 * @param propertyName name of the global property
+	 */
+	public static void evict(String propertyName) {
+		values.remove(propertyName);
+	}
+
+	/**
+	 * Remove all the cached global property values
+	 */
+	public static void clear() {
+		values.clear();
+	}
+}
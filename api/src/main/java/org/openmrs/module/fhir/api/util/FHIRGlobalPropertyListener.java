@@ -0,0 +1,68 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.openmrs.GlobalProperty;
+import org.openmrs.api.GlobalPropertyListener;
+import org.openmrs.module.fhir.api.strategies.StrategyRegistry;
+
+/**
+ * Invalidates the cached fhir global properties and the resolved strategies when a fhir global
+ * property is changed or deleted.
+ */
+public class FHIRGlobalPropertyListener implements GlobalPropertyListener {
+
+	private static final String GLOBAL_PROPERTY_PREFIX = "fhir.";
+
+	private static final String STRATEGY_GLOBAL_PROPERTY_SUFFIX = ".strategy";
+
+	private static final String CLIENT_GLOBAL_PROPERTY_PREFIX = "fhir.client.";
+
+	/**
+	 * @see GlobalPropertyListener#supportsPropertyName(String)
+	 */
+	@Override
+	public boolean supportsPropertyName(String propertyName) {
+		return propertyName != null && propertyName.startsWith(GLOBAL_PROPERTY_PREFIX);
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyChanged(GlobalProperty)
+	 */
+	@Override
+	public void globalPropertyChanged(GlobalProperty newValue) {
+		invalidate(newValue.getProperty());
+	}
+
+	/**
+	 * @see GlobalPropertyListener#globalPropertyDeleted(String)
+	 */
+	@Override
+	public void globalPropertyDeleted(String propertyName) {
+		invalidate(propertyName);
+	}
+
+	private void invalidate(String propertyName) {
+		FHIRGlobalPropertyCache.evict(propertyName);
+		// generated resources may depend on the changed property
+		FHIRResourceCache.clear();
+		FHIRConceptCodingCache.clear();
+		if (propertyName.startsWith(CLIENT_GLOBAL_PROPERTY_PREFIX)) {
+			FHIRRESTfulGenericClient.clear();
+		}
+		if (propertyName.endsWith(STRATEGY_GLOBAL_PROPERTY_SUFFIX)) {
+			StrategyRegistry.clear();
+		}
+	}
+}
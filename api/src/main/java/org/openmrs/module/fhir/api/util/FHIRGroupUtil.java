@@ -1,18 +1,22 @@
 package org.openmrs.module.fhir.api.util;
 
+import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import org.hl7.fhir.dstu3.model.Extension;
 import org.hl7.fhir.dstu3.model.Group;
+import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Reference;
 import org.openmrs.Cohort;
 import org.openmrs.Patient;
-import org.openmrs.api.PatientService;
-import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir.api.comparator.GroupComparator;
 import org.openmrs.module.fhir.api.constants.ExtensionURL;
+import org.openmrs.module.fhir.api.db.FHIRDAO;
+import org.openmrs.module.fhir.api.db.PatientReference;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 public class FHIRGroupUtil {
 
@@ -35,16 +39,26 @@ public class FHIRGroupUtil {
 		group.setType(Group.GroupType.PERSON);
 		group.addExtension(ExtensionsUtil.createDescriptionExtension(cohort.getDescription()));
 
-		Set<Integer> memberIds = cohort.getMemberIds();
+		List<Integer> memberIds = getSortedMemberIds(cohort);
 
 		group.setQuantity(memberIds.size());
 
-		PatientService patientService = Context.getPatientService();
-		List<Group.GroupMemberComponent> groupMemberComponents = new ArrayList<>();
+		// large cohorts may list only the first members, the rest is paged through the $members
+		// operation, such a group is marked so that it is not taken for the whole cohort
+		int maxInline = FHIRUtils.getGroupMaxInlineMembers();
+		if (maxInline > 0 && memberIds.size() > maxInline) {
+			memberIds = memberIds.subList(0, maxInline);
+			group.addExtension(ExtensionsUtil.createMembersTruncatedExtension());
+		}
 
-		for (Integer patientId : memberIds) {
-			Patient p = patientService.getPatient(patientId);
-			groupMemberComponents.add(generateGroupMemberComponent(p));
+		List<Group.GroupMemberComponent> groupMemberComponents = new ArrayList<>();
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+		for (int i = 0; i < memberIds.size(); i += FHIRConstants.GROUP_MEMBER_BATCH_SIZE) {
+			List<Integer> batch = memberIds.subList(i, Math.min(i + FHIRConstants.GROUP_MEMBER_BATCH_SIZE,
+					memberIds.size()));
+			for (PatientReference patient : dao.getPatientReferences(batch)) {
+				groupMemberComponents.add(generateGroupMemberComponent(patient));
+			}
 		}
 
 		group.setMember(groupMemberComponents);
@@ -52,18 +66,50 @@ public class FHIRGroupUtil {
 		return group;
 	}
 
+	/**
+	 * @param cohort the cohort
+	 * @return ids of the cohort members in ascending order, the order in which Group members are listed
+	 */
+	public static List<Integer> getSortedMemberIds(Cohort cohort) {
+		List<Integer> memberIds = new ArrayList<>(cohort.getMemberIds());
+		Collections.sort(memberIds);
+		return memberIds;
+	}
+
+	/**
+	 * @param group the group
+	 * @return the cohort with the members of the group
+	 * @throws UnprocessableEntityException if the group lists only part of its members or refers to
+	 * unknown patients
+	 */
 	public static Cohort generateCohort(Group group) {
 		if (group == null) {
 			return null;
 		}
+		if (!group.getExtensionsByUrl(ExtensionURL.MEMBERS_TRUNCATED_URL).isEmpty()) {
+			throw new UnprocessableEntityException("The Group lists only the first " + group.getMember().size() + " of "
+					+ group.getQuantity() + " members, a cohort cannot be built from it");
+		}
 
-		List<Group.GroupMemberComponent> memberComponents = group.getMember();
-		Integer[] ids = new Integer[memberComponents.size()];
-		for (int i = 0; i < memberComponents.size(); i++) {
-			Reference patientReference = memberComponents.get(i).getEntity();
-			Patient patient = Context.getPatientService().getPatientByUuid(patientReference.getId());
-
-			ids[i] = patient.getPatientId();
+		List<String> memberUuids = new ArrayList<>();
+		for (Group.GroupMemberComponent memberComponent : group.getMember()) {
+			memberUuids.add(getPatientUuid(memberComponent.getEntity()));
+		}
+		Map<String, Integer> patientIds = new HashMap<>();
+		FHIRDAO dao = ContextUtil.getFHIRDAO();
+		for (int i = 0; i < memberUuids.size(); i += FHIRConstants.GROUP_MEMBER_BATCH_SIZE) {
+			List<String> batch = memberUuids.subList(i, Math.min(i + FHIRConstants.GROUP_MEMBER_BATCH_SIZE,
+					memberUuids.size()));
+			for (Patient patient : dao.getObjectsByUuids(Patient.class, batch)) {
+				patientIds.put(patient.getUuid(), patient.getPatientId());
+			}
+		}
+		Integer[] ids = new Integer[memberUuids.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = patientIds.get(memberUuids.get(i));
+			if (ids[i] == null) {
+				throw new UnprocessableEntityException("The Group member " + memberUuids.get(i) + " is not a known patient");
+			}
 		}
 
 		Cohort cohort = new Cohort(group.getName(), getDescription(group), ids);
@@ -96,10 +142,14 @@ public class FHIRGroupUtil {
 		return extension.getValue().toString();
 	}
 
-	private static Group.GroupMemberComponent generateGroupMemberComponent(Patient patient) {
-		if (patient == null) {
-			return null;
+	private static String getPatientUuid(Reference patientReference) {
+		if (patientReference.hasReference()) {
+			return new IdType(patientReference.getReference()).getIdPart();
 		}
+		return patientReference.getId();
+	}
+
+	private static Group.GroupMemberComponent generateGroupMemberComponent(PatientReference patient) {
 		Group.GroupMemberComponent gmc = new Group.GroupMemberComponent();
 
 		Reference patientReference = FHIRPatientUtil.buildPatientReference(patient);
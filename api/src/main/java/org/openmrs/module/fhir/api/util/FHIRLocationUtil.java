@@ -22,11 +22,17 @@ import org.openmrs.api.context.Context;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 public class FHIRLocationUtil {
 
 	public static Location generateLocation(org.openmrs.Location omrsLocation) {
+		Date lastUpdated = BaseOpenMRSDataUtil.getLastUpdated(omrsLocation);
+		Location cached = FHIRResourceCache.get(Location.class, omrsLocation.getUuid(), lastUpdated);
+		if (cached != null) {
+			return cached;
+		}
 		Location location = new Location();
 
 		BaseOpenMRSDataUtil.setBaseExtensionFields(location, omrsLocation);
@@ -80,6 +86,7 @@ public class FHIRLocationUtil {
 			location.setPartOf(parent);
 		}
 		FHIRUtils.validate(location);
+		FHIRResourceCache.put(location, omrsLocation.getUuid(), lastUpdated);
 		return location;
 	}
 
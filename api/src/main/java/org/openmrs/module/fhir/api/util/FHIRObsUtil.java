@@ -18,6 +18,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.hl7.fhir.dstu3.model.Attachment;
+import org.hl7.fhir.dstu3.model.Base;
 import org.hl7.fhir.dstu3.model.CodeableConcept;
 import org.hl7.fhir.dstu3.model.Coding;
 import org.hl7.fhir.dstu3.model.DateTimeType;
@@ -29,8 +30,6 @@ import org.hl7.fhir.dstu3.model.Reference;
 import org.hl7.fhir.dstu3.model.SimpleQuantity;
 import org.hl7.fhir.dstu3.model.StringType;
 import org.openmrs.Concept;
-import org.openmrs.ConceptMap;
-import org.openmrs.ConceptNumeric;
 import org.openmrs.Encounter;
 import org.openmrs.EncounterProvider;
 import org.openmrs.Location;
@@ -42,7 +41,6 @@ import org.openmrs.obs.ComplexData;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -89,21 +87,11 @@ public class FHIRObsUtil {
 		}
 		observation.setPerformer(performers);
 
-		//Set concepts
-		Collection<ConceptMap> mappings = obs.getConcept().getConceptMappings();
-		CodeableConcept dt = observation.getCode();
-		List<Coding> dts = new ArrayList<>();
-
-		//Set codings from openmrs concept mappings
-		for (ConceptMap map : mappings) {
-			dts.add(FHIRUtils.createCoding(map));
-		}
-		//Set openmrs concept
-		dts.add(FHIRUtils.getCodingDtByOpenMRSConcept(obs.getConcept()));
-		dt.setCoding(dts);
+		//Set codings from openmrs concept mappings and the openmrs concept
+		observation.getCode().setCoding(FHIRConceptCodingCache.getCodings(obs.getConcept()));
 
 		if (obs.getConcept().isNumeric()) {
-			ConceptNumeric cn = Context.getConceptService().getConceptNumeric(obs.getConcept().getId());
+			FHIRConceptNumericCache.NumericMetadata cn = FHIRConceptNumericCache.get(obs.getConcept());
 			SimpleQuantity quantity = new SimpleQuantity();
 			if (obs.getValueNumeric() != null) {
 				quantity.setValue(obs.getValueNumeric());
@@ -112,27 +100,29 @@ public class FHIRObsUtil {
 				quantity.setCode(cn.getUnits());
 				observation.setValue(quantity);
 			}
-			//Set high and low ranges
-			List<Observation.ObservationReferenceRangeComponent> referenceRanges = new ArrayList<>();
-			Observation.ObservationReferenceRangeComponent referenceRange = new Observation.ObservationReferenceRangeComponent();
-			if (cn.getHiAbsolute() != null) {
-				SimpleQuantity high = new SimpleQuantity();
-				high.setUnit(cn.getUnits());
-				high.setCode(cn.getUnits());
-				high.setSystem(FHIRConstants.NUMERIC_CONCEPT_MEASURE_URI);
-				high.setValue(cn.getHiAbsolute());
-				referenceRange.setHigh(high);
-			}
-			if (cn.getLowAbsolute() != null) {
-				SimpleQuantity low = new SimpleQuantity();
-				low.setUnit(cn.getUnits());
-				low.setCode(cn.getUnits());
-				low.setSystem(FHIRConstants.NUMERIC_CONCEPT_MEASURE_URI);
-				low.setValue(cn.getLowAbsolute());
-				referenceRange.setLow(low);
+			//Set high and low ranges, unless they are left out of the response
+			if (FHIRSummaryContext.isIncluded(FHIRSummaryContext.REFERENCE_RANGE)) {
+				List<Observation.ObservationReferenceRangeComponent> referenceRanges = new ArrayList<>();
+				Observation.ObservationReferenceRangeComponent referenceRange = new Observation.ObservationReferenceRangeComponent();
+				if (cn.getHiAbsolute() != null) {
+					SimpleQuantity high = new SimpleQuantity();
+					high.setUnit(cn.getUnits());
+					high.setCode(cn.getUnits());
+					high.setSystem(FHIRConstants.NUMERIC_CONCEPT_MEASURE_URI);
+					high.setValue(cn.getHiAbsolute());
+					referenceRange.setHigh(high);
+				}
+				if (cn.getLowAbsolute() != null) {
+					SimpleQuantity low = new SimpleQuantity();
+					low.setUnit(cn.getUnits());
+					low.setCode(cn.getUnits());
+					low.setSystem(FHIRConstants.NUMERIC_CONCEPT_MEASURE_URI);
+					low.setValue(cn.getLowAbsolute());
+					referenceRange.setLow(low);
+				}
+				referenceRanges.add(referenceRange);
+				observation.setReferenceRange(referenceRanges);
 			}
-			referenceRanges.add(referenceRange);
-			observation.setReferenceRange(referenceRanges);
 
 		} else if (FHIRConstants.ST_HL7_ABBREVATION.equalsIgnoreCase(obs.getConcept().getDatatype().getHl7Abbreviation())) {
 			StringType value = new StringType();
@@ -498,16 +488,14 @@ public class FHIRObsUtil {
 			return false;
 		}
 
-		if (o1.getPerformer() != null ? !o1.getPerformer().equals(o2.getPerformer()) : o2.getPerformer() != null) {
+		if (!Base.compareDeep(o1.getPerformer(), o2.getPerformer(), true)) {
 			return false;
 		}
 
-		if (o1.getReferenceRange() != null ?
-				!o1.getReferenceRange().equals(o2.getReferenceRange()) :
-				o2.getReferenceRange() != null) {
+		if (!Base.compareDeep(o1.getReferenceRange(), o2.getReferenceRange(), true)) {
 			return false;
 		}
 
-		return o1.getRelated() != null ? o1.getRelated().equals(o2.getRelated()) : o2.getRelated() == null;
+		return Base.compareDeep(o1.getRelated(), o2.getRelated(), true);
 	}
 }
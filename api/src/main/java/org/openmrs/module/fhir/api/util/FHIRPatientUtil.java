@@ -23,8 +23,10 @@ import org.hl7.fhir.dstu3.model.Reference;
 import org.openmrs.PatientIdentifier;
 import org.openmrs.PersonAddress;
 import org.openmrs.PersonName;
+import org.openmrs.module.fhir.api.db.PatientReference;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -34,6 +36,11 @@ import static org.openmrs.module.fhir.api.util.FHIRUtils.extractUuid;
 public class FHIRPatientUtil {
 
 	public static Patient generatePatient(org.openmrs.Patient omrsPatient) {
+		Date lastUpdated = BaseOpenMRSDataUtil.getLastUpdated(omrsPatient);
+		Patient cached = FHIRResourceCache.get(Patient.class, omrsPatient.getUuid(), lastUpdated);
+		if (cached != null) {
+			return cached;
+		}
 
 		Patient patient = new Patient();
 
@@ -78,6 +85,7 @@ public class FHIRPatientUtil {
 		}
 		patient.setTelecom(dts);
 		FHIRUtils.validate(patient);
+		FHIRResourceCache.put(patient, omrsPatient.getUuid(), lastUpdated);
 		return patient;
 	}
 
@@ -240,6 +248,29 @@ public class FHIRPatientUtil {
 		return patientReference;
 	}
 
+	/**
+	 * Builds the same reference as {@link #buildPatientReference(org.openmrs.Patient)} from a projection
+	 *
+	 * @param patient uuid, preferred name and preferred identifier of the patient
+	 * @return reference to the patient
+	 */
+	public static Reference buildPatientReference(PatientReference patient) {
+		Reference patientReference = new Reference();
+		StringBuilder nameDisplay = new StringBuilder();
+		nameDisplay.append(patient.getGivenName());
+		nameDisplay.append(" ");
+		nameDisplay.append(patient.getFamilyName());
+		nameDisplay.append("(");
+		nameDisplay.append(FHIRConstants.IDENTIFIER);
+		nameDisplay.append(":");
+		nameDisplay.append(patient.getIdentifier());
+		nameDisplay.append(")");
+		patientReference.setReference(FHIRConstants.PATIENT + "/" + patient.getUuid());
+		patientReference.setDisplay(nameDisplay.toString());
+		patientReference.setId(patient.getUuid());
+		return patientReference;
+	}
+
 	/**
 	 * Compares patient objects with only current name and current address.
 	 *
@@ -29,6 +29,7 @@ import org.openmrs.Provider;
 import org.openmrs.api.context.Context;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -39,10 +40,16 @@ import static java.lang.String.valueOf;
 public class FHIRPractitionerUtil {
 
 	public static Practitioner generatePractitioner(Provider provider) {
+		Date lastUpdated = BaseOpenMRSDataUtil.getLastUpdated(provider);
+		Practitioner cached = FHIRResourceCache.get(Practitioner.class, provider.getUuid(), lastUpdated);
+		if (cached != null) {
+			return cached;
+		}
 
 		Practitioner practitioner = new Practitioner();
 		//Set practitioner ID
 		practitioner.setId(provider.getUuid());
+		BaseOpenMRSDataUtil.setMetaFields(practitioner, provider);
 
 		//Set patient identifiers to fhir practitioner
 		Identifier identifier = new Identifier();
@@ -108,6 +115,7 @@ public class FHIRPractitionerUtil {
 			practitioner.setGender(Enumerations.AdministrativeGender.UNKNOWN);
 		}
 		FHIRUtils.validate(practitioner);
+		FHIRResourceCache.put(practitioner, provider.getUuid(), lastUpdated);
 		return practitioner;
 	}
 
@@ -15,6 +15,7 @@ package org.openmrs.module.fhir.api.util;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.rest.client.api.IGenericClient;
+import ca.uhn.fhir.rest.client.api.IRestfulClientFactory;
 import ca.uhn.fhir.rest.gclient.ICriterion;
 import ca.uhn.fhir.rest.gclient.ReferenceClientParam;
 import ca.uhn.fhir.rest.gclient.TokenClientParam;
@@ -23,14 +24,25 @@ import org.hl7.fhir.dstu3.model.DiagnosticReport;
 import org.hl7.fhir.dstu3.model.ImagingStudy;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.hl7.fhir.dstu3.model.Practitioner;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reads from remote FHIR servers. The timeouts and the connection pool are settings of the client
+ * factory of a context, so the clients are created from a context of their own, which the other
+ * users of the shared context do not inherit.
+ */
 public class FHIRRESTfulGenericClient {
 
-	private static final FhirContext ctx = FhirContext.forDstu3();
+	private static final ConcurrentMap<String, IGenericClient> clients = new ConcurrentHashMap<>();
+
+	private static FhirContext ctx;
 
 	public static Patient readPatientById(String serverBase,
 			String theID) {
-		IGenericClient client = ctx.newRestfulGenericClient(serverBase);
+		IGenericClient client = getClient(serverBase);
 		return client.read()
 				.resource(Patient.class)
 				.withId(theID)
@@ -39,7 +51,7 @@ public class FHIRRESTfulGenericClient {
 
 	public static Practitioner readPractitionerById(String serverBase,
 			String theID) {
-		IGenericClient client = ctx.newRestfulGenericClient(serverBase);
+		IGenericClient client = getClient(serverBase);
 		return client.read()
 				.resource(Practitioner.class)
 				.withId(theID)
@@ -48,7 +60,7 @@ public class FHIRRESTfulGenericClient {
 
 	public static ImagingStudy readImagingStudyById(String serverBase,
 			String theID) {
-		IGenericClient client = ctx.newRestfulGenericClient(serverBase);
+		IGenericClient client = getClient(serverBase);
 		return client.read()
 				.resource(ImagingStudy.class)
 				.withId(theID)
@@ -59,7 +71,7 @@ public class FHIRRESTfulGenericClient {
 			Class<DiagnosticReport> fhirResource,
 			ICriterion<ReferenceClientParam> where,
 			ICriterion<TokenClientParam> and) {
-		IGenericClient client = ctx.newRestfulGenericClient(serverBase);
+		IGenericClient client = getClient(serverBase);
 		return (Bundle) client.search()
 				.forResource(fhirResource)
 				.where(where)
@@ -70,11 +82,49 @@ public class FHIRRESTfulGenericClient {
 	public static Bundle searchWhereReference(String serverBase,
 			Class<DiagnosticReport> fhirResource,
 			ICriterion<ReferenceClientParam> where) {
-		IGenericClient client = ctx.newRestfulGenericClient(serverBase);
+		IGenericClient client = getClient(serverBase);
 		return (Bundle) client.search()
 				.forResource(fhirResource)
 				.where(where)
 				.execute();
 	}
 
+	/**
+	 * Drop the cached clients and their context, so that the next request applies the current timeout
+	 * and pool settings
+	 */
+	public static synchronized void clear() {
+		clients.clear();
+		ctx = null;
+	}
+
+	/**
+	 * Clients are thread safe and share the keep-alive connection pool of the context client factory,
+	 * so one client is kept per server base
+	 */
+	static IGenericClient getClient(String serverBase) {
+		IGenericClient client = clients.get(serverBase);
+		if (client == null) {
+			client = getContext().newRestfulGenericClient(serverBase);
+			IGenericClient existing = clients.putIfAbsent(serverBase, client);
+			if (existing != null) {
+				client = existing;
+			}
+		}
+		return client;
+	}
+
+	private static synchronized FhirContext getContext() {
+		if (ctx == null) {
+			FhirContext clientContext = FHIRContextFactory.createFHIRContext();
+			IRestfulClientFactory factory = clientContext.getRestfulClientFactory();
+			factory.setConnectTimeout(FHIRUtils.getClientConnectTimeout());
+			factory.setConnectionRequestTimeout(FHIRUtils.getClientConnectTimeout());
+			factory.setSocketTimeout(FHIRUtils.getClientSocketTimeout());
+			factory.setPoolMaxTotal(FHIRUtils.getClientPoolMaxTotal());
+			factory.setPoolMaxPerRoute(FHIRUtils.getClientPoolMaxPerRoute());
+			ctx = clientContext;
+		}
+		return ctx;
+	}
 }
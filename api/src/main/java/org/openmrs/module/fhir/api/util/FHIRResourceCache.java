@@ -0,0 +1,224 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.hl7.fhir.dstu3.model.Resource;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Least recently used cache of the fhir resources generated from OpenMRS objects. Entries are keyed
+ * by resource type and uuid and remember the last update time of the object they were generated
+ * from, so a changed object is regenerated even if the cache was not told about the change. The
+ * number of entries is bounded by the fhir.cache.resources.maxSize global property, the cache is
+ * disabled when it is 0 or not set.
+ * <p>
+ * Only types whose generated content is covered by
+ * {@link BaseOpenMRSDataUtil#getLastUpdated(org.openmrs.Auditable)} are cached: patients with their
+ * names, addresses and identifiers, providers with their person and locations with their parent.
+ * <p>
+ * Resources are copied when they are put in and taken out of the cache, so callers may modify the
+ * returned resource.
+ */
+public final class FHIRResourceCache {
+
+	private static final AtomicLong hitCount = new AtomicLong();
+
+	private static final AtomicLong missCount = new AtomicLong();
+
+	private static final AtomicLong evictionCount = new AtomicLong();
+
+	private static int maxSize = FHIRConstants.DEFAULT_RESOURCE_CACHE_SIZE;
+
+	private static final ThreadLocal<Boolean> bypassed = new ThreadLocal<Boolean>();
+
+	private static final Map<String, CachedResource> resources = new LinkedHashMap<String, CachedResource>(16, 0.75f,
+			true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+			if (size() > maxSize) {
+				evictionCount.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+	};
+
+	private FHIRResourceCache() {
+
+	}
+
+	/**
+	 * Get a cached resource generated from the given version of an OpenMRS object
+	 *
+	 * @param type        class of the fhir resource
+	 * @param uuid        uuid of the OpenMRS object
+	 * @param lastUpdated last update time of the OpenMRS object
+	 * @return a copy of the cached resource or null if it is not cached or was generated from another
+	 * version of the object
+	 */
+	public static <T extends Resource> T get(Class<T> type, String uuid, Date lastUpdated) {
+		if (uuid == null || lastUpdated == null || isBypassed() || FHIRUtils.getResourceCacheSize() <= 0) {
+			return null;
+		}
+		CachedResource cached;
+		synchronized (resources) {
+			cached = resources.get(getKey(type, uuid));
+		}
+		if (cached == null || cached.lastUpdated != lastUpdated.getTime()) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		hitCount.incrementAndGet();
+		return type.cast(cached.resource.copy());
+	}
+
+	/**
+	 * Cache a resource generated from the given version of an OpenMRS object. Resources built without
+	 * the parts left out by _summary or _elements are not cached.
+	 *
+	 * @param resource    generated fhir resource
+	 * @param uuid        uuid of the OpenMRS object
+	 * @param lastUpdated last update time of the OpenMRS object
+	 */
+	public static void put(Resource resource, String uuid, Date lastUpdated) {
+		if (uuid == null || lastUpdated == null || isBypassed() || !FHIRSummaryContext.isComplete()) {
+			return;
+		}
+		int size = FHIRUtils.getResourceCacheSize();
+		if (size <= 0) {
+			return;
+		}
+		CachedResource cached = new CachedResource(resource.copy(), lastUpdated.getTime());
+		synchronized (resources) {
+			maxSize = size;
+			resources.put(getKey(resource.getClass(), uuid), cached);
+		}
+	}
+
+	/**
+	 * Generate a resource without reading or filling the cache, for objects saved in the current
+	 * transaction, whose audit fields are only updated on flush, and for one-off reads such as bulk
+	 * exports. The cached resource of the object is removed as well.
+	 *
+	 * @param type      class of the fhir resource
+	 * @param uuid      uuid of the OpenMRS object, or null to leave the cached resources untouched
+	 * @param generator generates the resource
+	 * @return the generated resource
+	 */
+	public static <T extends Resource> T generateUncached(Class<T> type, String uuid, Generator<T> generator) {
+		if (uuid != null) {
+			evict(type, uuid);
+		}
+		Boolean previous = bypassed.get();
+		bypassed.set(Boolean.TRUE);
+		try {
+			return generator.generate();
+		}
+		finally {
+			bypassed.set(previous);
+		}
+	}
+
+	/**
+	 * Remove the cached resource of an OpenMRS object
+	 *
+	 * @param type class of the fhir resource
+	 * @param uuid uuid of the OpenMRS object
+	 */
+	public static void evict(Class<? extends Resource> type, String uuid) {
+		synchronized (resources) {
+			resources.remove(getKey(type, uuid));
+		}
+	}
+
+	/**
+	 * Remove all the cached resources
+	 */
+	public static void clear() {
+		synchronized (resources) {
+			resources.clear();
+		}
+	}
+
+	/**
+	 * @return number of cached resources
+	 */
+	public static int getSize() {
+		synchronized (resources) {
+			return resources.size();
+		}
+	}
+
+	/**
+	 * @return number of lookups that returned a cached resource since startup or the last reset
+	 */
+	public static long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * @return number of lookups for which the resource had to be generated
+	 */
+	public static long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * @return number of resources removed because the cache was full
+	 */
+	public static long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	public static void resetStatistics() {
+		hitCount.set(0);
+		missCount.set(0);
+		evictionCount.set(0);
+	}
+
+	private static boolean isBypassed() {
+		return Boolean.TRUE.equals(bypassed.get());
+	}
+
+	private static String getKey(Class<? extends Resource> type, String uuid) {
+		return type.getSimpleName() + "/" + uuid;
+	}
+
+	/**
+	 * Generates a resource passed to {@link #generateUncached(Class, String, Generator)}
+	 */
+	public interface Generator<T extends Resource> {
+
+		T generate();
+	}
+
+	private static class CachedResource {
+
+		private final Resource resource;
+
+		private final long lastUpdated;
+
+		CachedResource(Resource resource, long lastUpdated) {
+			this.resource = resource;
+			this.lastUpdated = lastUpdated;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import ca.uhn.fhir.rest.api.SummaryEnum;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The _summary and _elements parameters of the request being served by the current thread. The server
+ * strips the omitted elements when encoding the response anyway, the converters check
+ * {@link #isIncluded(String)} to skip building the costly ones in the first place.
+ */
+public class FHIRSummaryContext {
+
+	public static final String EXTENSION = "extension";
+
+	public static final String REFERENCE_RANGE = "referenceRange";
+
+	private static final ThreadLocal<FHIRSummaryContext> current = new ThreadLocal<FHIRSummaryContext>();
+
+	private final SummaryEnum summary;
+
+	private final Set<String> elements;
+
+	private FHIRSummaryContext(SummaryEnum summary, Set<String> elements) {
+		this.summary = summary;
+		this.elements = elements;
+	}
+
+	/**
+	 * Set the context of the current thread from the request parameters
+	 *
+	 * @param summary  value of the _summary parameter, may be null
+	 * @param elements values of the _elements parameter, may be null
+	 */
+	public static void set(String summary, String[] elements) {
+		SummaryEnum summaryMode = StringUtils.isBlank(summary) ? null : SummaryEnum.fromCode(summary.trim());
+		Set<String> elementNames = null;
+		if (elements != null) {
+			elementNames = new HashSet<String>();
+			for (String value : elements) {
+				if (StringUtils.isBlank(value)) {
+					continue;
+				}
+				for (String element : StringUtils.split(value, ',')) {
+					// both Observation.referenceRange and referenceRange are accepted
+					elementNames.add(StringUtils.substringAfterLast("." + element.trim(), "."));
+				}
+			}
+		}
+		if (isReducing(summaryMode) || elementNames != null) {
+			current.set(new FHIRSummaryContext(summaryMode, elementNames));
+		} else {
+			current.remove();
+		}
+	}
+
+	public static void clear() {
+		current.remove();
+	}
+
+	/**
+	 * @return true if resources built by the current thread are returned in full
+	 */
+	public static boolean isComplete() {
+		return current.get() == null;
+	}
+
+	/**
+	 * Whether an element which is not part of the summary is returned to the client
+	 *
+	 * @param element name of the element, without the resource type
+	 * @return false if the element is stripped from the response
+	 */
+	public static boolean isIncluded(String element) {
+		FHIRSummaryContext context = current.get();
+		if (context == null) {
+			return true;
+		}
+		if (context.elements != null && context.summary != SummaryEnum.DATA) {
+			return context.elements.contains(element);
+		}
+		return !isReducing(context.summary);
+	}
+
+	private static boolean isReducing(SummaryEnum summary) {
+		return summary == SummaryEnum.TRUE || summary == SummaryEnum.TEXT || summary == SummaryEnum.COUNT;
+	}
+}
@@ -19,6 +19,8 @@ import ca.uhn.fhir.validation.FhirValidator;
 import ca.uhn.fhir.validation.ValidationResult;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.mutable.MutableBoolean;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.hl7.fhir.dstu3.model.AllergyIntolerance;
 import org.hl7.fhir.dstu3.model.CodeableConcept;
 import org.hl7.fhir.dstu3.model.Coding;
@@ -34,11 +36,16 @@ import org.openmrs.PersonName;
 import org.openmrs.RelationshipType;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.util.OpenmrsUtil;
 
+import java.io.File;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FHIRUtils {
 
+	private static final Log log = LogFactory.getLog(FHIRUtils.class);
+
 	public static final String CONTENT_TYPE_APPLICATION_XML_FHIR = "application/xml+fhir";
 
 	public static final String CONTENT_TYPE_APPLICATION_JSON_FHIR = "application/json+fhir";
@@ -55,24 +62,69 @@ public class FHIRUtils {
 
 	private static FhirValidator val = ctx.newValidator();
 
+	private static final AtomicLong outboundValidationCounter = new AtomicLong();
+
 	public static String getFHIRBaseUrl() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.baseUrl");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.baseUrl");
 	}
 
 	public static boolean isCustomNarrativesEnabled() {
-		String enabled = Context.getAdministrationService().getGlobalProperty("fhir.isCustomerNarrativesEnabled");
+		String enabled = FHIRGlobalPropertyCache.getGlobalProperty("fhir.isCustomerNarrativesEnabled");
 		return Boolean.parseBoolean(enabled);
 	}
 
 	public static String getCustomNarrativesPropertyPath() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.customNarrativePropertiesPath");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.customNarrativePropertiesPath");
 	}
 
+	/**
+	 * Validate a resource generated by the module. Depending on fhir.validation.mode the resource is
+	 * never checked (off, inbound-only), checked once every fhir.validation.sampleRate calls with
+	 * failures only logged (sampled), or always checked and rejected when invalid (strict).
+	 *
+	 * @param resource generated resource
+	 */
 	public static void validate(Resource resource) {
+		ValidationModeEnum mode = getValidationMode();
+		if (mode == ValidationModeEnum.STRICT) {
+			validateResource(resource, true);
+		} else if (mode == ValidationModeEnum.SAMPLED
+				&& outboundValidationCounter.getAndIncrement() % getValidationSampleRate() == 0) {
+			validateResource(resource, false);
+		}
+	}
+
+	/**
+	 * Validate a resource received in a create or update request, unless fhir.validation.mode is off
+	 *
+	 * @param resource received resource
+	 */
+	public static void validateInbound(Resource resource) {
+		if (getValidationMode() != ValidationModeEnum.OFF) {
+			validateResource(resource, true);
+		}
+	}
+
+	public static ValidationModeEnum getValidationMode() {
+		return ValidationModeEnum.fromValue(FHIRGlobalPropertyCache.getGlobalProperty("fhir.validation.mode"),
+				ValidationModeEnum.OFF);
+	}
+
+	public static int getValidationSampleRate() {
+		return Math.max(1, getIntegerGlobalProperty("fhir.validation.sampleRate",
+				FHIRConstants.DEFAULT_VALIDATION_SAMPLE_RATE));
+	}
+
+	private static void validateResource(Resource resource, boolean rejectInvalid) {
+		long start = System.nanoTime();
 		ValidationResult result = val.validateWithResult(resource);
+		ValidationStatistics.recordValidation(System.nanoTime() - start, result.isSuccessful());
 		if (!result.isSuccessful()) {
-			throw new UnprocessableEntityException(ctx.newXmlParser().setPrettyPrint(true).encodeResourceToString(result
-					.getOperationOutcome()));
+			String outcome = ctx.newXmlParser().setPrettyPrint(true).encodeResourceToString(result.getOperationOutcome());
+			if (rejectInvalid) {
+				throw new UnprocessableEntityException(outcome);
+			}
+			log.warn("Generated resource " + resource.getId() + " is not valid: " + outcome);
 		}
 	}
 
@@ -83,59 +135,59 @@ public class FHIRUtils {
 	}
 
 	public static String getMedicationStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.medication.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.medication.strategy");
 	}
 
 	public static String getMedicationRequestStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.medicationRequest.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.medicationRequest.strategy");
 	}
 
 	public static String getProcedureRequestStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.procedureRequest.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.procedureRequest.strategy");
 	}
 
 	public static String getAllergyStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.allergy.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.allergy.strategy");
 	}
 
 	public static String getConditionStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.condition.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.condition.strategy");
 	}
 
 	public static String getPersonStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.person.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.person.strategy");
 	}
 
 	public static String getPatientStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.patient.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.patient.strategy");
 	}
 
 	public static String getRelatedPersonStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.relatedPerson.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.relatedPerson.strategy");
 	}
 
 	public static String getAppointmentStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.appointment.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.appointment.strategy");
 	}
 
 	public static String getLocationStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.location.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.location.strategy");
 	}
 
 	public static String getObservationStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.observation.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.observation.strategy");
 	}
 
 	public static String getGroupStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.group.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.group.strategy");
 	}
 
 	public static String getEncounterStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.encounter.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.encounter.strategy");
 	}
 
 	public static String getPractitionerStrategy() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.practitioner.strategy");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.practitioner.strategy");
 	}
 
 	public static int[] getConceptIdsOfConditions() {
@@ -155,12 +207,82 @@ public class FHIRUtils {
 		}
 	}
 
+	public static int getDefaultPageSize() {
+		return getIntegerGlobalProperty("fhir.paging.defaultPageSize", FHIRConstants.DEFAULT_PAGE_SIZE);
+	}
+
+	public static int getMaximumPageSize() {
+		return getIntegerGlobalProperty("fhir.paging.maximumPageSize", FHIRConstants.MAXIMUM_PAGE_SIZE);
+	}
+
+	public static int getResourceCacheSize() {
+		return getIntegerGlobalProperty("fhir.cache.resources.maxSize", FHIRConstants.DEFAULT_RESOURCE_CACHE_SIZE);
+	}
+
+	public static int getAuthenticationCacheTtl() {
+		return getIntegerGlobalProperty("fhir.authentication.cache.ttlSeconds",
+				FHIRConstants.DEFAULT_AUTHENTICATION_CACHE_TTL);
+	}
+
+	public static int getAuthenticationCacheSize() {
+		return getIntegerGlobalProperty("fhir.authentication.cache.maxSize",
+				FHIRConstants.DEFAULT_AUTHENTICATION_CACHE_SIZE);
+	}
+
+	public static int getClientConnectTimeout() {
+		return getIntegerGlobalProperty("fhir.client.connectTimeout", FHIRConstants.DEFAULT_CLIENT_CONNECT_TIMEOUT);
+	}
+
+	public static int getClientSocketTimeout() {
+		return getIntegerGlobalProperty("fhir.client.socketTimeout", FHIRConstants.DEFAULT_CLIENT_SOCKET_TIMEOUT);
+	}
+
+	public static int getClientPoolMaxTotal() {
+		return getIntegerGlobalProperty("fhir.client.pool.maxTotal", FHIRConstants.DEFAULT_CLIENT_POOL_MAX_TOTAL);
+	}
+
+	public static int getClientPoolMaxPerRoute() {
+		return getIntegerGlobalProperty("fhir.client.pool.maxPerRoute", FHIRConstants.DEFAULT_CLIENT_POOL_MAX_PER_ROUTE);
+	}
+
+	/**
+	 * @return maximum number of members listed in a Group resource, 0 lists all of them
+	 */
+	public static int getGroupMaxInlineMembers() {
+		return getIntegerGlobalProperty("fhir.group.members.maxInline", FHIRConstants.DEFAULT_GROUP_MAX_INLINE_MEMBERS);
+	}
+
+	/**
+	 * @return directory holding the bulk export files, fhir.export.directory or the fhir/export folder of
+	 * the application data directory
+	 */
+	public static File getExportDirectory() {
+		String directory = FHIRGlobalPropertyCache.getGlobalProperty("fhir.export.directory");
+		if (StringUtils.isBlank(directory)) {
+			return new File(OpenmrsUtil.getApplicationDataDirectory(), FHIRConstants.EXPORT_DIRECTORY);
+		}
+		return new File(directory.trim());
+	}
+
+	private static int getIntegerGlobalProperty(String globalPropertyName, int defaultValue) {
+		String globalProperty = FHIRGlobalPropertyCache.getGlobalProperty(globalPropertyName);
+		if (StringUtils.isBlank(globalProperty)) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(globalProperty.trim());
+		}
+		catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
 	public static String getObsAllergyStrategyConceptUuid() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.allergy.strategy.concept.uuid");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.allergy.strategy.concept.uuid");
 	}
 
 	public static String getConceptCodingSystem() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.concept.codingSystem");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.concept.codingSystem");
 	}
 
 	/**
@@ -178,13 +300,13 @@ public class FHIRUtils {
 		nameDisplay.append(" ");
 		nameDisplay.append(name.getFamilyName());
 		String uri;
-		if (Context.getPatientService().getPatientByUuid(person.getUuid()) != null) {
+		//Only the identifier is queried, the patient is not loaded
+		String patientIdentifier = ContextUtil.getFHIRDAO().getPreferredPatientIdentifier(person.getId());
+		if (patientIdentifier != null) {
 			nameDisplay.append("(");
 			nameDisplay.append(FHIRConstants.IDENTIFIER);
 			nameDisplay.append(":");
-			nameDisplay.append(Context.getPatientService().getPatientByUuid(person.getUuid())
-					.getPatientIdentifier()
-					.getIdentifier());
+			nameDisplay.append(patientIdentifier);
 			nameDisplay.append(")");
 			uri = FHIRConstants.PATIENT + "/" + person.getUuid();
 		} else {
@@ -324,7 +446,7 @@ public class FHIRUtils {
 	}
 
 	public static EncounterRole getEncounterRole() {
-		String globalProperty = Context.getAdministrationService().getGlobalProperty("fhir.encounter.encounterRoleUuid");
+		String globalProperty = FHIRGlobalPropertyCache.getGlobalProperty("fhir.encounter.encounterRoleUuid");
 		EncounterRole encounterRole = Context.getEncounterService().getEncounterRoleByUuid(globalProperty);
 		if (encounterRole == null) {
 			throw new IllegalStateException("Configuration required for " + globalProperty);
@@ -333,8 +455,7 @@ public class FHIRUtils {
 	}
 
 	public static EncounterType getEncounterType(String code) {
-		String globalProperty = Context.getAdministrationService().getGlobalProperty("fhir.encounter.encounterType." +
-				code);
+		String globalProperty = FHIRGlobalPropertyCache.getGlobalProperty("fhir.encounter.encounterType." + code);
 		EncounterType encounterType = Context.getEncounterService().getEncounterTypeByUuid(globalProperty);
 		if (encounterType == null) {
 			throw new IllegalStateException("Configuration required for " + globalProperty);
@@ -395,16 +516,7 @@ public class FHIRUtils {
 			return null;
 		}
 
-		CodeableConcept codeableConcept = new CodeableConcept();
-
-		for (ConceptMap conceptMap : concept.getConceptMappings()) {
-			codeableConcept.addCoding(createCoding(conceptMap));
-		}
-
-		codeableConcept.addCoding(getCodingDtByOpenMRSConcept(concept));
-
-		codeableConcept.setText(concept.getDisplayString());
-		return codeableConcept;
+		return FHIRConceptCodingCache.getCodeableConcept(concept);
 	}
 
 	public static Concept getConceptByCodeableConcept(CodeableConcept codeableConcept) {
@@ -457,7 +569,7 @@ public class FHIRUtils {
 	}
 
 	public static String getDiagnosticReportRadiologyBaseServerURL() {
-		return Context.getAdministrationService().getGlobalProperty("fhir.diagnosticreport.radiology.server");
+		return FHIRGlobalPropertyCache.getGlobalProperty("fhir.diagnosticreport.radiology.server");
 	}
 
 	public static void checkGeneratorErrorList(List<String> errors) {
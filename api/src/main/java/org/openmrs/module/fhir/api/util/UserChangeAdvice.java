@@ -0,0 +1,39 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+
+/**
+ * Clears the {@link AuthenticationCache} after any {@link org.openmrs.api.UserService} call which
+ * changes users, passwords or roles, so that a changed password or retired user is not accepted
+ * from the cache.
+ */
+public class UserChangeAdvice implements AfterReturningAdvice {
+
+	private static final String[] CHANGING_METHOD_PREFIXES = { "save", "change", "set", "retire", "unretire", "void",
+			"unvoid", "purge", "delete", "remove" };
+
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		for (String prefix : CHANGING_METHOD_PREFIXES) {
+			if (method.getName().startsWith(prefix)) {
+				AuthenticationCache.clear();
+				return;
+			}
+		}
+	}
+}
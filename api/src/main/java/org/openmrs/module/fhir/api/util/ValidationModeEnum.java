@@ -0,0 +1,57 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+/**
+ * Values of the fhir.validation.mode global property, which controls when resources are checked
+ * with the HAPI validator
+ */
+public enum ValidationModeEnum {
+	/** Resources are never validated */
+	OFF("off"),
+	/** Only resources received in create and update requests are validated */
+	INBOUND_ONLY("inbound-only"),
+	/** Received resources are validated, and one in every fhir.validation.sampleRate generated ones */
+	SAMPLED("sampled"),
+	/** Every received and generated resource is validated */
+	STRICT("strict");
+
+	private final String value;
+
+	ValidationModeEnum(String value) {
+		this.value = value;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Find the mode matching a global property value
+	 *
+	 * @param value         global property value
+	 * @param defaultMode   mode to use when the value does not match any mode
+	 * @return the matching mode
+	 */
+	public static ValidationModeEnum fromValue(String value, ValidationModeEnum defaultMode) {
+		if (value != null) {
+			for (ValidationModeEnum mode : values()) {
+				if (mode.value.equalsIgnoreCase(value.trim())) {
+					return mode;
+				}
+			}
+		}
+		return defaultMode;
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.api.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the resources checked by {@link FHIRUtils#validate} and {@link FHIRUtils#validateInbound}
+ * and the time spent in the HAPI validator, so the cost of the configured validation mode can be
+ * monitored.
+ */
+public final class ValidationStatistics {
+
+	private static final AtomicLong validationCount = new AtomicLong();
+
+	private static final AtomicLong failedValidationCount = new AtomicLong();
+
+	private static final AtomicLong validationTimeNanos = new AtomicLong();
+
+	private ValidationStatistics() {
+
+	}
+
+	static void recordValidation(long elapsedNanos, boolean successful) {
+		validationCount.incrementAndGet();
+		if (!successful) {
+			failedValidationCount.incrementAndGet();
+		}
+		validationTimeNanos.addAndGet(elapsedNanos);
+	}
+
+	/**
+	 * @return number of resources validated since startup or the last reset
+	 */
+	public static long getValidationCount() {
+		return validationCount.get();
+	}
+
+	/**
+	 * @return number of validated resources which had validation errors
+	 */
+	public static long getFailedValidationCount() {
+		return failedValidationCount.get();
+	}
+
+	/**
+	 * @return total time spent validating resources, in milliseconds
+	 */
+	public static long getValidationTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(validationTimeNanos.get());
+	}
+
+	public static void reset() {
+		validationCount.set(0);
+		failedValidationCount.set(0);
+		validationTimeNanos.set(0);
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.benchmarks;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.test.BaseModuleContextSensitiveTest;
+import org.springframework.test.context.TestContextManager;
+
+/**
+ * Boots the OpenMRS test application context, with the in-memory database and the standard test
+ * dataset, so that the converters can look up the metadata they need outside of a JUnit run.
+ * A benchmark calls {@link #start()} from its trial setup and {@link #stop()} from its teardown.
+ */
+public class BenchmarkContext extends BaseModuleContextSensitiveTest {
+
+	private static BenchmarkContext instance;
+
+	public static synchronized void start() throws Exception {
+		if (instance == null) {
+			BenchmarkContext context = new BenchmarkContext();
+			new TestContextManager(BenchmarkContext.class).prepareTestInstance(context);
+			Context.openSession();
+			context.baseSetupWithStandardDataAndAuthentication();
+			instance = context;
+		} else {
+			Context.openSession();
+			Context.authenticate("admin", "test");
+		}
+	}
+
+	public static synchronized void stop() {
+		Context.closeSession();
+	}
+}
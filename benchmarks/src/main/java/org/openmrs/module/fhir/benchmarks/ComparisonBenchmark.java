@@ -0,0 +1,80 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.benchmarks;
+
+import org.hl7.fhir.dstu3.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.module.fhir.api.helper.FHIRClientHelper;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares two freshly generated patients the way a sync pass does, for equal patients and for
+ * patients whose family name differs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparisonBenchmark {
+
+	@Param({ "equal", "changed" })
+	public String pair;
+
+	@Param({ "1", "5" })
+	public int size;
+
+	private final FHIRClientHelper clientHelper = new FHIRClientHelper();
+
+	private Patient from;
+
+	private Patient dest;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkContext.start();
+		org.openmrs.Patient omrsPatient = ObjectGraphs.patient(size, size, size);
+		from = FHIRPatientUtil.generatePatient(omrsPatient);
+		dest = FHIRPatientUtil.generatePatient(omrsPatient);
+		if ("changed".equals(pair)) {
+			dest.getNameFirstRep().setFamily(dest.getNameFirstRep().getFamily() + "-changed");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkContext.stop();
+	}
+
+	@Benchmark
+	public boolean compareResourceObjects() {
+		return clientHelper.compareResourceObjects(FHIRConstants.CATEGORY_PATIENT, from, dest);
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.benchmarks;
+
+import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+import org.openmrs.module.fhir.api.util.FHIRPatientUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and parses a search result bundle of patients and observations in JSON and XML, with the
+ * pooled parsers the REST server uses, for a growing number of entries.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+	@Param({ "json", "xml" })
+	public String format;
+
+	@Param({ "1", "10", "100" })
+	public int entries;
+
+	private Bundle bundle;
+
+	private String encoded;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkContext.start();
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(2);
+		bundle = new Bundle();
+		bundle.setType(Bundle.BundleType.SEARCHSET);
+		for (int i = 0; i < entries; i++) {
+			bundle.addEntry().setResource(FHIRPatientUtil.generatePatient(ObjectGraphs.patient(3, 3, 3)));
+			bundle.addEntry().setResource(FHIRObsUtil.generateObs(ObjectGraphs.numericObs(patient, 50 + i)));
+		}
+		bundle.setTotal(bundle.getEntry().size());
+		encoded = encode();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkContext.stop();
+	}
+
+	@Benchmark
+	public String encode() {
+		IParser parser = borrowParser();
+		try {
+			return parser.encodeResourceToString(bundle);
+		}
+		finally {
+			FHIRContextFactory.releaseParser(parser);
+		}
+	}
+
+	@Benchmark
+	public Bundle parse() {
+		IParser parser = borrowParser();
+		try {
+			return parser.parseResource(Bundle.class, encoded);
+		}
+		finally {
+			FHIRContextFactory.releaseParser(parser);
+		}
+	}
+
+	private IParser borrowParser() {
+		return "xml".equals(format) ? FHIRContextFactory.borrowXmlParser() : FHIRContextFactory.borrowJsonParser();
+	}
+}
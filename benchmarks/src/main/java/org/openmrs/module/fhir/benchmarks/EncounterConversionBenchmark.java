@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.benchmarks;
+
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Encounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.module.fhir.api.util.FHIREncounterUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts an encounter, and the encounter together with its observations as returned by the
+ * patient $everything operation, for a growing number of observations and providers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncounterConversionBenchmark {
+
+	@Param({ "1", "10", "100" })
+	public int observations;
+
+	@Param({ "1", "5" })
+	public int providers;
+
+	private org.openmrs.Encounter omrsEncounter;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkContext.start();
+		omrsEncounter = ObjectGraphs.encounter(observations, providers);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkContext.stop();
+	}
+
+	@Benchmark
+	public Encounter toFhir() {
+		return FHIREncounterUtil.generateEncounter(omrsEncounter);
+	}
+
+	@Benchmark
+	public Bundle toFhirWithObs() {
+		Bundle bundle = new Bundle();
+		bundle.addEntry().setResource(FHIREncounterUtil.generateEncounter(omrsEncounter));
+		FHIREncounterUtil.addFilteredObs(omrsEncounter, bundle);
+		return bundle;
+	}
+}
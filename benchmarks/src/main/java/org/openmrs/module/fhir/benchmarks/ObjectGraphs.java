@@ -0,0 +1,184 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.benchmarks;
+
+import org.openmrs.Concept;
+import org.openmrs.ConceptComplex;
+import org.openmrs.ConceptDatatype;
+import org.openmrs.ConceptDescription;
+import org.openmrs.ConceptName;
+import org.openmrs.Encounter;
+import org.openmrs.EncounterRole;
+import org.openmrs.Obs;
+import org.openmrs.Patient;
+import org.openmrs.PatientIdentifier;
+import org.openmrs.PatientIdentifierType;
+import org.openmrs.PersonAddress;
+import org.openmrs.PersonName;
+import org.openmrs.Provider;
+import org.openmrs.api.ConceptService;
+import org.openmrs.api.context.Context;
+
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Builds transient OpenMRS object graphs of a given size for the benchmarks. Only metadata (concepts,
+ * identifier types, locations and encounter types) is read from the standard test dataset, so the size of
+ * every graph is controlled by the benchmark parameters. A concept of a datatype the dataset lacks is
+ * created once.
+ */
+public class ObjectGraphs {
+
+	/**
+	 * Numeric concept WEIGHT (KG) of the standard test dataset
+	 */
+	public static final int NUMERIC_CONCEPT_ID = 5089;
+
+	/**
+	 * Text concept FAVORITE FOOD, NON-CODED of the standard test dataset
+	 */
+	public static final int TEXT_CONCEPT_ID = 19;
+
+	private ObjectGraphs() {
+	}
+
+	public static Patient patient(int names, int identifiers, int addresses) {
+		Patient patient = new Patient();
+		patient.setGender("F");
+		patient.setBirthdate(new Date(0));
+		patient.setDateCreated(new Date());
+
+		for (int i = 0; i < names; i++) {
+			PersonName name = new PersonName("Given" + i, "Middle" + i, "Family" + i);
+			name.setPreferred(i == 0);
+			name.setDateCreated(new Date());
+			patient.addName(name);
+		}
+
+		PatientIdentifierType identifierType = Context.getPatientService().getPatientIdentifierType(1);
+		for (int i = 0; i < identifiers; i++) {
+			PatientIdentifier identifier = new PatientIdentifier("ID-" + i, identifierType,
+					Context.getLocationService().getLocation(1));
+			identifier.setPreferred(i == 0);
+			identifier.setDateCreated(new Date());
+			patient.addIdentifier(identifier);
+		}
+
+		for (int i = 0; i < addresses; i++) {
+			PersonAddress address = new PersonAddress();
+			address.setAddress1(i + " Main Street");
+			address.setCityVillage("City" + i);
+			address.setCountry("Country");
+			address.setPostalCode("0000" + i);
+			address.setPreferred(i == 0);
+			address.setDateCreated(new Date());
+			patient.addAddress(address);
+		}
+		return patient;
+	}
+
+	public static Obs numericObs(Patient patient, double value) {
+		Obs obs = obs(patient, Context.getConceptService().getConcept(NUMERIC_CONCEPT_ID));
+		obs.setValueNumeric(value);
+		return obs;
+	}
+
+	public static Obs textObs(Patient patient, String value) {
+		Obs obs = obs(patient, Context.getConceptService().getConcept(TEXT_CONCEPT_ID));
+		obs.setValueText(value);
+		return obs;
+	}
+
+	/**
+	 * @param valueType name of the concept datatype: Numeric, Text, Coded, Boolean, Datetime or Complex
+	 */
+	public static Obs obs(Patient patient, String valueType) {
+		Concept concept = concept(valueType);
+		Obs obs = obs(patient, concept);
+		if (concept.isNumeric()) {
+			obs.setValueNumeric(72.5);
+		} else if (concept.getDatatype().isCoded()) {
+			obs.setValueCoded(concept.getAnswers(false).iterator().next().getAnswerConcept());
+		} else if (concept.getDatatype().isBoolean()) {
+			obs.setValueBoolean(true);
+		} else if (concept.getDatatype().isDateTime()) {
+			obs.setValueDatetime(new Date(0));
+		} else if (concept.isComplex()) {
+			obs.setValueComplex("attachment.bin");
+		} else {
+			obs.setValueText("rice");
+		}
+		return obs;
+	}
+
+	public static Encounter encounter(int observations, int providers) {
+		Encounter encounter = new Encounter();
+		encounter.setPatient(Context.getPatientService().getPatient(2));
+		encounter.setLocation(Context.getLocationService().getLocation(1));
+		encounter.setEncounterType(Context.getEncounterService().getEncounterType(1));
+		encounter.setEncounterDatetime(new Date());
+		encounter.setDateCreated(new Date());
+
+		for (int i = 0; i < observations; i++) {
+			Obs obs = i % 2 == 0 ? numericObs(encounter.getPatient(), 50 + i) : textObs(encounter.getPatient(),
+					"value " + i);
+			encounter.addObs(obs);
+		}
+
+		EncounterRole role = new EncounterRole();
+		role.setName("Clinician");
+		for (int i = 0; i < providers; i++) {
+			Provider provider = new Provider();
+			provider.setName("Provider" + i);
+			provider.setIdentifier("PROV-" + i);
+			encounter.addProvider(role, provider);
+		}
+		return encounter;
+	}
+
+	private static Concept concept(String datatypeName) {
+		ConceptService conceptService = Context.getConceptService();
+		ConceptDatatype datatype = conceptService.getConceptDatatypeByName(datatypeName);
+		for (Concept concept : conceptService.getAllConcepts()) {
+			if (!concept.isRetired() && datatype.equals(concept.getDatatype())
+					&& (!datatype.isCoded() || !concept.getAnswers(false).isEmpty())) {
+				return concept;
+			}
+		}
+
+		Concept concept;
+		if (datatype.isComplex()) {
+			ConceptComplex complex = new ConceptComplex();
+			complex.setHandler("BinaryDataHandler");
+			concept = complex;
+		} else {
+			concept = new Concept();
+		}
+		concept.setDatatype(datatype);
+		concept.setConceptClass(conceptService.getConceptClass(1));
+		concept.addName(new ConceptName("BENCHMARK " + datatypeName.toUpperCase(), Locale.ENGLISH));
+		concept.addDescription(new ConceptDescription("Created by the fhir benchmarks", Locale.ENGLISH));
+		return conceptService.saveConcept(concept);
+	}
+
+	private static Obs obs(Patient patient, Concept concept) {
+		Obs obs = new Obs();
+		obs.setPerson(patient);
+		obs.setConcept(concept);
+		obs.setObsDatetime(new Date());
+		obs.setDateCreated(new Date());
+		return obs;
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.benchmarks;
+
+import org.hl7.fhir.dstu3.model.Observation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.Obs;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.util.FHIRObsUtil;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a single observation of each supported value type in both directions. The value type is
+ * the name of the concept datatype.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObsConversionBenchmark {
+
+	@Param({ "Numeric", "Text", "Coded", "Boolean", "Datetime", "Complex" })
+	public String valueType;
+
+	private Obs obs;
+
+	private Observation observation;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		BenchmarkContext.start();
+		org.openmrs.Patient patient = Context.getPatientService().getPatient(2);
+		obs = ObjectGraphs.obs(patient, valueType);
+		observation = FHIRObsUtil.generateObs(obs);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		BenchmarkContext.stop();
+	}
+
+	@Benchmark
+	public Observation toFhir() {
+		return FHIRObsUtil.generateObs(obs);
+	}
+
+	@Benchmark
+	public Obs toOpenmrs() {
+		return FHIRObsUtil.generateOpenMRSObs(observation, new ArrayList<String>());
+	}
+}
@@ -17,6 +17,8 @@ import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.openmrs.api.context.Context;
+import org.openmrs.api.context.UserContext;
+import org.openmrs.module.fhir.api.util.AuthenticationCache;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -65,6 +67,10 @@ public class AuthorizationFilter implements Filter {
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException,
 			ServletException {
 
+		UserContext sessionContext = Context.getUserContext();
+		UserContext cachedContext = null;
+		String username = null;
+
 		// skip if the session has timed out, we're already authenticated, or it's not an HTTP request
 		if (request instanceof HttpServletRequest) {
 			HttpServletRequest httpRequest = (HttpServletRequest) request;
@@ -82,7 +88,8 @@ public class AuthorizationFilter implements Filter {
 						basicAuth = basicAuth.substring(6); // remove the leading "Basic "
 						String decoded = new String(Base64.decodeBase64(basicAuth), Charset.forName("UTF-8"));
 						String[] userAndPass = decoded.split(":");
-						Context.authenticate(userAndPass[0], userAndPass[1]);
+						username = userAndPass[0];
+						cachedContext = AuthenticationCache.authenticate(username, userAndPass[1]);
 						if (log.isDebugEnabled()) {
 							log.debug("authenticated " + userAndPass[0]);
 						}
@@ -101,7 +108,15 @@ public class AuthorizationFilter implements Filter {
 		}
 
 		// continue with the filter chain in all circumstances
-		chain.doFilter(request, response);
+		try {
+			chain.doFilter(request, response);
+		}
+		finally {
+			if (cachedContext != null) {
+				AuthenticationCache.release(username, cachedContext);
+				Context.setUserContext(sessionContext);
+			}
+		}
 	}
 }
 
@@ -0,0 +1,110 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.interceptor;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.interceptor.InterceptorAdapter;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.LocationService;
+import org.openmrs.module.fhir.api.PatientService;
+import org.openmrs.module.fhir.api.PractitionerService;
+import org.openmrs.module.fhir.api.util.BaseOpenMRSDataUtil;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Date;
+
+/**
+ * Answers conditional reads of Patient, Location and Practitioner. The version is derived from the
+ * audit fields of the OpenMRS object, so If-None-Match and If-Modified-Since are checked before the
+ * resource provider runs and unchanged resources return 304 without generating the fhir resource.
+ */
+public class ConditionalReadInterceptor extends InterceptorAdapter {
+
+	private static final String HEADER_ETAG = "ETag";
+
+	private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+	private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+	private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+	@Override
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails, HttpServletRequest theRequest,
+			HttpServletResponse theResponse) {
+		if (theRequestDetails.getRestOperationType() != RestOperationTypeEnum.READ) {
+			return true;
+		}
+		IIdType id = theRequestDetails.getId();
+		if (id == null || !id.hasIdPart() || id.hasVersionIdPart()) {
+			return true;
+		}
+		Date lastUpdated = getLastUpdated(theRequestDetails.getResourceName(), id.getIdPart());
+		if (lastUpdated == null) {
+			return true;
+		}
+
+		String eTag = "W/\"" + BaseOpenMRSDataUtil.getVersionId(lastUpdated) + "\"";
+		theResponse.setHeader(HEADER_ETAG, eTag);
+		if (isNotModified(theRequest, eTag, lastUpdated)) {
+			theResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			theResponse.setDateHeader(HEADER_LAST_MODIFIED, lastUpdated.getTime());
+			MetricsInterceptor.recordAnswered(theRequestDetails, theResponse);
+			return false;
+		}
+		return true;
+	}
+
+	protected Date getLastUpdated(String resourceName, String uuid) {
+		if (FHIRConstants.PATIENT.equals(resourceName)) {
+			return Context.getService(PatientService.class).getPatientLastUpdated(uuid);
+		} else if (FHIRConstants.LOCATION.equals(resourceName)) {
+			return Context.getService(LocationService.class).getLocationLastUpdated(uuid);
+		} else if (FHIRConstants.PRACTITIONER.equals(resourceName)) {
+			return Context.getService(PractitionerService.class).getPractitionerLastUpdated(uuid);
+		}
+		return null;
+	}
+
+	/**
+	 * If-None-Match takes precedence over If-Modified-Since when both are sent. Tags are compared
+	 * weakly, so a strong tag with the same version also matches.
+	 */
+	private boolean isNotModified(HttpServletRequest request, String eTag, Date lastUpdated) {
+		String ifNoneMatch = request.getHeader(HEADER_IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			String version = eTag.substring(2);
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if ("*".equals(tag) || eTag.equals(tag) || version.equals(tag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		long ifModifiedSince;
+		try {
+			ifModifiedSince = request.getDateHeader(HEADER_IF_MODIFIED_SINCE);
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+		// http dates have a precision of one second
+		return ifModifiedSince != -1 && lastUpdated.getTime() / 1000 <= ifModifiedSince / 1000;
+	}
+}
@@ -0,0 +1,38 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.interceptor;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.server.interceptor.InterceptorAdapter;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+
+/**
+ * Validates the resources received in create and update requests before they reach the resource
+ * providers, according to the fhir.validation.mode global property.
+ */
+public class InboundValidationInterceptor extends InterceptorAdapter {
+
+	@Override
+	public void incomingRequestPreHandled(RestOperationTypeEnum theOperation, ActionRequestDetails theProcessedRequest) {
+		if (theOperation != RestOperationTypeEnum.CREATE && theOperation != RestOperationTypeEnum.UPDATE) {
+			return;
+		}
+		IBaseResource resource = theProcessedRequest.getResource();
+		if (resource instanceof Resource) {
+			FHIRUtils.validateInbound((Resource) resource);
+		}
+	}
+}
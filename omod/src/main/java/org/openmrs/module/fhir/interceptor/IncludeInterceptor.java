@@ -0,0 +1,141 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.interceptor;
+
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.ResponseDetails;
+import ca.uhn.fhir.rest.server.interceptor.InterceptorAdapter;
+import ca.uhn.fhir.util.UrlUtil;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.OperationOutcome;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.module.fhir.api.search.IncludeResolver;
+import org.openmrs.module.fhir.api.util.FHIRUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the resources requested with _include and _revinclude to search result bundles. The search
+ * methods declare both parameters, so HAPI accepts them and carries the _include values into the
+ * paging links, while the resources are added here, so {@link IncludeResolver} can load the
+ * references of the whole page in one query per type. HAPI leaves _revinclude out of the paging
+ * links, so it is added to them here.
+ */
+public class IncludeInterceptor extends InterceptorAdapter {
+
+	@Override
+	public boolean outgoingResponse(RequestDetails theRequestDetails, ResponseDetails theResponseDetails,
+			HttpServletRequest theServletRequest, HttpServletResponse theServletResponse) {
+		if (!isSearch(theRequestDetails.getRestOperationType())
+				|| !(theResponseDetails.getResponseResource() instanceof Bundle)) {
+			return true;
+		}
+		List<String> includes = getParameterValues(theRequestDetails, Constants.PARAM_INCLUDE);
+		List<String> revIncludes = getParameterValues(theRequestDetails, Constants.PARAM_REVINCLUDE);
+		if (includes.isEmpty() && revIncludes.isEmpty()) {
+			return true;
+		}
+
+		Bundle bundle = (Bundle) theResponseDetails.getResponseResource();
+		if (!revIncludes.isEmpty()) {
+			addRevIncludesToPagingLinks(bundle, theRequestDetails);
+		}
+		List<IBaseResource> matches = new ArrayList<IBaseResource>();
+		for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+			if (entry.getResource() != null && (!entry.hasSearch()
+					|| entry.getSearch().getMode() != Bundle.SearchEntryMode.INCLUDE)) {
+				matches.add(entry.getResource());
+			}
+		}
+		if (matches.isEmpty()) {
+			return true;
+		}
+
+		String serverBase = theRequestDetails.getFhirServerBase();
+		IncludeResolver resolver = createIncludeResolver(includes, revIncludes);
+		for (IBaseResource resource : resolver.resolve(matches)) {
+			Bundle.BundleEntryComponent entry = bundle.addEntry();
+			entry.setFullUrl(resource.getIdElement().withServerBase(serverBase, resource.fhirType()).getValue());
+			entry.setResource((org.hl7.fhir.dstu3.model.Resource) resource);
+			entry.getSearch().setMode(Bundle.SearchEntryMode.INCLUDE);
+		}
+		if (resolver.isRevIncludeTruncated()) {
+			OperationOutcome outcome = new OperationOutcome();
+			outcome.addIssue().setSeverity(OperationOutcome.IssueSeverity.WARNING)
+					.setCode(OperationOutcome.IssueType.TOOCOSTLY)
+					.setDiagnostics("Only the first " + FHIRUtils.getMaximumPageSize()
+							+ " resources of each _revinclude are included, search them directly to get all of them");
+			bundle.addEntry().setResource(outcome).getSearch().setMode(Bundle.SearchEntryMode.OUTCOME);
+		}
+		return true;
+	}
+
+	protected IncludeResolver createIncludeResolver(List<String> includes, List<String> revIncludes) {
+		return new IncludeResolver(includes, revIncludes);
+	}
+
+	private boolean isSearch(RestOperationTypeEnum operationType) {
+		return operationType == RestOperationTypeEnum.SEARCH_TYPE || operationType == RestOperationTypeEnum.SEARCH_SYSTEM
+				|| operationType == RestOperationTypeEnum.GET_PAGE;
+	}
+
+	/**
+	 * Values of the given parameter, including its :iterate and :recurse variants
+	 */
+	private List<String> getParameterValues(RequestDetails requestDetails, String name) {
+		List<String> values = new ArrayList<String>();
+		Map<String, String[]> parameters = requestDetails.getParameters();
+		if (parameters == null) {
+			return values;
+		}
+		for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+			if (isParameter(parameter.getKey(), name)) {
+				values.addAll(Arrays.asList(parameter.getValue()));
+			}
+		}
+		return values;
+	}
+
+	private boolean isParameter(String key, String name) {
+		return key.equals(name) || key.startsWith(name + ":");
+	}
+
+	/**
+	 * Appends the _revinclude parameters of the request to the next and previous page links
+	 */
+	private void addRevIncludesToPagingLinks(Bundle bundle, RequestDetails requestDetails) {
+		StringBuilder revIncludes = new StringBuilder();
+		for (Map.Entry<String, String[]> parameter : requestDetails.getParameters().entrySet()) {
+			if (isParameter(parameter.getKey(), Constants.PARAM_REVINCLUDE)) {
+				for (String value : parameter.getValue()) {
+					revIncludes.append('&').append(UrlUtil.escapeUrlParam(parameter.getKey())).append('=')
+							.append(UrlUtil.escapeUrlParam(value));
+				}
+			}
+		}
+		for (Bundle.BundleLinkComponent link : bundle.getLink()) {
+			if ((Constants.LINK_NEXT.equals(link.getRelation()) || Constants.LINK_PREVIOUS.equals(link.getRelation()))
+					&& link.hasUrl() && !link.getUrl().contains(Constants.PARAM_REVINCLUDE)) {
+				link.setUrl(link.getUrl() + revIncludes);
+			}
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.interceptor;
+
+import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.api.server.ResponseDetails;
+import ca.uhn.fhir.rest.server.exceptions.BaseServerResponseException;
+import ca.uhn.fhir.rest.server.interceptor.InterceptorAdapter;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.apache.commons.lang.StringUtils;
+import org.openmrs.module.fhir.metrics.CountingHttpServletResponse;
+import org.openmrs.module.fhir.metrics.FHIRMetrics;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records the latency, outcome and response size of every request in {@link FHIRMetrics}, grouped
+ * by resource type and operation. The time until the resource provider returns is counted as
+ * handling (database access and conversion are interleaved by lazy loading, so they are not
+ * separated), the rest as serialization.
+ */
+public class MetricsInterceptor extends InterceptorAdapter {
+
+	private static final String START_TIME = MetricsInterceptor.class.getName() + ".start";
+
+	private static final String HANDLED_TIME = MetricsInterceptor.class.getName() + ".handled";
+
+	@Override
+	public boolean incomingRequestPostProcessed(RequestDetails theRequestDetails, HttpServletRequest theRequest,
+			HttpServletResponse theResponse) {
+		theRequestDetails.getUserData().put(START_TIME, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public boolean outgoingResponse(RequestDetails theRequestDetails, ResponseDetails theResponseDetails,
+			HttpServletRequest theServletRequest, HttpServletResponse theServletResponse) {
+		theRequestDetails.getUserData().put(HANDLED_TIME, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void processingCompletedNormally(ServletRequestDetails theRequestDetails) {
+		record(theRequestDetails, theRequestDetails.getServletResponse(), false);
+	}
+
+	@Override
+	public boolean handleException(RequestDetails theRequestDetails, BaseServerResponseException theException,
+			HttpServletRequest theServletRequest, HttpServletResponse theServletResponse) {
+		record(theRequestDetails, theServletResponse, true);
+		return true;
+	}
+
+	/**
+	 * Records a request which an interceptor answered itself, e.g. a conditional read answered with 304.
+	 * HAPI stops processing such a request, so neither processingCompletedNormally nor handleException is
+	 * called for it. The interceptor must be registered after this one, so the start time is set.
+	 */
+	public static void recordAnswered(RequestDetails requestDetails, HttpServletResponse response) {
+		record(requestDetails, response, false);
+	}
+
+	private static void record(RequestDetails requestDetails, HttpServletResponse response, boolean error) {
+		Long start = (Long) requestDetails.getUserData().get(START_TIME);
+		if (start == null) {
+			return;
+		}
+		long end = System.nanoTime();
+		Long handled = (Long) requestDetails.getUserData().get(HANDLED_TIME);
+		long handlingNanos = (handled != null ? handled : end) - start;
+		long serializationNanos = handled != null ? end - handled : 0;
+		long bytes = response instanceof CountingHttpServletResponse ?
+				((CountingHttpServletResponse) response).getByteCount() : 0;
+		FHIRMetrics.getInstance().record(getOperationName(requestDetails), end - start, handlingNanos,
+				serializationNanos, bytes, error);
+	}
+
+	/**
+	 * @return resource type and operation, e.g. "Patient read" or "Patient $everything"
+	 */
+	private static String getOperationName(RequestDetails requestDetails) {
+		String resourceName = StringUtils.defaultIfEmpty(requestDetails.getResourceName(), "system");
+		String operation = requestDetails.getOperation();
+		if (StringUtils.isNotBlank(operation)) {
+			return resourceName + " " + operation;
+		}
+		RestOperationTypeEnum operationType = requestDetails.getRestOperationType();
+		return resourceName + " " + (operationType == null ? "unknown" : operationType.getCode());
+	}
+}
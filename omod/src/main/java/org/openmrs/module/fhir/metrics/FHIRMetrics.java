@@ -0,0 +1,130 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.openmrs.module.fhir.api.util.FHIRResourceCache;
+import org.openmrs.module.fhir.api.util.ValidationStatistics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Metrics of the requests handled by the FHIR server, grouped by resource type and operation and
+ * recorded by {@link org.openmrs.module.fhir.interceptor.MetricsInterceptor}. Together with the
+ * validation and resource cache statistics they are exposed through JMX and the
+ * /module/fhir/metrics.json admin endpoint.
+ */
+public class FHIRMetrics implements FHIRMetricsMXBean {
+
+	private static final Log log = LogFactory.getLog(FHIRMetrics.class);
+
+	private static final String OBJECT_NAME = "org.openmrs.module.fhir:type=Metrics";
+
+	private static final FHIRMetrics instance = new FHIRMetrics();
+
+	private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<String, OperationMetrics>();
+
+	private FHIRMetrics() {
+
+	}
+
+	public static FHIRMetrics getInstance() {
+		return instance;
+	}
+
+	public void record(String operation, long elapsedNanos, long handlingNanos, long serializationNanos, long bytes,
+			boolean error) {
+		OperationMetrics metrics = operations.get(operation);
+		if (metrics == null) {
+			operations.putIfAbsent(operation, new OperationMetrics(operation));
+			metrics = operations.get(operation);
+		}
+		metrics.record(elapsedNanos, handlingNanos, serializationNanos, bytes, error);
+	}
+
+	@Override
+	public List<OperationMetrics> getOperations() {
+		return new ArrayList<OperationMetrics>(operations.values());
+	}
+
+	@Override
+	public long getValidationCount() {
+		return ValidationStatistics.getValidationCount();
+	}
+
+	@Override
+	public long getFailedValidationCount() {
+		return ValidationStatistics.getFailedValidationCount();
+	}
+
+	@Override
+	public long getValidationTimeMillis() {
+		return ValidationStatistics.getValidationTimeMillis();
+	}
+
+	@Override
+	public long getResourceCacheHitCount() {
+		return FHIRResourceCache.getHitCount();
+	}
+
+	@Override
+	public long getResourceCacheMissCount() {
+		return FHIRResourceCache.getMissCount();
+	}
+
+	@Override
+	public int getResourceCacheSize() {
+		return FHIRResourceCache.getSize();
+	}
+
+	@Override
+	public void reset() {
+		operations.clear();
+		ValidationStatistics.reset();
+		FHIRResourceCache.resetStatistics();
+	}
+
+	public static void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(instance, name);
+			}
+		}
+		catch (Exception e) {
+			log.warn("Unable to register the FHIR metrics MBean", e);
+		}
+	}
+
+	public static void unregisterMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch (Exception e) {
+			log.warn("Unable to unregister the FHIR metrics MBean", e);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Request counts, latency histogram, response sizes and time split of one resource type and
+ * operation, e.g. "Patient read" or "Patient $everything". Percentiles are approximated by the upper
+ * bound of the histogram bucket they fall in.
+ */
+public class OperationMetrics {
+
+	private static final long[] BUCKET_BOUNDS_MILLIS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000,
+			30000, Long.MAX_VALUE };
+
+	private final String name;
+
+	private final AtomicLong requestCount = new AtomicLong();
+
+	private final AtomicLong errorCount = new AtomicLong();
+
+	private final AtomicLong totalNanos = new AtomicLong();
+
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	private final AtomicLong handlingNanos = new AtomicLong();
+
+	private final AtomicLong serializationNanos = new AtomicLong();
+
+	private final AtomicLong responseBytes = new AtomicLong();
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length);
+
+	public OperationMetrics(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * @param elapsedNanos       total time spent on the request
+	 * @param handlingNanos      time spent in the resource provider, loading and converting the data
+	 * @param serializationNanos time spent encoding and writing the response
+	 * @param bytes              size of the response body
+	 * @param error              whether the request failed
+	 */
+	void record(long elapsedNanos, long handlingNanos, long serializationNanos, long bytes, boolean error) {
+		requestCount.incrementAndGet();
+		if (error) {
+			errorCount.incrementAndGet();
+		}
+		totalNanos.addAndGet(elapsedNanos);
+		this.handlingNanos.addAndGet(handlingNanos);
+		this.serializationNanos.addAndGet(serializationNanos);
+		responseBytes.addAndGet(bytes);
+
+		long max = maxNanos.get();
+		while (elapsedNanos > max && !maxNanos.compareAndSet(max, elapsedNanos)) {
+			max = maxNanos.get();
+		}
+		long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+		int bucket = 0;
+		while (elapsedMillis > BUCKET_BOUNDS_MILLIS[bucket]) {
+			bucket++;
+		}
+		buckets.incrementAndGet(bucket);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	public long getMeanMillis() {
+		long count = requestCount.get();
+		return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.get() / count);
+	}
+
+	public long getMaxMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+	}
+
+	public long getP50Millis() {
+		return getPercentileMillis(0.50);
+	}
+
+	public long getP95Millis() {
+		return getPercentileMillis(0.95);
+	}
+
+	public long getP99Millis() {
+		return getPercentileMillis(0.99);
+	}
+
+	/**
+	 * @return total time spent in the resource providers, loading the data from the database and
+	 * converting it to fhir resources
+	 */
+	public long getHandlingMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(handlingNanos.get());
+	}
+
+	/**
+	 * @return total time spent encoding and writing the responses
+	 */
+	public long getSerializationMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(serializationNanos.get());
+	}
+
+	public long getTotalResponseBytes() {
+		return responseBytes.get();
+	}
+
+	public long getMeanResponseBytes() {
+		long count = requestCount.get();
+		return count == 0 ? 0 : responseBytes.get() / count;
+	}
+
+	private long getPercentileMillis(double percentile) {
+		long count = 0;
+		for (int i = 0; i < buckets.length(); i++) {
+			count += buckets.get(i);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(percentile * count);
+		long seen = 0;
+		for (int i = 0; i < buckets.length(); i++) {
+			seen += buckets.get(i);
+			if (seen >= rank) {
+				return Math.min(BUCKET_BOUNDS_MILLIS[i], getMaxMillis());
+			}
+		}
+		return getMaxMillis();
+	}
+}
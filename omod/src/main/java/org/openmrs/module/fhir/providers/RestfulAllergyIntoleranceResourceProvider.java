@@ -13,9 +13,11 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -33,6 +35,7 @@ import org.openmrs.module.fhir.resources.FHIRAllergyIntoleranceResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulAllergyIntoleranceResourceProvider implements IResourceProvider {
 
@@ -68,7 +71,8 @@ public class RestfulAllergyIntoleranceResourceProvider implements IResourceProvi
 	 */
 	@Search
 	public List<AllergyIntolerance> findAllergiesByUniqueId(
-			@RequiredParam(name = AllergyIntolerance.SP_RES_ID) TokenParam id) {
+			@RequiredParam(name = AllergyIntolerance.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return allergyIntoleranceResource.searchAllergiesById(id);
 	}
 
@@ -80,7 +84,8 @@ public class RestfulAllergyIntoleranceResourceProvider implements IResourceProvi
 	@Search
 	public List<AllergyIntolerance> findAllergiesByPatientIdentifier(
 			@RequiredParam(name = AllergyIntolerance.SP_PATIENT, chainWhitelist = {
-					Patient.SP_IDENTIFIER }) ReferenceParam identifier) {
+					Patient.SP_IDENTIFIER }) ReferenceParam identifier,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return allergyIntoleranceResource.searchAllergiesByPatientIdentifier(identifier);
 	}
 
@@ -92,14 +97,16 @@ public class RestfulAllergyIntoleranceResourceProvider implements IResourceProvi
 	@Search
 	public List<AllergyIntolerance> findAllergiesByPatientName(
 			@RequiredParam(name = AllergyIntolerance.SP_PATIENT, chainWhitelist = { Patient.SP_NAME }) ReferenceParam
-					name) {
+					name,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return allergyIntoleranceResource.searchAllergiesByPatientName(name);
 	}
 
 	@Search
 	public List<AllergyIntolerance> findAllergiesByPatientUuid(
 			@RequiredParam(name = AllergyIntolerance.SP_PATIENT, chainWhitelist = { Patient.SP_RES_ID })
-					ReferenceParam uuid) {
+					ReferenceParam uuid,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return allergyIntoleranceResource.searchAllergiesByPatientUuid(uuid);
 	}
 
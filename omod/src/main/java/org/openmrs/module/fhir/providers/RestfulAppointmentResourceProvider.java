@@ -13,7 +13,9 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.Search;
@@ -26,6 +28,7 @@ import org.hl7.fhir.dstu3.model.Resource;
 import org.openmrs.module.fhir.resources.FHIRAppointmentResource;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulAppointmentResourceProvider implements IResourceProvider {
 
@@ -61,7 +64,8 @@ public class RestfulAppointmentResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Appointment> findAppointmentsByUniqueId(
-			@RequiredParam(name = Appointment.SP_RES_ID) TokenParam id) {
+			@RequiredParam(name = Appointment.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return appointmentResource.searchAppointmentsById(id);
 	}
 
@@ -72,7 +76,8 @@ public class RestfulAppointmentResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Appointment> findAppointmentsByPatient(
-			@RequiredParam(name = Appointment.SP_RES_ID) ReferenceParam patient) {
+			@RequiredParam(name = Appointment.SP_RES_ID) ReferenceParam patient,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return appointmentResource.searchAppointmentsByPatient(patient);
 	}
 }
@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.providers;
+
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import org.hl7.fhir.dstu3.model.InstantType;
+import org.hl7.fhir.dstu3.model.StringType;
+import org.openmrs.module.fhir.resources.FHIRBulkExportResource;
+import org.openmrs.module.fhir.util.FHIROmodConstants;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Server level provider for the bulk data $export operation and the status and file urls of its
+ * jobs. Patient and Group level exports are declared by their resource providers.
+ */
+public class RestfulBulkExportProvider {
+
+	private FHIRBulkExportResource bulkExportResource;
+
+	public RestfulBulkExportProvider() {
+		this.bulkExportResource = new FHIRBulkExportResource();
+	}
+
+	/**
+	 * Start an export of the resources of all patients
+	 *
+	 * @param outputFormat only application/fhir+ndjson is supported
+	 * @param since        only export resources created or changed at or after this instant
+	 * @param types        comma separated resource types to export
+	 */
+	@Operation(name = "$export", idempotent = true, manualResponse = true)
+	public void export(ServletRequestDetails requestDetails,
+			@OperationParam(name = "_outputFormat") StringType outputFormat,
+			@OperationParam(name = "_since") InstantType since,
+			@OperationParam(name = "_type", max = OperationParam.MAX_UNLIMITED) List<StringType> types)
+			throws IOException {
+		bulkExportResource.startExport(requestDetails, outputFormat, since, types);
+	}
+
+	/**
+	 * Status of an export job, 202 while running and the manifest of the exported files when done
+	 *
+	 * @param jobId id of the job, as given in the Content-Location of the kick-off response
+	 */
+	@Operation(name = FHIROmodConstants.EXPORT_POLL_STATUS_OPERATION, idempotent = true, manualResponse = true)
+	public void pollStatus(ServletRequestDetails requestDetails, @OperationParam(name = "_jobId") StringType jobId)
+			throws IOException {
+		bulkExportResource.pollStatus(requestDetails, jobId);
+	}
+
+	/**
+	 * Download one NDJSON file of a completed export job
+	 *
+	 * @param jobId id of the job
+	 * @param type  resource type of the file
+	 */
+	@Operation(name = FHIROmodConstants.EXPORT_DOWNLOAD_OPERATION, idempotent = true, manualResponse = true)
+	public void download(ServletRequestDetails requestDetails, @OperationParam(name = "_jobId") StringType jobId,
+			@OperationParam(name = "_type") StringType type) throws IOException {
+		bulkExportResource.download(requestDetails, jobId, type);
+	}
+}
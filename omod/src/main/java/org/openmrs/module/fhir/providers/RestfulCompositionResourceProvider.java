@@ -13,6 +13,8 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.param.ReferenceParam;
@@ -24,6 +26,7 @@ import org.openmrs.module.fhir.api.util.FHIRConstants;
 import org.openmrs.module.fhir.resources.FHIRCompositionResource;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulCompositionResourceProvider implements IResourceProvider {
 
@@ -46,7 +49,8 @@ public class RestfulCompositionResourceProvider implements IResourceProvider {
 	@Search
 	public List<Composition> findCompositionEncountersByPatient(
 			@RequiredParam(name = Composition.SP_SUBJECT) ReferenceParam
-					patient) {
+					patient,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return compositionResource.searchEncounterCompostionsByPatient(patient);
 	}
 
@@ -57,7 +61,8 @@ public class RestfulCompositionResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Composition> findCompositionEncountersByEncounterId(@RequiredParam(name = FHIRConstants.ENCOUNTER_ID)
-			TokenParam encounter) {
+			TokenParam encounter,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return compositionResource.searchEncounterCompostionsByEncounterId(encounter);
 	}
 }
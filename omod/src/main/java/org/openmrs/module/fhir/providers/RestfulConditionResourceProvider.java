@@ -13,8 +13,10 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -31,6 +33,7 @@ import org.openmrs.module.fhir.resources.FHIRConditionResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulConditionResourceProvider implements IResourceProvider {
 
@@ -64,7 +67,8 @@ public class RestfulConditionResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Condition> findConditionByPatient(
-			@RequiredParam(name = Condition.SP_PATIENT) ReferenceParam patient) {
+			@RequiredParam(name = Condition.SP_PATIENT) ReferenceParam patient,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return conditionResource.getConditionsByPatientUuid(patient);
 	}
 
@@ -73,7 +77,8 @@ public class RestfulConditionResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public Condition findConditionByUuid(
-			@RequiredParam(name = Condition.SP_RES_ID) TokenParam uuid) {
+			@RequiredParam(name = Condition.SP_RES_ID) TokenParam uuid,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return conditionResource.getConditionByUuid(uuid);
 	}
 
@@ -13,9 +13,11 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.OptionalParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
@@ -34,6 +36,7 @@ import org.openmrs.module.fhir.resources.FHIRDiagnosticReportResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulDiagnosticReportResourceProvider implements IResourceProvider {
 
@@ -110,7 +113,8 @@ public class RestfulDiagnosticReportResourceProvider implements IResourceProvide
 	@Search
 	public List<DiagnosticReport> findByPatientAndServiceCategory(
 			@RequiredParam(name = DiagnosticReport.SP_SUBJECT, chainWhitelist = Patient.SP_GIVEN) ReferenceParam theSubject,
-			@OptionalParam(name = DiagnosticReport.SP_CATEGORY) TokenParam theService) {
+			@OptionalParam(name = DiagnosticReport.SP_CATEGORY) TokenParam theService,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return diagnosticReportResource.getDiagnosticReportByPatientNameAndServiceCategory(theSubject, theService);
 	}
 }
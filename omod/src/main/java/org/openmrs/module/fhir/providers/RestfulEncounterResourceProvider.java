@@ -13,9 +13,11 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Operation;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
@@ -35,6 +37,7 @@ import org.openmrs.module.fhir.resources.FHIREncounterResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulEncounterResourceProvider implements IResourceProvider {
 
@@ -68,7 +71,8 @@ public class RestfulEncounterResourceProvider implements IResourceProvider {
 	 * @param id object containing the requested id
 	 */
 	@Search
-	public List<Encounter> findEncountersByUniqueId(@RequiredParam(name = Encounter.SP_RES_ID) TokenParam id) {
+	public List<Encounter> findEncountersByUniqueId(@RequiredParam(name = Encounter.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return encounterResource.searchEncountersById(id);
 	}
 
@@ -79,7 +83,8 @@ public class RestfulEncounterResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Encounter> findEncountersByPatientIdentifier(
-			@RequiredParam(name = Encounter.SP_PATIENT, chainWhitelist = { Patient.SP_IDENTIFIER }) ReferenceParam identifier) {
+			@RequiredParam(name = Encounter.SP_PATIENT, chainWhitelist = { Patient.SP_IDENTIFIER }) ReferenceParam identifier,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return encounterResource.searchEncountersByPatientIdentifier(identifier);
 	}
 
@@ -92,7 +97,8 @@ public class RestfulEncounterResourceProvider implements IResourceProvider {
 	@Search
 	public List<Encounter> findEncountersByPatientIdentifierAndPartOf(
 			@RequiredParam(name = Patient.SP_IDENTIFIER) ReferenceParam patientIdentifier,
-			@RequiredParam(name = Encounter.SP_PART_OF) ReferenceParam partOf) {
+			@RequiredParam(name = Encounter.SP_PART_OF) ReferenceParam partOf,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return encounterResource.searchEncountersByPatientIdentifierAndPartOf(patientIdentifier, partOf);
 	}
 
@@ -104,7 +110,8 @@ public class RestfulEncounterResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Encounter> findEncountersByIdAndPartOf(@RequiredParam(name = Encounter.SP_RES_ID) TokenParam encounterId,
-			@RequiredParam(name = Encounter.SP_PART_OF) ReferenceParam partOf) {
+			@RequiredParam(name = Encounter.SP_PART_OF) ReferenceParam partOf,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return encounterResource.searchEncountersByIdAndPartOf(encounterId, partOf);
 	}
 
@@ -13,7 +13,9 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.Search;
@@ -26,6 +28,7 @@ import org.hl7.fhir.dstu3.model.Resource;
 import org.openmrs.module.fhir.resources.FHIRFamilyMemberHistoryResource;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulFamilyMemberHistoryResourceProvider implements IResourceProvider {
 
@@ -61,7 +64,8 @@ public class RestfulFamilyMemberHistoryResourceProvider implements IResourceProv
 	 */
 	@Search
 	public List<FamilyMemberHistory> findFamilyMemberHistoryByUniqueId(
-			@RequiredParam(name = FamilyMemberHistory.SP_RES_ID) TokenParam id) {
+			@RequiredParam(name = FamilyMemberHistory.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return familyMemberHistoryResource.searchFamilyMemberHistoryByUniqueId(id);
 	}
 
@@ -72,7 +76,8 @@ public class RestfulFamilyMemberHistoryResourceProvider implements IResourceProv
 	 */
 	@Search
 	public List<FamilyMemberHistory> findFamilyMemberHistoryByPerson(
-			@RequiredParam(name = FamilyMemberHistory.SP_PATIENT) ReferenceParam person) {
+			@RequiredParam(name = FamilyMemberHistory.SP_PATIENT) ReferenceParam person,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return familyMemberHistoryResource.searchFamilyMemberHistoryByPerson(person);
 	}
 }
@@ -1,31 +1,46 @@
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
+import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
 import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.annotation.Update;
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import org.hl7.fhir.dstu3.model.Group;
 import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.InstantType;
+import org.hl7.fhir.dstu3.model.StringType;
+import org.hl7.fhir.dstu3.model.UnsignedIntType;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.module.fhir.resources.FHIRBulkExportResource;
 import org.openmrs.module.fhir.resources.FHIRGroupResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 public class RestfulGroupResourceProvider implements IResourceProvider {
 
 	private FHIRGroupResource groupResource;
 
+	private FHIRBulkExportResource bulkExportResource;
+
 	public RestfulGroupResourceProvider() {
 		groupResource = new FHIRGroupResource();
+		bulkExportResource = new FHIRBulkExportResource();
 	}
 
 	@Override
@@ -53,15 +68,47 @@ public class RestfulGroupResourceProvider implements IResourceProvider {
 		return groupResource.getByUniqueId(id);
 	}
 
+	/**
+	 * Page through the members of the group, which large Group resources only partly list
+	 *
+	 * @param id    id of the group
+	 * @param count number of members per page
+	 * @return paged member Patients
+	 */
+	@Operation(name = "$members", idempotent = true)
+	public IBundleProvider groupInstanceMembersOperation(@IdParam IdType id,
+			@OperationParam(name = "_count") UnsignedIntType count) {
+		return groupResource.getGroupMembers(id, count);
+	}
+
+	/**
+	 * Start a bulk data export of the resources of the group members
+	 *
+	 * @param id           id of the group
+	 * @param outputFormat only application/fhir+ndjson is supported
+	 * @param since        only export resources created or changed at or after this instant
+	 * @param types        comma separated resource types to export
+	 */
+	@Operation(name = "$export", idempotent = true, manualResponse = true)
+	public void groupInstanceExportOperation(@IdParam IdType id, ServletRequestDetails requestDetails,
+			@OperationParam(name = "_outputFormat") StringType outputFormat,
+			@OperationParam(name = "_since") InstantType since,
+			@OperationParam(name = "_type", max = OperationParam.MAX_UNLIMITED) List<StringType> types)
+			throws IOException {
+		bulkExportResource.startGroupExport(requestDetails, id.getIdPart(), outputFormat, since, types);
+	}
+
 	@Search
 	public List<Group> findGroupsById(
-			@RequiredParam(name = Group.SP_RES_ID) TokenParam id) {
+			@RequiredParam(name = Group.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return groupResource.searchGroupById(id);
 	}
 
 	@Search
 	public List<Group> findGroupsByName(
-			@RequiredParam(name = "name") StringParam name) {
+			@RequiredParam(name = "name") StringParam name,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return groupResource.searchGroupByName(name);
 	}
 }
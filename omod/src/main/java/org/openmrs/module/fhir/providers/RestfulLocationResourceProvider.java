@@ -13,16 +13,19 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.ConditionalUrlParam;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
 import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.annotation.Update;
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.IResourceProvider;
@@ -33,7 +36,7 @@ import org.hl7.fhir.dstu3.model.Resource;
 import org.openmrs.module.fhir.resources.FHIRLocationResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
-import java.util.List;
+import java.util.Set;
 
 public class RestfulLocationResourceProvider implements IResourceProvider {
 
@@ -67,7 +70,8 @@ public class RestfulLocationResourceProvider implements IResourceProvider {
 	 * @param id object containing the requested id
 	 */
 	@Search
-	public List<Location> findLocationsByUniqueId(@RequiredParam(name = Location.SP_RES_ID) TokenParam id) {
+	public IBundleProvider findLocationsByUniqueId(@RequiredParam(name = Location.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return locationResource.searchLocationsById(id);
 	}
 
@@ -79,7 +83,8 @@ public class RestfulLocationResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public List<Location> findLocationsByName(@RequiredParam(name = Location.SP_NAME) StringParam name) {
+	public IBundleProvider findLocationsByName(@RequiredParam(name = Location.SP_NAME) StringParam name,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return locationResource.searchLocationsByName(name);
 	}
 
@@ -91,7 +96,8 @@ public class RestfulLocationResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public List<Location> findLocationsByStatus(@RequiredParam(name = Location.SP_STATUS) TokenParam active) {
+	public IBundleProvider findLocationsByStatus(@RequiredParam(name = Location.SP_STATUS) TokenParam active,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return locationResource.searchLocationsByStatus(active);
 	}
 
@@ -138,12 +144,13 @@ public class RestfulLocationResourceProvider implements IResourceProvider {
 			}
 			StringParam nameParam = new StringParam();
 			nameParam.setValue(locationName);
-			List<Location> locationList = locationResource.searchLocationsByName(nameParam);
-			if (locationList.isEmpty()) {
+			IBundleProvider locationResults = locationResource.searchLocationsByName(nameParam);
+			int size = locationResults.size();
+			if (size == 0) {
 				return updateLocation(theLocation, null);
-			} else if (locationList.size() == 1) {
+			} else if (size == 1) {
 				IdType idType = new IdType();
-				idType.setValue(locationList.get(0).getId());
+				idType.setValue(locationResults.getResources(0, 1).get(0).getIdElement().getValue());
 				return updateLocation(theLocation, idType);
 			} else {
 				throw new PreconditionFailedException("There are more than one Location for the given condition");
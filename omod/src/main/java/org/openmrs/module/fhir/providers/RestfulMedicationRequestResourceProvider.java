@@ -13,9 +13,11 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -32,6 +34,7 @@ import org.openmrs.module.fhir.resources.FHIRMedicationRequestResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulMedicationRequestResourceProvider implements IResourceProvider {
 
@@ -68,7 +71,8 @@ public class RestfulMedicationRequestResourceProvider implements IResourceProvid
 	 */
 	@Search
 	public List<MedicationRequest> findMedicatoonRequestByUniqueId(
-			@RequiredParam(name = MedicationRequest.SP_RES_ID) TokenParam id) {
+			@RequiredParam(name = MedicationRequest.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirMedicationRequestResource.searchByUniqueId(id);
 	}
 
@@ -79,7 +83,8 @@ public class RestfulMedicationRequestResourceProvider implements IResourceProvid
 	 */
 	@Search
 	public List<MedicationRequest> findMedicatoonRequestByPatientId(
-			@RequiredParam(name = MedicationRequest.SP_PATIENT) ReferenceParam patient) {
+			@RequiredParam(name = MedicationRequest.SP_PATIENT) ReferenceParam patient,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirMedicationRequestResource.searchByPatientId(patient);
 	}
 
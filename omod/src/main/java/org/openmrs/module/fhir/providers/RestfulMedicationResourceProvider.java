@@ -1,8 +1,10 @@
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -18,6 +20,7 @@ import org.openmrs.module.fhir.resources.FHIRMedicationResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulMedicationResourceProvider implements IResourceProvider {
 
@@ -54,7 +57,8 @@ public class RestfulMedicationResourceProvider implements IResourceProvider {
 
 	@Search
 	public List<Medication> findMedicationById(
-			@RequiredParam(name = Medication.SP_RES_ID) TokenParam id) {
+			@RequiredParam(name = Medication.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return medicationResource.searchMedicationById(id);
 	}
 }
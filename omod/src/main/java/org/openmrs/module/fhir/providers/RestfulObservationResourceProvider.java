@@ -13,16 +13,22 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
+import ca.uhn.fhir.rest.annotation.OptionalParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
 import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.annotation.Sort;
 import ca.uhn.fhir.rest.annotation.Update;
 import ca.uhn.fhir.rest.api.MethodOutcome;
-import ca.uhn.fhir.rest.param.DateParam;
+import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.param.TokenOrListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
@@ -36,7 +42,7 @@ import org.hl7.fhir.dstu3.model.Resource;
 import org.openmrs.module.fhir.resources.FHIRObservationResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
-import java.util.List;
+import java.util.Set;
 
 public class RestfulObservationResourceProvider implements IResourceProvider {
 
@@ -71,7 +77,8 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @param id object containing the requested id
 	 */
 	@Search
-	public List<Observation> findObsById(@RequiredParam(name = Observation.SP_RES_ID) TokenParam id) {
+	public IBundleProvider findObsById(@RequiredParam(name = Observation.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsById(id);
 	}
 
@@ -79,10 +86,11 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @see org.openmrs.module.fhir.resources.FHIRObservationResource#searchObsByPatientAndCode(ca.uhn.fhir.rest.param.ReferenceParam, ca.uhn.fhir.rest.param.TokenOrListParam)
 	 */
 	@Search
-	public List<Observation> findObsByPatientAndCode(@RequiredParam(name = Observation.SP_SUBJECT) ReferenceParam
+	public IBundleProvider findObsByPatientAndCode(@RequiredParam(name = Observation.SP_SUBJECT) ReferenceParam
 			patient,
 			@RequiredParam(name = Observation.SP_CODE) TokenOrListParam
-					codes) {
+					codes,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsByPatientAndCode(patient, codes);
 	}
 
@@ -92,10 +100,11 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @param codes object containing the requested name
 	 */
 	@Search
-	public List<Observation> findObsByPatientAndConcept(@RequiredParam(name = Observation.SP_SUBJECT) ReferenceParam
+	public IBundleProvider findObsByPatientAndConcept(@RequiredParam(name = Observation.SP_SUBJECT) ReferenceParam
 			person,
 			@RequiredParam(name = Observation.SP_CODE) TokenOrListParam
-					codes) {
+					codes,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsByPatientAndConcept(person, codes);
 	}
 
@@ -105,18 +114,24 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @param theCodings object containing the requested code
 	 */
 	@Search
-	public List<Observation> findObsByCode(@RequiredParam(name = Observation.SP_CODE) TokenOrListParam theCodings) {
+	public IBundleProvider findObsByCode(@RequiredParam(name = Observation.SP_CODE) TokenOrListParam theCodings,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsByCode(theCodings);
 	}
 
 	/**
-	 * Search obsservation by observation date
+	 * Search obsservation by a range of observation dates, optionally restricted to a subject and
+	 * codes, and sorted with _sort=date or _sort=-date
 	 *
-	 * @param date object containing the requested date
+	 * @see org.openmrs.module.fhir.resources.FHIRObservationResource#searchObsByDate(DateRangeParam, ReferenceParam, TokenOrListParam, SortSpec)
 	 */
 	@Search
-	public List<Observation> findObsByDate(@RequiredParam(name = Observation.SP_DATE) DateParam date) {
-		return fhirObservationResource.searchObsByDate(date);
+	public IBundleProvider findObsByDate(@RequiredParam(name = Observation.SP_DATE) DateRangeParam date,
+			@OptionalParam(name = Observation.SP_SUBJECT) ReferenceParam subject,
+			@OptionalParam(name = Observation.SP_CODE) TokenOrListParam codes,
+			@Sort SortSpec sort,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
+		return fhirObservationResource.searchObsByDate(date, subject, codes, sort);
 	}
 
 	/**
@@ -125,7 +140,8 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @param person object containing the requested person id
 	 */
 	@Search
-	public List<Observation> findObsByPerson(@RequiredParam(name = Observation.SP_SUBJECT) ReferenceParam person) {
+	public IBundleProvider findObsByPerson(@RequiredParam(name = Observation.SP_SUBJECT) ReferenceParam person,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsByPerson(person);
 	}
 
@@ -135,8 +151,9 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @param answerConceptName object containing the value concept name which is the answer concept
 	 */
 	@Search
-	public List<Observation> findObsByValueConcept(@RequiredParam(name = Observation.SP_VALUE_CONCEPT) TokenParam
-			answerConceptName) {
+	public IBundleProvider findObsByValueConcept(@RequiredParam(name = Observation.SP_VALUE_CONCEPT) TokenParam
+			answerConceptName,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsByValueConcept(answerConceptName);
 	}
 
@@ -146,9 +163,10 @@ public class RestfulObservationResourceProvider implements IResourceProvider {
 	 * @param identifier object containing the patient identifier
 	 */
 	@Search
-	public List<Observation> findEncountersByPatientIdentifier(
+	public IBundleProvider findEncountersByPatientIdentifier(
 			@RequiredParam(name = Observation.SP_PATIENT, chainWhitelist = {
-					Patient.SP_IDENTIFIER }) ReferenceParam identifier) {
+					Patient.SP_IDENTIFIER }) ReferenceParam identifier,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return fhirObservationResource.searchObsByPatientIdentifier(identifier);
 	}
 
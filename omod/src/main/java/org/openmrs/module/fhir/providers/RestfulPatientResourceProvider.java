@@ -13,41 +13,53 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.ConditionalUrlParam;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Operation;
+import ca.uhn.fhir.rest.annotation.OperationParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
 import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.annotation.Update;
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.IResourceProvider;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
-import org.hl7.fhir.dstu3.model.Bundle;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 import org.hl7.fhir.dstu3.model.CodeableConcept;
 import org.hl7.fhir.dstu3.model.Coding;
 import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.InstantType;
 import org.hl7.fhir.dstu3.model.OperationOutcome;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.hl7.fhir.dstu3.model.Resource;
+import org.hl7.fhir.dstu3.model.StringType;
+import org.hl7.fhir.dstu3.model.UnsignedIntType;
 import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.resources.FHIRBulkExportResource;
 import org.openmrs.module.fhir.resources.FHIRPatientResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
-import java.util.ArrayList;
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
 public class RestfulPatientResourceProvider implements IResourceProvider {
 
 	private FHIRPatientResource patientResource;
 
+	private FHIRBulkExportResource bulkExportResource;
+
 	public RestfulPatientResourceProvider() {
 		patientResource = new FHIRPatientResource();
+		bulkExportResource = new FHIRBulkExportResource();
 	}
 
 	@Override
@@ -72,7 +84,8 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * @param id object containing the requested id
 	 */
 	@Search
-	public List<Patient> findPatientByUniqueId(@RequiredParam(name = Patient.SP_RES_ID) TokenParam id) {
+	public IBundleProvider findPatientByUniqueId(@RequiredParam(name = Patient.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return patientResource.searchByUniqueId(id);
 	}
 
@@ -82,7 +95,8 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * @param theFamilyName object contaning the requested family name
 	 */
 	@Search
-	public Bundle findPatientsByFamilyName(@RequiredParam(name = Patient.SP_FAMILY) StringParam theFamilyName) {
+	public IBundleProvider findPatientsByFamilyName(@RequiredParam(name = Patient.SP_FAMILY) StringParam theFamilyName,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return patientResource.searchByFamilyName(theFamilyName);
 	}
 
@@ -94,7 +108,8 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public Bundle findPatientsByName(@RequiredParam(name = Patient.SP_NAME) StringParam name) {
+	public IBundleProvider findPatientsByName(@RequiredParam(name = Patient.SP_NAME) StringParam name,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return patientResource.searchByName(name);
 	}
 
@@ -106,7 +121,8 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public List<Patient> findPatientsByIdentifier(@RequiredParam(name = Patient.SP_IDENTIFIER) TokenParam identifier) {
+	public IBundleProvider findPatientsByIdentifier(@RequiredParam(name = Patient.SP_IDENTIFIER) TokenParam identifier,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return patientResource.searchByIdentifier(identifier);
 	}
 
@@ -118,7 +134,8 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public List<Patient> findActivePatients(@RequiredParam(name = Patient.SP_ACTIVE) TokenParam active) {
+	public IBundleProvider findActivePatients(@RequiredParam(name = Patient.SP_ACTIVE) TokenParam active,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return patientResource.searchPatients(active);
 	}
 
@@ -130,7 +147,8 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public Bundle findPatientsByGivenName(@RequiredParam(name = Patient.SP_GIVEN) StringParam givenName) {
+	public IBundleProvider findPatientsByGivenName(@RequiredParam(name = Patient.SP_GIVEN) StringParam givenName,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return patientResource.searchByGivenName(givenName);
 	}
 
@@ -138,11 +156,33 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 	 * Implementation of $everything operation which returns content of a patient
 	 *
 	 * @param patientId if of the patient
-	 * @return bundle
+	 * @param since     only return content created or changed at or after this instant
+	 * @param types     comma separated resource types to return
+	 * @param count     number of resources per page
+	 * @return paged content of the patient
+	 */
+	@Operation(name = "$everything", type = Patient.class, idempotent = true)
+	public IBundleProvider patientInstanceOperation(@IdParam IdType patientId,
+			@OperationParam(name = "_since") InstantType since,
+			@OperationParam(name = "_type", max = OperationParam.MAX_UNLIMITED) List<StringType> types,
+			@OperationParam(name = "_count") UnsignedIntType count) {
+		return patientResource.getPatientEverything(patientId, since, types, count);
+	}
+
+	/**
+	 * Start a bulk data export of the resources of all patients
+	 *
+	 * @param outputFormat only application/fhir+ndjson is supported
+	 * @param since        only export resources created or changed at or after this instant
+	 * @param types        comma separated resource types to export
 	 */
-	@Operation(name = "$everything", type = Patient.class)
-	public Bundle patientInstanceOperation(@IdParam IdType patientId) {
-		return patientResource.getPatientOperationsById(patientId);
+	@Operation(name = "$export", type = Patient.class, idempotent = true, manualResponse = true)
+	public void patientTypeExportOperation(ServletRequestDetails requestDetails,
+			@OperationParam(name = "_outputFormat") StringType outputFormat,
+			@OperationParam(name = "_since") InstantType since,
+			@OperationParam(name = "_type", max = OperationParam.MAX_UNLIMITED) List<StringType> types)
+			throws IOException {
+		bulkExportResource.startExport(requestDetails, outputFormat, since, types);
 	}
 
 	/**
@@ -189,7 +229,7 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 		OperationOutcome operationoutcome;
 		if (theConditional != null) {
 			String paramValue;
-			List<Patient> patientList = null;
+			IBundleProvider patientResults = null;
 			String parameterName;
 			try {
 				String args[] = theConditional.split("?");
@@ -210,23 +250,23 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 			if (FHIRConstants.PARAMETER_NAME.equals(parameterName)) {
 				StringParam param = new StringParam();
 				param.setValue(paramValue);
-				Bundle patientBundle = patientResource.searchByName(param);
-				patientList = generatePatientsList(patientList, patientBundle);
+				patientResults = patientResource.searchByName(param);
 			} else if (FHIRConstants.PARAMETER_IDENTIFIER.equals(parameterName)) {
 				TokenParam params = new TokenParam();
 				params.setValue(paramValue);
-				patientList = patientResource.searchByIdentifier(params);
+				patientResults = patientResource.searchByIdentifier(params);
 			} else if (FHIRConstants.PARAMETER_GIVENNAME.equals(parameterName)) {
 				StringParam param = new StringParam();
 				param.setValue(paramValue);
-				Bundle patientBundle = patientResource.searchByGivenName(param);
-				patientList = generatePatientsList(patientList, patientBundle);
+				patientResults = patientResource.searchByGivenName(param);
 			}
-			if (patientList != null) {
-				if (patientList.size() == 0) {
+			if (patientResults != null) {
+				int size = patientResults.size();
+				if (size == 0) {
 					outcome = updatePatient(patient, null);
-				} else if (patientList.size() == 1) {
-					outcome = updatePatient(patient, patientList.get(0).getIdElement());
+				} else if (size == 1) {
+					Patient matchedPatient = (Patient) patientResults.getResources(0, 1).get(0);
+					outcome = updatePatient(patient, matchedPatient.getIdElement());
 				} else {
 					throw new PreconditionFailedException("There are more than one patient for the given condition");
 				}
@@ -237,17 +277,4 @@ public class RestfulPatientResourceProvider implements IResourceProvider {
 		return outcome;
 	}
 
-	private List<Patient> generatePatientsList(List<Patient> patientList, Bundle patientBundle) {
-		if (patientBundle != null) {
-			if (!patientBundle.getEntry().isEmpty()) {
-				patientList = new ArrayList<>();
-			}
-			for (Bundle.BundleEntryComponent entry : patientBundle.getEntry()) {
-				Patient fhirPatient = (Patient) entry.getResource();
-				patientList.add(fhirPatient);
-			}
-		}
-		return patientList;
-	}
-
 }
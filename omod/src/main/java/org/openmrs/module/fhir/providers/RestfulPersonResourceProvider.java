@@ -13,10 +13,12 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.ConditionalUrlParam;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -35,6 +37,7 @@ import org.openmrs.module.fhir.resources.FHIRPersonResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulPersonResourceProvider implements IResourceProvider {
 
@@ -72,7 +75,8 @@ public class RestfulPersonResourceProvider implements IResourceProvider {
 	 * @param id object containing the requested person
 	 */
 	@Search
-	public List<Person> findPractitionerByUniqueId(@RequiredParam(name = Person.SP_RES_ID) TokenParam id) {
+	public List<Person> findPractitionerByUniqueId(@RequiredParam(name = Person.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return personResource.searchByUniqueId(id);
 	}
 
@@ -88,7 +92,8 @@ public class RestfulPersonResourceProvider implements IResourceProvider {
 	@Search
 	public List<Person> findPersons(@RequiredParam(name = Person.SP_NAME) StringParam name,
 			@RequiredParam(name = Person.SP_BIRTHDATE) DateParam birthDate,
-			@RequiredParam(name = Person.SP_GENDER) StringParam gender) {
+			@RequiredParam(name = Person.SP_GENDER) StringParam gender,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		Integer birthYear = 1900 + birthDate.getValue().getYear(); // e.g. 2011-01-02
 		return personResource.searchPersons(name.getValue(), birthYear, gender);
 	}
@@ -101,7 +106,8 @@ public class RestfulPersonResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public List<Person> findPersonsByName(@RequiredParam(name = Person.SP_NAME) StringParam name) {
+	public List<Person> findPersonsByName(@RequiredParam(name = Person.SP_NAME) StringParam name,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return personResource.searchByName(name);
 	}
 
@@ -13,8 +13,10 @@
  */
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -31,6 +33,7 @@ import org.openmrs.module.fhir.resources.FHIRPractitionerResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulPractitionerResourceProvider implements IResourceProvider {
 
@@ -64,7 +67,8 @@ public class RestfulPractitionerResourceProvider implements IResourceProvider {
 	 * @param id object contaning the requested family name
 	 */
 	@Search
-	public List<Practitioner> findPractitionerByUniqueId(@RequiredParam(name = Practitioner.SP_RES_ID) TokenParam id) {
+	public List<Practitioner> findPractitionerByUniqueId(@RequiredParam(name = Practitioner.SP_RES_ID) TokenParam id,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return practitionerResource.searchByUniqueId(id);
 	}
 
@@ -75,7 +79,8 @@ public class RestfulPractitionerResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Practitioner> findPractitionersByFamilyName(
-			@RequiredParam(name = Practitioner.SP_FAMILY) StringParam theFamilyName) {
+			@RequiredParam(name = Practitioner.SP_FAMILY) StringParam theFamilyName,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return practitionerResource.searchByFamilyName(theFamilyName);
 	}
 
@@ -87,7 +92,8 @@ public class RestfulPractitionerResourceProvider implements IResourceProvider {
 	 * resources, or it may also be empty.
 	 */
 	@Search
-	public List<Practitioner> findPractitionersByName(@RequiredParam(name = Practitioner.SP_NAME) StringParam name) {
+	public List<Practitioner> findPractitionersByName(@RequiredParam(name = Practitioner.SP_NAME) StringParam name,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return practitionerResource.searchByName(name);
 	}
 
@@ -100,7 +106,8 @@ public class RestfulPractitionerResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Practitioner> findPractitionersByIdentifier(
-			@RequiredParam(name = Practitioner.SP_IDENTIFIER) TokenParam identifier) {
+			@RequiredParam(name = Practitioner.SP_IDENTIFIER) TokenParam identifier,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return practitionerResource.searchByIdentifier(identifier);
 	}
 
@@ -113,7 +120,8 @@ public class RestfulPractitionerResourceProvider implements IResourceProvider {
 	 */
 	@Search
 	public List<Practitioner> findPractitionersByGivenName(
-			@RequiredParam(name = Practitioner.SP_GIVEN) StringParam givenName) {
+			@RequiredParam(name = Practitioner.SP_GIVEN) StringParam givenName,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return practitionerResource.searchByGivenName(givenName);
 	}
 
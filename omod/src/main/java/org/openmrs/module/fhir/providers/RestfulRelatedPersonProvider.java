@@ -1,8 +1,10 @@
 package org.openmrs.module.fhir.providers;
 
+import ca.uhn.fhir.model.api.Include;
 import ca.uhn.fhir.rest.annotation.Create;
 import ca.uhn.fhir.rest.annotation.Delete;
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
 import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.RequiredParam;
 import ca.uhn.fhir.rest.annotation.ResourceParam;
@@ -19,6 +21,7 @@ import org.openmrs.module.fhir.resources.FHIRRelatedPersonResource;
 import org.openmrs.module.fhir.util.MethodOutcomeBuilder;
 
 import java.util.List;
+import java.util.Set;
 
 public class RestfulRelatedPersonProvider implements IResourceProvider {
 
@@ -49,7 +52,8 @@ public class RestfulRelatedPersonProvider implements IResourceProvider {
 	@Search
 	public List<RelatedPerson> searchRelatedPersonByIdentifier(
 			@RequiredParam(name = RelatedPerson.SP_PATIENT, chainWhitelist = {
-					Patient.SP_IDENTIFIER }) ReferenceParam identifier) {
+					Patient.SP_IDENTIFIER }) ReferenceParam identifier,
+			@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
 		return relatedPersonResource.searchRelatedPersonByIdentifier(identifier);
 	}
 
@@ -0,0 +1,185 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.resources;
+
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.hl7.fhir.dstu3.model.InstantType;
+import org.hl7.fhir.dstu3.model.StringType;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.BulkExportService;
+import org.openmrs.module.fhir.api.export.ExportJob;
+import org.openmrs.module.fhir.api.util.FHIRConstants;
+import org.openmrs.module.fhir.util.FHIROmodConstants;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * HTTP side of the bulk data $export operations: the kick-off request answers 202 with the status
+ * url in Content-Location, the status url answers 202 while the job runs and the manifest of the
+ * NDJSON files once it is complete, and each file is downloaded from the url given in the manifest.
+ */
+public class FHIRBulkExportResource extends Resource {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	public void startExport(ServletRequestDetails requestDetails, StringType outputFormat, InstantType since,
+			List<StringType> types) throws IOException {
+		Context.requirePrivilege(FHIROmodConstants.VIEW_ADMIN_FUNCTIONS_PRIVILEGE);
+		validateOutputFormat(outputFormat);
+		ExportJob job = getBulkExportService().startExport(requestDetails.getCompleteUrl(), getTypes(types),
+				getDate(since));
+		writeAccepted(requestDetails, job);
+	}
+
+	public void startGroupExport(ServletRequestDetails requestDetails, String groupId, StringType outputFormat,
+			InstantType since, List<StringType> types) throws IOException {
+		Context.requirePrivilege(FHIROmodConstants.VIEW_ADMIN_FUNCTIONS_PRIVILEGE);
+		validateOutputFormat(outputFormat);
+		ExportJob job = getBulkExportService().startGroupExport(requestDetails.getCompleteUrl(), groupId,
+				getTypes(types), getDate(since));
+		writeAccepted(requestDetails, job);
+	}
+
+	public void pollStatus(ServletRequestDetails requestDetails, StringType jobId) throws IOException {
+		Context.requirePrivilege(FHIROmodConstants.VIEW_ADMIN_FUNCTIONS_PRIVILEGE);
+		ExportJob job = getJob(jobId);
+		HttpServletResponse response = requestDetails.getServletResponse();
+		if (job.getStatus() == ExportJob.Status.FAILED) {
+			throw new InternalErrorException("Bulk export failed: " + job.getError());
+		}
+		if (job.getStatus() != ExportJob.Status.COMPLETED) {
+			response.setStatus(HttpServletResponse.SC_ACCEPTED);
+			response.setHeader("X-Progress", job.getCurrentType() == null ? job.getStatus().name()
+					: "Exporting " + job.getCurrentType());
+			response.setHeader("Retry-After", String.valueOf(FHIROmodConstants.EXPORT_RETRY_AFTER_SECONDS));
+			return;
+		}
+
+		List<Map<String, Object>> output = new ArrayList<Map<String, Object>>();
+		for (Map.Entry<String, Integer> entry : job.getOutputCounts().entrySet()) {
+			Map<String, Object> file = new LinkedHashMap<String, Object>();
+			file.put("type", entry.getKey());
+			file.put("url", requestDetails.getFhirServerBase() + "/" + FHIROmodConstants.EXPORT_DOWNLOAD_OPERATION
+					+ "?_jobId=" + job.getId() + "&_type=" + URLEncoder.encode(entry.getKey(), "UTF-8"));
+			file.put("count", entry.getValue());
+			output.add(file);
+		}
+		Map<String, Object> manifest = new LinkedHashMap<String, Object>();
+		manifest.put("transactionTime", new InstantType(job.getTransactionTime()).getValueAsString());
+		manifest.put("request", job.getRequest());
+		manifest.put("requiresAccessToken", true);
+		manifest.put("output", output);
+		manifest.put("error", Collections.emptyList());
+
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		objectMapper.writeValue(response.getWriter(), manifest);
+	}
+
+	public void download(ServletRequestDetails requestDetails, StringType jobId, StringType type) throws IOException {
+		Context.requirePrivilege(FHIROmodConstants.VIEW_ADMIN_FUNCTIONS_PRIVILEGE);
+		ExportJob job = getJob(jobId);
+		if (job.getStatus() != ExportJob.Status.COMPLETED || type == null
+				|| !job.getOutputCounts().containsKey(type.getValue())) {
+			throw new ResourceNotFoundException("No exported " + (type == null ? "" : type.getValue() + " ")
+					+ "file for bulk export " + job.getId());
+		}
+		File file = job.getOutputFile(type.getValue());
+		HttpServletResponse response = requestDetails.getServletResponse();
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(FHIRConstants.NDJSON_CONTENT_TYPE);
+		response.setCharacterEncoding("UTF-8");
+		response.setHeader("Content-Length", String.valueOf(file.length()));
+		InputStream in = new FileInputStream(file);
+		try {
+			IOUtils.copy(in, response.getOutputStream());
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private void writeAccepted(ServletRequestDetails requestDetails, ExportJob job) {
+		HttpServletResponse response = requestDetails.getServletResponse();
+		response.setStatus(HttpServletResponse.SC_ACCEPTED);
+		response.setHeader("Content-Location", requestDetails.getFhirServerBase() + "/"
+				+ FHIROmodConstants.EXPORT_POLL_STATUS_OPERATION + "?_jobId=" + job.getId());
+	}
+
+	private ExportJob getJob(StringType jobId) {
+		ExportJob job = getBulkExportService().getExportJob(jobId == null ? null : jobId.getValue());
+		if (job == null) {
+			throw new ResourceNotFoundException("Unknown or expired bulk export " + (jobId == null ? ""
+					: jobId.getValue()));
+		}
+		return job;
+	}
+
+	private void validateOutputFormat(StringType outputFormat) {
+		if (outputFormat == null || StringUtils.isBlank(outputFormat.getValue())) {
+			return;
+		}
+		String format = outputFormat.getValue().trim();
+		if (!FHIRConstants.NDJSON_CONTENT_TYPE.equals(format) && !"application/ndjson".equals(format)
+				&& !"ndjson".equals(format)) {
+			throw new InvalidRequestException("Unsupported _outputFormat " + format + ", only "
+					+ FHIRConstants.NDJSON_CONTENT_TYPE + " is supported");
+		}
+	}
+
+	private Set<String> getTypes(List<StringType> types) {
+		Set<String> resourceTypes = new HashSet<String>();
+		if (types != null) {
+			for (StringType type : types) {
+				if (type == null || StringUtils.isBlank(type.getValue())) {
+					continue;
+				}
+				for (String resourceType : StringUtils.split(type.getValue(), ',')) {
+					if (StringUtils.isNotBlank(resourceType)) {
+						resourceTypes.add(resourceType.trim());
+					}
+				}
+			}
+		}
+		return resourceTypes;
+	}
+
+	private Date getDate(InstantType since) {
+		return since == null ? null : since.getValue();
+	}
+
+	private BulkExportService getBulkExportService() {
+		return Context.getService(BulkExportService.class);
+	}
+}
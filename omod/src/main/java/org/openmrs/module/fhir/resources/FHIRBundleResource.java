@@ -1,5 +1,19 @@
 package org.openmrs.module.fhir.resources;
 
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.api.BundleService;
+
 public class FHIRBundleResource {
 
+	public Bundle processBundle(Bundle bundle) {
+		BundleService bundleService = Context.getService(BundleService.class);
+		if (bundle.getType() == Bundle.BundleType.TRANSACTION) {
+			return bundleService.processTransaction(bundle);
+		} else if (bundle.getType() == Bundle.BundleType.BATCH) {
+			return bundleService.processBatch(bundle);
+		}
+		throw new InvalidRequestException("Only transaction and batch bundles can be processed");
+	}
 }
@@ -1,12 +1,15 @@
 package org.openmrs.module.fhir.resources;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import org.hl7.fhir.dstu3.model.Group;
 import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.UnsignedIntType;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir.api.GroupService;
+import org.openmrs.module.fhir.api.search.SearchResults;
 
 import java.util.List;
 
@@ -28,6 +31,14 @@ public class FHIRGroupResource extends Resource {
 		return getGroupService().searchGroupByName(name.getValue());
 	}
 
+	public IBundleProvider getGroupMembers(IdType id, UnsignedIntType count) {
+		IBundleProvider members = getGroupService().getGroupMembers(id.getIdPart());
+		if (count != null && members instanceof SearchResults) {
+			((SearchResults) members).setPreferredPageSize(count.getValue());
+		}
+		return members;
+	}
+
 	public Group createGroup(Group group) {
 		return getGroupService().createGroup(group);
 	}
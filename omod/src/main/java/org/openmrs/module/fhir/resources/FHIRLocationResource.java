@@ -13,6 +13,7 @@
  */
 package org.openmrs.module.fhir.resources;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
@@ -21,8 +22,6 @@ import org.hl7.fhir.dstu3.model.Location;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir.api.LocationService;
 
-import java.util.List;
-
 public class FHIRLocationResource extends Resource {
 
 	public Location getByUniqueId(IdType id) {
@@ -34,11 +33,11 @@ public class FHIRLocationResource extends Resource {
 		return fhirLocation;
 	}
 
-	public List<Location> searchLocationsById(TokenParam id) {
+	public IBundleProvider searchLocationsById(TokenParam id) {
 		return Context.getService(LocationService.class).searchLocationsByUuid(id.getValue());
 	}
 
-	public List<Location> searchLocationsByStatus(TokenParam active) {
+	public IBundleProvider searchLocationsByStatus(TokenParam active) {
 		if (active != null && active.getValue().equalsIgnoreCase(Location.LocationStatus.ACTIVE.toCode())) {
 			return Context.getService(LocationService.class).searchLocationsByStatus(true);
 		} else {
@@ -46,7 +45,7 @@ public class FHIRLocationResource extends Resource {
 		}
 	}
 
-	public List<Location> searchLocationsByName(StringParam name) {
+	public IBundleProvider searchLocationsByName(StringParam name) {
 		return Context.getService(LocationService.class).searchLocationsByName(name.getValue());
 	}
 
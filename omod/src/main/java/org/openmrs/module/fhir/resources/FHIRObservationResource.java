@@ -14,18 +14,23 @@
 package org.openmrs.module.fhir.resources;
 
 import ca.uhn.fhir.model.base.composite.BaseCodingDt;
-import ca.uhn.fhir.rest.param.DateParam;
+import ca.uhn.fhir.rest.api.SortOrderEnum;
+import ca.uhn.fhir.rest.api.SortSpec;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.ReferenceParam;
 import ca.uhn.fhir.rest.param.TokenOrListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Observation;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir.api.ObsService;
+import org.openmrs.module.fhir.api.db.ObsSearchCriteria;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,12 +46,12 @@ public class FHIRObservationResource extends Resource {
 		return fhirObservation;
 	}
 
-	public List<Observation> searchObsById(TokenParam id) {
+	public IBundleProvider searchObsById(TokenParam id) {
 		ObsService obsService = Context.getService(ObsService.class);
 		return obsService.searchObsById(id.getValue());
 	}
 
-	public List<Observation> searchObsByPatientAndConcept(ReferenceParam person, TokenOrListParam codes) {
+	public IBundleProvider searchObsByPatientAndConcept(ReferenceParam person, TokenOrListParam codes) {
 		ObsService obsService = Context.getService(ObsService.class);
 		Map<String, String> conceptNamesAndURIs = new HashMap<String, String>();
 		for (BaseCodingDt baseCodingDt : codes.getListAsCodings()) {
@@ -55,7 +60,7 @@ public class FHIRObservationResource extends Resource {
 		return obsService.searchObsByPatientAndConcept(person.getIdPart(), conceptNamesAndURIs);
 	}
 
-	public List<Observation> searchObsByCode(TokenOrListParam codes) {
+	public IBundleProvider searchObsByCode(TokenOrListParam codes) {
 		ObsService obsService = Context.getService(ObsService.class);
 		Map<String, String> conceptNamesAndURIs = new HashMap<String, String>();
 		for (BaseCodingDt baseCodingDt : codes.getListAsCodings()) {
@@ -64,29 +69,41 @@ public class FHIRObservationResource extends Resource {
 		return obsService.searchObsByCode(conceptNamesAndURIs);
 	}
 
-	public List<Observation> searchObsByDate(DateParam date) {
+	/**
+	 * Search observations by a range of dates, optionally restricted to a subject and codes and sorted
+	 * by date
+	 *
+	 * @param date    date range, e.g. date=ge2018-01-01&amp;date=lt2019-01-01
+	 * @param subject subject reference or null
+	 * @param codes   codes or null
+	 * @param sort    sort specification or null, only date is supported
+	 * @return paged observation search results
+	 */
+	public IBundleProvider searchObsByDate(DateRangeParam date, ReferenceParam subject, TokenOrListParam codes,
+			SortSpec sort) {
 		ObsService obsService = Context.getService(ObsService.class);
-		return obsService.searchObsByDate(date.getValue());
+		String personUuid = subject != null ? subject.getIdPart() : null;
+		List<TokenParam> codings = codes != null ? codes.getValuesAsQueryTokens() : null;
+		return obsService.searchObs(personUuid, codings, date.getLowerBoundAsInstant(), date.getUpperBoundAsInstant(),
+				getDateOrder(sort));
 	}
 
-	public List<Observation> searchObsByPerson(ReferenceParam person) {
+	public IBundleProvider searchObsByPerson(ReferenceParam person) {
 		ObsService obsService = Context.getService(ObsService.class);
 		return obsService.searchObsByPerson(person.getIdPart());
 	}
 
-	public List<Observation> searchObsByValueConcept(TokenParam answerConceptName) {
+	public IBundleProvider searchObsByValueConcept(TokenParam answerConceptName) {
 		ObsService obsService = Context.getService(ObsService.class);
 		return obsService.searchObsByValueConcept(answerConceptName.getValue());
 	}
 
-	public List<Observation> searchObsByPatientIdentifier(ReferenceParam identifier) {
-		List<Observation> fhirEncounters = new ArrayList<Observation>();
-
+	public IBundleProvider searchObsByPatientIdentifier(ReferenceParam identifier) {
 		String chain = identifier.getChain();
 		if (Patient.SP_IDENTIFIER.equals(chain)) {
-			fhirEncounters = Context.getService(ObsService.class).searchObsByPatientIdentifier(identifier.getValue());
+			return Context.getService(ObsService.class).searchObsByPatientIdentifier(identifier.getValue());
 		}
-		return fhirEncounters;
+		return new SimpleBundleProvider();
 	}
 
 	public void deleteObservation(IdType id) {
@@ -109,12 +126,23 @@ public class FHIRObservationResource extends Resource {
 	 *
 	 * @param patient Patient reference
 	 * @param codes   TokenParam or a list of TokenParam codes
-	 * @return List of observation resources
+	 * @return paged observation search results
 	 */
-	public List<Observation> searchObsByPatientAndCode(ReferenceParam patient, TokenOrListParam codes) {
+	public IBundleProvider searchObsByPatientAndCode(ReferenceParam patient, TokenOrListParam codes) {
 		ObsService obsService = Context.getService(ObsService.class);
 		List<TokenParam> codings = codes.getValuesAsQueryTokens();
 
 		return obsService.searchObsByPatientAndCode(patient.getIdPart(), codings);
 	}
+
+	private ObsSearchCriteria.DateOrder getDateOrder(SortSpec sort) {
+		if (sort == null) {
+			return null;
+		}
+		if (!Observation.SP_DATE.equals(sort.getParamName())) {
+			throw new InvalidRequestException("Observations can only be sorted by " + Observation.SP_DATE);
+		}
+		return sort.getOrder() == SortOrderEnum.DESC ? ObsSearchCriteria.DateOrder.DESCENDING :
+				ObsSearchCriteria.DateOrder.ASCENDING;
+	}
 }
@@ -13,16 +13,25 @@
  */
 package org.openmrs.module.fhir.resources;
 
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import org.apache.commons.lang.StringUtils;
 import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.InstantType;
 import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.StringType;
+import org.hl7.fhir.dstu3.model.UnsignedIntType;
 import org.openmrs.api.context.Context;
 import org.openmrs.module.fhir.api.PatientService;
+import org.openmrs.module.fhir.api.search.SearchResults;
 
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class FHIRPatientResource extends Resource {
 
@@ -36,7 +45,7 @@ public class FHIRPatientResource extends Resource {
 		return fhirPatient;
 	}
 
-	public List<Patient> searchByUniqueId(TokenParam id) {
+	public IBundleProvider searchByUniqueId(TokenParam id) {
 		org.openmrs.module.fhir.api.PatientService patientService = Context.getService(
 				org.openmrs.module.fhir.api.PatientService.class);
 		return patientService.searchPatientsById(id.getValue());
@@ -44,7 +53,7 @@ public class FHIRPatientResource extends Resource {
 
 	//search by patient identifier. ex: GET_DESCRIPTION [base-url]/Patient?identifier=http://acme.org/patient|2345
 	//returns a bundle of patients
-	public List<Patient> searchByIdentifier(TokenParam identifier) {
+	public IBundleProvider searchByIdentifier(TokenParam identifier) {
 		org.openmrs.module.fhir.api.PatientService patientService = Context.getService(
 				org.openmrs.module.fhir.api.PatientService.class);
 		if (identifier.getSystem() != null && !identifier.getSystem().isEmpty()) {
@@ -53,25 +62,25 @@ public class FHIRPatientResource extends Resource {
 		return patientService.searchPatientsByIdentifier(identifier.getValue());
 	}
 
-	public Bundle searchByGivenName(StringParam givenName) {
+	public IBundleProvider searchByGivenName(StringParam givenName) {
 		org.openmrs.module.fhir.api.PatientService patientService = Context.getService(
 				org.openmrs.module.fhir.api.PatientService.class);
 		return patientService.searchPatientsByGivenName(givenName.getValue());
 	}
 
-	public Bundle searchByFamilyName(StringParam theFamilyName) {
+	public IBundleProvider searchByFamilyName(StringParam theFamilyName) {
 		org.openmrs.module.fhir.api.PatientService patientService = Context.getService(
 				org.openmrs.module.fhir.api.PatientService.class);
 		return patientService.searchPatientsByFamilyName(theFamilyName.getValue());
 	}
 
-	public Bundle searchByName(StringParam name) {
+	public IBundleProvider searchByName(StringParam name) {
 		org.openmrs.module.fhir.api.PatientService patientService = Context.getService(
 				org.openmrs.module.fhir.api.PatientService.class);
 		return patientService.searchPatientsByName(name.getValue());
 	}
 
-	public List<Patient> searchPatients(TokenParam active) {
+	public IBundleProvider searchPatients(TokenParam active) {
 		org.openmrs.module.fhir.api.PatientService patientService = Context.getService(
 				org.openmrs.module.fhir.api.PatientService.class);
 		if ("true".equalsIgnoreCase(active.getValue())) {
@@ -85,6 +94,30 @@ public class FHIRPatientResource extends Resource {
 		return Context.getService(PatientService.class).getPatientOperationsById(id.getIdPart());
 	}
 
+	public IBundleProvider getPatientEverything(IdType id, InstantType since, List<StringType> types,
+			UnsignedIntType count) {
+		Set<String> resourceTypes = new HashSet<String>();
+		if (types != null) {
+			for (StringType type : types) {
+				if (type == null || StringUtils.isBlank(type.getValue())) {
+					continue;
+				}
+				for (String resourceType : StringUtils.split(type.getValue(), ',')) {
+					if (StringUtils.isNotBlank(resourceType)) {
+						resourceTypes.add(resourceType.trim());
+					}
+				}
+			}
+		}
+		Date sinceDate = since == null ? null : since.getValue();
+		IBundleProvider everything = Context.getService(PatientService.class).getPatientEverything(id.getIdPart(),
+				sinceDate, resourceTypes);
+		if (count != null && everything instanceof SearchResults) {
+			((SearchResults) everything).setPreferredPageSize(count.getValue());
+		}
+		return everything;
+	}
+
 	public void deletePatient(IdType id) {
 		PatientService patientService = Context.getService(PatientService.class);
 		patientService.deletePatient(id.getIdPart());
@@ -15,15 +15,28 @@ package org.openmrs.module.fhir.server;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.narrative.CustomThymeleafNarrativeGenerator;
+import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.ETagSupportEnum;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
 import ca.uhn.fhir.rest.server.IResourceProvider;
 import ca.uhn.fhir.rest.server.RestfulServer;
 import ca.uhn.fhir.rest.server.interceptor.LoggingInterceptor;
 import ca.uhn.fhir.rest.server.interceptor.ResponseHighlighterInterceptor;
 import org.hl7.fhir.dstu3.hapi.rest.server.ServerCapabilityStatementProvider;
 import org.openmrs.module.fhir.addressstrategy.OpenMRSFHIRRequestAddressStrategy;
+import org.openmrs.module.fhir.api.manager.FHIRContextFactory;
+import org.openmrs.module.fhir.api.util.FHIRSummaryContext;
 import org.openmrs.module.fhir.api.util.FHIRUtils;
+import org.openmrs.module.fhir.interceptor.ConditionalReadInterceptor;
+import org.openmrs.module.fhir.interceptor.InboundValidationInterceptor;
+import org.openmrs.module.fhir.interceptor.IncludeInterceptor;
+import org.openmrs.module.fhir.interceptor.MetricsInterceptor;
+import org.openmrs.module.fhir.metrics.CountingHttpServletResponse;
+import org.openmrs.module.fhir.metrics.FHIRMetrics;
 import org.openmrs.module.fhir.providers.RestfulAllergyIntoleranceResourceProvider;
+import org.openmrs.module.fhir.providers.RestfulBulkExportProvider;
+import org.openmrs.module.fhir.providers.RestfulBundleResourceProvider;
 import org.openmrs.module.fhir.providers.RestfulConditionResourceProvider;
 import org.openmrs.module.fhir.providers.RestfulDiagnosticReportResourceProvider;
 import org.openmrs.module.fhir.providers.RestfulEncounterResourceProvider;
@@ -40,6 +53,10 @@ import org.openmrs.module.fhir.providers.RestfulProcedureRequestResourceProvider
 import org.openmrs.module.fhir.providers.RestfulRelatedPersonProvider;
 import org.openmrs.module.fhir.util.FHIROmodConstants;
 
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -73,18 +90,26 @@ public class FHIRRESTServer extends RestfulServer {
 		resourceProviders.add(new RestfulPersonResourceProvider());
 		resourceProviders.add(new RestfulRelatedPersonProvider());
 		resourceProviders.add(new RestfulGroupResourceProvider());
-		this.setFhirContext(FhirContext.forDstu3());
+		this.setFhirContext(createFhirContext());
 		setResourceProviders(resourceProviders);
+		setPlainProviders(new RestfulBundleResourceProvider(), new RestfulBulkExportProvider());
 		setServerName(FHIROmodConstants.OPENMRS_FHIR_SERVER_NAME);
 		setServerVersion(FHIROmodConstants.OPENMRS_FHIR_SERVER_VERSION);
 		setImplementationDescription(FHIROmodConstants.OPENMRS_FHIR_SERVER_DES);
 		setDefaultPrettyPrint(true);
 		setDefaultResponseEncoding(EncodingEnum.JSON);
-		if (FHIRUtils.isCustomNarrativesEnabled()) {
-			String propFile = FHIRUtils.getCustomNarrativesPropertyPath();
-			CustomThymeleafNarrativeGenerator generator = new CustomThymeleafNarrativeGenerator(propFile);
-			getFhirContext().setNarrativeGenerator(generator);
-		}
+		setETagSupport(ETagSupportEnum.ENABLED);
+		FifoMemoryPagingProvider pagingProvider = new FifoMemoryPagingProvider(FHIROmodConstants.PAGING_PROVIDER_SIZE);
+		pagingProvider.setDefaultPageSize(FHIRUtils.getDefaultPageSize());
+		pagingProvider.setMaximumPageSize(FHIRUtils.getMaximumPageSize());
+		setPagingProvider(pagingProvider);
+		// resolve includes before the metrics are taken, so their loading counts as handling time
+		registerInterceptor(new IncludeInterceptor());
+		registerInterceptor(new MetricsInterceptor());
+		FHIRMetrics.registerMBean();
+		// after the metrics, so the conditional reads it answers itself are recorded with their start time
+		registerInterceptor(new ConditionalReadInterceptor());
+		registerInterceptor(new InboundValidationInterceptor());
 		ResponseHighlighterInterceptor responseHighlighter = new ResponseHighlighterInterceptor();
 		registerInterceptor(responseHighlighter);
 		LoggingInterceptor loggingInterceptor = new LoggingInterceptor();
@@ -99,6 +124,44 @@ public class FHIRRESTServer extends RestfulServer {
 		provider.setRestfulServer(this);
 	}
 
+	/**
+	 * The narrative generator is a setting of the context, so with custom narratives the server gets a
+	 * context of its own, otherwise they would also end up in what the clients, the bulk export and
+	 * the resource comparison encode with the shared context
+	 */
+	private FhirContext createFhirContext() {
+		if (!FHIRUtils.isCustomNarrativesEnabled()) {
+			return FHIRContextFactory.getFHIRContext();
+		}
+		FhirContext serverContext = FHIRContextFactory.createFHIRContext();
+		serverContext.setNarrativeGenerator(new CustomThymeleafNarrativeGenerator(
+				FHIRUtils.getCustomNarrativesPropertyPath()));
+		return serverContext;
+	}
+
+	/**
+	 * Counts the bytes written for each response, so their size can be recorded by the
+	 * {@link MetricsInterceptor}, and lets the converters know about the _summary and _elements
+	 * parameters, so they do not build the parts which are left out of the response
+	 */
+	@Override
+	protected void service(HttpServletRequest theReq, HttpServletResponse theResp) throws ServletException, IOException {
+		FHIRSummaryContext.set(theReq.getParameter(Constants.PARAM_SUMMARY),
+				theReq.getParameterValues(Constants.PARAM_ELEMENTS));
+		try {
+			super.service(theReq, new CountingHttpServletResponse(theResp));
+		}
+		finally {
+			FHIRSummaryContext.clear();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		FHIRMetrics.unregisterMBean();
+		super.destroy();
+	}
+
 	protected String getRequestPath(String requestFullPath, String servletContextPath, String servletPath) {
 		return requestFullPath.substring(escapedLength(servletContextPath) + escapedLength(servletPath) + escapedLength(
 				MODULE_SERVELET_PREFIX));
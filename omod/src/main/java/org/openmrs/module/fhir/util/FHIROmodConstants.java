@@ -38,4 +38,14 @@ public class FHIROmodConstants {
 	public static final String ATTACHMENT_FILENAME = "attachment; filename=";
 
 	public static final String LANGUAGE = "language";
+
+	public static final int PAGING_PROVIDER_SIZE = 100;
+
+	public static final String VIEW_ADMIN_FUNCTIONS_PRIVILEGE = "View Administration Functions";
+
+	public static final String EXPORT_POLL_STATUS_OPERATION = "$export-poll-status";
+
+	public static final String EXPORT_DOWNLOAD_OPERATION = "$export-download";
+
+	public static final int EXPORT_RETRY_AFTER_SECONDS = 10;
 }
@@ -0,0 +1,50 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.web.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.fhir.metrics.FHIRMetrics;
+import org.openmrs.module.fhir.util.FHIROmodConstants;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Returns the FHIR server metrics as JSON, for administrators and monitoring tools which do not use
+ * JMX
+ */
+@Controller
+public class FHIRMetricsController {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@RequestMapping(value = "/module/fhir/metrics.json", method = RequestMethod.GET)
+	public void getMetrics(HttpServletResponse response) throws IOException {
+		Context.requirePrivilege(FHIROmodConstants.VIEW_ADMIN_FUNCTIONS_PRIVILEGE);
+		response.setContentType("application/json");
+		response.setCharacterEncoding("UTF-8");
+		objectMapper.writeValue(response.getWriter(), FHIRMetrics.getInstance());
+	}
+
+	@RequestMapping(value = "/module/fhir/metrics.json", method = RequestMethod.DELETE)
+	public void resetMetrics(HttpServletResponse response) {
+		Context.requirePrivilege(FHIROmodConstants.VIEW_ADMIN_FUNCTIONS_PRIVILEGE);
+		FHIRMetrics.getInstance().reset();
+		response.setStatus(HttpServletResponse.SC_NO_CONTENT);
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import org.hl7.fhir.dstu3.model.IdType;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.module.fhir.metrics.FHIRMetrics;
+import org.openmrs.module.fhir.metrics.OperationMetrics;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ConditionalReadInterceptorTest {
+
+	private static final Date LAST_UPDATED = new Date(1000000L);
+
+	private RestfulServer server;
+
+	@Before
+	public void setUp() throws Exception {
+		FHIRMetrics.getInstance().reset();
+		server = new RestfulServer(FhirContext.forDstu3());
+		server.setResourceProviders(new PatientProvider());
+		server.registerInterceptor(new MetricsInterceptor());
+		server.registerInterceptor(new ConditionalReadInterceptor() {
+
+			@Override
+			protected Date getLastUpdated(String resourceName, String uuid) {
+				return LAST_UPDATED;
+			}
+		});
+		server.init(new MockServletConfig());
+	}
+
+	@Test
+	public void incomingRequestPostProcessed_shouldRecordNotModifiedReadsInMetrics() throws Exception {
+		MockHttpServletResponse response = read("*");
+
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+		assertEquals(1, getOperation("Patient read").getRequestCount());
+	}
+
+	@Test
+	public void incomingRequestPostProcessed_shouldLeaveModifiedReadsToTheProvider() throws Exception {
+		MockHttpServletResponse response = read("W/\"other\"");
+
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertEquals(1, getOperation("Patient read").getRequestCount());
+	}
+
+	private MockHttpServletResponse read(String ifNoneMatch) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/Patient/a1b2c3");
+		request.addHeader("If-None-Match", ifNoneMatch);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		server.service(request, response);
+		return response;
+	}
+
+	private OperationMetrics getOperation(String name) {
+		for (OperationMetrics operation : FHIRMetrics.getInstance().getOperations()) {
+			if (operation.getName().equals(name)) {
+				return operation;
+			}
+		}
+		fail("No metrics for " + name);
+		return null;
+	}
+
+	public static class PatientProvider implements IResourceProvider {
+
+		@Override
+		public Class<Patient> getResourceType() {
+			return Patient.class;
+		}
+
+		@Read
+		public Patient read(@IdParam IdType id) {
+			Patient patient = new Patient();
+			patient.setId(id.getIdPart());
+			return patient;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.interceptor;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.api.Include;
+import ca.uhn.fhir.rest.annotation.IncludeParam;
+import ca.uhn.fhir.rest.annotation.RequiredParam;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.TokenParam;
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.RestfulServer;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Observation;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.Before;
+import org.junit.Test;
+import org.openmrs.module.fhir.api.search.IncludeResolver;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletConfig;
+
+import javax.servlet.http.HttpServletResponse;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class IncludeInterceptorTest {
+
+	private static final String SUBJECT_INCLUDE = "_include=" + IncludeResolver.OBSERVATION_SUBJECT;
+
+	private static final String PROVENANCE_REVINCLUDE = "_revinclude=Provenance:target";
+
+	private RestfulServer server;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new RestfulServer(FhirContext.forDstu3());
+		server.setResourceProviders(new ObservationProvider());
+		server.setDefaultResponseEncoding(EncodingEnum.JSON);
+		FifoMemoryPagingProvider pagingProvider = new FifoMemoryPagingProvider(10);
+		pagingProvider.setDefaultPageSize(2);
+		server.setPagingProvider(pagingProvider);
+		server.registerInterceptor(new IncludeInterceptor() {
+
+			@Override
+			protected IncludeResolver createIncludeResolver(List<String> includes, List<String> revIncludes) {
+				return new SubjectResolver(includes, revIncludes);
+			}
+		});
+		server.init(new MockServletConfig());
+	}
+
+	@Test
+	public void outgoingResponse_shouldAddIncludesToEveryPage() throws Exception {
+		Bundle first = search("/Observation?code=1234&" + SUBJECT_INCLUDE + "&" + PROVENANCE_REVINCLUDE);
+
+		assertEquals(3, first.getTotal());
+		assertEquals(4, first.getEntry().size());
+		assertIncluded(first, "subject-obs-1");
+		assertIncluded(first, "subject-obs-2");
+		String next = first.getLink(Constants.LINK_NEXT).getUrl();
+		assertTrue(next, URLDecoder.decode(next, "UTF-8").contains(SUBJECT_INCLUDE));
+		assertTrue(next, URLDecoder.decode(next, "UTF-8").contains(PROVENANCE_REVINCLUDE));
+
+		Bundle second = search("/" + next.substring(next.indexOf('?')));
+
+		assertEquals(2, second.getEntry().size());
+		assertIncluded(second, "subject-obs-3");
+		String previous = second.getLink(Constants.LINK_PREVIOUS).getUrl();
+		assertTrue(previous, URLDecoder.decode(previous, "UTF-8").contains(PROVENANCE_REVINCLUDE));
+	}
+
+	private Bundle search(String pathAndQuery) throws Exception {
+		int separator = pathAndQuery.indexOf('?');
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", pathAndQuery.substring(0, separator));
+		String query = pathAndQuery.substring(separator + 1);
+		request.setQueryString(query);
+		for (String parameter : query.split("&")) {
+			String[] nameAndValue = parameter.split("=", 2);
+			request.addParameter(URLDecoder.decode(nameAndValue[0], "UTF-8"), URLDecoder.decode(nameAndValue[1], "UTF-8"));
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		server.service(request, response);
+		assertEquals(response.getContentAsString(), HttpServletResponse.SC_OK, response.getStatus());
+		return server.getFhirContext().newJsonParser().parseResource(Bundle.class, response.getContentAsString());
+	}
+
+	private void assertIncluded(Bundle bundle, String id) {
+		for (Bundle.BundleEntryComponent entry : bundle.getEntry()) {
+			if (entry.getResource().getIdElement().getIdPart().equals(id)) {
+				assertEquals(Bundle.SearchEntryMode.INCLUDE, entry.getSearch().getMode());
+				return;
+			}
+		}
+		fail("Not included: " + id);
+	}
+
+	public static class ObservationProvider implements IResourceProvider {
+
+		@Override
+		public Class<Observation> getResourceType() {
+			return Observation.class;
+		}
+
+		@Search
+		public IBundleProvider findObsByCode(@RequiredParam(name = Observation.SP_CODE) TokenParam code,
+				@IncludeParam Set<Include> includes, @IncludeParam(reverse = true) Set<Include> revIncludes) {
+			List<IBaseResource> observations = new ArrayList<>();
+			for (int i = 1; i <= 3; i++) {
+				Observation observation = new Observation();
+				observation.setId("obs-" + i);
+				observation.getSubject().setReference("Patient/subject-obs-" + i);
+				observations.add(observation);
+			}
+			return new SimpleBundleProvider(observations);
+		}
+	}
+
+	/**
+	 * Includes a patient for each observation without looking it up
+	 */
+	private static class SubjectResolver extends IncludeResolver {
+
+		public SubjectResolver(List<String> includes, List<String> revIncludes) {
+			super(includes, revIncludes, 10);
+		}
+
+		@Override
+		public List<IBaseResource> resolve(List<IBaseResource> matches) {
+			List<IBaseResource> included = new ArrayList<>();
+			for (IBaseResource match : matches) {
+				Patient patient = new Patient();
+				patient.setId("subject-" + match.getIdElement().getIdPart());
+				included.add(patient);
+			}
+			return included;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * The contents of this file are subject to the OpenMRS Public License
+ * Version 1.0 (the "License"); you may not use this file except in
+ * compliance with the License. You may obtain a copy of the License at
+ * http://license.openmrs.org
+ *
+ * Software distributed under the License is distributed on an "AS IS"
+ * basis, WITHOUT WARRANTY OF ANY KIND, either express or implied. See the
+ * License for the specific language governing rights and limitations
+ * under the License.
+ *
+ * Copyright (C) OpenMRS, LLC.  All Rights Reserved.
+ */
+package org.openmrs.module.fhir.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class OperationMetricsTest {
+
+	@Test
+	public void record_shouldComputeCountsAndPercentiles() {
+		OperationMetrics metrics = new OperationMetrics("Patient read");
+		for (int i = 0; i < 98; i++) {
+			metrics.record(TimeUnit.MILLISECONDS.toNanos(3), TimeUnit.MILLISECONDS.toNanos(2),
+					TimeUnit.MILLISECONDS.toNanos(1), 100, false);
+		}
+		metrics.record(TimeUnit.MILLISECONDS.toNanos(80), 0, 0, 100, false);
+		metrics.record(TimeUnit.MILLISECONDS.toNanos(700), 0, 0, 100, true);
+
+		assertEquals(100, metrics.getRequestCount());
+		assertEquals(1, metrics.getErrorCount());
+		assertEquals(5, metrics.getP50Millis());
+		assertEquals(5, metrics.getP95Millis());
+		assertEquals(100, metrics.getP99Millis());
+		assertEquals(700, metrics.getMaxMillis());
+		assertEquals(100, metrics.getMeanResponseBytes());
+		assertEquals(196, metrics.getHandlingMillis());
+		assertEquals(98, metrics.getSerializationMillis());
+	}
+}